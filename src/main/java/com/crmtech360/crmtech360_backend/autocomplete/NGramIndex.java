@@ -0,0 +1,336 @@
+package com.crmtech360.crmtech360_backend.autocomplete;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de n-gramas en memoria para autocompletado. Cada documento (identificado por el ID entero de su
+ * entidad) se divide en palabras normalizadas (minúsculas, sin tildes) y cada palabra, precedida de la marca de
+ * inicio {@code ^}, en trigramas; además se indexa el bigrama inicial ({@code ^c}) para las búsquedas de un solo
+ * carácter. Las listas de IDs de cada n-grama son arrays de {@code int} ordenados, sin objetos por entrada.
+ * <p>
+ * Una palabra buscada de menos de tres caracteres se busca como prefijo de alguna palabra del documento (n-gramas
+ * con la marca de inicio); a partir de tres caracteres también como subcadena (n-gramas sin la marca). Los
+ * candidatos salen de intersecar las listas de todos los n-gramas buscados y después se verifican palabra a palabra.
+ * Lecturas concurrentes con un {@link ReentrantReadWriteLock}; las escrituras (una entidad cada vez) son raras.
+ */
+final class NGramIndex {
+
+    private static final char INICIO = '^';
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    // Puntos por palabra buscada según cómo coincide con la mejor palabra del documento.
+    private static final int EXACTA = 3;
+    private static final int PREFIJO = 2;
+    private static final int SUBCADENA = 1;
+
+    record Documento(int id, String titulo, String detalle, String[] palabras) {
+    }
+
+    record Resultado(Documento documento, double puntuacion) {
+    }
+
+    // Orden de la cola de mejores resultados: puntuación, después título más corto y después ID menor.
+    private static final Comparator<Resultado> PEOR_PRIMERO = (a, b) -> {
+        if (a.puntuacion() != b.puntuacion()) {
+            return Double.compare(a.puntuacion(), b.puntuacion());
+        }
+        int longitud = Integer.compare(b.documento().titulo().length(), a.documento().titulo().length());
+        return longitud != 0 ? longitud : Integer.compare(b.documento().id(), a.documento().id());
+    };
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, Documento> documentos = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Añade o reemplaza el documento {@code id}. {@code campos} son los textos indexados (los nulos se ignoran).
+     */
+    void put(int id, String titulo, String detalle, String... campos) {
+        Set<String> palabras = new LinkedHashSet<>();
+        for (String campo : campos) {
+            palabras.addAll(palabras(campo));
+        }
+        Documento documento = new Documento(id, titulo, detalle, palabras.toArray(String[]::new));
+        lock.writeLock().lock();
+        try {
+            eliminar(id);
+            documentos.put(id, documento);
+            for (String gram : gramsDocumento(documento.palabras())) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            eliminar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Libera la capacidad sobrante de las listas tras la carga inicial.
+     */
+    void compact() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(Postings::trim);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve hasta {@code limite} documentos que contienen todas las palabras de {@code texto}, de mayor a menor
+     * puntuación (0-1), luego por título más corto y por ID. Se verifican como mucho {@code maxCandidatos}
+     * candidatos, en orden de ID: con textos muy cortos y poco selectivos el resultado es parcial pero acotado.
+     */
+    List<Resultado> search(String texto, int limite, int maxCandidatos) {
+        List<String> consulta = palabras(texto);
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (String palabra : consulta) {
+            grams.addAll(gramsConsulta(palabra));
+        }
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, PEOR_PRIMERO);
+        lock.readLock().lock();
+        try {
+            int[] candidatos = intersect(grams, maxCandidatos);
+            for (int id : candidatos) {
+                Documento documento = documentos.get(id);
+                int puntos = puntuar(consulta, documento.palabras());
+                if (puntos == 0) {
+                    continue;
+                }
+                double puntuacion = (double) puntos / (EXACTA * consulta.size());
+                // Solo se crea el resultado si entra entre los mejores.
+                if (mejores.size() < limite || esMejor(puntuacion, documento, mejores.peek())) {
+                    mejores.add(new Resultado(documento, puntuacion));
+                    if (mejores.size() > limite) {
+                        mejores.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Resultado> resultado = new ArrayList<>(mejores);
+        resultado.sort(PEOR_PRIMERO.reversed());
+        return resultado;
+    }
+
+    static List<String> palabras(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARADORES.split(normalizado)).filter(p -> !p.isEmpty()).toList();
+    }
+
+    private void eliminar(int id) {
+        Documento anterior = documentos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String gram : gramsDocumento(anterior.palabras())) {
+            Postings lista = postings.get(gram);
+            if (lista != null && lista.remove(id) && lista.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> gramsDocumento(String[] palabras) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String palabra : palabras) {
+            String marcada = INICIO + palabra;
+            grams.add(marcada.substring(0, 2));
+            for (int i = 0; i + 3 <= marcada.length(); i++) {
+                grams.add(marcada.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> gramsConsulta(String palabra) {
+        if (palabra.length() < 3) {
+            String marcada = INICIO + palabra;
+            return List.of(marcada.length() == 2 ? marcada : marcada.substring(0, 3));
+        }
+        List<String> grams = new ArrayList<>(palabra.length() - 2);
+        for (int i = 0; i + 3 <= palabra.length(); i++) {
+            grams.add(palabra.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static boolean esMejor(double puntuacion, Documento documento, Resultado peor) {
+        if (puntuacion != peor.puntuacion()) {
+            return puntuacion > peor.puntuacion();
+        }
+        int longitud = documento.titulo().length();
+        int longitudPeor = peor.documento().titulo().length();
+        return longitud != longitudPeor ? longitud < longitudPeor : documento.id() < peor.documento().id();
+    }
+
+    /*
+     * Intersección de las listas de los n-gramas "a saltos": el candidato es el mayor ID visto y cada lista avanza
+     * hasta él con búsqueda exponencial, así que los tramos sin coincidencias se saltan en todas las listas a la vez.
+     * Se detiene al reunir 'maximo' candidatos: con textos poco selectivos no se recorren listas de decenas de miles.
+     */
+    private int[] intersect(Set<String> grams, int maximo) {
+        Postings[] listas = new Postings[grams.size()];
+        int n = 0;
+        for (String gram : grams) {
+            Postings lista = postings.get(gram);
+            if (lista == null || lista.size == 0) {
+                return new int[0];
+            }
+            listas[n++] = lista;
+        }
+        Arrays.sort(listas, Comparator.comparingInt(p -> p.size));
+        int[] posiciones = new int[listas.length];
+        int[] resultado = new int[Math.min(listas[0].size, maximo)];
+        int total = 0;
+        int candidato = listas[0].ids[0];
+        while (total < resultado.length) {
+            boolean enTodas = true;
+            for (int l = 0; l < listas.length; l++) {
+                int pos = listas[l].seek(posiciones[l], candidato);
+                if (pos >= 0) {
+                    posiciones[l] = pos;
+                    continue;
+                }
+                pos = -pos - 1;
+                if (pos >= listas[l].size) {
+                    return Arrays.copyOf(resultado, total);
+                }
+                posiciones[l] = pos;
+                candidato = listas[l].ids[pos];
+                enTodas = false;
+                break;
+            }
+            if (enTodas) {
+                resultado[total++] = candidato;
+                if (++posiciones[0] >= listas[0].size) {
+                    break;
+                }
+                candidato = listas[0].ids[posiciones[0]];
+            }
+        }
+        return total == resultado.length ? resultado : Arrays.copyOf(resultado, total);
+    }
+
+    private static int puntuar(List<String> consulta, String[] palabras) {
+        int total = 0;
+        for (String buscada : consulta) {
+            int mejor = 0;
+            for (String palabra : palabras) {
+                if (palabra.equals(buscada)) {
+                    mejor = EXACTA;
+                    break;
+                }
+                if (palabra.startsWith(buscada)) {
+                    mejor = Math.max(mejor, PREFIJO);
+                } else if (buscada.length() >= 3 && palabra.contains(buscada)) {
+                    mejor = Math.max(mejor, SUBCADENA);
+                }
+            }
+            if (mejor == 0) {
+                return 0;
+            }
+            total += mejor;
+        }
+        return total;
+    }
+
+    /**
+     * Lista ordenada de IDs de un n-grama. Las altas suelen llegar en orden creciente (carga inicial, secuencias),
+     * así que el caso normal es añadir al final.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    return;
+                }
+                insertAt(-pos - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Como {@link Arrays#binarySearch(int[], int, int, int)} a partir de {@code desde}, pero avanzando primero
+         * a saltos crecientes: barato cuando el ID buscado está cerca de la posición anterior.
+         */
+        int seek(int desde, int id) {
+            int salto = 1;
+            int hasta = desde;
+            while (hasta < size && ids[hasta] < id) {
+                desde = hasta + 1;
+                hasta += salto;
+                salto <<= 1;
+            }
+            return Arrays.binarySearch(ids, desde, Math.min(hasta + 1, size), id);
+        }
+
+        void trim() {
+            if (ids.length > size) {
+                ids = Arrays.copyOf(ids, Math.max(size, 1));
+            }
+        }
+
+        private void insertAt(int pos, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.crmtech360.crmtech360_backend.autocomplete;
+
+import com.crmtech360.crmtech360_backend.entity.Cliente;
+import com.crmtech360.crmtech360_backend.entity.Producto;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA de Producto y Cliente ({@code @EntityListeners}) que mantiene al día el {@link TypeaheadIndex}.
+ * Hibernate lo obtiene del contexto de Spring; el índice se resuelve en cada evento y no en el constructor porque
+ * el listener se crea junto con el EntityManagerFactory, antes que los repositorios de los que depende el índice.
+ * Los cambios se aplican después del commit: una transacción revertida no deja rastro en el índice.
+ */
+@Component
+public class TypeaheadEntityListener {
+
+    private final ObjectProvider<TypeaheadIndex> typeaheadIndex;
+
+    public TypeaheadEntityListener(ObjectProvider<TypeaheadIndex> typeaheadIndex) {
+        this.typeaheadIndex = typeaheadIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        TypeaheadIndex index = typeaheadIndex.getIfAvailable();
+        if (entity instanceof Producto producto && index != null) {
+            despuesDelCommit(index.onSaved(producto));
+        } else if (entity instanceof Cliente cliente && index != null) {
+            despuesDelCommit(index.onSaved(cliente));
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        TypeaheadIndex index = typeaheadIndex.getIfAvailable();
+        if (entity instanceof Producto producto && index != null) {
+            despuesDelCommit(index.onRemoved(producto));
+        } else if (entity instanceof Cliente cliente && index != null) {
+            despuesDelCommit(index.onRemoved(cliente));
+        }
+    }
+
+    private static void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.crmtech360.crmtech360_backend.autocomplete;
+
+import com.crmtech360.crmtech360_backend.dto.SearchEntityType;
+import com.crmtech360.crmtech360_backend.dto.SearchResultDTO;
+import com.crmtech360.crmtech360_backend.entity.Cliente;
+import com.crmtech360.crmtech360_backend.entity.Producto;
+import com.crmtech360.crmtech360_backend.repository.ClienteRepository;
+import com.crmtech360.crmtech360_backend.repository.ProductoRepository;
+import com.crmtech360.crmtech360_backend.repository.projection.ClienteTypeaheadView;
+import com.crmtech360.crmtech360_backend.repository.projection.ProductoTypeaheadView;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Autocompletado en memoria de productos (referencia, nombre, talla y color) y clientes (nombre y documento),
+ * para sugerencias por pulsación sin ir a la base de datos (ver {@link NGramIndex}).
+ * <p>
+ * Se construye al arrancar y se mantiene con {@link TypeaheadEntityListener}, que aplica aquí cada alta,
+ * modificación o baja de Producto/Cliente hecha con JPA en este nodo, después del commit. Los cambios hechos por
+ * otros nodos o con SQL directo solo se ven tras una reconstrucción completa, periódica si
+ * {@code autocompletado.reconstruccion-minutos} es mayor que 0.
+ */
+@Component
+public class TypeaheadIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TypeaheadIndex.class);
+
+    private final ProductoRepository productoRepository;
+    private final ClienteRepository clienteRepository;
+    private final int maxCandidatos;
+    private final long reconstruccionMinutos;
+
+    private volatile NGramIndex productos = new NGramIndex();
+    private volatile NGramIndex clientes = new NGramIndex();
+
+    // Cambios recibidos mientras se reconstruye: se aplican también al índice nuevo antes de publicarlo,
+    // para que no se pierdan los que lleguen después de leer la tabla. Protegido por 'this'.
+    private List<Consumer<Indices>> pendientes;
+
+    private ScheduledExecutorService programador;
+
+    public TypeaheadIndex(ProductoRepository productoRepository, ClienteRepository clienteRepository,
+                          @Value("${autocompletado.max-candidatos:1000}") int maxCandidatos,
+                          @Value("${autocompletado.reconstruccion-minutos:0}") long reconstruccionMinutos) {
+        this.productoRepository = productoRepository;
+        this.clienteRepository = clienteRepository;
+        this.maxCandidatos = maxCandidatos;
+        this.reconstruccionMinutos = reconstruccionMinutos;
+    }
+
+    private record Indices(NGramIndex productos, NGramIndex clientes) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+        if (reconstruccionMinutos > 0) {
+            programador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "typeahead-rebuild");
+                thread.setDaemon(true);
+                return thread;
+            });
+            programador.scheduleWithFixedDelay(this::rebuildSeguro, reconstruccionMinutos, reconstruccionMinutos, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+    }
+
+    /**
+     * Vuelve a leer productos y clientes y sustituye los índices. Las sugerencias siguen sirviéndose del índice
+     * anterior mientras tanto.
+     */
+    public void rebuild() {
+        synchronized (this) {
+            if (pendientes != null) {
+                return; // ya hay una reconstrucción en curso
+            }
+            pendientes = new ArrayList<>();
+        }
+        Indices nuevos;
+        try {
+            long inicio = System.nanoTime();
+            nuevos = new Indices(new NGramIndex(), new NGramIndex());
+            for (ProductoTypeaheadView p : productoRepository.findAllTypeaheadViews()) {
+                indexarProducto(nuevos.productos(), p.idProducto(), p.referenciaProducto(), p.nombreProducto(),
+                        p.tallaProducto(), p.colorProducto());
+            }
+            for (ClienteTypeaheadView c : clienteRepository.findAllTypeaheadViews()) {
+                indexarCliente(nuevos.clientes(), c.idCliente(), c.numeroDocumento(), c.nombreCliente());
+            }
+            nuevos.productos().compact();
+            nuevos.clientes().compact();
+            log.info("Índice de autocompletado construido: {} productos, {} clientes en {} ms.",
+                    nuevos.productos().size(), nuevos.clientes().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendientes = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pendientes.forEach(cambio -> cambio.accept(nuevos));
+            pendientes = null;
+            productos = nuevos.productos();
+            clientes = nuevos.clientes();
+        }
+    }
+
+    /**
+     * Sugerencias para {@code texto} de mayor a menor puntuación. Solo admite PRODUCTO y CLIENTE.
+     */
+    public List<SearchResultDTO> suggest(SearchEntityType tipo, String texto, int limite) {
+        NGramIndex indice = switch (tipo) {
+            case PRODUCTO -> productos;
+            case CLIENTE -> clientes;
+            default -> throw new IllegalArgumentException("El autocompletado no indexa el tipo " + tipo);
+        };
+        return indice.search(texto, limite, maxCandidatos).stream()
+                .map(r -> new SearchResultDTO(tipo, r.documento().id(), r.documento().titulo(), r.documento().detalle(), r.puntuacion()))
+                .toList();
+    }
+
+    /*
+     * Cambios de TypeaheadEntityListener: los valores se copian al recibir el evento (tras el commit la entidad
+     * puede estar desvinculada o haber cambiado) y el Runnable devuelto aplica el cambio en el índice.
+     */
+
+    Runnable onSaved(Producto p) {
+        Integer id = p.getIdProducto();
+        String referencia = p.getReferenciaProducto();
+        String nombre = p.getNombreProducto();
+        String talla = p.getTallaProducto();
+        String color = p.getColorProducto();
+        return () -> aplicar(indices -> indexarProducto(indices.productos(), id, referencia, nombre, talla, color));
+    }
+
+    Runnable onSaved(Cliente c) {
+        Integer id = c.getIdCliente();
+        String documento = c.getNumeroDocumento();
+        String nombre = c.getNombreCliente();
+        return () -> aplicar(indices -> indexarCliente(indices.clientes(), id, documento, nombre));
+    }
+
+    Runnable onRemoved(Producto p) {
+        int id = p.getIdProducto();
+        return () -> aplicar(indices -> indices.productos().remove(id));
+    }
+
+    Runnable onRemoved(Cliente c) {
+        int id = c.getIdCliente();
+        return () -> aplicar(indices -> indices.clientes().remove(id));
+    }
+
+    private synchronized void aplicar(Consumer<Indices> cambio) {
+        cambio.accept(new Indices(productos, clientes));
+        if (pendientes != null) {
+            pendientes.add(cambio);
+        }
+    }
+
+    private void rebuildSeguro() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo reconstruir el índice de autocompletado; se mantiene el anterior.", e);
+        }
+    }
+
+    private static void indexarProducto(NGramIndex indice, int id, String referencia, String nombre, String talla, String color) {
+        String detalle = Stream.of(referencia, talla, color).filter(Objects::nonNull).collect(Collectors.joining(" · "));
+        indice.put(id, Objects.toString(nombre, ""), detalle, referencia, nombre, talla, color);
+    }
+
+    private static void indexarCliente(NGramIndex indice, int id, String documento, String nombre) {
+        indice.put(id, Objects.toString(nombre, ""), documento, nombre, documento);
+    }
+}
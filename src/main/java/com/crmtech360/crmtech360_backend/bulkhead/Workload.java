@@ -0,0 +1,21 @@
+package com.crmtech360.crmtech360_backend.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Clasifica un método de servicio (o todos los de una clase; la anotación del método prevalece) en una
+ * {@link WorkloadClass}. Antes de abrir la transacción, {@link WorkloadBulkheadAspect} reserva un hueco en el
+ * compartimento de esa clase; si no lo consigue dentro de su tiempo de espera, la llamada se rechaza con
+ * {@link WorkloadSaturatedException} (503) sin llegar a pedir una conexión.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+
+    WorkloadClass value();
+}
@@ -0,0 +1,67 @@
+package com.crmtech360.crmtech360_backend.bulkhead;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+/**
+ * Aplica {@link WorkloadBulkheads} a los métodos anotados con {@link Workload} (o de clases anotadas) y a cualquier
+ * otro método público de los servicios, que cuenta en la clase por defecto: un servicio nuevo sin clasificar no
+ * queda fuera de los compartimentos. Se ejecuta
+ * por fuera del interceptor transaccional, de modo que el hueco se reserva antes de pedir la conexión, y justo por
+ * dentro de {@code StockConflictRetryAspect}: cada reintento vuelve a pasar por el compartimento.
+ * <p>
+ * Solo cuenta la llamada más externa: si el hilo ya ocupa un hueco o ya tiene una transacción (y por tanto una
+ * conexión), la llamada anidada no espera otro hueco; esperar con una conexión tomada es justo lo que los
+ * compartimentos deben evitar.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class WorkloadBulkheadAspect {
+
+    private static final ThreadLocal<WorkloadClass> EN_CURSO = new ThreadLocal<>();
+
+    private final WorkloadBulkheads bulkheads;
+
+    public WorkloadBulkheadAspect(WorkloadBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Around("@annotation(com.crmtech360.crmtech360_backend.bulkhead.Workload) "
+            + "|| @within(com.crmtech360.crmtech360_backend.bulkhead.Workload) "
+            + "|| execution(public * com.crmtech360.crmtech360_backend.service.impl.*ServiceImpl.*(..))")
+    public Object compartimentar(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!bulkheads.isHabilitado() || EN_CURSO.get() != null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        WorkloadClass clase = clase(joinPoint);
+        bulkheads.adquirir(clase, joinPoint.getSignature().toShortString());
+        EN_CURSO.set(clase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            EN_CURSO.remove();
+            bulkheads.liberar(clase);
+        }
+    }
+
+    private WorkloadClass clase(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(method, Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(targetClass, Workload.class);
+        }
+        return workload != null ? workload.value() : bulkheads.getClasePorDefecto();
+    }
+}
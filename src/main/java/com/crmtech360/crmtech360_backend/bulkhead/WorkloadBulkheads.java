@@ -0,0 +1,164 @@
+package com.crmtech360.crmtech360_backend.bulkhead;
+
+import com.crmtech360.crmtech360_backend.dto.BulkheadStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compartimentos (bulkheads) delante del pool de conexiones, uno por {@link WorkloadClass}: un semáforo con
+ * {@code bulkhead.<clase>.max-concurrentes} huecos y una espera máxima de {@code bulkhead.<clase>.espera-ms} para
+ * conseguir uno. Así un informe lento o una exportación grande solo pueden ocupar las conexiones de su
+ * compartimento, y las escrituras OLTP siempre encuentran conexión libre porque la suma de los huecos de las tres
+ * clases no puede superar el tamaño del pool del primario: si lo supera, la aplicación no arranca.
+ * <p>
+ * La garantía cubre todos los métodos públicos de los servicios ({@link WorkloadBulkheadAspect}); los que no
+ * declaran {@link Workload} cuentan en {@code bulkhead.clase-por-defecto}. Quedan fuera las reconstrucciones en
+ * segundo plano de las instantáneas en memoria, que usan una conexión cada una durante poco tiempo; para ellas
+ * conviene dejar algún hueco libre.
+ * <p>
+ * Cada compartimento lleva sus contadores de saturación (en curso, en espera, pico, admitidas, rechazadas y
+ * espera media) para {@code GET /api/v1/bulkheads/estadisticas}.
+ */
+@Component
+public class WorkloadBulkheads {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkloadBulkheads.class);
+
+    private static final Map<WorkloadClass, Integer> MAX_CONCURRENTES_POR_DEFECTO = Map.of(
+            WorkloadClass.OLTP, 5, WorkloadClass.INTERACTIVO, 3, WorkloadClass.INFORMES, 1);
+    private static final Map<WorkloadClass, Long> ESPERA_MS_POR_DEFECTO = Map.of(
+            WorkloadClass.OLTP, 2000L, WorkloadClass.INTERACTIVO, 500L, WorkloadClass.INFORMES, 5000L);
+
+    private final boolean habilitado;
+    private final WorkloadClass clasePorDefecto;
+    private final Map<WorkloadClass, Compartimento> compartimentos = new EnumMap<>(WorkloadClass.class);
+
+    public WorkloadBulkheads(Environment environment) {
+        this.habilitado = environment.getProperty("bulkhead.enabled", Boolean.class, true);
+        this.clasePorDefecto = environment.getProperty("bulkhead.clase-por-defecto", WorkloadClass.class, WorkloadClass.OLTP);
+        for (WorkloadClass clase : WorkloadClass.values()) {
+            String prefijo = "bulkhead." + clase.name().toLowerCase(Locale.ROOT) + ".";
+            int maxConcurrentes = environment.getProperty(prefijo + "max-concurrentes", Integer.class,
+                    MAX_CONCURRENTES_POR_DEFECTO.get(clase));
+            long esperaMs = environment.getProperty(prefijo + "espera-ms", Long.class, ESPERA_MS_POR_DEFECTO.get(clase));
+            compartimentos.put(clase, new Compartimento(clase, maxConcurrentes, esperaMs));
+        }
+        if (habilitado) {
+            validarContraPool(environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+            log.info("Compartimentos de carga: {}.", Arrays.stream(WorkloadClass.values())
+                    .map(c -> c + "=" + compartimentos.get(c).maxConcurrentes + " (espera " + compartimentos.get(c).esperaMs + " ms)")
+                    .toList());
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Clase de los métodos de servicio que no declaran {@link Workload}.
+     */
+    public WorkloadClass getClasePorDefecto() {
+        return clasePorDefecto;
+    }
+
+    private void validarContraPool(int tamanoPool) {
+        int total = compartimentos.values().stream().mapToInt(c -> c.maxConcurrentes).sum();
+        if (total > tamanoPool) {
+            throw new IllegalStateException("Los compartimentos de carga suman " + total + " huecos ("
+                    + Arrays.stream(WorkloadClass.values()).map(c -> c + "=" + compartimentos.get(c).maxConcurrentes).toList()
+                    + ") y el pool de conexiones solo tiene " + tamanoPool + ": reduzca bulkhead.<clase>.max-concurrentes "
+                    + "o aumente spring.datasource.hikari.maximum-pool-size.");
+        }
+    }
+
+    /**
+     * Reserva un hueco en el compartimento de {@code clase}, esperando como mucho su tiempo máximo.
+     *
+     * @throws WorkloadSaturatedException si no se consigue a tiempo
+     */
+    public void adquirir(WorkloadClass clase, String operacion) {
+        compartimentos.get(clase).adquirir(operacion);
+    }
+
+    public void liberar(WorkloadClass clase) {
+        compartimentos.get(clase).liberar();
+    }
+
+    public List<BulkheadStatsDTO> estadisticas() {
+        return compartimentos.values().stream().map(Compartimento::estadisticas).toList();
+    }
+
+    private static final class Compartimento {
+        private final WorkloadClass clase;
+        private final int maxConcurrentes;
+        private final long esperaMs;
+        private final Semaphore huecos;
+
+        private final AtomicInteger enCurso = new AtomicInteger();
+        private final AtomicInteger enEspera = new AtomicInteger();
+        private final AtomicInteger picoEnCurso = new AtomicInteger();
+        private final LongAdder admitidas = new LongAdder();
+        private final LongAdder rechazadas = new LongAdder();
+        private final LongAdder esperaTotalNanos = new LongAdder();
+
+        Compartimento(WorkloadClass clase, int maxConcurrentes, long esperaMs) {
+            this.clase = clase;
+            this.maxConcurrentes = maxConcurrentes;
+            this.esperaMs = esperaMs;
+            // Justo: con el compartimento lleno, los huecos se entregan por orden de llegada.
+            this.huecos = new Semaphore(maxConcurrentes, true);
+        }
+
+        void adquirir(String operacion) {
+            long inicio = System.nanoTime();
+            boolean adquirido = huecos.tryAcquire();
+            if (!adquirido) {
+                enEspera.incrementAndGet();
+                try {
+                    adquirido = huecos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    enEspera.decrementAndGet();
+                }
+            }
+            esperaTotalNanos.add(System.nanoTime() - inicio);
+            if (!adquirido) {
+                rechazadas.increment();
+                log.warn("Compartimento {} saturado ({} en curso, {} en espera): se rechaza {} tras {} ms.",
+                        clase, enCurso.get(), enEspera.get(), operacion, esperaMs);
+                throw new WorkloadSaturatedException(clase,
+                        "El servicio está saturado en este momento. Intente de nuevo en unos segundos.");
+            }
+            admitidas.increment();
+            picoEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+        }
+
+        void liberar() {
+            enCurso.decrementAndGet();
+            huecos.release();
+        }
+
+        BulkheadStatsDTO estadisticas() {
+            long admitidasTotal = admitidas.sum();
+            long rechazadasTotal = rechazadas.sum();
+            long intentos = admitidasTotal + rechazadasTotal;
+            double esperaMediaMs = intentos == 0 ? 0.0 : esperaTotalNanos.sum() / 1_000_000.0 / intentos;
+            return new BulkheadStatsDTO(clase.name(), maxConcurrentes, esperaMs, enCurso.get(), enEspera.get(),
+                    picoEnCurso.get(), admitidasTotal, rechazadasTotal, esperaMediaMs);
+        }
+    }
+}
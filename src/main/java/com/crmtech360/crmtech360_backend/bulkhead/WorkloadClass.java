@@ -0,0 +1,14 @@
+package com.crmtech360.crmtech360_backend.bulkhead;
+
+/**
+ * Clases de carga que comparten el pool de conexiones, cada una con su propio compartimento (ver
+ * {@link WorkloadBulkheads}). Sus límites se configuran con {@code bulkhead.<clase en minúsculas>.*}.
+ */
+public enum WorkloadClass {
+    /** Escrituras transaccionales cortas de las que depende la operación diaria: órdenes, cobros, movimientos. */
+    OLTP,
+    /** Lecturas que un usuario espera en pantalla: detalles, listados paginados, stock actual. */
+    INTERACTIVO,
+    /** Consultas largas o de gran volumen (históricos, exportaciones, lotes): pueden esperar, pero no acaparar. */
+    INFORMES
+}
@@ -0,0 +1,21 @@
+package com.crmtech360.crmtech360_backend.bulkhead;
+
+/**
+ * El compartimento de una clase de carga está lleno y la espera ha superado su máximo. Se responde 503 con
+ * Retry-After en lugar de dejar la petición esperando una conexión.
+ */
+public class WorkloadSaturatedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final WorkloadClass clase;
+
+    public WorkloadSaturatedException(WorkloadClass clase, String message) {
+        super(message);
+        this.clase = clase;
+    }
+
+    public WorkloadClass getClase() {
+        return clase;
+    }
+}
@@ -0,0 +1,67 @@
+package com.crmtech360.crmtech360_backend.cache;
+
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Publica un {@code NOTIFY} de PostgreSQL por cada alta, modificación o baja de una entidad cacheada en la caché
+ * de segundo nivel, para que los demás nodos la invaliden (ver {@link DistributedCacheInvalidator}).
+ * El {@code pg_notify} se ejecuta en la misma transacción justo antes del commit: PostgreSQL solo entrega la
+ * notificación si la transacción confirma, y descarta los duplicados dentro de una misma transacción.
+ * Payload: {@code nodo|entidad|id}, con id {@code *} cuando no es un entero (IDs compuestos).
+ */
+class CacheInvalidationEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String TODOS = "*";
+
+    private final String canal;
+    private final String nodeId;
+
+    CacheInvalidationEventListener(String canal, String nodeId) {
+        this.canal = canal;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        registrar(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        registrar(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        registrar(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void registrar(EventSource session, EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        String payload = nodeId + "|" + persister.getEntityName() + "|" + (id instanceof Integer ? id : TODOS);
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s -> s.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                ps.setString(1, canal);
+                ps.setString(2, payload);
+                ps.execute();
+            }
+        }));
+    }
+}
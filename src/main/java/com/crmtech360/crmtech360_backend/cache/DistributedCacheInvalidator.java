@@ -0,0 +1,117 @@
+package com.crmtech360.crmtech360_backend.cache;
+
+import com.crmtech360.crmtech360_backend.datasource.PgChannelListener;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Mantiene coherente la caché de segundo nivel (en memoria de cada nodo) cuando hay varias instancias de la aplicación.
+ * Cada nodo publica sus cambios con {@link CacheInvalidationEventListener} y escucha el mismo canal con
+ * {@code LISTEN} ({@link PgChannelListener}): al recibir un cambio de otro nodo expulsa la entidad,
+ * las colecciones y los resultados de consultas cacheados. Si la conexión se pierde, al reconectar se vacía toda la
+ * caché, porque las notificaciones emitidas mientras tanto no se reciben. Con una sola instancia no hace falta,
+ * pero tampoco molesta: los mensajes propios se ignoran.
+ * Solo se activa con PostgreSQL; en cualquier otro caso los TTL de ehcache.xml son el único límite de desactualización.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidacion.enabled", havingValue = "true")
+public class DistributedCacheInvalidator implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DistributedCacheInvalidator.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final DataSourceProperties dataSourceProperties;
+    private final String canal;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private PgChannelListener channelListener;
+
+    public DistributedCacheInvalidator(EntityManagerFactory entityManagerFactory, DataSourceProperties dataSourceProperties,
+                                       @Value("${cache.invalidacion.canal:l2_cache_invalidation}") String canal) {
+        if (!PgChannelListener.esCanalValido(canal)) {
+            throw new IllegalStateException("Nombre de canal de invalidación inválido: " + canal);
+        }
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.dataSourceProperties = dataSourceProperties;
+        this.canal = canal;
+    }
+
+    @Override
+    public void start() {
+        if (!(sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect)) {
+            log.info("Invalidación de caché entre nodos desactivada: la base de datos no es PostgreSQL.");
+            return;
+        }
+        CacheInvalidationEventListener listener = new CacheInvalidationEventListener(canal, nodeId);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        registry.getEventListenerGroup(EventType.POST_INSERT).appendListener(listener);
+        registry.getEventListenerGroup(EventType.POST_UPDATE).appendListener(listener);
+        registry.getEventListenerGroup(EventType.POST_DELETE).appendListener(listener);
+
+        running = true;
+        channelListener = new PgChannelListener(dataSourceProperties, canal, "l2-cache-invalidation", this::aplicar, reconexion -> {
+            if (reconexion) {
+                // Lo que haya cambiado mientras no escuchábamos no se va a notificar.
+                sessionFactory.getCache().evictAllRegions();
+                log.warn("Conexión de invalidación de caché restablecida; caché de segundo nivel vaciada.");
+            }
+        });
+        channelListener.start();
+        log.info("Invalidación de caché entre nodos activa en el canal '{}' (nodo {}).", canal, nodeId);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (channelListener != null) {
+            channelListener.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void aplicar(String payload) {
+        String[] partes = payload.split("\\|", 3);
+        if (partes.length != 3) {
+            log.warn("Notificación de invalidación de caché con formato inválido: {}", payload);
+            return;
+        }
+        if (partes[0].equals(nodeId)) {
+            return;
+        }
+        Cache cache = sessionFactory.getCache();
+        String entidad = partes[1];
+        if (sessionFactory.getMappingMetamodel().findEntityDescriptor(entidad) == null) {
+            cache.evictAllRegions();
+        } else if (CacheInvalidationEventListener.TODOS.equals(partes[2])) {
+            cache.evictEntityData(entidad);
+        } else {
+            try {
+                cache.evictEntityData(entidad, Integer.valueOf(partes[2]));
+            } catch (NumberFormatException e) {
+                cache.evictEntityData(entidad);
+            }
+        }
+        // Un alta o baja cambia las colecciones que la contienen y los resultados de las consultas cacheadas.
+        cache.evictCollectionData();
+        cache.evictQueryRegions();
+        log.debug("Caché invalidada por cambio remoto: {} {}", entidad, partes[2]);
+    }
+}
@@ -0,0 +1,51 @@
+package com.crmtech360.crmtech360_backend.cache;
+
+import com.crmtech360.crmtech360_backend.dto.CacheRegionStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lectura de las estadísticas de aciertos/fallos de la caché de segundo nivel por región y vaciado manual.
+ * Requiere {@code hibernate.generate_statistics=true}; sin ella todos los contadores valen 0.
+ */
+@Component
+public class SecondLevelCacheStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheStatistics.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    public List<CacheRegionStatsDTO> porRegion() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> {
+                    CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                    return stats == null ? null : new CacheRegionStatsDTO(region, stats.getHitCount(), stats.getMissCount(),
+                            stats.getPutCount(), stats.getElementCountInMemory());
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Vacía todas las regiones de este nodo. Los demás nodos no se enteran: para ellos rige su propia invalidación o el TTL.
+     */
+    public void vaciar() {
+        sessionFactory.getCache().evictAllRegions();
+        log.info("Caché de segundo nivel vaciada manualmente.");
+    }
+}
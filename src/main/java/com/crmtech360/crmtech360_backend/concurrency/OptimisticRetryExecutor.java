@@ -0,0 +1,107 @@
+package com.crmtech360.crmtech360_backend.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reintenta con backoff exponencial (con jitter) una operación transaccional que falló por un
+ * conflicto de bloqueo optimista ({@link OptimisticLockingFailureException}). Cada intento debe abrir
+ * su propia transacción para que relea las filas versionadas.
+ * Publica en Micrometer los contadores de conflictos, reintentos y operaciones que agotaron los intentos
+ * ({@code inventario.retry.*}).
+ */
+@Component
+public class OptimisticRetryExecutor implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryExecutor.class);
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public OptimisticRetryExecutor(@Value("${inventario.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${inventario.retry.initial-backoff-ms:10}") long initialBackoffMs,
+                                   @Value("${inventario.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(0, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+    }
+
+    /**
+     * Ejecuta la operación, reintentándola mientras falle por conflicto optimista y queden intentos.
+     * @throws OptimisticLockingFailureException si se agotan los intentos (el cliente recibe 409).
+     */
+    public <T> T execute(String operation, ThrowingSupplier<T> action) throws Throwable {
+        long backoff = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.warn("Conflicto de concurrencia persistente en {} tras {} intentos.", operation, attempt);
+                    throw e;
+                }
+                retries.increment();
+                log.debug("Conflicto optimista en {} (intento {}/{}). Reintentando en ~{} ms.", operation, attempt, maxAttempts, backoff);
+                sleep(backoff + ThreadLocalRandom.current().nextLong(backoff + 1));
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", ie);
+        }
+    }
+
+    // --- Métricas ---
+
+    public long getConflictCount() {
+        return conflicts.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("inventario.retry.conflicts", this, OptimisticRetryExecutor::getConflictCount)
+                .description("Conflictos de bloqueo optimista detectados")
+                .register(registry);
+        FunctionCounter.builder("inventario.retry.retries", this, OptimisticRetryExecutor::getRetryCount)
+                .description("Reintentos tras un conflicto")
+                .register(registry);
+        FunctionCounter.builder("inventario.retry.exhausted", this, OptimisticRetryExecutor::getExhaustedCount)
+                .description("Operaciones que agotaron los intentos (409 Conflict)")
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    public interface ThrowingSupplier<T> {
+        T get() throws Throwable;
+    }
+}
@@ -0,0 +1,25 @@
+package com.crmtech360.crmtech360_backend.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método de servicio que modifica stock de inventario (entidades con {@code @Version}).
+ * Si la transacción falla por un conflicto de bloqueo optimista, el método completo se vuelve a ejecutar
+ * en una transacción nueva: relee las filas de inventario y reaplica el delta sobre el valor actual.
+ * El método debe ser idempotente respecto a su propio estado de entrada (releer antes de modificar).
+ * <p>
+ * Se aplica a los movimientos de inventario ({@code registrarMovimiento} de insumos y productos): su UPDATE
+ * incrementa {@code version}, y cualquier escritura versionada de la misma fila hecha a partir de una lectura anterior
+ * falla y se repite entera. El cambio de estado de una orden de producción no lo necesita: bloquea las filas de
+ * inventario antes de leerlas ({@code SELECT ... FOR UPDATE}) o las actualiza con un upsert, así que no puede
+ * perder contra otra escritura.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnStockConflict {
+}
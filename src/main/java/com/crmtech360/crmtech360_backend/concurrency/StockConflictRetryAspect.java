@@ -0,0 +1,35 @@
+package com.crmtech360.crmtech360_backend.concurrency;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Aplica {@link OptimisticRetryExecutor} a los métodos anotados con {@link RetryOnStockConflict}.
+ * Se ejecuta por fuera del interceptor transaccional (justo por dentro de la auditoría), de modo que cada intento
+ * abre y confirma su propia transacción y el conflicto detectado en el commit también se reintenta.
+ * Si ya hay una transacción activa (llamada anidada) no se reintenta: la decisión es del llamador externo.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class StockConflictRetryAspect {
+
+    private final OptimisticRetryExecutor retryExecutor;
+
+    public StockConflictRetryAspect(OptimisticRetryExecutor retryExecutor) {
+        this.retryExecutor = retryExecutor;
+    }
+
+    @Around("@annotation(com.crmtech360.crmtech360_backend.concurrency.RetryOnStockConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        return retryExecutor.execute(joinPoint.getSignature().toShortString(), joinPoint::proceed);
+    }
+}
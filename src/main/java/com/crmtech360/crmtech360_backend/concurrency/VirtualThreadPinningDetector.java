@@ -0,0 +1,114 @@
+package com.crmtech360.crmtech360_backend.concurrency;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Informa de los hilos virtuales que quedan fijados (pinned) a su hilo portador, normalmente por bloquearse dentro
+ * de un bloque {@code synchronized}. Escucha el evento {@code jdk.VirtualThreadPinned} de JFR a partir de
+ * {@code hilos-virtuales.pinning.umbral-ms} y registra el primer método de la aplicación de la pila y si la espera
+ * era una llamada JDBC: esos son los que hay que corregir (con un {@code ReentrantLock}, como en
+ * {@code PermisoCatalog}), porque cada uno ocupa un portador durante toda la consulta.
+ * <p>
+ * Se activa con {@code hilos-virtuales.pinning.habilitado}, que por defecto sigue a
+ * {@code spring.threads.virtual.enabled}. JFR recorta las pilas a 64 marcos; si el método de la aplicación no
+ * aparece, arrancar con {@code -XX:FlightRecorderOptions:stackdepth=256}.
+ */
+@Component
+public class VirtualThreadPinningDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningDetector.class);
+
+    static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    private static final String PAQUETE_APLICACION = "com.crmtech360.";
+    private static final List<String> PAQUETES_JDBC = List.of("java.sql.", "org.postgresql.", "com.zaxxer.hikari.");
+
+    private final boolean habilitado;
+    private final long umbralMs;
+
+    private final LongAdder fijaciones = new LongAdder();
+    private final LongAdder fijacionesJdbc = new LongAdder();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningDetector(
+            @Value("${hilos-virtuales.pinning.habilitado:${spring.threads.virtual.enabled:false}}") boolean habilitado,
+            @Value("${hilos-virtuales.pinning.umbral-ms:20}") long umbralMs) {
+        this.habilitado = habilitado;
+        this.umbralMs = umbralMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (habilitado) {
+            start();
+        }
+    }
+
+    synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        RecordingStream nuevo = new RecordingStream();
+        nuevo.enable(EVENTO).withThreshold(Duration.ofMillis(umbralMs)).withStackTrace();
+        nuevo.onEvent(EVENTO, this::registrar);
+        nuevo.startAsync();
+        stream = nuevo;
+        log.info("Detector de hilos virtuales fijados activo (umbral {} ms).", umbralMs);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    public long getFijaciones() {
+        return fijaciones.sum();
+    }
+
+    public long getFijacionesJdbc() {
+        return fijacionesJdbc.sum();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        fijaciones.increment();
+        RecordedStackTrace pila = evento.getStackTrace();
+        List<RecordedFrame> marcos = pila != null ? pila.getFrames() : List.of();
+        boolean jdbc = marcos.stream().anyMatch(m -> PAQUETES_JDBC.stream().anyMatch(tipo(m)::startsWith));
+        String origen = marcos.stream()
+                .filter(m -> tipo(m).startsWith(PAQUETE_APLICACION))
+                .findFirst()
+                .map(m -> tipo(m) + "." + m.getMethod().getName() + ":" + m.getLineNumber())
+                .orElse(marcos.isEmpty() ? "desconocido" : tipo(marcos.get(0)) + "." + marcos.get(0).getMethod().getName());
+        if (jdbc) {
+            fijacionesJdbc.increment();
+            log.warn("Hilo virtual fijado {} ms durante una llamada JDBC en {}: un synchronized retiene la conexión y el portador.",
+                    evento.getDuration().toMillis(), origen);
+        } else {
+            log.warn("Hilo virtual fijado {} ms en {}.", evento.getDuration().toMillis(), origen);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Pila del hilo virtual fijado:\n{}", pila);
+        }
+    }
+
+    private static String tipo(RecordedFrame marco) {
+        return marco.getMethod() != null ? marco.getMethod().getType().getName() : "";
+    }
+}
@@ -5,7 +5,10 @@ import com.crmtech360.crmtech360_backend.dto.JwtResponseDTO;
 import com.crmtech360.crmtech360_backend.dto.LoginRequestDTO;
 import com.crmtech360.crmtech360_backend.dto.UsuarioCreateRequestDTO;
 import com.crmtech360.crmtech360_backend.dto.UsuarioResponseDTO;
+import com.crmtech360.crmtech360_backend.logging.AuditLogger;
 import com.crmtech360.crmtech360_backend.security.jwt.JwtUtil;
+import com.crmtech360.crmtech360_backend.security.password.PasswordHashingCapacityException;
+import com.crmtech360.crmtech360_backend.security.principal.UsuarioPrincipal;
 import com.crmtech360.crmtech360_backend.service.UsuarioService;
 import com.crmtech360.crmtech360_backend.service.impl.UserDetailsServiceImpl; // Necesario para la inyección en el constructor
 
@@ -19,6 +22,7 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -34,6 +38,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -45,6 +50,7 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final UsuarioService usuarioService;
+    private final AuditLogger auditLogger;
     // UserDetailsServiceImpl es inyectado a través del constructor pero no necesita ser un campo
     // si no se usa directamente en los métodos de esta clase, más allá de la configuración de Spring Security.
 
@@ -52,10 +58,12 @@ public class AuthController {
     public AuthController(AuthenticationManager authenticationManager,
                           JwtUtil jwtUtil,
                           UsuarioService usuarioService,
+                          AuditLogger auditLogger,
                           UserDetailsServiceImpl userDetailsServiceImpl) { // Spring usa userDetailsServiceImpl para configurar el AuthenticationManager
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.usuarioService = usuarioService;
+        this.auditLogger = auditLogger;
     }
 
     @Operation(summary = "Autenticar usuario y obtener token JWT",
@@ -73,8 +81,9 @@ public class AuthController {
     })
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequestDTO loginRequestDTO) {
+        long start = System.nanoTime();
         try {
-            log.info("Intentando autenticar al usuario: {}", loginRequestDTO.getNombreUsuario());
+            log.debug("Intentando autenticar al usuario: {}", loginRequestDTO.getNombreUsuario());
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             loginRequestDTO.getNombreUsuario(),
@@ -86,18 +95,30 @@ public class AuthController {
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             String jwt = jwtUtil.generateTokenFromUserDetails(userDetails);
 
-            UsuarioResponseDTO usuarioInfo = usuarioService.findUsuarioByNombreUsuario(userDetails.getUsername());
+            Integer idUsuario;
+            String rolUsuario;
+            if (userDetails instanceof UsuarioPrincipal principal) {
+                // El principal ya trae el ID y el rol, no hace falta volver a consultar el usuario.
+                idUsuario = principal.getIdUsuario();
+                rolUsuario = principal.getRolUsuario();
+            } else {
+                UsuarioResponseDTO usuarioInfo = usuarioService.findUsuarioByNombreUsuario(userDetails.getUsername());
+                idUsuario = usuarioInfo.getIdUsuario();
+                rolUsuario = usuarioInfo.getRolUsuario();
+            }
 
-            log.info("Usuario {} autenticado exitosamente. Token generado.", userDetails.getUsername());
+            log.debug("Usuario {} autenticado exitosamente. Token generado.", userDetails.getUsername());
+            auditLogin(loginRequestDTO.getNombreUsuario(), "OK", start);
             return ResponseEntity.ok(new JwtResponseDTO(
                     jwt,
-                    usuarioInfo.getIdUsuario(),
+                    idUsuario,
                     userDetails.getUsername(),
-                    usuarioInfo.getRolUsuario()
+                    rolUsuario
             ));
 
         } catch (BadCredentialsException e) {
             log.warn("Credenciales inválidas para el usuario: {}", loginRequestDTO.getNombreUsuario());
+            auditLogin(loginRequestDTO.getNombreUsuario(), e.getClass().getSimpleName(), start);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiErrorResponseDTO(
                             HttpStatus.UNAUTHORIZED.value(),
@@ -105,8 +126,20 @@ public class AuthController {
                             "Credenciales de inicio de sesión inválidas.",
                             "/api/v1/auth/login"
                     ));
+        } catch (PasswordHashingCapacityException e) {
+            log.warn("Login rechazado por saturación del pool de hashing para el usuario: {}", loginRequestDTO.getNombreUsuario());
+            auditLogin(loginRequestDTO.getNombreUsuario(), e.getClass().getSimpleName(), start);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiErrorResponseDTO(
+                            HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            "Servicio No Disponible",
+                            e.getMessage(),
+                            "/api/v1/auth/login"
+                    ));
         } catch (Exception e) {
             log.error("Error durante la autenticación del usuario: {}. Error: {}", loginRequestDTO.getNombreUsuario(), e.getMessage(), e);
+            auditLogin(loginRequestDTO.getNombreUsuario(), e.getClass().getSimpleName(), start);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiErrorResponseDTO(
                             HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -130,12 +163,18 @@ public class AuthController {
     })
     @PostMapping("/register")
     public ResponseEntity<UsuarioResponseDTO> registerUser(@Valid @RequestBody UsuarioCreateRequestDTO signUpRequest) {
-        log.info("Intentando registrar nuevo usuario: {}", signUpRequest.getNombreUsuario());
+        log.debug("Intentando registrar nuevo usuario: {}", signUpRequest.getNombreUsuario());
         UsuarioResponseDTO createdUsuario = usuarioService.createUsuario(signUpRequest);
         URI location = ServletUriComponentsBuilder
                 .fromCurrentContextPath().path("/api/v1/usuarios/{id}")
                 .buildAndExpand(createdUsuario.getIdUsuario()).toUri();
-        log.info("Usuario {} registrado exitosamente con ID: {}", createdUsuario.getNombreUsuario(), createdUsuario.getIdUsuario());
+        log.debug("Usuario {} registrado exitosamente con ID: {}", createdUsuario.getNombreUsuario(), createdUsuario.getIdUsuario());
         return ResponseEntity.created(location).body(createdUsuario);
     }
-}
\ No newline at end of file
+
+    // El login no pasa por la capa de servicios, así que su evento de auditoría se emite aquí.
+    private void auditLogin(String nombreUsuario, String outcome, long startNanos) {
+        auditLogger.record("Auth.login", outcome, (System.nanoTime() - startNanos) / 1_000_000,
+                Map.of("nombreUsuario", nombreUsuario != null ? nombreUsuario : ""));
+    }
+}
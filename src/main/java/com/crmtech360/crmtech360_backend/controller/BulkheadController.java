@@ -0,0 +1,47 @@
+package com.crmtech360.crmtech360_backend.controller;
+
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadBulkheads;
+import com.crmtech360.crmtech360_backend.dto.BulkheadStatsDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/bulkheads")
+@Tag(name = "Compartimentos de carga", description = "API para consultar la saturación de los compartimentos de conexiones por clase de carga (operaciones administrativas).")
+@SecurityRequirement(name = "bearerAuth")
+public class BulkheadController {
+
+    private final WorkloadBulkheads bulkheads;
+
+    public BulkheadController(WorkloadBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Operation(summary = "Estadísticas de los compartimentos de carga",
+            description = "Devuelve, para OLTP, INTERACTIVO e INFORMES, los límites configurados, las llamadas en curso y en espera, " +
+                    "el pico de concurrencia, las admitidas, las rechazadas con 503 y la espera media en este nodo. Requiere rol ADMINISTRADOR.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente.",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BulkheadStatsDTO.class)))),
+            @ApiResponse(responseCode = "401", description = "No Autorizado."),
+            @ApiResponse(responseCode = "403", description = "Prohibido - Se requiere rol de Administrador.")
+    })
+    @GetMapping("/estadisticas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<List<BulkheadStatsDTO>> getEstadisticas() {
+        return ResponseEntity.ok(bulkheads.estadisticas());
+    }
+}
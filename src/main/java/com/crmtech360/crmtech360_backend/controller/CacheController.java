@@ -0,0 +1,63 @@
+package com.crmtech360.crmtech360_backend.controller;
+
+import com.crmtech360.crmtech360_backend.cache.SecondLevelCacheStatistics;
+import com.crmtech360.crmtech360_backend.dto.CacheRegionStatsDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+@Tag(name = "Caché", description = "API para consultar y vaciar la caché de segundo nivel (operaciones administrativas).")
+@SecurityRequirement(name = "bearerAuth")
+public class CacheController {
+
+    private final SecondLevelCacheStatistics cacheStatistics;
+
+    public CacheController(SecondLevelCacheStatistics cacheStatistics) {
+        this.cacheStatistics = cacheStatistics;
+    }
+
+    @Operation(summary = "Estadísticas de la caché de segundo nivel",
+            description = "Devuelve aciertos, fallos, escrituras y elementos en memoria de cada región de la caché en este nodo. " +
+                    "Requiere rol ADMINISTRADOR.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente.",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CacheRegionStatsDTO.class)))),
+            @ApiResponse(responseCode = "401", description = "No Autorizado."),
+            @ApiResponse(responseCode = "403", description = "Prohibido - Se requiere rol de Administrador.")
+    })
+    @GetMapping("/estadisticas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getEstadisticas() {
+        return ResponseEntity.ok(cacheStatistics.porRegion());
+    }
+
+    @Operation(summary = "Vaciar la caché de segundo nivel",
+            description = "Expulsa todas las entidades, colecciones y consultas cacheadas en este nodo. " +
+                    "Útil tras modificar datos de referencia directamente en la base de datos. Requiere rol ADMINISTRADOR.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Caché vaciada."),
+            @ApiResponse(responseCode = "401", description = "No Autorizado."),
+            @ApiResponse(responseCode = "403", description = "Prohibido - Se requiere rol de Administrador.")
+    })
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Void> vaciar() {
+        cacheStatistics.vaciar();
+        return ResponseEntity.noContent().build();
+    }
+}
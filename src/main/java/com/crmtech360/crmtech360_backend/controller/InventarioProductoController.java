@@ -2,6 +2,7 @@ package com.crmtech360.crmtech360_backend.controller;
 
 import com.crmtech360.crmtech360_backend.dto.*; // Asegúrate que ApiErrorResponseDTO esté aquí
 import com.crmtech360.crmtech360_backend.service.InventarioProductoService;
+import com.crmtech360.crmtech360_backend.pagination.EstimatedPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -174,10 +175,34 @@ public class InventarioProductoController {
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'GERENTE', 'OPERARIO') or hasAuthority('PERMISO_VER_INVENTARIO')")
     public ResponseEntity<Page<MovimientoInventarioProductoResponseDTO>> getMovimientosByInventarioProductoId(
             @Parameter(description = "ID del registro de inventario de producto para obtener sus movimientos.", required = true) @PathVariable Integer idInventarioProducto,
+            @Parameter(description = "Si es true, en tablas grandes el total se estima con las estadísticas de PostgreSQL en lugar de un COUNT(*) exacto; la respuesta lo indica con la cabecera X-Total-Count-Estimated.")
+            @RequestParam(defaultValue = "false") boolean totalEstimado,
             @Parameter(description = "Configuración de paginación.")
             @PageableDefault(size = 20, sort = "fechaMovimiento", direction = org.springframework.data.domain.Sort.Direction.DESC) Pageable pageable) {
-        Page<MovimientoInventarioProductoResponseDTO> movimientos = inventarioProductoService.findMovimientosByInventarioProductoId(idInventarioProducto, pageable);
-        return ResponseEntity.ok(movimientos);
+        Page<MovimientoInventarioProductoResponseDTO> movimientos = inventarioProductoService.findMovimientosByInventarioProductoId(idInventarioProducto, pageable, totalEstimado);
+        return ResponseEntity.ok().headers(EstimatedPage.headersFor(movimientos)).body(movimientos);
+    }
+
+    @Operation(summary = "Obtener los movimientos de un registro de inventario de producto con paginación por cursor.",
+            description = "Devuelve los movimientos del más reciente al más antiguo sin calcular el total, por lo que el coste no crece con el historial. " +
+                    "Para la página siguiente se envía el 'nextCursor' de la respuesta en el parámetro 'cursor'. " +
+                    "Requiere rol ADMINISTRADOR, GERENTE, OPERARIO o permiso PERMISO_VER_INVENTARIO.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de movimientos obtenida.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "401", description = "No Autorizado."),
+            @ApiResponse(responseCode = "403", description = "Prohibido."),
+            @ApiResponse(responseCode = "404", description = "Registro de inventario no encontrado.")
+    })
+    @GetMapping("/{idInventarioProducto}/movimientos/cursor")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'GERENTE', 'OPERARIO') or hasAuthority('PERMISO_VER_INVENTARIO')")
+    public ResponseEntity<CursorPageDTO<MovimientoInventarioProductoResponseDTO>> getMovimientosByInventarioProductoIdSeek(
+            @Parameter(description = "ID del registro de inventario de producto para obtener sus movimientos.", required = true) @PathVariable Integer idInventarioProducto,
+            @Parameter(description = "Cursor devuelto por la página anterior; se omite para la primera página.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100).", example = "20") @RequestParam(defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(inventarioProductoService.findMovimientosByInventarioProductoIdSeek(idInventarioProducto, cursor, size));
     }
 
     @Operation(summary = "Obtener el stock actual de un registro de inventario de producto.",
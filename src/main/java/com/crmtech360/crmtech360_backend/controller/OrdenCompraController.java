@@ -77,6 +77,26 @@ public class OrdenCompraController {
         return ResponseEntity.ok(ordenes);
     }
 
+    @Operation(summary = "Obtener las órdenes de compra con paginación por cursor",
+            description = "Devuelve las órdenes de compra de la más reciente a la más antigua (fecha de pedido e ID) sin calcular el total. " +
+                    "Para la página siguiente se envía el 'nextCursor' de la respuesta en el parámetro 'cursor'. " +
+                    "Requiere rol ADMINISTRADOR, GERENTE o permiso PERMISO_VER_ORDENES_COMPRA.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de órdenes de compra obtenida exitosamente.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "401", description = "No Autorizado."),
+            @ApiResponse(responseCode = "403", description = "Prohibido.")
+    })
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'GERENTE') or hasAuthority('PERMISO_VER_ORDENES_COMPRA')")
+    public ResponseEntity<CursorPageDTO<OrdenCompraResponseDTO>> getAllOrdenesCompraSeek(
+            @Parameter(description = "Cursor devuelto por la página anterior; se omite para la primera página.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100).", example = "10") @RequestParam(defaultValue = "10") Integer size) {
+        return ResponseEntity.ok(ordenCompraService.findAllOrdenesCompraSeek(cursor, size));
+    }
+
     @Operation(summary = "Obtener todas las órdenes de compra de un proveedor específico",
             description = "Requiere rol ADMINISTRADOR, GERENTE o permiso PERMISO_VER_ORDENES_COMPRA.")
     @ApiResponses(value = {
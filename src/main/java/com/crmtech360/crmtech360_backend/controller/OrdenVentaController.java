@@ -2,6 +2,7 @@ package com.crmtech360.crmtech360_backend.controller;
 
 import com.crmtech360.crmtech360_backend.dto.*; // Asegúrate que ApiErrorResponseDTO esté aquí
 import com.crmtech360.crmtech360_backend.service.OrdenVentaService;
+import com.crmtech360.crmtech360_backend.pagination.EstimatedPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -73,10 +74,32 @@ public class OrdenVentaController {
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'GERENTE', 'VENTAS') or hasAuthority('PERMISO_VER_ORDENES_VENTA')")
     public ResponseEntity<Page<OrdenVentaResponseDTO>> getAllOrdenesVenta(
+            @Parameter(description = "Si es true, en tablas grandes el total se estima con las estadísticas de PostgreSQL en lugar de un COUNT(*) exacto; la respuesta lo indica con la cabecera X-Total-Count-Estimated.")
+            @RequestParam(defaultValue = "false") boolean totalEstimado,
             @Parameter(description = "Configuración de paginación (ej. page=0&size=10&sort=fechaPedido,desc)")
             @PageableDefault(size = 10, sort = "fechaPedido", direction = Sort.Direction.DESC) Pageable pageable) {
-        Page<OrdenVentaResponseDTO> ordenes = ordenVentaService.findAllOrdenesVenta(pageable);
-        return ResponseEntity.ok(ordenes);
+        Page<OrdenVentaResponseDTO> ordenes = ordenVentaService.findAllOrdenesVenta(pageable, totalEstimado);
+        return ResponseEntity.ok().headers(EstimatedPage.headersFor(ordenes)).body(ordenes);
+    }
+
+    @Operation(summary = "Obtener las órdenes de venta con paginación por cursor",
+            description = "Devuelve las órdenes de venta de la más reciente a la más antigua (fecha de pedido e ID) sin calcular el total. " +
+                    "Para la página siguiente se envía el 'nextCursor' de la respuesta en el parámetro 'cursor'. " +
+                    "Requiere rol ADMINISTRADOR, GERENTE, VENTAS o permiso PERMISO_VER_ORDENES_VENTA.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de órdenes de venta obtenida exitosamente.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "401", description = "No Autorizado."),
+            @ApiResponse(responseCode = "403", description = "Prohibido.")
+    })
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'GERENTE', 'VENTAS') or hasAuthority('PERMISO_VER_ORDENES_VENTA')")
+    public ResponseEntity<CursorPageDTO<OrdenVentaResponseDTO>> getAllOrdenesVentaSeek(
+            @Parameter(description = "Cursor devuelto por la página anterior; se omite para la primera página.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100).", example = "10") @RequestParam(defaultValue = "10") Integer size) {
+        return ResponseEntity.ok(ordenVentaService.findAllOrdenesVentaSeek(cursor, size));
     }
 
     @Operation(summary = "Obtener una orden de venta por su ID",
@@ -5,6 +5,7 @@ import com.crmtech360.crmtech360_backend.dto.PagoCobroCreateRequestDTO;
 import com.crmtech360.crmtech360_backend.dto.PagoCobroResponseDTO;
 import com.crmtech360.crmtech360_backend.dto.PagoCobroUpdateRequestDTO;
 import com.crmtech360.crmtech360_backend.service.PagoCobroService;
+import com.crmtech360.crmtech360_backend.pagination.EstimatedPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -75,10 +76,12 @@ public class PagoCobroController {
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'GERENTE', 'VENTAS') or hasAuthority('PERMISO_VER_PAGOS_COBROS')")
     public ResponseEntity<Page<PagoCobroResponseDTO>> getAllPagosCobros(
+            @Parameter(description = "Si es true, en tablas grandes el total se estima con las estadísticas de PostgreSQL en lugar de un COUNT(*) exacto; la respuesta lo indica con la cabecera X-Total-Count-Estimated.")
+            @RequestParam(defaultValue = "false") boolean totalEstimado,
             @Parameter(description = "Configuración de paginación (ej. page=0&size=10&sort=fechaRegistroTransaccion,desc)")
             @PageableDefault(size = 10, sort = "fechaRegistroTransaccion", direction = Sort.Direction.DESC) Pageable pageable) {
-        Page<PagoCobroResponseDTO> transacciones = pagoCobroService.findAllPagosCobros(pageable);
-        return ResponseEntity.ok(transacciones);
+        Page<PagoCobroResponseDTO> transacciones = pagoCobroService.findAllPagosCobros(pageable, totalEstimado);
+        return ResponseEntity.ok().headers(EstimatedPage.headersFor(transacciones)).body(transacciones);
     }
 
     @Operation(summary = "Obtener una transacción de pago/cobro por su ID",
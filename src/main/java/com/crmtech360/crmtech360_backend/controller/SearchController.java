@@ -0,0 +1,104 @@
+package com.crmtech360.crmtech360_backend.controller;
+
+import com.crmtech360.crmtech360_backend.dto.ApiErrorResponseDTO;
+import com.crmtech360.crmtech360_backend.dto.SearchEntityType;
+import com.crmtech360.crmtech360_backend.dto.SearchResultDTO;
+import com.crmtech360.crmtech360_backend.dto.SearchResultPageDTO;
+import com.crmtech360.crmtech360_backend.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@Tag(name = "Búsqueda", description = "Búsqueda unificada por texto sobre clientes, productos, proveedores e insumos.")
+@SecurityRequirement(name = "bearerAuth")
+public class SearchController {
+
+    // Los buscadores lanzan una petición por pulsación; al borrar y volver a escribir se repiten las mismas URLs.
+    private static final CacheControl CACHE_RESULTADOS = CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate();
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @Operation(summary = "Buscar clientes, productos, proveedores e insumos por texto",
+            description = "Busca el texto en nombres, documentos, teléfonos, referencias y NIT, y ordena los resultados por similitud. " +
+                    "En modo normal solo devuelve las entidades que contienen el texto; con 'tolerante=true' incluye también " +
+                    "las parecidas (errores de escritura). Textos de menos de 3 caracteres devuelven una página vacía sin consultar " +
+                    "la base de datos. Solo se buscan los tipos que el usuario puede consultar con los permisos de su listado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados de la búsqueda.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SearchResultPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Texto demasiado largo o paginación inválida.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "401", description = "No Autorizado.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Prohibido - El usuario no puede consultar ninguno de los tipos solicitados.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponseDTO.class)))
+    })
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SearchResultPageDTO> search(
+            @Parameter(description = "Texto a buscar.", required = true, example = "pacifico") @RequestParam("q") String texto,
+            @Parameter(description = "Tipos de entidad en los que buscar; por defecto, todos.", example = "CLIENTE,PRODUCTO")
+            @RequestParam(value = "tipos", required = false) List<SearchEntityType> tipos,
+            @Parameter(description = "Incluir resultados parecidos aunque no contengan el texto exacto.", example = "false")
+            @RequestParam(value = "tolerante", defaultValue = "false") boolean tolerante,
+            @Parameter(description = "Número de página (empieza en 0).", example = "0")
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @Parameter(description = "Resultados por página (máximo 50).", example = "10")
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        Set<SearchEntityType> tiposSolicitados = tipos == null || tipos.isEmpty()
+                ? EnumSet.noneOf(SearchEntityType.class) : EnumSet.copyOf(tipos);
+        SearchResultPageDTO resultados = searchService.search(texto, tiposSolicitados, tolerante, page, size);
+        return ResponseEntity.ok().cacheControl(CACHE_RESULTADOS).body(resultados);
+    }
+
+    @Operation(summary = "Sugerencias de autocompletado de productos o clientes",
+            description = "Pensado para los campos de la pantalla de órdenes de venta que sugieren mientras se escribe: responde " +
+                    "desde un índice en memoria, sin consultar la base de datos. Cada palabra escrita debe ser el comienzo de " +
+                    "una palabra del producto (referencia, nombre, talla, color) o del cliente (nombre, documento); a partir de " +
+                    "3 caracteres también puede aparecer en medio. Los clientes requieren los mismos permisos que su listado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugerencias, de mayor a menor puntuación.",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = SearchResultDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Tipo no soportado (solo PRODUCTO y CLIENTE) o límite inválido.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "401", description = "No Autorizado.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Prohibido - El usuario no puede consultar el tipo solicitado.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponseDTO.class)))
+    })
+    @GetMapping("/sugerencias")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<SearchResultDTO>> suggest(
+            @Parameter(description = "Tipo de entidad: PRODUCTO o CLIENTE.", required = true, example = "PRODUCTO")
+            @RequestParam("tipo") SearchEntityType tipo,
+            @Parameter(description = "Texto escrito hasta el momento.", required = true, example = "camisa roj")
+            @RequestParam("q") String texto,
+            @Parameter(description = "Número máximo de sugerencias (máximo 50).", example = "10")
+            @RequestParam(value = "limite", defaultValue = "10") int limite) {
+        return ResponseEntity.ok().cacheControl(CACHE_RESULTADOS).body(searchService.suggest(texto, tipo, limite));
+    }
+}
@@ -0,0 +1,146 @@
+package com.crmtech360.crmtech360_backend.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limita cuántos hilos pueden tener a la vez una conexión del DataSource de la aplicación. Con hilos virtuales Tomcat
+ * deja de acotar la concurrencia: cada petición tiene su hilo y, ante un pico, miles de ellos se pondrían a esperar
+ * en la cola de Hikari durante todo su connectionTimeout. Aquí solo {@code maxEnEspera} hilos esperan, como mucho
+ * {@code esperaMs}; el resto se rechaza al momento con {@link SQLTransientConnectionException}, que llega al cliente
+ * como 503 con Retry-After.
+ * <p>
+ * El permiso se toma al pedir la conexión y se devuelve al cerrarla (una sola vez, aunque se cierre dos).
+ */
+public class DbPermitLimiter extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(DbPermitLimiter.class);
+
+    private final int maximo;
+    private final int maxEnEspera;
+    private final long esperaMs;
+    private final Semaphore permisos;
+    private final AtomicInteger enEspera = new AtomicInteger();
+
+    public DbPermitLimiter(DataSource targetDataSource, int maximo, int maxEnEspera, long esperaMs) {
+        super(targetDataSource);
+        this.maximo = maximo;
+        this.maxEnEspera = maxEnEspera;
+        this.esperaMs = esperaMs;
+        // Justo: con todos los permisos ocupados, se entregan por orden de llegada.
+        this.permisos = new Semaphore(maximo, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAlCerrar(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAlCerrar(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public int getDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    public int getEnEspera() {
+        return enEspera.get();
+    }
+
+    private void adquirir() throws SQLException {
+        if (permisos.tryAcquire()) {
+            return;
+        }
+        if (enEspera.incrementAndGet() > maxEnEspera) {
+            enEspera.decrementAndGet();
+            throw rechazo("cola de espera llena");
+        }
+        boolean adquirido = false;
+        try {
+            adquirido = permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            enEspera.decrementAndGet();
+        }
+        if (!adquirido) {
+            throw rechazo("sin permiso tras " + esperaMs + " ms");
+        }
+    }
+
+    private SQLTransientConnectionException rechazo(String motivo) {
+        log.warn("Conexión a la base de datos rechazada ({}): {} permisos ocupados, {} hilos en espera.",
+                motivo, maximo, enEspera.get());
+        return new SQLTransientConnectionException(
+                "La base de datos está saturada en este momento (" + motivo + ").");
+    }
+
+    private Connection liberarAlCerrar(Connection target) {
+        AtomicBoolean liberado = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> invocar(target, liberado, proxy, method, args);
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[] {ConnectionProxy.class}, handler);
+    }
+
+    private Object invocar(Connection target, AtomicBoolean liberado, Object proxy, Method method, Object[] args)
+            throws Throwable {
+        switch (method.getName()) {
+            case "getTargetConnection":
+                return target;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Conexión con permiso [" + target + "]";
+            case "close":
+                try {
+                    target.close();
+                } finally {
+                    if (liberado.compareAndSet(false, true)) {
+                        permisos.release();
+                    }
+                }
+                return null;
+            default:
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+        }
+    }
+}
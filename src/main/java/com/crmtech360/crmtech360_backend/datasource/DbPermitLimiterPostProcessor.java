@@ -0,0 +1,48 @@
+package com.crmtech360.crmtech360_backend.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve el DataSource de la aplicación (el bean {@code dataSource}, sea el pool de Spring Boot o el de
+ * {@link ReadReplicaConfig}) en un {@link DbPermitLimiter} cuando {@code db.permisos.habilitado} es true, que por
+ * defecto sigue a {@code spring.threads.virtual.enabled}. Con hilos de plataforma el propio tope de hilos de Tomcat
+ * ya limita cuántas peticiones pueden esperar conexión.
+ * <p>
+ * El número de permisos es por defecto el tamaño del pool del primario; con réplicas conviene subirlo a la suma de
+ * los pools, porque el permiso se toma al abrir la transacción, antes de saber de cuál saldrá la conexión.
+ */
+@Component
+public class DbPermitLimiterPostProcessor implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(DbPermitLimiterPostProcessor.class);
+
+    private final Environment environment;
+
+    public DbPermitLimiterPostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource) || bean instanceof DbPermitLimiter) {
+            return bean;
+        }
+        boolean virtuales = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (!environment.getProperty("db.permisos.habilitado", Boolean.class, virtuales)) {
+            return bean;
+        }
+        int tamanoPool = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int maximo = environment.getProperty("db.permisos.maximo", Integer.class, tamanoPool);
+        int maxEnEspera = environment.getProperty("db.permisos.max-en-espera", Integer.class, 200);
+        long esperaMs = environment.getProperty("db.permisos.espera-ms", Long.class, 1000L);
+        log.info("Limitador de conexiones a la base de datos: {} permisos, hasta {} hilos en espera durante {} ms.",
+                maximo, maxEnEspera, esperaMs);
+        return new DbPermitLimiter(dataSource, maximo, maxEnEspera, esperaMs);
+    }
+}
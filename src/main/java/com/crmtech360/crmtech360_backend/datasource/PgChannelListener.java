@@ -0,0 +1,113 @@
+package com.crmtech360.crmtech360_backend.datasource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Escucha un canal de PostgreSQL ({@code LISTEN}) en un hilo propio y con una conexión dedicada, fuera del pool:
+ * una conexión del pool no puede quedarse reservada indefinidamente. Cada notificación recibida se entrega a
+ * {@code alRecibir}. Tras cada conexión se llama a {@code alConectar} (con {@code true} si es una reconexión): lo
+ * notificado mientras no se escuchaba se ha perdido y quien escucha debe recuperar su estado por otra vía. Si la
+ * conexión se pierde se reintenta con espera exponencial.
+ */
+public class PgChannelListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PgChannelListener.class);
+
+    private static final Pattern CANAL_VALIDO = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final int ESPERA_NOTIFICACIONES_MS = 1000;
+    private static final long REINTENTO_MAX_MS = 30_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final String canal;
+    private final String nombreHilo;
+    private final Consumer<String> alRecibir;
+    private final Consumer<Boolean> alConectar;
+
+    private volatile boolean running;
+    private Thread hilo;
+
+    public PgChannelListener(DataSourceProperties dataSourceProperties, String canal, String nombreHilo,
+                             Consumer<String> alRecibir, Consumer<Boolean> alConectar) {
+        if (!esCanalValido(canal)) {
+            throw new IllegalStateException("Nombre de canal de PostgreSQL inválido: " + canal);
+        }
+        this.dataSourceProperties = dataSourceProperties;
+        this.canal = canal;
+        this.nombreHilo = nombreHilo;
+        this.alRecibir = alRecibir;
+        this.alConectar = alConectar;
+    }
+
+    /**
+     * El nombre del canal va sin comillas en {@code LISTEN}, así que solo se admite un identificador simple.
+     */
+    public static boolean esCanalValido(String canal) {
+        return canal != null && CANAL_VALIDO.matcher(canal).matches();
+    }
+
+    public synchronized void start() {
+        if (hilo != null) {
+            return;
+        }
+        running = true;
+        hilo = new Thread(this::escuchar, nombreHilo);
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (hilo != null) {
+            hilo.interrupt();
+            hilo = null;
+        }
+    }
+
+    private void escuchar() {
+        boolean reconexion = false;
+        long espera = 1000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + canal);
+                }
+                alConectar.accept(reconexion);
+                reconexion = true;
+                espera = 1000;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notificaciones = pgConnection.getNotifications(ESPERA_NOTIFICACIONES_MS);
+                    if (notificaciones != null) {
+                        for (PGNotification notificacion : notificaciones) {
+                            alRecibir.accept(notificacion.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Conexión de escucha del canal '{}' perdida: {}. Reintentando en {} ms.", canal, e.getMessage(), espera);
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                espera = Math.min(espera * 2, REINTENTO_MAX_MS);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.crmtech360.crmtech360_backend.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réplicas de lectura de PostgreSQL. Solo se activa si {@code datasource.replicas.urls} tiene valor; sin ella la
+ * aplicación usa el DataSource de Spring Boot de siempre y todo va al primario.
+ * <p>
+ * El DataSource de la aplicación es un {@link LazyConnectionDataSourceProxy} sobre el pool del primario: la conexión
+ * real se pide en la primera sentencia, cuando el gestor de transacciones ya la ha marcado como de solo lectura, y
+ * la de las transacciones {@code @Transactional(readOnly = true)} sale de {@link ReplicaSelectingDataSource}. Todo
+ * lo demás (escrituras, transacciones sin readOnly, Flyway) va al primario. Una transacción de solo lectura no debe
+ * escribir: en una réplica fallaría. Lo que se lee de una réplica no entra en la caché de segundo nivel.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.urls")
+public class ReadReplicaConfig {
+
+    /**
+     * Pool del primario, configurado con {@code spring.datasource.*} y {@code spring.datasource.hikari.*} como el
+     * de Spring Boot. No se inyecta por tipo: el resto de la aplicación lo usa a través de {@link #dataSource}.
+     */
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(defaultCandidate = false)
+    public ReplicaSelectingDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.username:${spring.datasource.username}}") String username,
+            @Value("${datasource.replicas.password:${spring.datasource.password}}") String password,
+            @Value("${datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${datasource.replicas.connection-timeout-ms:1000}") long connectionTimeoutMs,
+            @Value("${datasource.replicas.lag-maximo-ms:5000}") long lagMaximoMs,
+            @Value("${datasource.replicas.intervalo-comprobacion-ms:5000}") long intervaloComprobacionMs) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // Una réplica caída no debe impedir el arranque ni dejar esperando a las lecturas: se retira y se lee
+            // de otra o del primario.
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        ReplicaSelectingDataSource dataSource = new ReplicaSelectingDataSource(primaryDataSource, replicas, lagMaximoMs,
+                (int) Math.max(1, connectionTimeoutMs / 1000));
+        dataSource.start(intervaloComprobacionMs);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") ReplicaSelectingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+
+    /**
+     * Fija la marca de {@link ReadYourWritesPin} al confirmar cada transacción de escritura. Spring Boot añade los
+     * TransactionExecutionListener al gestor de transacciones de JPA.
+     */
+    @Bean
+    public TransactionExecutionListener readYourWritesListener(@Value("${datasource.replicas.lag-maximo-ms:5000}") long lagMaximoMs) {
+        return new TransactionExecutionListener() {
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                if (commitFailure == null && transaction.isNewTransaction() && !transaction.isReadOnly()) {
+                    ReadYourWritesPin.fijar(lagMaximoMs);
+                }
+            }
+        };
+    }
+
+    /**
+     * Las lecturas de las réplicas no rellenan la caché de segundo nivel (ver {@link ReplicaCacheModeListener}).
+     */
+    @Bean
+    public ReplicaCacheModeListener replicaCacheModeListener(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return new ReplicaCacheModeListener(entityManagerFactory);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+}
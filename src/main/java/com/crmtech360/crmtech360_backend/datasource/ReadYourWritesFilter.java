@@ -0,0 +1,29 @@
+package com.crmtech360.crmtech360_backend.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Limita la marca de {@link ReadYourWritesPin} a la petición que hizo la escritura: el hilo de Tomcat vuelve al
+ * pool sin ella y la siguiente petición que atienda puede leer de las réplicas.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        ReadYourWritesPin.limpiar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesPin.limpiar();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.crmtech360.crmtech360_backend.datasource;
+
+/**
+ * Marca por hilo de "leer lo propio": tras confirmar una transacción de escritura, las transacciones de solo
+ * lectura siguientes del mismo hilo van al primario, porque una réplica con retraso podría no tener todavía el
+ * cambio recién hecho. La marca caduca sola (el retraso máximo admitido en una réplica: pasado ese tiempo
+ * cualquier réplica sana ya lo tiene) y {@link ReadYourWritesFilter} la borra al terminar cada petición.
+ */
+public final class ReadYourWritesPin {
+
+    private static final ThreadLocal<Long> HASTA = new ThreadLocal<>();
+
+    private ReadYourWritesPin() {
+    }
+
+    public static void fijar(long duracionMs) {
+        HASTA.set(System.nanoTime() + duracionMs * 1_000_000L);
+    }
+
+    public static boolean activo() {
+        Long hasta = HASTA.get();
+        if (hasta == null) {
+            return false;
+        }
+        if (System.nanoTime() - hasta >= 0) {
+            HASTA.remove();
+            return false;
+        }
+        return true;
+    }
+
+    public static void limpiar() {
+        HASTA.remove();
+    }
+}
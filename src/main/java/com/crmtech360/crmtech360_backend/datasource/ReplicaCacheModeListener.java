@@ -0,0 +1,56 @@
+package com.crmtech360.crmtech360_backend.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Impide que lo leído de una réplica llegue a la caché de segundo nivel. Una réplica puede ir hasta
+ * {@code datasource.replicas.lag-maximo-ms} por detrás del primario: si tras expulsar una entrada (una escritura
+ * local o una notificación de {@code DistributedCacheInvalidator}) el siguiente fallo de caché se resolviera en una
+ * réplica, el valor antiguo quedaría cacheado todo el TTL de su región, para todas las peticiones del nodo.
+ * <p>
+ * Por eso las transacciones de solo lectura no rellenan la caché y esta solo se carga desde el primario:
+ * <ul>
+ *   <li>{@code find()} usa {@link CacheStoreMode#BYPASS}: lee las entidades de la caché, pero no guarda lo que
+ *   carga de la base de datos.</li>
+ *   <li>El resto de la sesión (consultas, colecciones y asociaciones) usa {@link CacheMode#IGNORE}. No basta con
+ *   {@link CacheMode#GET}: Hibernate guarda igualmente el resultado de una consulta cacheable que no encuentra en la
+ *   caché.</li>
+ * </ul>
+ * Se decide al empezar la transacción, antes de saber de dónde saldrá la conexión (réplica sana, primario por falta
+ * de ellas o por {@link ReadYourWritesPin}): si al final sale del primario, esa transacción simplemente no aporta a
+ * la caché.
+ */
+public class ReplicaCacheModeListener implements TransactionExecutionListener {
+
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public ReplicaCacheModeListener(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || !transaction.isNewTransaction() || !transaction.isReadOnly()) {
+            return;
+        }
+        EntityManagerFactory emf = entityManagerFactory.getIfAvailable();
+        if (emf != null && TransactionSynchronizationManager.getResource(emf) instanceof EntityManagerHolder holder) {
+            // Primero la propiedad JPA, que find() usa para calcular su propio modo; después el de la sesión, que
+            // la propiedad sobrescribiría.
+            EntityManager entityManager = holder.getEntityManager();
+            entityManager.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        }
+    }
+}
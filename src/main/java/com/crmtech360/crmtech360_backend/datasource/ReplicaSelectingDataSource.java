@@ -0,0 +1,155 @@
+package com.crmtech360.crmtech360_backend.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Origen de las conexiones de las transacciones de solo lectura (ver {@link ReadReplicaConfig}): reparte entre las
+ * réplicas sanas por turnos y recurre al primario si no hay ninguna, si la réplica elegida no da conexión o si el
+ * hilo tiene activa la marca de {@link ReadYourWritesPin}.
+ * <p>
+ * Cada réplica se comprueba periódicamente con una consulta de su retraso de replicación; deja de usarse si la
+ * consulta falla o el retraso supera {@code lagMaximoMs}, y vuelve en cuanto una comprobación sale bien. Hasta
+ * la primera comprobación ninguna réplica se considera sana.
+ */
+public class ReplicaSelectingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSelectingDataSource.class);
+
+    // Retraso en ms del último cambio reproducido; 0 si la réplica ya ha reproducido todo lo recibido (un primario
+    // sin escrituras no hace crecer el retraso) o si la base de datos no es una réplica.
+    static final String CONSULTA_RETRASO = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final long lagMaximoMs;
+    private final int timeoutComprobacionSegundos;
+    private final AtomicInteger turno = new AtomicInteger();
+    private ScheduledExecutorService programador;
+
+    public ReplicaSelectingDataSource(DataSource primario, Map<String, DataSource> replicas, long lagMaximoMs,
+                                      int timeoutComprobacionSegundos) {
+        this.primario = primario;
+        this.replicas = replicas.entrySet().stream().map(e -> new Replica(e.getKey(), e.getValue())).toList();
+        this.lagMaximoMs = lagMaximoMs;
+        this.timeoutComprobacionSegundos = timeoutComprobacionSegundos;
+    }
+
+    /**
+     * Hace una primera comprobación de todas las réplicas y programa las siguientes cada {@code intervaloMs}.
+     */
+    public void start(long intervaloMs) {
+        comprobarReplicas();
+        log.info("Réplicas de lectura: {}.", estado());
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        programador.scheduleWithFixedDelay(this::comprobarReplicas, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReadYourWritesPin.activo()) {
+            int inicio = Math.floorMod(turno.getAndIncrement(), Math.max(replicas.size(), 1));
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((inicio + i) % replicas.size());
+                if (!replica.sana) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    marcar(replica, false, "no da conexión: " + e.getMessage());
+                }
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Las réplicas usan las credenciales de su propio pool.");
+    }
+
+    /**
+     * Estado de cada réplica (nombre, sana o no, último retraso medido en ms) para los logs y las pruebas.
+     */
+    public String estado() {
+        return replicas.stream()
+                .map(r -> r.nombre + (r.sana ? " sana" : " fuera") + " (retraso " + r.lagMs + " ms)")
+                .collect(Collectors.joining(", "));
+    }
+
+    void comprobarReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(timeoutComprobacionSegundos);
+                try (ResultSet rs = statement.executeQuery(CONSULTA_RETRASO)) {
+                    rs.next();
+                    replica.lagMs = rs.getLong(1);
+                }
+                boolean sana = replica.lagMs <= lagMaximoMs;
+                marcar(replica, sana, sana ? "retraso " + replica.lagMs + " ms"
+                        : "retraso " + replica.lagMs + " ms por encima del máximo de " + lagMaximoMs + " ms");
+            } catch (SQLException | RuntimeException e) {
+                marcar(replica, false, "falla la comprobación: " + e.getMessage());
+            }
+        }
+    }
+
+    private void marcar(Replica replica, boolean sana, String motivo) {
+        if (replica.sana != sana) {
+            replica.sana = sana;
+            if (sana) {
+                log.info("Réplica de lectura '{}' disponible ({}).", replica.nombre, motivo);
+            } else {
+                log.warn("Réplica de lectura '{}' retirada, sus lecturas pasan a otra réplica o al primario: {}.", replica.nombre, motivo);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String nombre;
+        private final DataSource dataSource;
+        private volatile boolean sana;
+        private volatile long lagMs = -1;
+
+        Replica(String nombre, DataSource dataSource) {
+            this.nombre = nombre;
+            this.dataSource = dataSource;
+        }
+    }
+}
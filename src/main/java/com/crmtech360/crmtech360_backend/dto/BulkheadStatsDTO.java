@@ -0,0 +1,123 @@
+package com.crmtech360.crmtech360_backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Estado de saturación de un compartimento de carga (bulkhead) en este nodo, acumulado desde el arranque.")
+public class BulkheadStatsDTO {
+
+    @Schema(description = "Clase de carga (OLTP, INTERACTIVO, INFORMES).", example = "INFORMES", accessMode = Schema.AccessMode.READ_ONLY)
+    private String clase;
+
+    @Schema(description = "Llamadas simultáneas admitidas en el compartimento.", example = "2", accessMode = Schema.AccessMode.READ_ONLY)
+    private int maxConcurrentes;
+
+    @Schema(description = "Espera máxima por un hueco antes de responder 503, en ms.", example = "5000", accessMode = Schema.AccessMode.READ_ONLY)
+    private long esperaMaximaMs;
+
+    @Schema(description = "Llamadas ejecutándose ahora mismo.", example = "2", accessMode = Schema.AccessMode.READ_ONLY)
+    private int enCurso;
+
+    @Schema(description = "Llamadas esperando un hueco ahora mismo.", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private int enEspera;
+
+    @Schema(description = "Máximo de llamadas simultáneas alcanzado desde el arranque.", example = "2", accessMode = Schema.AccessMode.READ_ONLY)
+    private int picoEnCurso;
+
+    @Schema(description = "Llamadas admitidas desde el arranque.", example = "1840", accessMode = Schema.AccessMode.READ_ONLY)
+    private long admitidas;
+
+    @Schema(description = "Llamadas rechazadas con 503 por saturación desde el arranque.", example = "12", accessMode = Schema.AccessMode.READ_ONLY)
+    private long rechazadas;
+
+    @Schema(description = "Espera media por un hueco (admitidas y rechazadas), en ms.", example = "35.4", accessMode = Schema.AccessMode.READ_ONLY)
+    private double esperaMediaMs;
+
+    // Constructores
+    public BulkheadStatsDTO() {
+    }
+
+    public BulkheadStatsDTO(String clase, int maxConcurrentes, long esperaMaximaMs, int enCurso, int enEspera, int picoEnCurso, long admitidas, long rechazadas, double esperaMediaMs) {
+        this.clase = clase;
+        this.maxConcurrentes = maxConcurrentes;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.enCurso = enCurso;
+        this.enEspera = enEspera;
+        this.picoEnCurso = picoEnCurso;
+        this.admitidas = admitidas;
+        this.rechazadas = rechazadas;
+        this.esperaMediaMs = esperaMediaMs;
+    }
+
+    // Getters y Setters
+    public String getClase() {
+        return clase;
+    }
+
+    public void setClase(String clase) {
+        this.clase = clase;
+    }
+
+    public int getMaxConcurrentes() {
+        return maxConcurrentes;
+    }
+
+    public void setMaxConcurrentes(int maxConcurrentes) {
+        this.maxConcurrentes = maxConcurrentes;
+    }
+
+    public long getEsperaMaximaMs() {
+        return esperaMaximaMs;
+    }
+
+    public void setEsperaMaximaMs(long esperaMaximaMs) {
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    public int getEnCurso() {
+        return enCurso;
+    }
+
+    public void setEnCurso(int enCurso) {
+        this.enCurso = enCurso;
+    }
+
+    public int getEnEspera() {
+        return enEspera;
+    }
+
+    public void setEnEspera(int enEspera) {
+        this.enEspera = enEspera;
+    }
+
+    public int getPicoEnCurso() {
+        return picoEnCurso;
+    }
+
+    public void setPicoEnCurso(int picoEnCurso) {
+        this.picoEnCurso = picoEnCurso;
+    }
+
+    public long getAdmitidas() {
+        return admitidas;
+    }
+
+    public void setAdmitidas(long admitidas) {
+        this.admitidas = admitidas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public void setRechazadas(long rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+
+    public double getEsperaMediaMs() {
+        return esperaMediaMs;
+    }
+
+    public void setEsperaMediaMs(double esperaMediaMs) {
+        this.esperaMediaMs = esperaMediaMs;
+    }
+}
@@ -0,0 +1,87 @@
+package com.crmtech360.crmtech360_backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Estadísticas de una región de la caché de segundo nivel en este nodo (acumuladas desde el arranque o el último vaciado).")
+public class CacheRegionStatsDTO {
+
+    @Schema(description = "Nombre de la región (ver ehcache.xml).", example = "producto", accessMode = Schema.AccessMode.READ_ONLY)
+    private String region;
+
+    @Schema(description = "Lecturas servidas desde la caché.", example = "1520", accessMode = Schema.AccessMode.READ_ONLY)
+    private long hits;
+
+    @Schema(description = "Lecturas que no encontraron el elemento en la caché.", example = "37", accessMode = Schema.AccessMode.READ_ONLY)
+    private long misses;
+
+    @Schema(description = "Elementos escritos en la caché.", example = "41", accessMode = Schema.AccessMode.READ_ONLY)
+    private long puts;
+
+    @Schema(description = "Elementos actualmente en memoria (-1 si el proveedor no lo informa).", example = "41", accessMode = Schema.AccessMode.READ_ONLY)
+    private long elementos;
+
+    @Schema(description = "Proporción de aciertos sobre el total de lecturas (0 si no hubo lecturas).", example = "0.976", accessMode = Schema.AccessMode.READ_ONLY)
+    private double tasaAcierto;
+
+    // Constructores
+    public CacheRegionStatsDTO() {
+    }
+
+    public CacheRegionStatsDTO(String region, long hits, long misses, long puts, long elementos) {
+        this.region = region;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.elementos = elementos;
+        this.tasaAcierto = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+    }
+
+    // Getters y Setters
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public void setPuts(long puts) {
+        this.puts = puts;
+    }
+
+    public long getElementos() {
+        return elementos;
+    }
+
+    public void setElementos(long elementos) {
+        this.elementos = elementos;
+    }
+
+    public double getTasaAcierto() {
+        return tasaAcierto;
+    }
+
+    public void setTasaAcierto(double tasaAcierto) {
+        this.tasaAcierto = tasaAcierto;
+    }
+}
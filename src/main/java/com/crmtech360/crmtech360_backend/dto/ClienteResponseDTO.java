@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.media.ArraySchema; // Para listas o sets
 import io.swagger.v3.oas.annotations.media.Schema; // Importar @Schema
 import java.time.LocalDateTime;
 import java.util.Set;
+import java.util.HashSet;
 
 @Schema(description = "DTO para la respuesta de información detallada de un cliente, incluyendo sus contactos.")
 public class ClienteResponseDTO {
@@ -58,6 +59,11 @@ public class ClienteResponseDTO {
         this.contactosCliente = contactosCliente;
     }
 
+    // Usado por la proyección JPQL del listado; los contactos se añaden después con una consulta aparte.
+    public ClienteResponseDTO(Integer idCliente, String tipoDocumento, String numeroDocumento, String nombreCliente, String direccionCliente, String telefonoCliente, String correoCliente, LocalDateTime fechaCreacion, LocalDateTime fechaActualizacion) {
+        this(idCliente, tipoDocumento, numeroDocumento, nombreCliente, direccionCliente, telefonoCliente, correoCliente, fechaCreacion, fechaActualizacion, new HashSet<>());
+    }
+
     // Getters y Setters
     public Integer getIdCliente() {
         return idCliente;
@@ -0,0 +1,51 @@
+package com.crmtech360.crmtech360_backend.dto;
+
+import com.crmtech360.crmtech360_backend.pagination.SeekCursor;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Schema(description = "Página de resultados con paginación por cursor (keyset). No incluye el total de elementos: " +
+        "para pedir la página siguiente se envía 'nextCursor' en el parámetro 'cursor'.")
+public class CursorPageDTO<T> {
+
+    @Schema(description = "Elementos de la página, del más reciente al más antiguo.", accessMode = Schema.AccessMode.READ_ONLY)
+    private List<T> content;
+
+    @Schema(description = "Número de elementos solicitados por página.", example = "20", accessMode = Schema.AccessMode.READ_ONLY)
+    private int size;
+
+    @Schema(description = "Cursor opaco para pedir la página siguiente; null si esta es la última.", nullable = true,
+            example = "MjAyNC0wNS0wMVQxMTowMHwxMDAx", accessMode = Schema.AccessMode.READ_ONLY)
+    private String nextCursor;
+
+    // Constructores
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas con límite {@code size + 1}: la fila sobrante solo indica
+     * que hay más resultados y no se devuelve; el cursor siguiente apunta a la última fila incluida.
+     */
+    public static <E, T> CursorPageDTO<T> of(List<E> rows, int size, Function<E, SeekCursor> cursorOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<E> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(page.stream().map(mapper).toList(), size, nextCursor);
+    }
+
+    // Getters y Setters
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -59,6 +59,12 @@ public class EmpleadoResponseDTO {
         this.usuario = usuario;
     }
 
+    // Usado por la proyección JPQL del listado (LEFT JOIN con usuario): el resumen del usuario llega aplanado.
+    public EmpleadoResponseDTO(Integer idEmpleado, String tipoDocumento, String numeroDocumento, String nombreEmpleado, String cargoEmpleado, String areaEmpleado, BigDecimal salarioEmpleado, LocalDate fechaContratacionEmpleado, LocalDateTime fechaCreacion, LocalDateTime fechaActualizacion, Integer idUsuario, String nombreUsuario, String rolUsuario) {
+        this(idEmpleado, tipoDocumento, numeroDocumento, nombreEmpleado, cargoEmpleado, areaEmpleado, salarioEmpleado, fechaContratacionEmpleado, fechaCreacion, fechaActualizacion,
+                idUsuario != null ? new UsuarioSummaryDTO(idUsuario, nombreUsuario, rolUsuario) : null);
+    }
+
     // Getters y Setters
     public Integer getIdEmpleado() { return idEmpleado; }
     public void setIdEmpleado(Integer idEmpleado) { this.idEmpleado = idEmpleado; }
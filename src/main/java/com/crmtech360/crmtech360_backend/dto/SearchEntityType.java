@@ -0,0 +1,11 @@
+package com.crmtech360.crmtech360_backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Tipo de entidad devuelta por la búsqueda unificada.")
+public enum SearchEntityType {
+    CLIENTE,
+    PRODUCTO,
+    PROVEEDOR,
+    INSUMO
+}
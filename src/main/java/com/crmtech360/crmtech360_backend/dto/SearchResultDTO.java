@@ -0,0 +1,49 @@
+package com.crmtech360.crmtech360_backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado de la búsqueda unificada: identifica la entidad encontrada y cuánto se parece al texto buscado.")
+public class SearchResultDTO {
+
+    @Schema(description = "Tipo de la entidad encontrada.", example = "CLIENTE", accessMode = Schema.AccessMode.READ_ONLY)
+    private SearchEntityType tipo;
+
+    @Schema(description = "Identificador de la entidad en su tipo (idCliente, idProducto, idProveedor o idInsumo).", example = "15",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private Integer id;
+
+    @Schema(description = "Nombre principal de la entidad.", example = "Telas del Pacífico S.A.S.", accessMode = Schema.AccessMode.READ_ONLY)
+    private String titulo;
+
+    @Schema(description = "Dato secundario para distinguir resultados parecidos: documento del cliente, referencia del producto, " +
+            "NIT del proveedor o unidad de medida del insumo.", example = "900123456-7", accessMode = Schema.AccessMode.READ_ONLY)
+    private String detalle;
+
+    @Schema(description = "Similitud con el texto buscado, entre 0 y 1. Los resultados se ordenan de mayor a menor.", example = "0.83",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private double puntuacion;
+
+    // Constructores
+    public SearchResultDTO() {
+    }
+
+    public SearchResultDTO(SearchEntityType tipo, Integer id, String titulo, String detalle, double puntuacion) {
+        this.tipo = tipo;
+        this.id = id;
+        this.titulo = titulo;
+        this.detalle = detalle;
+        this.puntuacion = puntuacion;
+    }
+
+    // Getters y Setters
+    public SearchEntityType getTipo() { return tipo; }
+    public void setTipo(SearchEntityType tipo) { this.tipo = tipo; }
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    public String getTitulo() { return titulo; }
+    public void setTitulo(String titulo) { this.titulo = titulo; }
+    public String getDetalle() { return detalle; }
+    public void setDetalle(String detalle) { this.detalle = detalle; }
+    public double getPuntuacion() { return puntuacion; }
+    public void setPuntuacion(double puntuacion) { this.puntuacion = puntuacion; }
+}
@@ -0,0 +1,52 @@
+package com.crmtech360.crmtech360_backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de resultados de la búsqueda unificada. No incluye el total de coincidencias " +
+        "(contarlas en cada pulsación costaría más que la propia búsqueda): 'hasNext' indica si hay una página siguiente.")
+public class SearchResultPageDTO {
+
+    @Schema(description = "Resultados de la página, de mayor a menor puntuación.", accessMode = Schema.AccessMode.READ_ONLY)
+    private List<SearchResultDTO> content;
+
+    @Schema(description = "Número de página (empieza en 0).", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private int page;
+
+    @Schema(description = "Número de elementos solicitados por página.", example = "10", accessMode = Schema.AccessMode.READ_ONLY)
+    private int size;
+
+    @Schema(description = "true si hay más resultados después de esta página.", example = "true", accessMode = Schema.AccessMode.READ_ONLY)
+    private boolean hasNext;
+
+    // Constructores
+    public SearchResultPageDTO() {
+    }
+
+    public SearchResultPageDTO(List<SearchResultDTO> content, int page, int size, boolean hasNext) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas con límite {@code size + 1}: la fila sobrante solo indica
+     * que hay más resultados y no se devuelve.
+     */
+    public static SearchResultPageDTO of(List<SearchResultDTO> rows, int page, int size) {
+        boolean hasNext = rows.size() > size;
+        return new SearchResultPageDTO(hasNext ? rows.subList(0, size) : rows, page, size, hasNext);
+    }
+
+    // Getters y Setters
+    public List<SearchResultDTO> getContent() { return content; }
+    public void setContent(List<SearchResultDTO> content) { this.content = content; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
@@ -1,5 +1,7 @@
 package com.crmtech360.crmtech360_backend.entity;
 
+import com.crmtech360.crmtech360_backend.autocomplete.TypeaheadEntityListener;
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeyEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -7,10 +9,12 @@ import java.util.Set;
 
 @Entity
 @Table(name = "clientes")
+@EntityListeners({TypeaheadEntityListener.class, UniqueKeyEntityListener.class})
 public class Cliente {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_seq")
+    @SequenceGenerator(name = "clientes_seq", sequenceName = "clientes_seq", allocationSize = 50)
     @Column(name = "id_cliente")
     private Integer idCliente;
 
@@ -8,7 +8,8 @@ import java.util.Objects;
 public class ContactoCliente {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contactoscliente_seq")
+    @SequenceGenerator(name = "contactoscliente_seq", sequenceName = "contactoscliente_seq", allocationSize = 50)
     @Column(name = "id_contacto")
     private Integer idContacto;
 
@@ -2,14 +2,14 @@ package com.crmtech360.crmtech360_backend.entity;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
-import java.util.Objects;
 
 @Entity
 @Table(name = "detallesordencompra")
 public class DetalleOrdenCompra {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detallesordencompra_seq")
+    @SequenceGenerator(name = "detallesordencompra_seq", sequenceName = "detallesordencompra_seq", allocationSize = 50)
     @Column(name = "id_detalle_compra")
     private Integer idDetalleCompra;
 
@@ -97,12 +97,15 @@ public class DetalleOrdenCompra {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DetalleOrdenCompra that = (DetalleOrdenCompra) o;
-        return Objects.equals(idDetalleCompra, that.idDetalleCompra);
+        // Las líneas aún no persistidas no tienen ID: solo son iguales a sí mismas, para que varias
+        // líneas nuevas puedan convivir en el Set de la orden antes del flush.
+        return idDetalleCompra != null && idDetalleCompra.equals(that.idDetalleCompra);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(idDetalleCompra);
+        // Constante por clase: el ID se asigna al persistir y no debe cambiar el bucket del HashSet.
+        return getClass().hashCode();
     }
 
     // toString
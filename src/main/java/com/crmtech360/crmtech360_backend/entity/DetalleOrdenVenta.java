@@ -2,14 +2,14 @@ package com.crmtech360.crmtech360_backend.entity;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
-import java.util.Objects;
 
 @Entity
 @Table(name = "detallesordenventa")
 public class DetalleOrdenVenta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detallesordenventa_seq")
+    @SequenceGenerator(name = "detallesordenventa_seq", sequenceName = "detallesordenventa_seq", allocationSize = 50)
     @Column(name = "id_detalle_orden")
     private Integer idDetalleOrden;
 
@@ -97,12 +97,15 @@ public class DetalleOrdenVenta {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DetalleOrdenVenta that = (DetalleOrdenVenta) o;
-        return Objects.equals(idDetalleOrden, that.idDetalleOrden);
+        // Las líneas aún no persistidas no tienen ID: solo son iguales a sí mismas, para que varias
+        // líneas nuevas puedan convivir en el Set de la orden antes del flush.
+        return idDetalleOrden != null && idDetalleOrden.equals(that.idDetalleOrden);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(idDetalleOrden);
+        // Constante por clase: el ID se asigna al persistir y no debe cambiar el bucket del HashSet.
+        return getClass().hashCode();
     }
 
     // toString
@@ -12,7 +12,8 @@ import java.util.Set;
 public class Empleado {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "empleados_seq")
+    @SequenceGenerator(name = "empleados_seq", sequenceName = "empleados_seq", allocationSize = 50)
     @Column(name = "id_empleado")
     private Integer idEmpleado;
 
@@ -1,16 +1,21 @@
 package com.crmtech360.crmtech360_backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
 @Table(name = "insumos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "insumo")
 public class Insumo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "insumos_seq")
+    @SequenceGenerator(name = "insumos_seq", sequenceName = "insumos_seq", allocationSize = 50)
     @Column(name = "id_insumo")
     private Integer idInsumo;
 
@@ -33,6 +38,7 @@ public class Insumo {
     private LocalDateTime fechaActualizacion;
 
     @OneToMany(mappedBy = "insumo", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "insumo.insumosPorProducto")
     private Set<InsumoPorProducto> insumosPorProducto;
 
     @OneToMany(mappedBy = "insumo", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
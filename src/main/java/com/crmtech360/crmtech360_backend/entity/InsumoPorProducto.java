@@ -1,11 +1,15 @@
 package com.crmtech360.crmtech360_backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.util.Objects;
 
 @Entity
 @Table(name = "insumosporproducto")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "insumoPorProducto")
 public class InsumoPorProducto {
 
     @EmbeddedId
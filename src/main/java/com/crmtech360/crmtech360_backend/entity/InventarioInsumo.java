@@ -13,7 +13,8 @@ import java.util.Set;
 public class InventarioInsumo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventarioinsumos_seq")
+    @SequenceGenerator(name = "inventarioinsumos_seq", sequenceName = "inventarioinsumos_seq", allocationSize = 50)
     @Column(name = "id_inventario_insumo")
     private Integer idInventarioInsumo;
 
@@ -30,6 +31,11 @@ public class InventarioInsumo {
     @Column(name = "ultima_actualizacion", columnDefinition = "TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime ultimaActualizacion;
 
+    // Bloqueo optimista: evita que dos actualizaciones concurrentes del stock se sobrescriban.
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "inventarioInsumo", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<MovimientoInventarioInsumo> movimientosInventarioInsumo;
 
@@ -98,6 +104,14 @@ public class InventarioInsumo {
         this.ultimaActualizacion = ultimaActualizacion;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Set<MovimientoInventarioInsumo> getMovimientosInventarioInsumo() {
         return movimientosInventarioInsumo;
     }
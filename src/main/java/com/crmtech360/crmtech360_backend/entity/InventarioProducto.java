@@ -12,7 +12,8 @@ import java.util.Set;
 public class InventarioProducto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventarioproductos_seq")
+    @SequenceGenerator(name = "inventarioproductos_seq", sequenceName = "inventarioproductos_seq", allocationSize = 50)
     @Column(name = "id_inventario_producto")
     private Integer idInventarioProducto;
 
@@ -29,6 +30,11 @@ public class InventarioProducto {
     @Column(name = "ultima_actualizacion", columnDefinition = "TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime ultimaActualizacion;
 
+    // Bloqueo optimista: evita que dos actualizaciones concurrentes del stock se sobrescriban.
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "inventarioProducto", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<MovimientoInventarioProducto> movimientosInventarioProducto;
 
@@ -97,6 +103,14 @@ public class InventarioProducto {
         this.ultimaActualizacion = ultimaActualizacion;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Set<MovimientoInventarioProducto> getMovimientosInventarioProducto() {
         return movimientosInventarioProducto;
     }
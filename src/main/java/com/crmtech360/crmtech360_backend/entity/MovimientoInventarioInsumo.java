@@ -10,7 +10,8 @@ import java.util.Objects;
 public class MovimientoInventarioInsumo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientosinventarioinsumos_seq")
+    @SequenceGenerator(name = "movimientosinventarioinsumos_seq", sequenceName = "movimientosinventarioinsumos_seq", allocationSize = 50)
     @Column(name = "id_movimiento_insumo")
     private Integer idMovimientoInsumo;
 
@@ -9,7 +9,8 @@ import java.util.Objects;
 public class MovimientoInventarioProducto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientosinventarioproductos_seq")
+    @SequenceGenerator(name = "movimientosinventarioproductos_seq", sequenceName = "movimientosinventarioproductos_seq", allocationSize = 50)
     @Column(name = "id_movimiento_producto")
     private Integer idMovimientoProducto;
 
@@ -9,10 +9,20 @@ import java.util.Set;
 
 @Entity
 @Table(name = "ordenescompra")
+// Cabecera + proveedor + líneas con su insumo: todo lo que usa OrdenCompraResponseDTO.
+@NamedEntityGraph(name = OrdenCompra.GRAPH_DETALLE,
+        attributeNodes = {
+                @NamedAttributeNode("proveedor"),
+                @NamedAttributeNode(value = "detallesOrdenCompra", subgraph = "detalles")
+        },
+        subgraphs = @NamedSubgraph(name = "detalles", attributeNodes = @NamedAttributeNode("insumo")))
 public class OrdenCompra {
 
+    public static final String GRAPH_DETALLE = "OrdenCompra.detalle";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ordenescompra_seq")
+    @SequenceGenerator(name = "ordenescompra_seq", sequenceName = "ordenescompra_seq", allocationSize = 50)
     @Column(name = "id_orden_compra")
     private Integer idOrdenCompra;
 
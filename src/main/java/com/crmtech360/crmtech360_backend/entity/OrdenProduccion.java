@@ -8,10 +8,25 @@ import java.util.Set;
 
 @Entity
 @Table(name = "ordenesproduccion")
+// OV con su cliente + tareas con su empleado: todo lo que usa OrdenProduccionResponseDTO.
+@NamedEntityGraph(name = OrdenProduccion.GRAPH_DETALLE,
+        attributeNodes = {
+                @NamedAttributeNode(value = "ordenVenta", subgraph = "ordenVenta"),
+                @NamedAttributeNode(value = "tareasProduccion", subgraph = "tareas")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "ordenVenta", attributeNodes = @NamedAttributeNode("cliente")),
+                @NamedSubgraph(name = "tareas", attributeNodes = @NamedAttributeNode(value = "empleado", subgraph = "empleado")),
+                // Empleado.usuario es el lado inverso de un OneToOne: sin cargarlo aquí Hibernate lanzaría una consulta por tarea.
+                @NamedSubgraph(name = "empleado", attributeNodes = @NamedAttributeNode("usuario"))
+        })
 public class OrdenProduccion {
 
+    public static final String GRAPH_DETALLE = "OrdenProduccion.detalle";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ordenesproduccion_seq")
+    @SequenceGenerator(name = "ordenesproduccion_seq", sequenceName = "ordenesproduccion_seq", allocationSize = 50)
     @Column(name = "id_orden_produccion")
     private Integer idOrdenProduccion;
 
@@ -9,10 +9,20 @@ import java.util.Set;
 
 @Entity
 @Table(name = "ordenesventa")
+// Cabecera + cliente + líneas con su producto: todo lo que usa OrdenVentaResponseDTO.
+@NamedEntityGraph(name = OrdenVenta.GRAPH_DETALLE,
+        attributeNodes = {
+                @NamedAttributeNode("cliente"),
+                @NamedAttributeNode(value = "detallesOrdenVenta", subgraph = "detalles")
+        },
+        subgraphs = @NamedSubgraph(name = "detalles", attributeNodes = @NamedAttributeNode("producto")))
 public class OrdenVenta {
 
+    public static final String GRAPH_DETALLE = "OrdenVenta.detalle";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ordenesventa_seq")
+    @SequenceGenerator(name = "ordenesventa_seq", sequenceName = "ordenesventa_seq", allocationSize = 50)
     @Column(name = "id_orden_venta")
     private Integer idOrdenVenta;
 
@@ -8,10 +8,23 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "pagoscobros")
+// OV con su cliente y OC con su proveedor (solo asociaciones a-uno, compatible con paginación en BD).
+@NamedEntityGraph(name = PagoCobro.GRAPH_DETALLE,
+        attributeNodes = {
+                @NamedAttributeNode(value = "ordenVenta", subgraph = "ordenVenta"),
+                @NamedAttributeNode(value = "ordenCompra", subgraph = "ordenCompra")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "ordenVenta", attributeNodes = @NamedAttributeNode("cliente")),
+                @NamedSubgraph(name = "ordenCompra", attributeNodes = @NamedAttributeNode("proveedor"))
+        })
 public class PagoCobro {
 
+    public static final String GRAPH_DETALLE = "PagoCobro.detalle";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pagoscobros_seq")
+    @SequenceGenerator(name = "pagoscobros_seq", sequenceName = "pagoscobros_seq", allocationSize = 50)
     @Column(name = "id_pago_cobro")
     private Integer idPagoCobro;
 
@@ -1,15 +1,20 @@
 package com.crmtech360.crmtech360_backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
 @Table(name = "permisos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "permiso")
 public class Permiso {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "permisos_seq")
+    @SequenceGenerator(name = "permisos_seq", sequenceName = "permisos_seq", allocationSize = 50)
     @Column(name = "id_permiso")
     private Integer idPermiso;
 
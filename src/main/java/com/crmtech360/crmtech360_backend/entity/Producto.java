@@ -1,6 +1,10 @@
 package com.crmtech360.crmtech360_backend.entity;
 
+import com.crmtech360.crmtech360_backend.autocomplete.TypeaheadEntityListener;
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeyEntityListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -8,10 +12,14 @@ import java.util.Set;
 
 @Entity
 @Table(name = "productos")
+@EntityListeners({TypeaheadEntityListener.class, UniqueKeyEntityListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "producto")
 public class Producto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = 50)
     @Column(name = "id_producto")
     private Integer idProducto;
 
@@ -55,6 +63,7 @@ public class Producto {
     private Set<DetalleOrdenVenta> detallesOrdenVenta;
 
     @OneToMany(mappedBy = "producto", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "producto.insumosPorProducto")
     private Set<InsumoPorProducto> insumosPorProducto;
 
     @OneToMany(mappedBy = "producto", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
@@ -1,16 +1,23 @@
 package com.crmtech360.crmtech360_backend.entity;
 
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeyEntityListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
 @Table(name = "proveedores")
+@EntityListeners(UniqueKeyEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proveedor")
 public class Proveedor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "proveedores_seq")
+    @SequenceGenerator(name = "proveedores_seq", sequenceName = "proveedores_seq", allocationSize = 50)
     @Column(name = "id_proveedor")
     private Integer idProveedor;
 
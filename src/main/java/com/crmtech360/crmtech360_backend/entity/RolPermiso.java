@@ -10,7 +10,8 @@ import java.util.Objects;
 public class RolPermiso {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rolespermisos_seq")
+    @SequenceGenerator(name = "rolespermisos_seq", sequenceName = "rolespermisos_seq", allocationSize = 50)
     @Column(name = "id_rol_permiso")
     private Integer idRolPermiso;
 
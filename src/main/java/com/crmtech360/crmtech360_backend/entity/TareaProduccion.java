@@ -10,7 +10,8 @@ import java.util.Objects;
 public class TareaProduccion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tareasproduccion_seq")
+    @SequenceGenerator(name = "tareasproduccion_seq", sequenceName = "tareasproduccion_seq", allocationSize = 50)
     @Column(name = "id_tarea_produccion")
     private Integer idTareaProduccion;
 
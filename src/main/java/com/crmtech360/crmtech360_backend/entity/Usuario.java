@@ -1,15 +1,18 @@
 package com.crmtech360.crmtech360_backend.entity;
 
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeyEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
 @Table(name = "usuarios")
+@EntityListeners(UniqueKeyEntityListener.class)
 public class Usuario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     @Column(name = "id_usuario")
     private Integer idUsuario;
 
@@ -35,6 +38,10 @@ public class Usuario {
     @Column(name = "fecha_actualizacion")
     private LocalDateTime fechaActualizacion;
 
+    // Solo la modifica UsuarioRepository.incrementarGeneracionToken: nunca se escribe al guardar la entidad.
+    @Column(name = "generacion_token", nullable = false, updatable = false)
+    private int generacionToken;
+
     // Constructores
     public Usuario() {
     }
@@ -113,6 +120,10 @@ public class Usuario {
         this.fechaActualizacion = fechaActualizacion;
     }
 
+    public int getGeneracionToken() {
+        return generacionToken;
+    }
+
     // equals y hashCode (basado en nombreUsuario si está disponible, sino idUsuario)
     @Override
     public boolean equals(Object o) {
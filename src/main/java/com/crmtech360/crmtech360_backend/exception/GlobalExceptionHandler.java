@@ -1,13 +1,19 @@
 package com.crmtech360.crmtech360_backend.exception;
 
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadSaturatedException;
 import com.crmtech360.crmtech360_backend.dto.ApiErrorResponseDTO;
+import com.crmtech360.crmtech360_backend.security.password.PasswordHashingCapacityException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
@@ -71,6 +77,20 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Object> handleInsufficientStockException(
+            InsufficientStockException ex, WebRequest request) {
+        log.warn("Stock insuficiente: {} ({} faltantes)", ex.getMessage(), ex.getFaltantes().size());
+        ApiErrorResponseDTO errorResponse = new ApiErrorResponseDTO(
+                HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", ""),
+                ex.getFaltantes()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(UnauthorizedOperationException.class)
     public ResponseEntity<Object> handleUnauthorizedOperationException(
             UnauthorizedOperationException ex, WebRequest request) {
@@ -192,6 +212,65 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        log.warn("Conflicto de concurrencia no resuelto: {}", ex.getMessage());
+        ApiErrorResponseDTO errorResponse = new ApiErrorResponseDTO(
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                "El registro fue modificado por otra operación al mismo tiempo. Por favor, intente de nuevo.",
+                request.getDescription(false).replace("uri=", "")
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PasswordHashingCapacityException.class)
+    public ResponseEntity<Object> handlePasswordHashingCapacityException(
+            PasswordHashingCapacityException ex, WebRequest request) {
+        log.warn("Pool de hashing de contraseñas saturado: {}", ex.getMessage());
+        ApiErrorResponseDTO errorResponse = new ApiErrorResponseDTO(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(WorkloadSaturatedException.class)
+    public ResponseEntity<Object> handleWorkloadSaturatedException(
+            WorkloadSaturatedException ex, WebRequest request) {
+        // El compartimento ya registra el rechazo con su estado; aquí solo se responde sin esperar más.
+        ApiErrorResponseDTO errorResponse = new ApiErrorResponseDTO(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Object> handleDatabaseUnavailableException(NestedRuntimeException ex, WebRequest request) {
+        // Sin conexión disponible (limitador de permisos, pool agotado o base de datos caída): se responde 503 para
+        // que el cliente reintente, en lugar de un 500 con la traza.
+        log.warn("Base de datos no disponible: {}", ex.getMostSpecificCause().getMessage());
+        ApiErrorResponseDTO errorResponse = new ApiErrorResponseDTO(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                "El servicio está saturado en este momento. Intente de nuevo en unos segundos.",
+                request.getDescription(false).replace("uri=", "")
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
 
     // --- Manejador Genérico para Otras Excepciones ---
     @ExceptionHandler(Exception.class)
@@ -0,0 +1,27 @@
+package com.crmtech360.crmtech360_backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+
+/**
+ * Stock insuficiente para una operación que involucra varios insumos o productos a la vez.
+ * Lleva la lista completa de faltantes para informarlos todos en una sola respuesta (campo "details").
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InsufficientStockException extends BadRequestException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> faltantes;
+
+    public InsufficientStockException(String message, List<String> faltantes) {
+        super(message);
+        this.faltantes = List.copyOf(faltantes);
+    }
+
+    public List<String> getFaltantes() {
+        return faltantes;
+    }
+}
@@ -0,0 +1,125 @@
+package com.crmtech360.crmtech360_backend.logging;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Genera un evento de auditoría por cada operación de negocio marcada con {@link AuditedOperation}.
+ * Solo se registran los argumentos escalares (IDs, nombres de rol, ubicaciones) y el ID del recurso devuelto;
+ * los DTOs nunca se vuelcan para no filtrar datos personales ni contraseñas, y los argumentos cuyo nombre indica
+ * una credencial (password, contraseña, token, secret) se omiten aunque sean texto.
+ * <p>
+ * El resultado registrado es el de la transacción, no solo el del método: el aspecto es el más externo (por fuera
+ * del interceptor transaccional, de {@code StockConflictRetryAspect} y de los compartimentos), así que un fallo al
+ * hacer flush o commit (un lote de inserciones, una clave UNIQUE duplicada) se audita como fallo. Si la operación se
+ * llama dentro de una transacción ya abierta, el evento se emite al terminar esa transacción, con
+ * {@code RolledBack} como resultado si no llega a confirmarse.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AuditEventAspect {
+
+    static final String DESHECHA = "RolledBack";
+
+    private static final Pattern CREDENCIAL = Pattern.compile("(?i).*(password|passwd|contrase(n|ñ)a|token|secret|hash).*");
+
+    private final AuditLogger auditLogger;
+
+    // Getter "getId*" del DTO devuelto, resuelto una vez por clase.
+    private final Map<Class<?>, Optional<Method>> idGetters = new ConcurrentHashMap<>();
+
+    public AuditEventAspect(AuditLogger auditLogger) {
+        this.auditLogger = auditLogger;
+    }
+
+    @Pointcut("@annotation(com.crmtech360.crmtech360_backend.logging.AuditedOperation)")
+    public void businessOperation() {
+    }
+
+    @Around("businessOperation()")
+    public Object audit(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean transaccionExterna = TransactionSynchronizationManager.isSynchronizationActive();
+        long start = System.nanoTime();
+        String outcome = "OK";
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable t) {
+            outcome = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            String operation = signature.getDeclaringType().getSimpleName().replace("ServiceImpl", "") + "." + signature.getName();
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            Map<String, Object> attributes = attributes(signature.getParameterNames(), joinPoint.getArgs(), result);
+            if (transaccionExterna && "OK".equals(outcome) && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        auditLogger.record(operation, status == STATUS_COMMITTED ? "OK" : DESHECHA, durationMs, attributes);
+                    }
+                });
+            } else {
+                auditLogger.record(operation, outcome, durationMs, attributes);
+            }
+        }
+    }
+
+    private Map<String, Object> attributes(String[] names, Object[] args, Object result) {
+        Map<String, Object> attrs = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            String name = names != null && i < names.length ? names[i] : "arg" + i;
+            if ((arg instanceof Number || arg instanceof String || arg instanceof Boolean) && !CREDENCIAL.matcher(name).matches()) {
+                attrs.put(name, arg);
+            }
+        }
+        if (result != null) {
+            idGetters.computeIfAbsent(result.getClass(), AuditEventAspect::findIdGetter)
+                    .ifPresent(getter -> {
+                        try {
+                            attrs.put("resultId", getter.invoke(result));
+                        } catch (ReflectiveOperationException ignored) {
+                            // El ID del resultado es informativo; si no se puede leer, se omite.
+                        }
+                    });
+        }
+        return attrs;
+    }
+
+    // Prefiere el getter que coincide con el nombre del DTO (OrdenVentaResponseDTO -> getIdOrdenVenta).
+    private static Optional<Method> findIdGetter(Class<?> type) {
+        String preferred = "getId" + type.getSimpleName().replaceAll("(Response|Summary)?DTO$", "");
+        Method fallback = null;
+        for (Method method : type.getMethods()) {
+            if (method.getName().startsWith("getId") && method.getParameterCount() == 0
+                    && Modifier.isPublic(method.getModifiers()) && Number.class.isAssignableFrom(method.getReturnType())) {
+                if (method.getName().equals(preferred)) {
+                    return Optional.of(method);
+                }
+                if (fallback == null) {
+                    fallback = method;
+                }
+            }
+        }
+        return Optional.ofNullable(fallback);
+    }
+}
@@ -0,0 +1,47 @@
+package com.crmtech360.crmtech360_backend.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Emite un único evento de auditoría estructurado (pares clave-valor) por operación de negocio.
+ * Los eventos salen por la categoría "audit", que nunca se muestrea y que en logback-spring.xml
+ * se escribe de forma asíncrona junto con el resto de logs.
+ */
+@Component
+public class AuditLogger {
+
+    private static final Logger audit = LoggerFactory.getLogger("audit");
+
+    /**
+     * @param operation  Nombre de la operación (ej. "OrdenVenta.createOrdenVenta").
+     * @param outcome    "OK" o el nombre simple de la excepción que la hizo fallar.
+     * @param durationMs Duración de la operación en milisegundos.
+     * @param attributes Atributos adicionales (IDs involucrados, etc.). No debe contener datos sensibles.
+     */
+    public void record(String operation, String outcome, long durationMs, Map<String, Object> attributes) {
+        if (!audit.isInfoEnabled()) {
+            return;
+        }
+        LoggingEventBuilder event = audit.atInfo()
+                .addKeyValue("operation", operation)
+                .addKeyValue("user", currentUser())
+                .addKeyValue("outcome", outcome)
+                .addKeyValue("durationMs", durationMs);
+        if (attributes != null) {
+            attributes.forEach(event::addKeyValue);
+        }
+        event.log("audit {} {}", operation, outcome);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+}
@@ -0,0 +1,19 @@
+package com.crmtech360.crmtech360_backend.logging;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca una operación de negocio de la capa de servicios que debe generar un evento de auditoría
+ * ({@link AuditEventAspect}). Se declara método a método: un método nuevo no se audita por llamarse
+ * {@code update*}, y los métodos de infraestructura (p. ej. la actualización del hash de contraseña de
+ * {@code UserDetailsServiceImpl}) quedan fuera.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AuditedOperation {
+}
@@ -0,0 +1,75 @@
+package com.crmtech360.crmtech360_backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TurboFilter de Logback que muestrea los eventos INFO/DEBUG/TRACE por categoría (prefijo de logger):
+ * con una tasa N solo se deja pasar 1 de cada N eventos. WARN y ERROR nunca se muestrean.
+ * Se configura en logback-spring.xml con elementos {@code <sample>prefijo=N</sample>}; gana el prefijo más largo.
+ * Se evalúa antes de construir el evento, así que los eventos descartados no reservan memoria ni ocupan el buffer.
+ */
+public class CategorySamplingTurboFilter extends TurboFilter {
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Añade una regla con el formato {@code prefijo.de.logger=N}.
+     */
+    public void addSample(String spec) {
+        int idx = spec.lastIndexOf('=');
+        if (idx <= 0) {
+            addError("Regla de muestreo inválida (se espera 'prefijo=N'): " + spec);
+            return;
+        }
+        String prefix = spec.substring(0, idx).trim();
+        int rate;
+        try {
+            rate = Integer.parseInt(spec.substring(idx + 1).trim());
+        } catch (NumberFormatException e) {
+            addError("Tasa de muestreo inválida en la regla: " + spec);
+            return;
+        }
+        if (rate > 1) {
+            rules.add(new Rule(prefix, rate));
+            // Prefijos más largos primero para que la regla más específica gane.
+            rules.sort((a, b) -> Integer.compare(b.prefix.length(), a.prefix.length()));
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || !isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (Rule rule : rules) {
+            if (name.startsWith(rule.prefix)) {
+                // Solo se muestrea lo que el nivel del logger dejaría pasar.
+                if (!logger.isEnabledFor(level)) {
+                    return FilterReply.NEUTRAL;
+                }
+                return rule.counter.getAndIncrement() % rule.rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private static final class Rule {
+        final String prefix;
+        final int rate;
+        final AtomicLong counter = new AtomicLong();
+
+        Rule(String prefix, int rate) {
+            this.prefix = prefix;
+            this.rate = rate;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.crmtech360.crmtech360_backend.pagination;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * Página cuyo total de elementos es una estimación de las estadísticas del planificador de PostgreSQL
+ * y no un COUNT(*) exacto. Los controladores lo indican con la cabecera {@value #HEADER}.
+ */
+public class EstimatedPage<T> extends PageImpl<T> {
+
+    public static final String HEADER = "X-Total-Count-Estimated";
+
+    public EstimatedPage(List<T> content, Pageable pageable, long estimatedTotal) {
+        super(content, pageable, estimatedTotal);
+    }
+
+    /**
+     * Cabeceras de respuesta para una página: {@value #HEADER}: true si el total es estimado, ninguna si es exacto.
+     */
+    public static HttpHeaders headersFor(Page<?> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page instanceof EstimatedPage<?>) {
+            headers.set(HEADER, "true");
+        }
+        return headers;
+    }
+}
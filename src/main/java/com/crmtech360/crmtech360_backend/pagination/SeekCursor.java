@@ -0,0 +1,54 @@
+package com.crmtech360.crmtech360_backend.pagination;
+
+import com.crmtech360.crmtech360_backend.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de una paginación por keyset (seek) sobre la clave compuesta (fecha, id), ordenada de más reciente a más antiguo.
+ * Viaja al cliente como un token opaco (Base64 URL-safe); el cliente solo lo devuelve tal cual para pedir la página siguiente.
+ * El id desempata filas con la misma fecha, así el orden es total y ninguna fila se repite ni se salta entre páginas.
+ */
+public record SeekCursor(LocalDateTime fecha, Integer id) {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    public String encode() {
+        String raw = fecha + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return el cursor decodificado, o {@code null} si no se envió (primera página).
+     * @throws BadRequestException si el token no es un cursor válido.
+     */
+    public static SeekCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            if (sep <= 0) {
+                throw new BadRequestException("Cursor de paginación inválido.");
+            }
+            return new SeekCursor(LocalDateTime.parse(raw.substring(0, sep)), Integer.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Cursor de paginación inválido.", e);
+        }
+    }
+
+    /**
+     * Ajusta el tamaño de página pedido al rango [1, {@value #MAX_SIZE}].
+     */
+    public static int clampSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
@@ -0,0 +1,121 @@
+package com.crmtech360.crmtech360_backend.pagination;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Calcula el total de una página sin COUNT(*) cuando la tabla es grande, usando las estadísticas del planificador
+ * de PostgreSQL: {@code pg_class.reltuples} para listados sin filtro y la estimación de filas de EXPLAIN para
+ * listados filtrados por una columna indexada. Por debajo del umbral configurado (o si no hay estadísticas,
+ * o la base de datos no es PostgreSQL) se usa el conteo exacto, que en tablas pequeñas es barato.
+ * Los nombres de tabla y columna los fija el código llamante; nunca provienen de la petición.
+ */
+@Component
+public class TotalCountEstimator {
+
+    private static final Logger log = LoggerFactory.getLogger(TotalCountEstimator.class);
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final long umbral;
+    private volatile Boolean postgres;
+
+    public TotalCountEstimator(@Value("${paginacion.total-estimado.umbral:100000}") long umbral) {
+        this.umbral = umbral;
+    }
+
+    /**
+     * Página de un listado sin filtro sobre {@code tabla}.
+     */
+    public <T> Page<T> toPage(Slice<T> slice, Pageable pageable, String tabla, LongSupplier exactCount) {
+        return toPage(slice, pageable, () -> estimateTable(tabla), exactCount);
+    }
+
+    /**
+     * Página de un listado filtrado por {@code columna = valor} sobre {@code tabla}.
+     */
+    public <T> Page<T> toPage(Slice<T> slice, Pageable pageable, String tabla, String columna, Integer valor, LongSupplier exactCount) {
+        return toPage(slice, pageable, () -> estimateWhere(tabla, columna, valor), exactCount);
+    }
+
+    <T> Page<T> toPage(Slice<T> slice, Pageable pageable, Supplier<OptionalLong> estimate, LongSupplier exactCount) {
+        List<T> content = slice.getContent();
+        // Una página vacía más allá de la primera solo dice que el total no llega al offset, no cuál es.
+        boolean pasadoElFinal = content.isEmpty() && pageable.getOffset() > 0;
+        if (!slice.hasNext() && !pasadoElFinal) {
+            // Última página: el total se deduce del offset sin consultar nada más.
+            return new PageImpl<>(content, pageable, pageable.getOffset() + content.size());
+        }
+        OptionalLong estimado = estimate.get();
+        if (estimado.isPresent() && estimado.getAsLong() >= umbral) {
+            // Nunca por debajo de lo que ya sabemos que existe (filas vistas + al menos una más), ni por encima del
+            // offset si la página salió vacía.
+            long total = pasadoElFinal
+                    ? Math.min(estimado.getAsLong(), pageable.getOffset())
+                    : Math.max(estimado.getAsLong(), pageable.getOffset() + content.size() + 1);
+            return new EstimatedPage<>(content, pageable, total);
+        }
+        return new PageImpl<>(content, pageable, exactCount.getAsLong());
+    }
+
+    private OptionalLong estimateTable(String tabla) {
+        if (!isPostgres()) {
+            return OptionalLong.empty();
+        }
+        List<?> filas = entityManager
+                .createNativeQuery("SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass(:tabla)")
+                .setParameter("tabla", tabla)
+                .getResultList();
+        Number reltuples = filas.isEmpty() ? null : (Number) filas.get(0);
+        // reltuples = -1 si la tabla nunca se ha analizado (PostgreSQL 14+).
+        return reltuples != null && reltuples.longValue() >= 0 ? OptionalLong.of(reltuples.longValue()) : OptionalLong.empty();
+    }
+
+    private OptionalLong estimateWhere(String tabla, String columna, Integer valor) {
+        if (!isPostgres()) {
+            return OptionalLong.empty();
+        }
+        // EXPLAIN no admite parámetros enlazados; el valor es un Integer, así que se concatena sin riesgo.
+        List<?> plan = entityManager
+                .createNativeQuery("EXPLAIN SELECT 1 FROM " + tabla + " WHERE " + columna + " = " + valor.intValue())
+                .getResultList();
+        if (!plan.isEmpty()) {
+            Matcher matcher = PLAN_ROWS.matcher(String.valueOf(plan.get(0)));
+            if (matcher.find()) {
+                return OptionalLong.of(Long.parseLong(matcher.group(1)));
+            }
+        }
+        log.debug("No se pudo leer la estimación de filas del plan para {}.{}", tabla, columna);
+        return OptionalLong.empty();
+    }
+
+    private boolean isPostgres() {
+        Boolean esPostgres = postgres;
+        if (esPostgres == null) {
+            esPostgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            postgres = esPostgres;
+        }
+        return esPostgres;
+    }
+}
@@ -1,7 +1,14 @@
 package com.crmtech360.crmtech360_backend.repository;
 
 import com.crmtech360.crmtech360_backend.entity.Cliente;
+import com.crmtech360.crmtech360_backend.dto.ClienteResponseDTO;
+import com.crmtech360.crmtech360_backend.repository.projection.ClienteTypeaheadView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,4 +25,24 @@ public interface ClienteRepository extends JpaRepository<Cliente, Integer> {
     List<Cliente> findAllByOrderByNombreClienteAsc();
     boolean existsByNumeroDocumento(String numeroDocumento);
     boolean existsByCorreoClienteIgnoreCase(String correoCliente);
-}
\ No newline at end of file
+
+    // Listado proyectado directamente al DTO: sin entidades gestionadas, snapshots de dirty checking ni proxies de colecciones.
+    // Los contactos de la página se cargan aparte con ContactoClienteRepository.findViewsByClienteIds.
+    @Query(value = "SELECT new com.crmtech360.crmtech360_backend.dto.ClienteResponseDTO(c.idCliente, c.tipoDocumento, c.numeroDocumento, "
+            + "c.nombreCliente, c.direccionCliente, c.telefonoCliente, c.correoCliente, c.fechaCreacion, c.fechaActualizacion) FROM Cliente c",
+            countQuery = "SELECT COUNT(c) FROM Cliente c")
+    Page<ClienteResponseDTO> findAllResponse(Pageable pageable);
+
+    @EntityGraph(attributePaths = "contactosCliente")
+    @Query("SELECT c FROM Cliente c WHERE c.idCliente = :id")
+    Optional<Cliente> findDetalleById(@Param("id") Integer id);
+
+    // Todos los clientes para el índice de autocompletado (TypeaheadIndex), en orden de ID.
+    @Query("SELECT new com.crmtech360.crmtech360_backend.repository.projection.ClienteTypeaheadView(c.idCliente, "
+            + "c.numeroDocumento, c.nombreCliente) FROM Cliente c ORDER BY c.idCliente")
+    List<ClienteTypeaheadView> findAllTypeaheadViews();
+
+    // Documentos de todos los clientes para el filtro de Bloom de UniqueKeyFilters.
+    @Query("SELECT c.numeroDocumento FROM Cliente c")
+    List<String> findAllNumerosDocumento();
+}
@@ -2,10 +2,14 @@ package com.crmtech360.crmtech360_backend.repository;
 
 import com.crmtech360.crmtech360_backend.entity.ContactoCliente;
 import com.crmtech360.crmtech360_backend.entity.Cliente;
+import com.crmtech360.crmtech360_backend.repository.projection.ContactoClienteView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
+import java.util.Collection;
 
 @Repository
 public interface ContactoClienteRepository extends JpaRepository<ContactoCliente, Integer> {
@@ -15,4 +19,9 @@ public interface ContactoClienteRepository extends JpaRepository<ContactoCliente
     Optional<ContactoCliente> findByCorreoContactoIgnoreCase(String correoContacto);
     List<ContactoCliente> findByTelefonoContactoContaining(String telefonoContacto);
     List<ContactoCliente> findByClienteAndCargoContactoIgnoreCase(Cliente cliente, String cargoContacto);
+
+    @Query("SELECT new com.crmtech360.crmtech360_backend.repository.projection.ContactoClienteView(cc.cliente.idCliente, cc.idContacto, "
+            + "cc.nombreContacto, cc.cargoContacto, cc.telefonoContacto, cc.correoContacto) "
+            + "FROM ContactoCliente cc WHERE cc.cliente.idCliente IN :idsCliente")
+    List<ContactoClienteView> findViewsByClienteIds(@Param("idsCliente") Collection<Integer> idsCliente);
 }
\ No newline at end of file
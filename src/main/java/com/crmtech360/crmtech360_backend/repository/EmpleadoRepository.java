@@ -1,7 +1,11 @@
 package com.crmtech360.crmtech360_backend.repository;
 
 import com.crmtech360.crmtech360_backend.entity.Empleado;
+import com.crmtech360.crmtech360_backend.dto.EmpleadoResponseDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
@@ -17,4 +21,11 @@ public interface EmpleadoRepository extends JpaRepository<Empleado, Integer> {
     List<Empleado> findBySalarioEmpleadoGreaterThanEqual(java.math.BigDecimal salarioMinimo);
     List<Empleado> findAllByOrderByNombreEmpleadoAsc();
     boolean existsByNumeroDocumento(String numeroDocumento);
-}
\ No newline at end of file
+
+    // Listado proyectado directamente al DTO; el LEFT JOIN trae el resumen del usuario sin instanciar ninguna entidad.
+    @Query(value = "SELECT new com.crmtech360.crmtech360_backend.dto.EmpleadoResponseDTO(e.idEmpleado, e.tipoDocumento, e.numeroDocumento, "
+            + "e.nombreEmpleado, e.cargoEmpleado, e.areaEmpleado, e.salarioEmpleado, e.fechaContratacionEmpleado, e.fechaCreacion, "
+            + "e.fechaActualizacion, u.idUsuario, u.nombreUsuario, u.rolUsuario) FROM Empleado e LEFT JOIN e.usuario u",
+            countQuery = "SELECT COUNT(e) FROM Empleado e")
+    Page<EmpleadoResponseDTO> findAllResponse(Pageable pageable);
+}
@@ -5,15 +5,29 @@ import com.crmtech360.crmtech360_backend.entity.InsumoPorProductoId;
 import com.crmtech360.crmtech360_backend.entity.Producto;
 import com.crmtech360.crmtech360_backend.entity.Insumo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.hibernate.jpa.HibernateHints;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface InsumoPorProductoRepository extends JpaRepository<InsumoPorProducto, InsumoPorProductoId> {
     List<InsumoPorProducto> findByProducto(Producto producto);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @EntityGraph(attributePaths = {"producto", "insumo"})
     List<InsumoPorProducto> findByIdIdProducto(Integer idProducto); // Buscar por la parte del ID compuesto
     List<InsumoPorProducto> findByInsumo(Insumo insumo);
     List<InsumoPorProducto> findByIdIdInsumo(Integer idInsumo); // Buscar por la parte del ID compuesto
     Optional<InsumoPorProducto> findByProductoAndInsumo(Producto producto, Insumo insumo);
+
+    // BOM de varios productos en una sola consulta, con el insumo ya cargado.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT ipp FROM InsumoPorProducto ipp JOIN FETCH ipp.insumo WHERE ipp.id.idProducto IN :idsProducto")
+    List<InsumoPorProducto> findBomByProductoIds(@Param("idsProducto") Collection<Integer> idsProducto);
 }
\ No newline at end of file
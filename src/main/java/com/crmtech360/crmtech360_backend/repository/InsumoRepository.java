@@ -2,12 +2,16 @@ package com.crmtech360.crmtech360_backend.repository;
 
 import com.crmtech360.crmtech360_backend.entity.Insumo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
 import java.util.Optional;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface InsumoRepository extends JpaRepository<Insumo, Integer> {
+public interface InsumoRepository extends JpaRepository<Insumo, Integer>, InsumoRepositoryCustom {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Insumo> findByNombreInsumoIgnoreCase(String nombreInsumo);
     List<Insumo> findByNombreInsumoContainingIgnoreCase(String nombreInsumo);
     List<Insumo> findByUnidadMedidaInsumoIgnoreCase(String unidadMedida);
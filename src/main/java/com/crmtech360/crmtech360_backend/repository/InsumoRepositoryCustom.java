@@ -0,0 +1,20 @@
+package com.crmtech360.crmtech360_backend.repository;
+
+import com.crmtech360.crmtech360_backend.entity.Insumo;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cargas de insumos que aprovechan la caché de segundo nivel.
+ */
+public interface InsumoRepositoryCustom {
+
+    /**
+     * Carga varios insumos por ID resolviendo primero contra el contexto de persistencia y la caché de segundo nivel;
+     * solo los que no estén cacheados se leen de la base de datos, en una única consulta {@code IN}.
+     * A diferencia de {@code findAllById}, que siempre consulta la base de datos.
+     * @return Los insumos encontrados; los IDs inexistentes se omiten.
+     */
+    List<Insumo> findAllByIdCached(Collection<Integer> ids);
+}
@@ -0,0 +1,38 @@
+package com.crmtech360.crmtech360_backend.repository;
+
+import com.crmtech360.crmtech360_backend.entity.Insumo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implementación de {@link InsumoRepositoryCustom} (Spring Data la combina con InsumoRepository).
+ * Como en los métodos de SimpleJpaRepository, la lectura abre su propia transacción si no hay una en curso:
+ * sin ella la sesión obtenida con unwrap se cerraría antes de ejecutar la carga.
+ */
+@Transactional(readOnly = true)
+public class InsumoRepositoryImpl implements InsumoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Insumo> findAllByIdCached(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.unwrap(Session.class).byMultipleIds(Insumo.class)
+                .with(CacheMode.NORMAL) // sin CacheMode explícito multiLoad no consulta la caché de segundo nivel
+                .enableSessionCheck(true)
+                .multiLoad(new ArrayList<>(ids)).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -2,10 +2,19 @@ package com.crmtech360.crmtech360_backend.repository;
 
 import com.crmtech360.crmtech360_backend.entity.InventarioInsumo;
 import com.crmtech360.crmtech360_backend.entity.Insumo;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +22,7 @@ import java.util.Optional;
 public interface InventarioInsumoRepository extends JpaRepository<InventarioInsumo, Integer> {
     Optional<InventarioInsumo> findByUbicacionInventarioAndInsumo(String ubicacionInventario, Insumo insumo);
     List<InventarioInsumo> findByInsumo(Insumo insumo);
+    @EntityGraph(attributePaths = "insumo")
     List<InventarioInsumo> findByInsumoIdInsumo(Integer idInsumo);
     List<InventarioInsumo> findByUbicacionInventarioIgnoreCase(String ubicacionInventario);
     List<InventarioInsumo> findByInsumoAndCantidadStockLessThan(Insumo insumo, BigDecimal cantidadMinima);
@@ -20,4 +30,38 @@ public interface InventarioInsumoRepository extends JpaRepository<InventarioInsu
     // Para encontrar insumos cuyo stock actual está por debajo de su stock_minimo_insumo definido en la tabla Insumos
     @Query("SELECT ii FROM InventarioInsumo ii WHERE ii.cantidadStock < ii.insumo.stockMinimoInsumo")
     List<InventarioInsumo> findInsumosBajoStockMinimo();
-}
\ No newline at end of file
+
+    /**
+     * Bloquea (SELECT ... FOR UPDATE) los registros de inventario de varios insumos en una ubicación con una sola consulta.
+     * Se ordenan por ID para que dos transacciones concurrentes tomen los bloqueos en el mismo orden y no se interbloqueen.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ii FROM InventarioInsumo ii JOIN FETCH ii.insumo " +
+            "WHERE ii.ubicacionInventario = :ubicacion AND ii.insumo.idInsumo IN :idsInsumo ORDER BY ii.idInventarioInsumo")
+    List<InventarioInsumo> lockByUbicacionAndInsumoIds(@Param("ubicacion") String ubicacion, @Param("idsInsumo") Collection<Integer> idsInsumo);
+
+    /**
+     * Descuenta stock de forma atómica: la condición {@code cantidadStock >= cantidad} se evalúa en la misma sentencia
+     * UPDATE, así que dos salidas concurrentes nunca pueden dejar el stock en negativo.
+     * Al terminar vacía el contexto de persistencia (igual que {@code incrementarStock}): una entidad cargada antes
+     * conservaría el stock y la versión anteriores, y la siguiente lectura la devolvería así.
+     * @return 1 si se descontó, 0 si el registro no existe o el stock es insuficiente.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventarioInsumo ii SET ii.cantidadStock = ii.cantidadStock - :cantidad, ii.ultimaActualizacion = :ahora, ii.version = ii.version + 1 " +
+            "WHERE ii.idInventarioInsumo = :id AND ii.cantidadStock >= :cantidad")
+    int decrementarStock(@Param("id") Integer id, @Param("cantidad") BigDecimal cantidad, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Suma stock de forma atómica (sin leer-modificar-escribir desde la aplicación).
+     * @return 1 si se actualizó, 0 si el registro no existe.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventarioInsumo ii SET ii.cantidadStock = ii.cantidadStock + :cantidad, ii.ultimaActualizacion = :ahora, ii.version = ii.version + 1 " +
+            "WHERE ii.idInventarioInsumo = :id")
+    int incrementarStock(@Param("id") Integer id, @Param("cantidad") BigDecimal cantidad, @Param("ahora") LocalDateTime ahora);
+
+    @Override
+    @EntityGraph(attributePaths = "insumo")
+    Page<InventarioInsumo> findAll(Pageable pageable);
+}
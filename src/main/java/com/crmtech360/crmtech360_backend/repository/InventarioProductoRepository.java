@@ -3,15 +3,22 @@ package com.crmtech360.crmtech360_backend.repository;
 import com.crmtech360.crmtech360_backend.entity.InventarioProducto;
 import com.crmtech360.crmtech360_backend.entity.Producto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventarioProductoRepository extends JpaRepository<InventarioProducto, Integer> {
+public interface InventarioProductoRepository extends JpaRepository<InventarioProducto, Integer>, InventarioProductoRepositoryCustom {
     Optional<InventarioProducto> findByUbicacionInventarioAndProducto(String ubicacionInventario, Producto producto);
     List<InventarioProducto> findByProducto(Producto producto);
+    @EntityGraph(attributePaths = "producto")
     List<InventarioProducto> findByProductoIdProducto(Integer idProducto);
     List<InventarioProducto> findByUbicacionInventarioIgnoreCase(String ubicacionInventario);
     List<InventarioProducto> findByProductoAndCantidadStockLessThan(Producto producto, Integer cantidadMinima);
@@ -22,4 +29,29 @@ public interface InventarioProductoRepository extends JpaRepository<InventarioPr
     // Para ahora, asumimos que el "stock mínimo" es un parámetro.
     @Query("SELECT ip FROM InventarioProducto ip WHERE ip.cantidadStock < ?1")
     List<InventarioProducto> findProductosConStockBajo(Integer stockMinimoParametro);
-}
\ No newline at end of file
+
+    /**
+     * Descuenta stock de forma atómica: la condición {@code cantidadStock >= cantidad} se evalúa en la misma sentencia
+     * UPDATE, así que dos salidas concurrentes nunca pueden dejar el stock en negativo.
+     * Al terminar vacía el contexto de persistencia (igual que {@code incrementarStock}): una entidad cargada antes
+     * conservaría el stock y la versión anteriores, y la siguiente lectura la devolvería así.
+     * @return 1 si se descontó, 0 si el registro no existe o el stock es insuficiente.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventarioProducto ip SET ip.cantidadStock = ip.cantidadStock - :cantidad, ip.ultimaActualizacion = :ahora, ip.version = ip.version + 1 " +
+            "WHERE ip.idInventarioProducto = :id AND ip.cantidadStock >= :cantidad")
+    int decrementarStock(@Param("id") Integer id, @Param("cantidad") Integer cantidad, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Suma stock de forma atómica (sin leer-modificar-escribir desde la aplicación).
+     * @return 1 si se actualizó, 0 si el registro no existe.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventarioProducto ip SET ip.cantidadStock = ip.cantidadStock + :cantidad, ip.ultimaActualizacion = :ahora, ip.version = ip.version + 1 " +
+            "WHERE ip.idInventarioProducto = :id")
+    int incrementarStock(@Param("id") Integer id, @Param("cantidad") Integer cantidad, @Param("ahora") LocalDateTime ahora);
+
+    @Override
+    @EntityGraph(attributePaths = "producto")
+    Page<InventarioProducto> findAll(Pageable pageable);
+}
@@ -0,0 +1,20 @@
+package com.crmtech360.crmtech360_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Operaciones de inventario de productos que no se pueden expresar como consultas derivadas o JPQL.
+ */
+public interface InventarioProductoRepositoryCustom {
+
+    /**
+     * Suma las cantidades indicadas al stock de cada producto en la ubicación dada, creando el registro de
+     * inventario si no existe. Usa un único {@code INSERT ... ON CONFLICT (ubicacion_inventario, id_producto) DO UPDATE}
+     * por lote de productos (PostgreSQL), precedido de una consulta de los registros ya existentes: solo los productos
+     * sin registro reciben un ID nuevo.
+     * @param cantidadPorProducto Cantidad a ingresar por ID de producto (ya agregada).
+     * @return ID del registro de inventario afectado por cada ID de producto.
+     */
+    Map<Integer, Integer> upsertStock(String ubicacion, Map<Integer, Integer> cantidadPorProducto, LocalDateTime ahora);
+}
@@ -0,0 +1,103 @@
+package com.crmtech360.crmtech360_backend.repository;
+
+import com.crmtech360.crmtech360_backend.entity.InventarioProducto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación de {@link InventarioProductoRepositoryCustom} (Spring Data la combina con InventarioProductoRepository).
+ */
+public class InventarioProductoRepositoryImpl implements InventarioProductoRepositoryCustom {
+
+    // Productos por sentencia: 3 parámetros por fila, muy por debajo del límite de 65535 del protocolo de PostgreSQL.
+    private static final int UPSERT_BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Map<Integer, Integer> upsertStock(String ubicacion, Map<Integer, Integer> cantidadPorProducto, LocalDateTime ahora) {
+        Map<Integer, Integer> inventarioPorProducto = new HashMap<>();
+        List<Map.Entry<Integer, Integer>> entradas = new ArrayList<>(cantidadPorProducto.entrySet());
+        for (int desde = 0; desde < entradas.size(); desde += UPSERT_BATCH_SIZE) {
+            List<Map.Entry<Integer, Integer>> lote = entradas.subList(desde, Math.min(desde + UPSERT_BATCH_SIZE, entradas.size()));
+            inventarioPorProducto.putAll(upsertLote(ubicacion, lote, ahora));
+        }
+        return inventarioPorProducto;
+    }
+
+    private Map<Integer, Integer> upsertLote(String ubicacion, List<Map.Entry<Integer, Integer>> lote, LocalDateTime ahora) {
+        Map<Integer, Integer> idPorProducto = idsDeInventario(ubicacion, lote);
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO inventarioproductos (id_inventario_producto, ubicacion_inventario, id_producto, cantidad_stock, ultima_actualizacion, version) " +
+                "SELECT v.id_inventario_producto, :ubicacion, v.id_producto, v.cantidad, :ahora, 0 FROM (VALUES ");
+        for (int i = 0; i < lote.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(CAST(:i").append(i).append(" AS INTEGER), CAST(:p").append(i)
+                    .append(" AS INTEGER), CAST(:c").append(i).append(" AS INTEGER))");
+        }
+        sql.append(") AS v(id_inventario_producto, id_producto, cantidad) ")
+                .append("ON CONFLICT (ubicacion_inventario, id_producto) DO UPDATE SET ")
+                .append("cantidad_stock = inventarioproductos.cantidad_stock + EXCLUDED.cantidad_stock, ")
+                .append("ultima_actualizacion = EXCLUDED.ultima_actualizacion, ")
+                .append("version = inventarioproductos.version + 1 ")
+                .append("RETURNING id_producto, id_inventario_producto");
+
+        Query query = entityManager.createNativeQuery(sql.toString())
+                .setParameter("ubicacion", ubicacion)
+                .setParameter("ahora", ahora);
+        for (int i = 0; i < lote.size(); i++) {
+            query.setParameter("i" + i, idPorProducto.get(lote.get(i).getKey()));
+            query.setParameter("p" + i, lote.get(i).getKey());
+            query.setParameter("c" + i, lote.get(i).getValue());
+        }
+
+        Map<Integer, Integer> resultado = new HashMap<>();
+        for (Object fila : query.getResultList()) {
+            Object[] columnas = (Object[]) fila;
+            resultado.put(((Number) columnas[0]).intValue(), ((Number) columnas[1]).intValue());
+        }
+        return resultado;
+    }
+
+    /**
+     * ID de inventario de cada producto del lote: el del registro existente o, si no lo hay, uno nuevo del generador
+     * de la entidad. Así solo se reservan IDs para las filas que se van a insertar, y del bloque pooled-lo que
+     * Hibernate ya tiene en memoria (un {@code nextval} por fila gastaría un bloque de 50 IDs cada vez). En las filas
+     * existentes el ID propuesto no se usa: gana el ON CONFLICT. Si otra transacción inserta el mismo producto entre
+     * esta lectura y el upsert, también gana el ON CONFLICT y solo se pierde el ID reservado.
+     */
+    private Map<Integer, Integer> idsDeInventario(String ubicacion, List<Map.Entry<Integer, Integer>> lote) {
+        List<Integer> idsProducto = lote.stream().map(Map.Entry::getKey).toList();
+        Map<Integer, Integer> idPorProducto = new HashMap<>();
+        List<?> existentes = entityManager.createQuery(
+                        "SELECT ip.producto.idProducto, ip.idInventarioProducto FROM InventarioProducto ip " +
+                        "WHERE ip.ubicacionInventario = :ubicacion AND ip.producto.idProducto IN :idsProducto")
+                .setParameter("ubicacion", ubicacion)
+                .setParameter("idsProducto", idsProducto)
+                .getResultList();
+        for (Object fila : existentes) {
+            Object[] columnas = (Object[]) fila;
+            idPorProducto.put((Integer) columnas[0], (Integer) columnas[1]);
+        }
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        BeforeExecutionGenerator generador = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(InventarioProducto.class).getGenerator();
+        for (Integer idProducto : idsProducto) {
+            idPorProducto.computeIfAbsent(idProducto,
+                    id -> ((Number) generador.generate(session, null, null, EventType.INSERT)).intValue());
+        }
+        return idPorProducto;
+    }
+}
@@ -4,7 +4,12 @@ import com.crmtech360.crmtech360_backend.entity.MovimientoInventarioInsumo;
 import com.crmtech360.crmtech360_backend.entity.InventarioInsumo; // Asegúrate que esté importado si lo usas en otros métodos
 import org.springframework.data.domain.Page; // IMPORTANTE
 import org.springframework.data.domain.Pageable; // IMPORTANTE
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,8 +19,30 @@ public interface MovimientoInventarioInsumoRepository extends JpaRepository<Movi
     List<MovimientoInventarioInsumo> findByInventarioInsumo(InventarioInsumo inventarioInsumo);
 
     // MÉTODO CORREGIDO:
+    @EntityGraph(attributePaths = "inventarioInsumo.insumo")
     Page<MovimientoInventarioInsumo> findByInventarioInsumoIdInventarioInsumo(Integer idInventarioInsumo, Pageable pageable);
 
+    // Variante sin COUNT(*) para el modo de total estimado (ver TotalCountEstimator).
+    @EntityGraph(attributePaths = "inventarioInsumo.insumo")
+    Slice<MovimientoInventarioInsumo> findSliceByInventarioInsumoIdInventarioInsumo(Integer idInventarioInsumo, Pageable pageable);
+
+    long countByInventarioInsumoIdInventarioInsumo(Integer idInventarioInsumo);
+
+    // Paginación por keyset (ver SeekCursor), de más reciente a más antiguo. El índice
+    // (id_inventario_insumo, fecha_movimiento DESC, id_movimiento_insumo DESC) de V4 resuelve ambas consultas
+    // leyendo solo las filas de la página, sin OFFSET ni COUNT(*).
+    @EntityGraph(attributePaths = "inventarioInsumo.insumo")
+    @Query("SELECT m FROM MovimientoInventarioInsumo m WHERE m.inventarioInsumo.idInventarioInsumo = :idInventario "
+            + "ORDER BY m.fechaMovimiento DESC, m.idMovimientoInsumo DESC")
+    List<MovimientoInventarioInsumo> findSeekFirst(@Param("idInventario") Integer idInventario, Limit limit);
+
+    @EntityGraph(attributePaths = "inventarioInsumo.insumo")
+    @Query("SELECT m FROM MovimientoInventarioInsumo m WHERE m.inventarioInsumo.idInventarioInsumo = :idInventario "
+            + "AND (m.fechaMovimiento < :fecha OR (m.fechaMovimiento = :fecha AND m.idMovimientoInsumo < :id)) "
+            + "ORDER BY m.fechaMovimiento DESC, m.idMovimientoInsumo DESC")
+    List<MovimientoInventarioInsumo> findSeekAfter(@Param("idInventario") Integer idInventario, @Param("fecha") LocalDateTime fecha,
+                                  @Param("id") Integer id, Limit limit);
+
     List<MovimientoInventarioInsumo> findByTipoMovimientoIgnoreCase(String tipoMovimiento);
     List<MovimientoInventarioInsumo> findByFechaMovimientoBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin);
     List<MovimientoInventarioInsumo> findByInventarioInsumoAndFechaMovimientoBetween(InventarioInsumo inventarioInsumo, LocalDateTime fechaInicio, LocalDateTime fechaFin);
@@ -4,7 +4,12 @@ import com.crmtech360.crmtech360_backend.entity.MovimientoInventarioProducto;
 import com.crmtech360.crmtech360_backend.entity.InventarioProducto; // Asegúrate que esté importado
 import org.springframework.data.domain.Page; // IMPORTANTE
 import org.springframework.data.domain.Pageable; // IMPORTANTE
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,8 +19,30 @@ public interface MovimientoInventarioProductoRepository extends JpaRepository<Mo
     List<MovimientoInventarioProducto> findByInventarioProducto(InventarioProducto inventarioProducto);
 
     // MÉTODO CORREGIDO:
+    @EntityGraph(attributePaths = "inventarioProducto.producto")
     Page<MovimientoInventarioProducto> findByInventarioProductoIdInventarioProducto(Integer idInventarioProducto, Pageable pageable);
 
+    // Variante sin COUNT(*) para el modo de total estimado (ver TotalCountEstimator).
+    @EntityGraph(attributePaths = "inventarioProducto.producto")
+    Slice<MovimientoInventarioProducto> findSliceByInventarioProductoIdInventarioProducto(Integer idInventarioProducto, Pageable pageable);
+
+    long countByInventarioProductoIdInventarioProducto(Integer idInventarioProducto);
+
+    // Paginación por keyset (ver SeekCursor), de más reciente a más antiguo. El índice
+    // (id_inventario_producto, fecha_movimiento DESC, id_movimiento_producto DESC) de V4 resuelve ambas consultas
+    // leyendo solo las filas de la página, sin OFFSET ni COUNT(*).
+    @EntityGraph(attributePaths = "inventarioProducto.producto")
+    @Query("SELECT m FROM MovimientoInventarioProducto m WHERE m.inventarioProducto.idInventarioProducto = :idInventario "
+            + "ORDER BY m.fechaMovimiento DESC, m.idMovimientoProducto DESC")
+    List<MovimientoInventarioProducto> findSeekFirst(@Param("idInventario") Integer idInventario, Limit limit);
+
+    @EntityGraph(attributePaths = "inventarioProducto.producto")
+    @Query("SELECT m FROM MovimientoInventarioProducto m WHERE m.inventarioProducto.idInventarioProducto = :idInventario "
+            + "AND (m.fechaMovimiento < :fecha OR (m.fechaMovimiento = :fecha AND m.idMovimientoProducto < :id)) "
+            + "ORDER BY m.fechaMovimiento DESC, m.idMovimientoProducto DESC")
+    List<MovimientoInventarioProducto> findSeekAfter(@Param("idInventario") Integer idInventario, @Param("fecha") LocalDateTime fecha,
+                                  @Param("id") Integer id, Limit limit);
+
     List<MovimientoInventarioProducto> findByTipoMovimientoIgnoreCase(String tipoMovimiento);
     List<MovimientoInventarioProducto> findByFechaMovimientoBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin);
     List<MovimientoInventarioProducto> findByInventarioProductoAndFechaMovimientoBetween(InventarioProducto inventarioProducto, LocalDateTime fechaInicio, LocalDateTime fechaFin);
@@ -3,15 +3,24 @@ package com.crmtech360.crmtech360_backend.repository;
 import com.crmtech360.crmtech360_backend.entity.OrdenCompra;
 import com.crmtech360.crmtech360_backend.entity.Proveedor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Collection;
+import java.util.Optional;
 
 @Repository
 public interface OrdenCompraRepository extends JpaRepository<OrdenCompra, Integer> {
     List<OrdenCompra> findByProveedor(Proveedor proveedor);
+    @EntityGraph(OrdenCompra.GRAPH_DETALLE)
     List<OrdenCompra> findByProveedorIdProveedor(Integer idProveedor);
     List<OrdenCompra> findByEstadoCompraIgnoreCase(String estadoCompra);
     List<OrdenCompra> findByFechaPedidoCompraBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin);
@@ -20,4 +29,26 @@ public interface OrdenCompraRepository extends JpaRepository<OrdenCompra, Intege
     List<OrdenCompra> findByTotalCompraGreaterThanEqual(BigDecimal montoMinimo);
     List<OrdenCompra> findByProveedorAndEstadoCompraAllIgnoreCase(Proveedor proveedor, String estadoCompra);
     long countByEstadoCompraIgnoreCase(String estadoCompra);
-}
\ No newline at end of file
+
+    // Listado paginado en dos fases. Fase 1: solo los IDs de la página; la paginación se hace en la BD
+    // sin que el JOIN con las líneas multiplique las filas.
+    @Query("SELECT oc.idOrdenCompra FROM OrdenCompra oc")
+    Page<Integer> findPageIds(Pageable pageable);
+
+    // Fase 2: las entidades de la página con su grafo completo en una sola consulta.
+    @EntityGraph(OrdenCompra.GRAPH_DETALLE)
+    List<OrdenCompra> findByIdOrdenCompraIn(Collection<Integer> ids);
+
+    // Listado por keyset (ver SeekCursor): IDs de la página ordenados por (fechaPedidoCompra, id) descendente, sin COUNT(*);
+    // después se cargan con findByIdOrdenCompraIn igual que en el listado por offset.
+    @Query("SELECT oc.idOrdenCompra FROM OrdenCompra oc ORDER BY oc.fechaPedidoCompra DESC, oc.idOrdenCompra DESC")
+    List<Integer> findSeekIdsFirst(Limit limit);
+
+    @Query("SELECT oc.idOrdenCompra FROM OrdenCompra oc WHERE oc.fechaPedidoCompra < :fecha OR (oc.fechaPedidoCompra = :fecha AND oc.idOrdenCompra < :id) "
+            + "ORDER BY oc.fechaPedidoCompra DESC, oc.idOrdenCompra DESC")
+    List<Integer> findSeekIdsAfter(@Param("fecha") LocalDateTime fecha, @Param("id") Integer id, Limit limit);
+
+    @EntityGraph(OrdenCompra.GRAPH_DETALLE)
+    @Query("SELECT oc FROM OrdenCompra oc WHERE oc.idOrdenCompra = :id")
+    Optional<OrdenCompra> findDetalleById(@Param("id") Integer id);
+}
@@ -3,13 +3,21 @@ package com.crmtech360.crmtech360_backend.repository;
 import com.crmtech360.crmtech360_backend.entity.OrdenProduccion;
 import com.crmtech360.crmtech360_backend.entity.OrdenVenta;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Collection;
+import java.util.Optional;
 
 @Repository
 public interface OrdenProduccionRepository extends JpaRepository<OrdenProduccion, Integer> {
     List<OrdenProduccion> findByOrdenVenta(OrdenVenta ordenVenta);
+    @EntityGraph(OrdenProduccion.GRAPH_DETALLE)
     List<OrdenProduccion> findByOrdenVentaIdOrdenVenta(Integer idOrdenVenta);
     List<OrdenProduccion> findByEstadoProduccionIgnoreCase(String estadoProduccion);
     List<OrdenProduccion> findByFechaInicioProduccionBetween(LocalDate fechaInicio, LocalDate fechaFin);
@@ -17,4 +25,17 @@ public interface OrdenProduccionRepository extends JpaRepository<OrdenProduccion
     List<OrdenProduccion> findByFechaFinRealProduccionIsNullAndEstadoProduccionNotIn(List<String> estadosExcluidos); // Ej: estados como 'Anulada'
     List<OrdenProduccion> findByEstadoProduccionIn(List<String> estados);
     long countByEstadoProduccionIgnoreCase(String estadoProduccion);
-}
\ No newline at end of file
+
+    // Listado paginado en dos fases. Fase 1: solo los IDs de la página; la paginación se hace en la BD
+    // sin que el JOIN con las líneas multiplique las filas.
+    @Query("SELECT op.idOrdenProduccion FROM OrdenProduccion op")
+    Page<Integer> findPageIds(Pageable pageable);
+
+    // Fase 2: las entidades de la página con su grafo completo en una sola consulta.
+    @EntityGraph(OrdenProduccion.GRAPH_DETALLE)
+    List<OrdenProduccion> findByIdOrdenProduccionIn(Collection<Integer> ids);
+
+    @EntityGraph(OrdenProduccion.GRAPH_DETALLE)
+    @Query("SELECT op FROM OrdenProduccion op WHERE op.idOrdenProduccion = :id")
+    Optional<OrdenProduccion> findDetalleById(@Param("id") Integer id);
+}
@@ -2,18 +2,26 @@ package com.crmtech360.crmtech360_backend.repository;
 
 import com.crmtech360.crmtech360_backend.entity.OrdenVenta;
 import com.crmtech360.crmtech360_backend.entity.Cliente;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Collection;
+import java.util.Optional;
 
 @Repository
 public interface OrdenVentaRepository extends JpaRepository<OrdenVenta, Integer> {
     List<OrdenVenta> findByCliente(Cliente cliente);
+    @EntityGraph(OrdenVenta.GRAPH_DETALLE)
     List<OrdenVenta> findByClienteIdCliente(Integer idCliente);
     List<OrdenVenta> findByEstadoOrdenIgnoreCase(String estadoOrden);
     List<OrdenVenta> findByFechaPedidoBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin);
@@ -26,4 +34,30 @@ public interface OrdenVentaRepository extends JpaRepository<OrdenVenta, Integer>
     // Ejemplo de query con @Query para algo más complejo
     @Query("SELECT ov FROM OrdenVenta ov WHERE ov.cliente.nombreCliente LIKE %?1% AND ov.estadoOrden = ?2")
     List<OrdenVenta> findByNombreClienteContainingAndEstadoOrden(String nombreClienteFragmento, String estadoOrden, Pageable pageable);
-}
\ No newline at end of file
+
+    // Listado paginado en dos fases. Fase 1: solo los IDs de la página; la paginación se hace en la BD
+    // sin que el JOIN con las líneas multiplique las filas.
+    @Query("SELECT ov.idOrdenVenta FROM OrdenVenta ov")
+    Page<Integer> findPageIds(Pageable pageable);
+
+    // Igual que findPageIds pero sin COUNT(*), para el modo de total estimado (ver TotalCountEstimator).
+    @Query("SELECT ov.idOrdenVenta FROM OrdenVenta ov")
+    Slice<Integer> findSliceIds(Pageable pageable);
+
+    // Fase 2: las entidades de la página con su grafo completo en una sola consulta.
+    @EntityGraph(OrdenVenta.GRAPH_DETALLE)
+    List<OrdenVenta> findByIdOrdenVentaIn(Collection<Integer> ids);
+
+    // Listado por keyset (ver SeekCursor): IDs de la página ordenados por (fechaPedido, id) descendente, sin COUNT(*);
+    // después se cargan con findByIdOrdenVentaIn igual que en el listado por offset.
+    @Query("SELECT ov.idOrdenVenta FROM OrdenVenta ov ORDER BY ov.fechaPedido DESC, ov.idOrdenVenta DESC")
+    List<Integer> findSeekIdsFirst(Limit limit);
+
+    @Query("SELECT ov.idOrdenVenta FROM OrdenVenta ov WHERE ov.fechaPedido < :fecha OR (ov.fechaPedido = :fecha AND ov.idOrdenVenta < :id) "
+            + "ORDER BY ov.fechaPedido DESC, ov.idOrdenVenta DESC")
+    List<Integer> findSeekIdsAfter(@Param("fecha") LocalDateTime fecha, @Param("id") Integer id, Limit limit);
+
+    @EntityGraph(OrdenVenta.GRAPH_DETALLE)
+    @Query("SELECT ov FROM OrdenVenta ov WHERE ov.idOrdenVenta = :id")
+    Optional<OrdenVenta> findDetalleById(@Param("id") Integer id);
+}
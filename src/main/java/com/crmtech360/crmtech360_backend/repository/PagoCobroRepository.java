@@ -5,12 +5,17 @@ import com.crmtech360.crmtech360_backend.entity.OrdenVenta;
 import com.crmtech360.crmtech360_backend.entity.OrdenCompra;
 import org.springframework.data.domain.Page; // IMPORTANTE
 import org.springframework.data.domain.Pageable; // IMPORTANTE
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PagoCobroRepository extends JpaRepository<PagoCobro, Integer> {
@@ -21,6 +26,7 @@ public interface PagoCobroRepository extends JpaRepository<PagoCobro, Integer> {
     // List<PagoCobro> findByOrdenCompraIdOrdenCompra(Integer idOrdenCompra); // Se reemplazará por el paginado de abajo
 
     // MÉTODO CORREGIDO para el error "Expected 1 argument but found 2"
+    @EntityGraph(PagoCobro.GRAPH_DETALLE)
     Page<PagoCobro> findByTipoTransaccionIgnoreCase(String tipoTransaccion, Pageable pageable);
 
     List<PagoCobro> findByEstadoTransaccionIgnoreCase(String estadoTransaccion);
@@ -32,6 +38,22 @@ public interface PagoCobroRepository extends JpaRepository<PagoCobro, Integer> {
     List<PagoCobro> findByTipoTransaccionAndEstadoTransaccionAllIgnoreCase(String tipo, String estado);
 
     // MÉTODOS NUEVOS/CORREGIDOS para los errores "Cannot resolve method..."
+    @EntityGraph(PagoCobro.GRAPH_DETALLE)
     Page<PagoCobro> findByOrdenVenta_IdOrdenVentaAndTipoTransaccionIgnoreCase(Integer idOrdenVenta, String tipoTransaccion, Pageable pageable);
+    @EntityGraph(PagoCobro.GRAPH_DETALLE)
     Page<PagoCobro> findByOrdenCompra_IdOrdenCompraAndTipoTransaccionIgnoreCase(Integer idOrdenCompra, String tipoTransaccion, Pageable pageable);
-}
\ No newline at end of file
+
+    // Pagos solo tienen asociaciones a-uno: el grafo se aplica directamente sobre la consulta paginada.
+    @Override
+    @EntityGraph(PagoCobro.GRAPH_DETALLE)
+    Page<PagoCobro> findAll(Pageable pageable);
+
+    // Variante sin COUNT(*) para el modo de total estimado (ver TotalCountEstimator).
+    @EntityGraph(PagoCobro.GRAPH_DETALLE)
+    @Query("SELECT pc FROM PagoCobro pc")
+    Slice<PagoCobro> findSliceBy(Pageable pageable);
+
+    @EntityGraph(PagoCobro.GRAPH_DETALLE)
+    @Query("SELECT pc FROM PagoCobro pc WHERE pc.idPagoCobro = :id")
+    Optional<PagoCobro> findDetalleById(@Param("id") Integer id);
+}
@@ -2,12 +2,16 @@ package com.crmtech360.crmtech360_backend.repository;
 
 import com.crmtech360.crmtech360_backend.entity.Permiso;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.hibernate.jpa.HibernateHints;
 import java.util.Optional;
 import java.util.List;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface PermisoRepository extends JpaRepository<Permiso, Integer> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Permiso> findByNombrePermiso(String nombrePermiso);
     List<Permiso> findByNombrePermisoContainingIgnoreCase(String keyword);
 }
\ No newline at end of file
@@ -1,14 +1,23 @@
 package com.crmtech360.crmtech360_backend.repository;
 
 import com.crmtech360.crmtech360_backend.entity.Producto;
+import com.crmtech360.crmtech360_backend.dto.ProductoResponseDTO;
+import com.crmtech360.crmtech360_backend.repository.projection.ProductoTypeaheadView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.hibernate.jpa.HibernateHints;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface ProductoRepository extends JpaRepository<Producto, Integer> {
+public interface ProductoRepository extends JpaRepository<Producto, Integer>, ProductoRepositoryCustom {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Producto> findByReferenciaProducto(String referenciaProducto);
     List<Producto> findByNombreProductoContainingIgnoreCase(String nombreProducto);
     List<Producto> findByTipoProductoIgnoreCase(String tipoProducto);
@@ -21,4 +30,20 @@ public interface ProductoRepository extends JpaRepository<Producto, Integer> {
     List<Producto> findByTipoProductoAndGeneroProductoAllIgnoreCase(String tipoProducto, String generoProducto);
     List<Producto> findAllByOrderByNombreProductoAsc();
     boolean existsByReferenciaProducto(String referenciaProducto);
-}
\ No newline at end of file
+
+    // Listado proyectado directamente al DTO, sin pasar por el contexto de persistencia.
+    @Query(value = "SELECT new com.crmtech360.crmtech360_backend.dto.ProductoResponseDTO(p.idProducto, p.referenciaProducto, p.nombreProducto, "
+            + "p.descripcionProducto, p.tallaProducto, p.colorProducto, p.tipoProducto, p.generoProducto, p.costoProduccion, "
+            + "p.precioVenta, p.unidadMedidaProducto, p.fechaCreacion, p.fechaActualizacion) FROM Producto p",
+            countQuery = "SELECT COUNT(p) FROM Producto p")
+    Page<ProductoResponseDTO> findAllResponse(Pageable pageable);
+
+    // Catálogo completo para el índice de autocompletado (TypeaheadIndex), en orden de ID.
+    @Query("SELECT new com.crmtech360.crmtech360_backend.repository.projection.ProductoTypeaheadView(p.idProducto, "
+            + "p.referenciaProducto, p.nombreProducto, p.tallaProducto, p.colorProducto) FROM Producto p ORDER BY p.idProducto")
+    List<ProductoTypeaheadView> findAllTypeaheadViews();
+
+    // Referencias de todos los productos para el filtro de Bloom de UniqueKeyFilters.
+    @Query("SELECT p.referenciaProducto FROM Producto p")
+    List<String> findAllReferencias();
+}
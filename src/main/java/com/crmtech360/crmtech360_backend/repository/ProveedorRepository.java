@@ -1,13 +1,21 @@
 package com.crmtech360.crmtech360_backend.repository;
 
 import com.crmtech360.crmtech360_backend.entity.Proveedor;
+import com.crmtech360.crmtech360_backend.dto.ProveedorResponseDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
 import java.util.Optional;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface ProveedorRepository extends JpaRepository<Proveedor, Integer> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Proveedor> findByNitProveedor(String nitProveedor);
     List<Proveedor> findByNombreComercialProveedorContainingIgnoreCase(String nombreComercial);
     List<Proveedor> findByRazonSocialProveedorContainingIgnoreCase(String razonSocial);
@@ -15,4 +23,15 @@ public interface ProveedorRepository extends JpaRepository<Proveedor, Integer> {
     List<Proveedor> findByContactoPrincipalProveedorContainingIgnoreCase(String contacto);
     List<Proveedor> findAllByOrderByNombreComercialProveedorAsc();
     boolean existsByNitProveedor(String nitProveedor);
-}
\ No newline at end of file
+
+    // Listado proyectado directamente al DTO, sin pasar por el contexto de persistencia.
+    @Query(value = "SELECT new com.crmtech360.crmtech360_backend.dto.ProveedorResponseDTO(p.idProveedor, p.nombreComercialProveedor, "
+            + "p.razonSocialProveedor, p.nitProveedor, p.direccionProveedor, p.telefonoProveedor, p.correoProveedor, "
+            + "p.contactoPrincipalProveedor, p.fechaCreacion, p.fechaActualizacion) FROM Proveedor p",
+            countQuery = "SELECT COUNT(p) FROM Proveedor p")
+    Page<ProveedorResponseDTO> findAllResponse(Pageable pageable);
+
+    // NIT de todos los proveedores para el filtro de Bloom de UniqueKeyFilters.
+    @Query("SELECT p.nitProveedor FROM Proveedor p")
+    List<String> findAllNits();
+}
@@ -19,6 +19,10 @@ public interface RolPermisoRepository extends JpaRepository<RolPermiso, Integer>
     @Query("SELECT rp FROM RolPermiso rp JOIN FETCH rp.permiso WHERE rp.rolNombre = :rolNombre")
     List<RolPermiso> findByRolNombreWithPermisos(@Param("rolNombre") String rolNombre);
 
+    // Carga todas las asignaciones con su permiso en una sola consulta (usado por RolAuthoritySnapshot)
+    @Query("SELECT rp FROM RolPermiso rp JOIN FETCH rp.permiso")
+    List<RolPermiso> findAllWithPermisos();
+
     List<RolPermiso> findByPermiso(Permiso permiso);
     Optional<RolPermiso> findByRolNombreAndPermiso(String rolNombre, Permiso permiso);
     Optional<RolPermiso> findByRolNombreAndPermisoIdPermiso(String rolNombre, Integer idPermiso); // Añadido por si es útil
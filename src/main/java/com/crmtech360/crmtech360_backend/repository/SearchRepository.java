@@ -0,0 +1,144 @@
+package com.crmtech360.crmtech360_backend.repository;
+
+import com.crmtech360.crmtech360_backend.dto.SearchEntityType;
+import com.crmtech360.crmtech360_backend.dto.SearchResultDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Búsqueda por texto sobre clientes, productos, proveedores e insumos en una sola consulta (UNION ALL de una
+ * subconsulta por tipo, cada una limitada a lo que puede llegar a la página pedida).
+ * <p>
+ * En PostgreSQL se apoya en pg_trgm (migraciones V6 y V7): el modo normal filtra con ILIKE '%texto%' y el modo
+ * tolerante añade {@code texto <% columna} (similitud por palabra por encima del umbral), ambos resueltos con los
+ * índices GIN de trigramas; la puntuación es {@code word_similarity}. En otras bases de datos (H2 en las pruebas)
+ * solo hay coincidencia por subcadena, con puntuación 1 para los prefijos y 0.5 para el resto.
+ * Los nombres de tabla y columna son fijos; el texto buscado siempre va como parámetro.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class SearchRepository {
+
+    private record Fuente(String tabla, String id, String titulo, String detalle, List<String> columnas) {
+    }
+
+    private static final Map<SearchEntityType, Fuente> FUENTES = new EnumMap<>(Map.of(
+            SearchEntityType.CLIENTE, new Fuente("clientes", "id_cliente", "nombre_cliente", "numero_documento",
+                    List.of("nombre_cliente", "numero_documento", "telefono_cliente")),
+            SearchEntityType.PRODUCTO, new Fuente("productos", "id_producto", "nombre_producto", "referencia_producto",
+                    List.of("nombre_producto", "referencia_producto")),
+            SearchEntityType.PROVEEDOR, new Fuente("proveedores", "id_proveedor", "nombre_comercial_proveedor", "nit_proveedor",
+                    List.of("nombre_comercial_proveedor", "razon_social_proveedor", "nit_proveedor")),
+            SearchEntityType.INSUMO, new Fuente("insumos", "id_insumo", "nombre_insumo", "unidad_medida_insumo",
+                    List.of("nombre_insumo"))));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    /**
+     * @param texto      Texto buscado, ya normalizado (sin espacios sobrantes).
+     * @param tolerante  Si es true, incluye también los resultados parecidos aunque no contengan el texto exacto.
+     * @param umbral     Similitud mínima (0-1) del modo tolerante.
+     * @param timeoutMs  Tiempo máximo de la consulta en PostgreSQL (0 = sin límite propio).
+     * @param offset     Resultados a saltar.
+     * @param limite     Resultados a devolver como máximo.
+     */
+    public List<SearchResultDTO> search(String texto, Set<SearchEntityType> tipos, boolean tolerante, double umbral,
+                                        long timeoutMs, long offset, int limite) {
+        boolean esPostgres = isPostgres();
+        if (esPostgres) {
+            // Valores locales a la transacción: no afectan a otras consultas que reutilicen la conexión del pool.
+            if (timeoutMs > 0) {
+                setConfig("statement_timeout", String.valueOf(timeoutMs));
+            }
+            if (tolerante) {
+                setConfig("pg_trgm.word_similarity_threshold", String.valueOf(umbral));
+            }
+        }
+        String subconsultas = tipos.stream()
+                .map(tipo -> esPostgres ? subconsultaPostgres(tipo, tolerante) : subconsultaGenerica(tipo))
+                .collect(Collectors.joining(" UNION ALL "));
+        Query query = entityManager.createNativeQuery("SELECT tipo, id, titulo, detalle, puntuacion FROM (" + subconsultas
+                        + ") r ORDER BY puntuacion DESC, titulo, tipo, id LIMIT :limite OFFSET :offset")
+                .setParameter("limite", limite)
+                .setParameter("offset", offset)
+                .setParameter("limiteTipo", offset + limite);
+        if (esPostgres) {
+            query.setParameter("texto", texto).setParameter("patron", "%" + escaparLike(texto) + "%");
+        } else {
+            String minusculas = escaparLike(texto.toLowerCase(Locale.ROOT));
+            query.setParameter("patron", "%" + minusculas + "%").setParameter("prefijo", minusculas + "%");
+        }
+        List<?> filas = query.getResultList();
+        return filas.stream().map(fila -> {
+            Object[] columnas = (Object[]) fila;
+            return new SearchResultDTO(SearchEntityType.valueOf((String) columnas[0]), ((Number) columnas[1]).intValue(),
+                    (String) columnas[2], (String) columnas[3], ((Number) columnas[4]).doubleValue());
+        }).toList();
+    }
+
+    private static String subconsultaPostgres(SearchEntityType tipo, boolean tolerante) {
+        Fuente fuente = FUENTES.get(tipo);
+        String puntuacion = fuente.columnas().stream()
+                .map(columna -> "word_similarity(:texto, " + columna + ")")
+                .collect(Collectors.joining(", ", "GREATEST(", ")"));
+        String filtro = fuente.columnas().stream()
+                .map(columna -> tolerante
+                        ? columna + " ILIKE :patron OR :texto <% " + columna
+                        : columna + " ILIKE :patron")
+                .collect(Collectors.joining(" OR "));
+        return subconsulta(tipo, fuente, puntuacion, filtro);
+    }
+
+    private static String subconsultaGenerica(SearchEntityType tipo) {
+        Fuente fuente = FUENTES.get(tipo);
+        String puntuacion = "CASE WHEN LOWER(" + fuente.titulo() + ") LIKE :prefijo THEN 1.0 ELSE 0.5 END";
+        String filtro = fuente.columnas().stream()
+                .map(columna -> "LOWER(" + columna + ") LIKE :patron")
+                .collect(Collectors.joining(" OR "));
+        return subconsulta(tipo, fuente, puntuacion, filtro);
+    }
+
+    private static String subconsulta(SearchEntityType tipo, Fuente fuente, String puntuacion, String filtro) {
+        // Mismo orden que la consulta exterior, para que los primeros 'limiteTipo' de cada tipo incluyan la página pedida.
+        return "(SELECT CAST('" + tipo.name() + "' AS VARCHAR(20)) AS tipo, " + fuente.id() + " AS id, "
+                + fuente.titulo() + " AS titulo, " + fuente.detalle() + " AS detalle, " + puntuacion + " AS puntuacion"
+                + " FROM " + fuente.tabla() + " WHERE " + filtro
+                + " ORDER BY puntuacion DESC, titulo, id LIMIT :limiteTipo)";
+    }
+
+    private void setConfig(String parametro, String valor) {
+        entityManager.createNativeQuery("SELECT set_config(:parametro, :valor, true)")
+                .setParameter("parametro", parametro)
+                .setParameter("valor", valor)
+                .getSingleResult();
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private boolean isPostgres() {
+        Boolean esPostgres = postgres;
+        if (esPostgres == null) {
+            esPostgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            postgres = esPostgres;
+        }
+        return esPostgres;
+    }
+}
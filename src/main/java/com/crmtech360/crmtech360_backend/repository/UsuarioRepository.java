@@ -3,6 +3,12 @@ package com.crmtech360.crmtech360_backend.repository;
 import com.crmtech360.crmtech360_backend.entity.Usuario;
 import com.crmtech360.crmtech360_backend.entity.Empleado;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -16,4 +22,27 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
     boolean existsByNombreUsuario(String nombreUsuario);
     boolean existsByEmpleado(Empleado empleado);
     boolean existsByEmpleadoIdEmpleado(Integer idEmpleado);
-}
\ No newline at end of file
+
+    @Override
+    @EntityGraph(attributePaths = "empleado")
+    Page<Usuario> findAll(Pageable pageable);
+
+    // Nombres de todos los usuarios para el filtro de Bloom de UniqueKeyFilters.
+    @Query("SELECT u.nombreUsuario FROM Usuario u")
+    List<String> findAllNombresUsuario();
+
+    // Generaciones de token de TokenGenerationRegistry: la de un usuario sin revocaciones es 0.
+    @Query("SELECT u.nombreUsuario, u.generacionToken FROM Usuario u WHERE u.generacionToken > 0")
+    List<Object[]> findGeneracionesToken();
+
+    @Query("SELECT u.generacionToken FROM Usuario u WHERE u.nombreUsuario = :nombreUsuario")
+    Optional<Integer> findGeneracionTokenByNombreUsuario(@Param("nombreUsuario") String nombreUsuario);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Usuario u SET u.generacionToken = u.generacionToken + 1 WHERE u.nombreUsuario = :nombreUsuario")
+    int incrementarGeneracionToken(@Param("nombreUsuario") String nombreUsuario);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Usuario u SET u.generacionToken = u.generacionToken + 1")
+    int incrementarGeneracionTokenDeTodos();
+}
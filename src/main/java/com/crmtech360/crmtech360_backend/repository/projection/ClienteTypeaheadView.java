@@ -0,0 +1,7 @@
+package com.crmtech360.crmtech360_backend.repository.projection;
+
+/**
+ * Campos de cliente que indexa el autocompletado en memoria (TypeaheadIndex).
+ */
+public record ClienteTypeaheadView(Integer idCliente, String numeroDocumento, String nombreCliente) {
+}
@@ -0,0 +1,15 @@
+package com.crmtech360.crmtech360_backend.repository.projection;
+
+import com.crmtech360.crmtech360_backend.dto.ContactoClienteResponseDTO;
+
+/**
+ * Fila de contacto proyectada por JPQL (sin instanciar la entidad) junto con el ID de su cliente,
+ * para poder repartir los contactos de una página de clientes en una sola consulta.
+ */
+public record ContactoClienteView(Integer idCliente, Integer idContacto, String nombreContacto,
+                                  String cargoContacto, String telefonoContacto, String correoContacto) {
+
+    public ContactoClienteResponseDTO toResponseDTO() {
+        return new ContactoClienteResponseDTO(idContacto, nombreContacto, cargoContacto, telefonoContacto, correoContacto);
+    }
+}
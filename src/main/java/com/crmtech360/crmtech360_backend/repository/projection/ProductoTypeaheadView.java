@@ -0,0 +1,9 @@
+package com.crmtech360.crmtech360_backend.repository.projection;
+
+/**
+ * Campos de producto que indexa el autocompletado en memoria (TypeaheadIndex), proyectados por JPQL para cargar
+ * todo el catálogo al arrancar sin instanciar entidades.
+ */
+public record ProductoTypeaheadView(Integer idProducto, String referenciaProducto, String nombreProducto,
+                                    String tallaProducto, String colorProducto) {
+}
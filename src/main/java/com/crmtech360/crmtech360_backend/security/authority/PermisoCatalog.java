@@ -0,0 +1,177 @@
+package com.crmtech360.crmtech360_backend.security.authority;
+
+import com.crmtech360.crmtech360_backend.entity.Permiso;
+import com.crmtech360.crmtech360_backend.repository.PermisoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Catálogo en memoria de permisos usado para codificar las autoridades de un JWT de forma compacta:
+ * los IDs de la tabla permisos se empaquetan en un bitset en base64 acompañado de la versión del catálogo.
+ * Al decodificar se reutilizan siempre las mismas instancias de GrantedAuthority (tabla compartida),
+ * por lo que el filtro no crea un String por autoridad en cada solicitud.
+ */
+@Component
+public class PermisoCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(PermisoCatalog.class);
+
+    // Límite de seguridad para el tamaño del bitset; permisos con IDs mayores viajan como texto.
+    private static final int MAX_PERMISO_ID = 4096;
+
+    private final PermisoRepository permisoRepository;
+
+    // Autoridades ROLE_ internadas por nombre de rol (hay solo un puñado de roles).
+    private final Map<String, GrantedAuthority> roleAuthorities = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public PermisoCatalog(PermisoRepository permisoRepository) {
+        this.permisoRepository = permisoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Versión del catálogo: checksum de los pares (id, nombre), estable entre reinicios mientras la tabla no cambie.
+     */
+    public int version() {
+        return current().version;
+    }
+
+    /**
+     * Autoridad ROLE_ correspondiente al rol principal del usuario (instancia compartida).
+     */
+    public GrantedAuthority roleAuthority(String rolUsuario) {
+        return roleAuthorities.computeIfAbsent(rolUsuario,
+                rol -> new SimpleGrantedAuthority("ROLE_" + rol.toUpperCase().replace(" ", "_")));
+    }
+
+    /**
+     * Codifica las autoridades que correspondan a permisos del catálogo en un bitset base64 (URL-safe, sin relleno).
+     * Las autoridades no reconocidas se agregan a {@code residual} para que viajen como texto.
+     */
+    public String encode(Collection<String> authorities, Collection<String> residual) {
+        Snapshot current = current();
+        BitSet bits = new BitSet();
+        for (String authority : authorities) {
+            Integer id = current.idByAuthority.get(authority);
+            if (id != null) {
+                bits.set(id);
+            } else {
+                residual.add(authority);
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray());
+    }
+
+    /**
+     * Reconstruye las autoridades de un bitset codificado con {@link #encode}.
+     *
+     * @return la lista de autoridades internadas, o null si la versión no coincide con la del catálogo actual
+     *         o algún ID ya no existe (el token debe resolverse por otra vía).
+     */
+    public List<GrantedAuthority> decode(String encoded, int catalogVersion) {
+        Snapshot current = current();
+        if (catalogVersion != current.version) {
+            return null;
+        }
+        BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(encoded));
+        List<GrantedAuthority> result = new ArrayList<>(bits.cardinality() + 1);
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            GrantedAuthority authority = id < current.byId.length ? current.byId[id] : null;
+            if (authority == null) {
+                return null;
+            }
+            result.add(authority);
+        }
+        return result;
+    }
+
+    /**
+     * Programa la recarga del catálogo (después del commit si hay una transacción activa).
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    // Con un ReentrantLock y no con synchronized: la consulta dentro de un monitor fijaría el hilo virtual a su
+    // hilo portador mientras espera a la base de datos.
+    private Snapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            return doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot doRebuild() {
+        List<Permiso> permisos = new ArrayList<>(permisoRepository.findAll());
+        permisos.sort(Comparator.comparing(Permiso::getIdPermiso));
+
+        int maxId = 0;
+        for (Permiso permiso : permisos) {
+            if (permiso.getIdPermiso() <= MAX_PERMISO_ID) {
+                maxId = Math.max(maxId, permiso.getIdPermiso());
+            }
+        }
+        GrantedAuthority[] byId = new GrantedAuthority[maxId + 1];
+        Map<String, Integer> idByAuthority = new HashMap<>();
+        CRC32 crc = new CRC32();
+        for (Permiso permiso : permisos) {
+            if (permiso.getIdPermiso() > MAX_PERMISO_ID || permiso.getNombrePermiso() == null) {
+                continue;
+            }
+            String authority = RolAuthoritySnapshot.toAuthorityName(permiso.getNombrePermiso());
+            byId[permiso.getIdPermiso()] = new SimpleGrantedAuthority(authority);
+            idByAuthority.put(authority, permiso.getIdPermiso());
+            crc.update((permiso.getIdPermiso() + "=" + authority + ";").getBytes(StandardCharsets.UTF_8));
+        }
+        Snapshot nuevo = new Snapshot((int) crc.getValue(), byId, Map.copyOf(idByAuthority));
+        this.snapshot = nuevo;
+        log.info("Catálogo de permisos cargado: {} permisos, versión {}.", idByAuthority.size(), nuevo.version);
+        return nuevo;
+    }
+
+    private record Snapshot(int version, GrantedAuthority[] byId, Map<String, Integer> idByAuthority) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.crmtech360.crmtech360_backend.security.authority;
+
+import com.crmtech360.crmtech360_backend.entity.Permiso;
+import com.crmtech360.crmtech360_backend.entity.RolPermiso;
+import com.crmtech360.crmtech360_backend.repository.RolPermisoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Instantánea en memoria (copy-on-write) de rolNombre -> autoridades (permisos) resueltas.
+ * Las lecturas no toman locks ni consultan la base de datos; la instantánea se reconstruye completa y se
+ * publica de forma atómica cuando RolPermisoService o PermisoService modifican asignaciones.
+ */
+@Component
+public class RolAuthoritySnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(RolAuthoritySnapshot.class);
+
+    private final RolPermisoRepository rolPermisoRepository;
+
+    // Mapa inmutable; se reemplaza por completo en cada reconstrucción.
+    private volatile Map<String, Set<GrantedAuthority>> snapshot;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public RolAuthoritySnapshot(RolPermisoRepository rolPermisoRepository) {
+        this.rolPermisoRepository = rolPermisoRepository;
+    }
+
+    // Carga la instantánea al arrancar para que el primer login no pague la consulta.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Devuelve las autoridades de permiso asignadas al rol (sin incluir la autoridad ROLE_ del propio rol).
+     *
+     * @param rolNombre El nombre del rol tal como se guarda en la BD (ej. 'Administrador').
+     * @return Conjunto inmutable de autoridades; vacío si el rol no tiene permisos asignados.
+     */
+    public Set<GrantedAuthority> getAuthorities(String rolNombre) {
+        Map<String, Set<GrantedAuthority>> current = snapshot;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current.getOrDefault(rolNombre, Collections.emptySet());
+    }
+
+    /**
+     * Solicita la reconstrucción de la instantánea. Si hay una transacción activa, la reconstrucción
+     * se hace después del commit para leer las asignaciones ya confirmadas.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    // Serializado para que dos reconstrucciones concurrentes no publiquen fuera de orden. Con un ReentrantLock y no
+    // con synchronized, para no fijar el hilo virtual a su portador mientras espera la consulta.
+    private Map<String, Set<GrantedAuthority>> rebuild() {
+        rebuildLock.lock();
+        try {
+            return doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Map<String, Set<GrantedAuthority>> doRebuild() {
+        List<RolPermiso> asignaciones = rolPermisoRepository.findAllWithPermisos();
+        Map<String, Set<GrantedAuthority>> porRol = new HashMap<>();
+        for (RolPermiso rp : asignaciones) {
+            Permiso permiso = rp.getPermiso();
+            if (rp.getRolNombre() == null || permiso == null
+                    || permiso.getNombrePermiso() == null || permiso.getNombrePermiso().trim().isEmpty()) {
+                log.warn("Asignación RolPermiso (ID: {}) ignorada en la instantánea: rol o permiso nulo/vacío.", rp.getIdRolPermiso());
+                continue;
+            }
+            porRol.computeIfAbsent(rp.getRolNombre(), k -> new HashSet<>())
+                    .add(new SimpleGrantedAuthority(toAuthorityName(permiso.getNombrePermiso())));
+        }
+        Map<String, Set<GrantedAuthority>> inmutable = new HashMap<>();
+        porRol.forEach((rol, autoridades) -> inmutable.put(rol, Set.copyOf(autoridades)));
+        Map<String, Set<GrantedAuthority>> nueva = Map.copyOf(inmutable);
+        this.snapshot = nueva;
+        log.info("Instantánea de autoridades por rol reconstruida: {} roles, {} asignaciones.", nueva.size(), asignaciones.size());
+        return nueva;
+    }
+
+    public static String toAuthorityName(String nombrePermiso) {
+        return nombrePermiso.toUpperCase().replace(" ", "_");
+    }
+}
@@ -1,9 +1,13 @@
 package com.crmtech360.crmtech360_backend.security.config;
 
+import com.crmtech360.crmtech360_backend.pagination.EstimatedPage;
 import com.crmtech360.crmtech360_backend.security.jwt.JwtAuthenticationEntryPoint;
 import com.crmtech360.crmtech360_backend.security.jwt.JwtRequestFilter;
+import com.crmtech360.crmtech360_backend.security.password.BoundedPasswordEncoder;
+import com.crmtech360.crmtech360_backend.security.ratelimit.RateLimitFilter;
 import com.crmtech360.crmtech360_backend.service.impl.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 // import org.springframework.http.HttpMethod; // No se está usando HttpMethod directamente aquí, se puede quitar si no hay planes inmediatos.
@@ -34,19 +38,38 @@ public class SecurityConfig {
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtRequestFilter jwtRequestFilter;
     private final UserDetailsServiceImpl userDetailsServiceImpl;
+    private final RateLimitFilter rateLimitFilter;
 
     @Autowired
     public SecurityConfig(JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
                           JwtRequestFilter jwtRequestFilter,
-                          UserDetailsServiceImpl userDetailsServiceImpl) {
+                          UserDetailsServiceImpl userDetailsServiceImpl,
+                          RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
         this.jwtRequestFilter = jwtRequestFilter;
         this.userDetailsServiceImpl = userDetailsServiceImpl;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
+    /**
+     * BCrypt ejecutado en un pool acotado (ver BoundedPasswordEncoder). El coste es configurable; los hashes
+     * con un coste menor al configurado se recalculan en el siguiente login exitoso (UserDetailsPasswordService).
+     * La cola (por defecto cuatro veces el pool) tiene que quedar por debajo del tope de hilos de Tomcat; si no,
+     * una ráfaga de logins vuelve a bloquear todos los hilos de petición esperando al pool.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+                                                  @Value("${security.password.hashing.pool-size:0}") int poolSize,
+                                                  @Value("${security.password.hashing.queue-capacity:0}") int queueCapacity,
+                                                  @Value("${security.password.hashing.timeout-ms:5000}") long timeoutMs,
+                                                  @Value("${server.tomcat.threads.max:200}") int tomcatThreads) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        int queue = queueCapacity > 0 ? queueCapacity : threads * 4;
+        if (queue >= tomcatThreads) {
+            throw new IllegalStateException("security.password.hashing.queue-capacity (" + queue
+                    + ") debe ser menor que server.tomcat.threads.max (" + tomcatThreads + ").");
+        }
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), threads, queue, timeoutMs);
     }
 
     @Bean
@@ -75,6 +98,8 @@ public class SecurityConfig {
                 );
 
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        // El limitador de tasa corre antes de la autenticación JWT para rechazar excesos lo antes posible.
+        http.addFilterBefore(rateLimitFilter, JwtRequestFilter.class);
 
         return http.build();
     }
@@ -101,7 +126,7 @@ public class SecurityConfig {
                 "Access-Control-Request-Method", // Para preflight
                 "Access-Control-Request-Headers"  // Para preflight
         ));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Retry-After", EstimatedPage.HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
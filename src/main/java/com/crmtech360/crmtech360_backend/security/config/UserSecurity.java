@@ -1,7 +1,10 @@
 package com.crmtech360.crmtech360_backend.security.config;
 
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import com.crmtech360.crmtech360_backend.entity.Usuario; // Asegúrate de que la entidad Usuario tenga el campo 'empleado'
 import com.crmtech360.crmtech360_backend.repository.UsuarioRepository;
+import com.crmtech360.crmtech360_backend.security.principal.UsuarioPrincipal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired; // Es buena práctica usar inyección por constructor
@@ -10,6 +13,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 @Component("userSecurity")
+@Workload(WorkloadClass.INTERACTIVO) // consultas de @PreAuthorize, antes de llamar al servicio
 public class UserSecurity {
 
     private static final Logger log = LoggerFactory.getLogger(UserSecurity.class);
@@ -40,6 +44,13 @@ public class UserSecurity {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         log.debug("Verificando hasUserId: Usuario autenticado='{}', ID del recurso={}", userDetails.getUsername(), idResourceOwner);
 
+        // Camino rápido: el principal enriquecido ya trae el ID del usuario, no se consulta la BD.
+        if (userDetails instanceof UsuarioPrincipal principal && principal.getIdUsuario() != null) {
+            boolean isOwner = principal.getIdUsuario().equals(idResourceOwner);
+            log.trace("ID Usuario autenticado: {}, ID Recurso: {}, Coinciden: {}", principal.getIdUsuario(), idResourceOwner, isOwner);
+            return isOwner;
+        }
+
         return usuarioRepository.findByNombreUsuario(userDetails.getUsername())
                 .map(usuarioAutenticado -> {
                     boolean isOwner = usuarioAutenticado.getIdUsuario().equals(idResourceOwner);
@@ -95,6 +106,13 @@ public class UserSecurity {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         log.debug("Verificando isEmployeeSelf: Usuario autenticado='{}', ID Empleado del recurso={}", userDetails.getUsername(), idEmpleadoResource);
 
+        // Camino rápido: el principal enriquecido ya trae el ID del empleado vinculado (o null si no tiene).
+        if (userDetails instanceof UsuarioPrincipal principal && principal.getIdUsuario() != null) {
+            boolean isLinkedEmployee = idEmpleadoResource.equals(principal.getIdEmpleado());
+            log.trace("ID Empleado vinculado: {}, ID Empleado recurso: {}, Coinciden: {}", principal.getIdEmpleado(), idEmpleadoResource, isLinkedEmployee);
+            return isLinkedEmployee;
+        }
+
         return usuarioRepository.findByNombreUsuario(userDetails.getUsername())
                 .map(usuarioAutenticado -> {
                     if (usuarioAutenticado.getEmpleado() != null) {
@@ -1,8 +1,14 @@
 package com.crmtech360.crmtech360_backend.security.jwt;
 
 // Asegúrate que la ruta a tu UserDetailsServiceImpl sea correcta
+import com.crmtech360.crmtech360_backend.dto.ApiErrorResponseDTO;
+import com.crmtech360.crmtech360_backend.security.principal.UsuarioPrincipal;
 import com.crmtech360.crmtech360_backend.service.impl.UserDetailsServiceImpl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -16,17 +22,26 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Date;
+import java.util.List;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
@@ -35,11 +50,23 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsServiceImpl; // Correcto, no UserDetailsService directamente
+    private final TokenGenerationRegistry tokenGenerationRegistry;
+    // Si es true, la autenticación se construye a partir de los claims del token sin consultar la base de datos.
+    private final boolean statelessAuth;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsServiceImpl) {
+    public JwtRequestFilter(JwtUtil jwtUtil,
+                            UserDetailsServiceImpl userDetailsServiceImpl,
+                            TokenGenerationRegistry tokenGenerationRegistry,
+                            @Value("${jwt.auth.stateless:false}") boolean statelessAuth) {
         this.jwtUtil = jwtUtil;
         this.userDetailsServiceImpl = userDetailsServiceImpl;
+        this.tokenGenerationRegistry = tokenGenerationRegistry;
+        this.statelessAuth = statelessAuth;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 
     @Override
@@ -49,36 +76,36 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
 
-            if (jwt != null && jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.getUsernameFromToken(jwt);
+            if (jwt != null) {
+                // Una única verificación de firma por solicitud (o ninguna si el token ya está en caché).
+                Claims claims = jwtUtil.resolveClaims(jwt);
+                String username = claims.getSubject();
                 log.debug("Token JWT válido para usuario: {} en URI: {}", username, request.getRequestURI());
 
                 // Solo configurar la autenticación si no existe ya una en el contexto
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsServiceImpl.loadUserByUsername(username);
-
-                    // Crear el objeto de autenticación
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null, // Las credenciales (contraseña) no son necesarias aquí post-autenticación JWT
-                            userDetails.getAuthorities()
-                    );
-
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    // Establecer la autenticación en el contexto de seguridad
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    log.info("Usuario '{}' autenticado correctamente vía JWT. Contexto de seguridad establecido para URI: {}", username, request.getRequestURI());
+                    UserDetails userDetails = resolveUserDetails(claims, username);
+                    if (userDetails != null) {
+                        // Crear el objeto de autenticación
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null, // Las credenciales (contraseña) no son necesarias aquí post-autenticación JWT
+                                userDetails.getAuthorities()
+                        );
+
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                        // Establecer la autenticación en el contexto de seguridad
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        log.debug("Usuario '{}' autenticado correctamente vía JWT. Contexto de seguridad establecido para URI: {}", username, request.getRequestURI());
+                    } else {
+                        log.warn("Token JWT revocado para usuario: {}. URI: {}", username, request.getRequestURI());
+                    }
                 } else if (username == null) {
                     log.warn("El nombre de usuario extraído del token JWT es nulo para URI: {}", request.getRequestURI());
                 }
             } else {
-                if (jwt == null) {
-                    log.trace("No se encontró token JWT en la solicitud para URI: {}", request.getRequestURI());
-                } else {
-                    // La validación del token falló, jwtUtil.validateToken() ya habrá logueado la causa específica.
-                    log.warn("Token JWT inválido o expirado detectado para URI: {}", request.getRequestURI());
-                }
+                log.trace("No se encontró token JWT en la solicitud para URI: {}", request.getRequestURI());
             }
         } catch (ExpiredJwtException e) {
             log.warn("Token JWT ha expirado: {}. URI: {}", e.getMessage(), request.getRequestURI());
@@ -88,6 +115,12 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             log.warn("Error de token JWT (firma, malformado, no soportado, ilegal): {}. URI: {}", e.getMessage(), request.getRequestURI());
         } catch (UsernameNotFoundException e) {
             log.warn("Usuario no encontrado para el token JWT: {}. URI: {}", e.getMessage(), request.getRequestURI());
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException e) {
+            // Sin conexión para cargar el usuario (limitador de conexiones o pool agotado): 503 para que el cliente
+            // reintente, no un 401 que le haría descartar un token válido.
+            log.warn("Base de datos no disponible al autenticar el token JWT. URI: {}", request.getRequestURI());
+            writeServiceUnavailable(request, response);
+            return;
         } catch (Exception e) {
             log.error("No se pudo establecer la autenticación del usuario en el contexto de seguridad para URI: {}. Error: {}", request.getRequestURI(), e.getMessage(), e);
         }
@@ -95,6 +128,55 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response); // Continuar con la cadena de filtros
     }
 
+    /**
+     * Obtiene el UserDetails del usuario del token. En modo sin estado se construye a partir de los claims
+     * (sin acceso a la base de datos) siempre que el token lleve contadores de generación confiables;
+     * en caso contrario se carga desde la base de datos.
+     *
+     * @return el UserDetails, o null si el token fue revocado.
+     */
+    private UserDetails resolveUserDetails(Claims claims, String username) {
+        if (statelessAuth) {
+            Integer userGeneration = claims.get(JwtUtil.CLAIM_USER_GENERATION, Integer.class);
+            Date issuedAt = claims.getIssuedAt();
+            boolean trustedClaims = userGeneration != null && issuedAt != null
+                    && claims.get(JwtUtil.CLAIM_USER_ID) != null
+                    && !tokenGenerationRegistry.isIssuedBeforeStartup(issuedAt.getTime() / 1000);
+            if (trustedClaims) {
+                if (!tokenGenerationRegistry.isCurrent(username, userGeneration)) {
+                    return null;
+                }
+                UserDetails fromClaims = buildUserDetailsFromClaims(claims, username);
+                if (fromClaims != null) {
+                    return fromClaims;
+                }
+                log.debug("Token de '{}' codificado con otra versión del catálogo de permisos; se consulta la base de datos.", username);
+            } else {
+                log.debug("Token de '{}' sin generación confiable (emitido antes del arranque o sin claims 'gen'); se consulta la base de datos.", username);
+            }
+        }
+        return userDetailsServiceImpl.loadUserByUsername(username);
+    }
+
+    /**
+     * @return el principal construido desde los claims, o null si sus autoridades no se pueden reconstruir.
+     */
+    private UserDetails buildUserDetailsFromClaims(Claims claims, String username) {
+        List<GrantedAuthority> authorities = jwtUtil.resolveAuthorities(claims);
+        if (authorities == null) {
+            return null;
+        }
+        // La contraseña no viaja en el token; el principal solo se usa para autorización.
+        return new UsuarioPrincipal(
+                claims.get(JwtUtil.CLAIM_USER_ID, Integer.class),
+                claims.get(JwtUtil.CLAIM_EMPLOYEE_ID, Integer.class),
+                claims.get(JwtUtil.CLAIM_ROLE, String.class),
+                username,
+                "",
+                authorities
+        );
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -104,4 +186,17 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         log.trace("Encabezado Authorization no encontrado o no es de tipo Bearer para URI: {}", request.getRequestURI());
         return null;
     }
-}
\ No newline at end of file
+
+    private void writeServiceUnavailable(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ApiErrorResponseDTO errorResponse = new ApiErrorResponseDTO(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                "El servicio está saturado en este momento. Intente de nuevo en unos segundos.",
+                request.getRequestURI()
+        );
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -1,5 +1,7 @@
 package com.crmtech360.crmtech360_backend.security.jwt;
 
+import com.crmtech360.crmtech360_backend.security.authority.PermisoCatalog;
+import com.crmtech360.crmtech360_backend.security.principal.UsuarioPrincipal;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
@@ -8,12 +10,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,14 +27,41 @@ public class JwtUtil {
 
     private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
 
+    public static final String CLAIM_AUTHORITIES = "authorities";
+    public static final String CLAIM_USER_GENERATION = "gen";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_EMPLOYEE_ID = "eid";
+    public static final String CLAIM_ROLE = "rol";
+    // Codificación compacta de autoridades: bitset base64 de IDs de permisos + versión del catálogo.
+    public static final String CLAIM_PERMISSION_BITS = "perms";
+    public static final String CLAIM_PERMISSION_CATALOG_VERSION = "pv";
+
     @Value("${jwt.secret}")
     private String jwtSecretString;
 
     @Value("${jwt.expiration.ms}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.authorities.compact:false}")
+    private boolean compactAuthorities;
+
     private SecretKey jwtSecretKey;
 
+    // JwtParser es inmutable y seguro para hilos: se construye una sola vez y se comparte entre solicitudes.
+    private JwtParser jwtParser;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenGenerationRegistry tokenGenerationRegistry;
+    private final PermisoCatalog permisoCatalog;
+
+    public JwtUtil(VerifiedTokenCache verifiedTokenCache,
+                   TokenGenerationRegistry tokenGenerationRegistry,
+                   PermisoCatalog permisoCatalog) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenGenerationRegistry = tokenGenerationRegistry;
+        this.permisoCatalog = permisoCatalog;
+    }
+
     @PostConstruct
     public void init() {
         byte[] keyBytes = jwtSecretString.getBytes(StandardCharsets.UTF_8);
@@ -42,6 +73,9 @@ public class JwtUtil {
                     "Se utilizará una clave derivada, pero se recomienda una clave fuerte y de longitud adecuada en producción.", keyBytes.length);
         }
         this.jwtSecretKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(jwtSecretKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -59,9 +93,43 @@ public class JwtUtil {
 
         log.debug("Generando token para usuario: {} con {} autoridades. Expiración: {}", userDetails.getUsername(), authorities.size(), expiryDate);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        String roleAuthority = null;
+        if (userDetails instanceof UsuarioPrincipal principal) {
+            // Datos del principal enriquecido, usados por el modo sin estado de JwtRequestFilter.
+            builder.claim(CLAIM_USER_ID, principal.getIdUsuario())
+                    .claim(CLAIM_ROLE, principal.getRolUsuario());
+            if (principal.getIdEmpleado() != null) {
+                builder.claim(CLAIM_EMPLOYEE_ID, principal.getIdEmpleado());
+            }
+            if (principal.getRolUsuario() != null) {
+                roleAuthority = permisoCatalog.roleAuthority(principal.getRolUsuario()).getAuthority();
+            }
+        }
+
+        if (compactAuthorities) {
+            // La autoridad ROLE_ se deriva del claim 'rol'; los permisos viajan como bitset y
+            // cualquier autoridad fuera del catálogo se conserva como texto.
+            List<String> residual = new ArrayList<>();
+            List<String> toEncode = new ArrayList<>(authorities.size());
+            for (String authority : authorities) {
+                if (authority.equals(roleAuthority)) {
+                    continue;
+                }
+                toEncode.add(authority);
+            }
+            builder.claim(CLAIM_PERMISSION_BITS, permisoCatalog.encode(toEncode, residual))
+                    .claim(CLAIM_PERMISSION_CATALOG_VERSION, permisoCatalog.version());
+            if (!residual.isEmpty()) {
+                builder.claim(CLAIM_AUTHORITIES, residual);
+            }
+        } else {
+            builder.claim(CLAIM_AUTHORITIES, authorities);
+        }
+
+        return builder
                 .setSubject(userDetails.getUsername())
-                .claim("authorities", authorities)
+                .claim(CLAIM_USER_GENERATION, tokenGenerationRegistry.currentUserGeneration(userDetails.getUsername()))
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(jwtSecretKey, SignatureAlgorithm.HS512)
@@ -74,7 +142,39 @@ public class JwtUtil {
 
     @SuppressWarnings("unchecked")
     public List<String> getAuthoritiesFromToken(String token) {
-        return getClaims(token).get("authorities", List.class);
+        return getClaims(token).get(CLAIM_AUTHORITIES, List.class);
+    }
+
+    /**
+     * Reconstruye las autoridades de unos claims ya verificados, sea cual sea la codificación usada al emitirlos.
+     *
+     * @return las autoridades, o null si el token usa la codificación compacta con una versión de catálogo
+     *         distinta a la actual (las autoridades deben resolverse desde la base de datos).
+     */
+    @SuppressWarnings("unchecked")
+    public List<GrantedAuthority> resolveAuthorities(Claims claims) {
+        List<String> plain = claims.get(CLAIM_AUTHORITIES, List.class);
+        String bits = claims.get(CLAIM_PERMISSION_BITS, String.class);
+        List<GrantedAuthority> result;
+        if (bits != null) {
+            Integer version = claims.get(CLAIM_PERMISSION_CATALOG_VERSION, Integer.class);
+            result = version != null ? permisoCatalog.decode(bits, version) : null;
+            if (result == null) {
+                return null;
+            }
+            String rol = claims.get(CLAIM_ROLE, String.class);
+            if (rol != null) {
+                result.add(permisoCatalog.roleAuthority(rol));
+            }
+        } else {
+            result = new ArrayList<>(plain != null ? plain.size() : 0);
+        }
+        if (plain != null) {
+            for (String authority : plain) {
+                result.add(new SimpleGrantedAuthority(authority));
+            }
+        }
+        return result;
     }
 
     public boolean validateToken(String authToken) {
@@ -83,10 +183,7 @@ public class JwtUtil {
             return false;
         }
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(jwtSecretKey)
-                    .build()
-                    .parseClaimsJws(authToken);
+            resolveClaims(authToken);
             return true;
         } catch (SignatureException ex) {
             log.error("Validación JWT fallida: Firma inválida -> {}", ex.getMessage());
@@ -102,11 +199,29 @@ public class JwtUtil {
         return false;
     }
 
+    /**
+     * Verifica el token una sola vez y devuelve sus claims.
+     * Si el token ya fue verificado y sigue vigente se devuelven los claims en caché sin recalcular la firma.
+     *
+     * @param token El token JWT compacto (sin el prefijo "Bearer ").
+     * @return Los claims verificados del token.
+     * @throws JwtException si la firma es inválida, el token está malformado o ha expirado.
+     * @throws IllegalArgumentException si el token es nulo o vacío.
+     */
+    public Claims resolveClaims(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("El token JWT es nulo o vacío.");
+        }
+        Claims cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        verifiedTokenCache.put(token, claims);
+        return claims;
+    }
+
     private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(jwtSecretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return resolveClaims(token);
     }
-}
\ No newline at end of file
+}
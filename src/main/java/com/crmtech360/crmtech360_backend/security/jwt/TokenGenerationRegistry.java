@@ -0,0 +1,239 @@
+package com.crmtech360.crmtech360_backend.security.jwt;
+
+import com.crmtech360.crmtech360_backend.datasource.PgChannelListener;
+import com.crmtech360.crmtech360_backend.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contadores de "generación de token" usados para revocar JWT en el modo de autenticación sin estado.
+ * Cada token lleva la generación de su usuario vigente al emitirse; incrementarla invalida todos los tokens
+ * emitidos antes.
+ * <p>
+ * La generación se guarda en {@code usuarios.generacion_token} y cada nodo mantiene una copia en memoria, que es la
+ * que se consulta en cada petición: se carga al arrancar y cada nodo publica sus revocaciones con {@code NOTIFY}
+ * en el canal {@code jwt.revocacion.canal}, que los demás escuchan ({@link PgChannelListener}) para actualizar su
+ * copia. Al reconectar el canal se vuelve a leer la tabla. Sin PostgreSQL no hay aviso entre nodos: cada uno solo
+ * ve sus propias revocaciones y las que había al arrancar, así que el modo sin estado requiere una sola instancia.
+ * <p>
+ * Un usuario eliminado ya no tiene fila: su revocación solo llega a los nodos que la reciben por el canal. Por eso
+ * los tokens emitidos antes del arranque de esta instancia no se consideran confiables para el modo sin estado
+ * (ver {@link #isIssuedBeforeStartup(long)}) y se validan contra la base de datos.
+ */
+@Component
+public class TokenGenerationRegistry implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenGenerationRegistry.class);
+
+    // Payload del NOTIFY: nodo|generación|usuario, o nodo|*| para una revocación global.
+    private static final String TODOS = "*";
+
+    // Segundos desde epoch, misma granularidad que el claim 'iat' del JWT.
+    private final long startupEpochSeconds = System.currentTimeMillis() / 1000;
+
+    // Las generaciones solo crecen: se combinan siempre con max, venga el valor de la tabla o de otro nodo.
+    private final Map<String, Integer> userGenerations = new ConcurrentHashMap<>();
+
+    private final UsuarioRepository usuarioRepository;
+    private final SessionFactoryImplementor sessionFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean statelessAuth;
+    private final String canal;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean running;
+    private PgChannelListener channelListener;
+
+    public TokenGenerationRegistry(UsuarioRepository usuarioRepository,
+                                   EntityManagerFactory entityManagerFactory,
+                                   PlatformTransactionManager transactionManager,
+                                   DataSourceProperties dataSourceProperties,
+                                   @Value("${jwt.auth.stateless:false}") boolean statelessAuth,
+                                   @Value("${jwt.revocacion.canal:jwt_token_revocation}") String canal) {
+        if (!PgChannelListener.esCanalValido(canal)) {
+            throw new IllegalStateException("Nombre de canal de revocación de tokens inválido: " + canal);
+        }
+        this.usuarioRepository = usuarioRepository;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        // Lecturas de la tabla en una transacción de escritura: deben ir al primario, nunca a una réplica con retraso.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataSourceProperties = dataSourceProperties;
+        this.statelessAuth = statelessAuth;
+        this.canal = canal;
+    }
+
+    public int currentUserGeneration(String username) {
+        return userGenerations.getOrDefault(username, 0);
+    }
+
+    /**
+     * Invalida todos los tokens emitidos hasta ahora para el usuario indicado
+     * (cambio de contraseña, cambio de rol, eliminación, etc.). Se aplica al confirmar la transacción en curso.
+     */
+    @Transactional
+    public void revokeUser(String username) {
+        if (username == null) {
+            return;
+        }
+        usuarioRepository.incrementarGeneracionToken(username);
+        int generation = usuarioRepository.findGeneracionTokenByNombreUsuario(username)
+                .orElseGet(() -> currentUserGeneration(username) + 1); // Usuario ya eliminado: solo en memoria.
+        publicar(generation + "|" + username);
+        alConfirmar(() -> {
+            userGenerations.merge(username, generation, Math::max);
+            log.debug("Tokens revocados para el usuario '{}'. Nueva generación: {}", username, generation);
+        });
+    }
+
+    /**
+     * Invalida todos los tokens emitidos hasta ahora, p. ej. cuando cambian las asignaciones de permisos de un rol.
+     */
+    @Transactional
+    public void revokeAll() {
+        usuarioRepository.incrementarGeneracionTokenDeTodos();
+        Map<String, Integer> generations = leerGeneraciones();
+        // Los usuarios eliminados no están en la tabla: se revocan solo en memoria.
+        Map<String, Integer> eliminados = new HashMap<>(userGenerations);
+        eliminados.keySet().removeAll(generations.keySet());
+        publicar(TODOS + "|");
+        alConfirmar(() -> {
+            generations.forEach((username, generation) -> userGenerations.merge(username, generation, Math::max));
+            eliminados.forEach((username, generation) -> userGenerations.merge(username, generation + 1, Math::max));
+            log.debug("Tokens revocados globalmente para {} usuario(s).", generations.size() + eliminados.size());
+        });
+    }
+
+    public boolean isCurrent(String username, int userGeneration) {
+        return userGeneration == currentUserGeneration(username);
+    }
+
+    public boolean isIssuedBeforeStartup(long issuedAtEpochSeconds) {
+        return issuedAtEpochSeconds < startupEpochSeconds;
+    }
+
+    @Override
+    public void start() {
+        if (statelessAuth && esPostgres()) {
+            // Primero LISTEN y después la lectura de la tabla (en alConectar): así no se pierde nada entre ambos.
+            channelListener = new PgChannelListener(dataSourceProperties, canal, "jwt-token-revocation", this::aplicar,
+                    reconexion -> recargar());
+            channelListener.start();
+            log.info("Revocación de tokens entre nodos activa en el canal '{}' (nodo {}).", canal, nodeId);
+        }
+        // Sin esperar al canal: los tokens de la tabla ya deben ser rechazados desde la primera petición.
+        recargar();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (channelListener != null) {
+            channelListener.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Antes que el servidor web, que empieza a aceptar peticiones en la fase por defecto menos 1024.
+        return DEFAULT_PHASE - 2048;
+    }
+
+    private void recargar() {
+        Map<String, Integer> generations = transactionTemplate.execute(status -> leerGeneraciones());
+        generations.forEach((username, generation) -> userGenerations.merge(username, generation, Math::max));
+    }
+
+    private Map<String, Integer> leerGeneraciones() {
+        Map<String, Integer> generations = new HashMap<>();
+        for (Object[] fila : usuarioRepository.findGeneracionesToken()) {
+            generations.put((String) fila[0], (Integer) fila[1]);
+        }
+        return generations;
+    }
+
+    private boolean esPostgres() {
+        return sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    // En la transacción en curso: PostgreSQL solo entrega la notificación si la transacción confirma.
+    private void publicar(String mensaje) {
+        if (!statelessAuth || !esPostgres()) {
+            return;
+        }
+        String payload = nodeId + "|" + mensaje;
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                ps.setString(1, canal);
+                ps.setString(2, payload);
+                ps.execute();
+            }
+        });
+    }
+
+    private void aplicar(String payload) {
+        String[] partes = payload.split("\\|", 3);
+        if (partes.length != 3) {
+            log.warn("Notificación de revocación de tokens con formato inválido: {}", payload);
+            return;
+        }
+        if (partes[0].equals(nodeId)) {
+            return;
+        }
+        if (TODOS.equals(partes[1])) {
+            // Incluye a los usuarios eliminados que este nodo conoce, igual que revokeAll en el nodo de origen.
+            userGenerations.replaceAll((username, generation) -> generation + 1);
+            recargar();
+        } else {
+            try {
+                userGenerations.merge(partes[2], Integer.parseInt(partes[1]), Math::max);
+            } catch (NumberFormatException e) {
+                log.warn("Notificación de revocación de tokens con formato inválido: {}", payload);
+            }
+        }
+        log.debug("Revocación de tokens recibida de otro nodo: {}", payload);
+    }
+
+    private static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.crmtech360.crmtech360_backend.security.password;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PasswordEncoder que ejecuta el hashing (BCrypt) en un pool de hilos dedicado y acotado.
+ * Así una ráfaga de logins (p. ej. el cambio de turno de los operarios) no consume todos los hilos de Tomcat
+ * ni toda la CPU: como mucho {@code poolSize} hashes corren a la vez, la cola es finita y, si está llena o
+ * la espera supera el tiempo máximo, se rechaza la operación con {@link PasswordHashingCapacityException}.
+ * La cola debe ser bastante más corta que el número de hilos de petición: cada petición encolada tiene su hilo
+ * bloqueado esperando el resultado, así que una cola del tamaño del pool de Tomcat no acotaría nada.
+ * <p>
+ * Publica en Micrometer las operaciones completadas y rechazadas, la ocupación del pool y el tiempo en cola
+ * ({@code password.hashing.*}) para dimensionarlo.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, long timeoutMs) {
+        this.delegate = delegate;
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Solo inspecciona el prefijo del hash ($2a$10$...), no requiere el pool.
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                recordQueueTime(System.nanoTime() - enqueuedAt);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Pool de hashing de contraseñas saturado (activos: {}, en cola: {}). Operación rechazada.",
+                    executor.getActiveCount(), executor.getQueue().size());
+            throw new PasswordHashingCapacityException("El servicio de autenticación está saturado. Intente de nuevo en unos segundos.", e);
+        }
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            completed.increment();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            log.warn("Tiempo de espera agotado ({} ms) en el pool de hashing de contraseñas.", timeoutMs);
+            throw new PasswordHashingCapacityException("El servicio de autenticación está saturado. Intente de nuevo en unos segundos.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingCapacityException("Operación de hashing interrumpida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Error en el hashing de la contraseña", e.getCause());
+        }
+    }
+
+    private void recordQueueTime(long nanos) {
+        totalQueueNanos.add(nanos);
+        maxQueueNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // --- Métricas ---
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public double getAverageQueueTimeMs() {
+        long count = completed.sum();
+        return count == 0 ? 0.0 : totalQueueNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getMaxQueueTimeMs() {
+        return maxQueueNanos.get() / 1_000_000.0;
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("password.hashing.completed", this, BoundedPasswordEncoder::getCompletedCount)
+                .description("Operaciones de hashing completadas")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.rejected", this, BoundedPasswordEncoder::getRejectedCount)
+                .description("Operaciones rechazadas por cola llena o tiempo de espera agotado")
+                .register(registry);
+        Gauge.builder("password.hashing.queue.size", this, BoundedPasswordEncoder::getQueueSize)
+                .description("Operaciones en cola")
+                .register(registry);
+        Gauge.builder("password.hashing.active", this, BoundedPasswordEncoder::getActiveCount)
+                .description("Hashes en curso")
+                .register(registry);
+        Gauge.builder("password.hashing.queue.time.avg", this, BoundedPasswordEncoder::getAverageQueueTimeMs)
+                .description("Tiempo medio en cola")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("password.hashing.queue.time.max", this, BoundedPasswordEncoder::getMaxQueueTimeMs)
+                .description("Tiempo máximo en cola")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
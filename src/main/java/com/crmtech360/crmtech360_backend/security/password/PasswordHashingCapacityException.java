@@ -0,0 +1,20 @@
+package com.crmtech360.crmtech360_backend.security.password;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Se lanza cuando el pool de hashing de contraseñas está saturado y la verificación no pudo
+ * ejecutarse dentro del tiempo de espera configurado. El cliente debe reintentar más tarde (503).
+ */
+public class PasswordHashingCapacityException extends AuthenticationServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingCapacityException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingCapacityException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
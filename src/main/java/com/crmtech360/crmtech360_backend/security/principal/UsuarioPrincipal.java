@@ -0,0 +1,54 @@
+package com.crmtech360.crmtech360_backend.security.principal;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Principal autenticado enriquecido con los identificadores del usuario.
+ * Se rellena una sola vez al autenticar (login o filtro JWT) para que las verificaciones de
+ * propiedad de UserSecurity se resuelvan en memoria, sin consultar la base de datos.
+ */
+public class UsuarioPrincipal extends User {
+
+    private final Integer idUsuario;
+    private final Integer idEmpleado; // null si el usuario no está vinculado a un empleado
+    private final String rolUsuario;
+
+    public UsuarioPrincipal(Integer idUsuario,
+                            Integer idEmpleado,
+                            String rolUsuario,
+                            String username,
+                            String password,
+                            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, true, true, true, true, authorities);
+        this.idUsuario = idUsuario;
+        this.idEmpleado = idEmpleado;
+        this.rolUsuario = rolUsuario;
+    }
+
+    public Integer getIdUsuario() {
+        return idUsuario;
+    }
+
+    public Integer getIdEmpleado() {
+        return idEmpleado;
+    }
+
+    public String getRolUsuario() {
+        return rolUsuario;
+    }
+
+    // equals y hashCode se heredan de User (basados en el nombre de usuario).
+
+    @Override
+    public String toString() {
+        return "UsuarioPrincipal{" +
+                "idUsuario=" + idUsuario +
+                ", idEmpleado=" + idEmpleado +
+                ", nombreUsuario='" + getUsername() + '\'' +
+                ", rolUsuario='" + rolUsuario + '\'' +
+                '}';
+    }
+}
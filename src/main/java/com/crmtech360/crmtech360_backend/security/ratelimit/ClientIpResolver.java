@@ -0,0 +1,102 @@
+package com.crmtech360.crmtech360_backend.security.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * IP del cliente para los buckets anónimos y de login. Detrás del proxy inverso o del gateway todas las peticiones
+ * llegan desde la misma dirección, así que se toma la de {@code X-Forwarded-For} (o, si falta, la de
+ * {@code Forwarded}), pero solo si la petición viene de un proxy de confianza: en cualquier otro caso la cabecera la
+ * controla el cliente y bastaría con cambiarla para saltarse el límite.
+ * <p>
+ * La cadena se recorre de derecha a izquierda descartando los proxies de confianza; la primera dirección que no lo
+ * es corresponde al cliente.
+ */
+class ClientIpResolver {
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    /**
+     * @param trustedProxies IPs o rangos CIDR de los proxies de confianza (vacío: se usa siempre la IP remota)
+     */
+    ClientIpResolver(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        List<String> chain = forwardedChain(request);
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            String address = chain.get(i);
+            if (!isTrusted(address)) {
+                return address;
+            }
+        }
+        // Todas las direcciones son proxies propios (o no hay cabecera): la más lejana es lo mejor que se conoce.
+        return chain.isEmpty() ? remoteAddr : chain.get(0);
+    }
+
+    private boolean isTrusted(String address) {
+        for (IpAddressMatcher matcher : trustedProxies) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // No es una IP (p. ej. un identificador ofuscado de Forwarded): no es un proxy de confianza.
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> forwardedChain(HttpServletRequest request) {
+        List<String> chain = new ArrayList<>();
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isBlank()) {
+            for (String part : xForwardedFor.split(",")) {
+                if (!part.isBlank()) {
+                    chain.add(part.trim());
+                }
+            }
+            return chain;
+        }
+        String forwarded = request.getHeader("Forwarded");
+        if (forwarded != null) {
+            for (String element : forwarded.split(",")) {
+                for (String pair : element.split(";")) {
+                    String trimmed = pair.trim();
+                    if (trimmed.toLowerCase(Locale.ROOT).startsWith("for=")) {
+                        chain.add(forwardedNode(trimmed.substring(4)));
+                    }
+                }
+            }
+        }
+        return chain;
+    }
+
+    // Forwarded admite comillas, IPv6 entre corchetes y puerto: for="[2001:db8::1]:4711", for=192.0.2.60:8080.
+    private static String forwardedNode(String value) {
+        String node = value.trim();
+        if (node.startsWith("\"") && node.endsWith("\"") && node.length() >= 2) {
+            node = node.substring(1, node.length() - 1);
+        }
+        if (node.startsWith("[")) {
+            int end = node.indexOf(']');
+            return end > 0 ? node.substring(1, end) : node;
+        }
+        int colon = node.indexOf(':');
+        return colon > 0 && node.indexOf(':', colon + 1) < 0 ? node.substring(0, colon) : node;
+    }
+}
@@ -0,0 +1,136 @@
+package com.crmtech360.crmtech360_backend.security.ratelimit;
+
+import com.crmtech360.crmtech360_backend.dto.ApiErrorResponseDTO;
+import com.crmtech360.crmtech360_backend.security.jwt.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro de limitación de tasa que se ejecuta antes de JwtRequestFilter.
+ * Aplica tres presupuestos independientes: login (por IP, protege el coste de BCrypt), escrituras y lecturas
+ * (por usuario si el token es válido, por IP en caso contrario). Al superar el límite responde 429 con Retry-After.
+ * Detrás de un proxy inverso, la IP del cliente se toma de X-Forwarded-For/Forwarded solo si la petición llega de
+ * uno de {@code ratelimit.proxies-confiables} (ver {@link ClientIpResolver}).
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String LOGIN_PATH = "/api/v1/auth/login";
+
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final ClientIpResolver clientIpResolver;
+
+    private final TokenBucketRateLimiter loginLimiter;
+    private final TokenBucketRateLimiter writeLimiter;
+    private final TokenBucketRateLimiter readLimiter;
+
+    public RateLimitFilter(JwtUtil jwtUtil,
+                           @Value("${ratelimit.enabled:true}") boolean enabled,
+                           @Value("${ratelimit.login.capacity:10}") long loginCapacity,
+                           @Value("${ratelimit.login.refill-per-second:0.2}") double loginRefill,
+                           @Value("${ratelimit.write.capacity:30}") long writeCapacity,
+                           @Value("${ratelimit.write.refill-per-second:10}") double writeRefill,
+                           @Value("${ratelimit.read.capacity:100}") long readCapacity,
+                           @Value("${ratelimit.read.refill-per-second:50}") double readRefill,
+                           @Value("${ratelimit.idle-timeout-seconds:600}") long idleTimeoutSeconds,
+                           @Value("${ratelimit.proxies-confiables:}") List<String> trustedProxies) {
+        this.jwtUtil = jwtUtil;
+        this.enabled = enabled;
+        this.clientIpResolver = new ClientIpResolver(trustedProxies);
+        this.loginLimiter = new TokenBucketRateLimiter("login", loginCapacity, loginRefill, idleTimeoutSeconds, TimeUnit.SECONDS);
+        this.writeLimiter = new TokenBucketRateLimiter("write", writeCapacity, writeRefill, idleTimeoutSeconds, TimeUnit.SECONDS);
+        this.readLimiter = new TokenBucketRateLimiter("read", readCapacity, readRefill, idleTimeoutSeconds, TimeUnit.SECONDS);
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!enabled || "OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TokenBucketRateLimiter limiter;
+        String key;
+        if (LOGIN_PATH.equals(request.getRequestURI())) {
+            limiter = loginLimiter;
+            key = clientIpResolver.resolve(request);
+        } else {
+            limiter = isWrite(request.getMethod()) ? writeLimiter : readLimiter;
+            key = resolveClientKey(request);
+        }
+
+        long retryAfterSeconds = limiter.tryAcquire(key);
+        if (retryAfterSeconds > 0) {
+            log.warn("Límite de tasa '{}' excedido para '{}'. URI: {}. Reintentar en {} s.",
+                    limiter.getName(), key, request.getRequestURI(), retryAfterSeconds);
+            writeTooManyRequests(request, response, retryAfterSeconds);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Clave del cliente: el usuario del token si la firma es válida (los claims verificados están en caché,
+     * así que no se repite la verificación en JwtRequestFilter), o la IP del cliente en cualquier otro caso.
+     */
+    private String resolveClientKey(HttpServletRequest request) {
+        String headerAuth = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (headerAuth != null && headerAuth.startsWith("Bearer ")) {
+            try {
+                String subject = jwtUtil.resolveClaims(headerAuth.substring(7)).getSubject();
+                if (subject != null) {
+                    return subject;
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Token inválido: se limita por IP y JwtRequestFilter se encargará de rechazarlo.
+            }
+        }
+        return clientIpResolver.resolve(request);
+    }
+
+    private static boolean isWrite(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method) || "DELETE".equals(method);
+    }
+
+    private void writeTooManyRequests(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ApiErrorResponseDTO errorResponse = new ApiErrorResponseDTO(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Demasiadas Solicitudes",
+                "Se ha superado el límite de solicitudes permitido. Intente de nuevo en " + retryAfterSeconds + " segundos.",
+                request.getRequestURI()
+        );
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
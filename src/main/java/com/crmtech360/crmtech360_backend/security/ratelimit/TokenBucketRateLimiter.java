@@ -0,0 +1,117 @@
+package com.crmtech360.crmtech360_backend.security.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador token-bucket en memoria para un tipo de presupuesto (login, escrituras o lecturas).
+ * Cada clave (usuario o IP) tiene su propio bucket; la exclusión mutua se hace con un arreglo fijo de locks
+ * (lock striping) para no crear un lock por clave. Tras la primera solicitud de una clave, consumir un token
+ * no crea objetos. Los buckets inactivos se eliminan de forma oportunista desde los propios hilos de solicitud.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 64; // Potencia de 2
+
+    private final String name;
+    private final long capacityMicros;      // Tokens * 1_000_000 (punto fijo para evitar errores de redondeo)
+    private final long refillMicrosPerSecond;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    private final AtomicLong lastSweepNanos;
+
+    /**
+     * @param name            Nombre del presupuesto (para logs y métricas).
+     * @param capacity        Ráfaga máxima permitida (tokens).
+     * @param refillPerSecond Tokens repuestos por segundo.
+     * @param idleTimeout     Tiempo sin solicitudes tras el cual se descarta el bucket de una clave.
+     */
+    public TokenBucketRateLimiter(String name, long capacity, double refillPerSecond, long idleTimeout, TimeUnit unit) {
+        this(name, capacity, refillPerSecond, idleTimeout, unit, System::nanoTime);
+    }
+
+    // Con el reloj inyectado, las pruebas controlan la reposición sin esperar.
+    TokenBucketRateLimiter(String name, long capacity, double refillPerSecond, long idleTimeout, TimeUnit unit,
+                           LongSupplier nanoClock) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("La capacidad y la tasa de reposición deben ser positivas para el límite '" + name + "'.");
+        }
+        this.name = name;
+        this.capacityMicros = capacity * 1_000_000L;
+        this.refillMicrosPerSecond = Math.max(1L, (long) (refillPerSecond * 1_000_000L));
+        this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+        this.nanoClock = nanoClock;
+        this.lastSweepNanos = new AtomicLong(nanoClock.getAsLong());
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Intenta consumir un token para la clave.
+     *
+     * @return 0 si la solicitud está permitida; en caso contrario, los segundos (redondeados hacia arriba)
+     *         que faltan para disponer de un token, útil para el encabezado Retry-After.
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        sweepIfDue(now);
+
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacityMicros, now));
+        }
+        synchronized (locks[(key.hashCode() & 0x7fffffff) & (STRIPES - 1)]) {
+            long elapsedNanos = now - bucket.lastRefillNanos;
+            if (elapsedNanos > 0) {
+                long refill = elapsedNanos >= TimeUnit.SECONDS.toNanos(1) * (capacityMicros / refillMicrosPerSecond + 1)
+                        ? capacityMicros // Evita desbordamiento tras largos periodos inactivos
+                        : elapsedNanos * refillMicrosPerSecond / 1_000_000_000L;
+                bucket.tokensMicros = Math.min(capacityMicros, bucket.tokensMicros + refill);
+                bucket.lastRefillNanos = now;
+            }
+            bucket.lastAccessNanos = now;
+            if (bucket.tokensMicros >= 1_000_000L) {
+                bucket.tokensMicros -= 1_000_000L;
+                return 0;
+            }
+            long missingMicros = 1_000_000L - bucket.tokensMicros;
+            return Math.max(1L, (missingMicros + refillMicrosPerSecond - 1) / refillMicrosPerSecond);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int trackedKeys() {
+        return buckets.size();
+    }
+
+    // Como mucho un hilo a la vez (CAS) recorre el mapa, y solo cuando ha pasado el tiempo de inactividad.
+    private void sweepIfDue(long now) {
+        long last = lastSweepNanos.get();
+        if (now - last < idleTimeoutNanos || !lastSweepNanos.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(b -> now - b.lastAccessNanos > idleTimeoutNanos);
+    }
+
+    private static final class Bucket {
+        long tokensMicros;
+        long lastRefillNanos;
+        volatile long lastAccessNanos;
+
+        Bucket(long tokensMicros, long now) {
+            this.tokensMicros = tokensMicros;
+            this.lastRefillNanos = now;
+            this.lastAccessNanos = now;
+        }
+    }
+}
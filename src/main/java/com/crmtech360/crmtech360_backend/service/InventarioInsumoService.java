@@ -4,6 +4,7 @@ import com.crmtech360.crmtech360_backend.dto.InventarioInsumoCreateRequestDTO;
 import com.crmtech360.crmtech360_backend.dto.InventarioInsumoResponseDTO;
 import com.crmtech360.crmtech360_backend.dto.MovimientoInventarioInsumoCreateRequestDTO;
 import com.crmtech360.crmtech360_backend.dto.MovimientoInventarioInsumoResponseDTO;
+import com.crmtech360.crmtech360_backend.dto.CursorPageDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
@@ -21,7 +22,9 @@ public interface InventarioInsumoService {
 
     MovimientoInventarioInsumoResponseDTO registrarMovimiento(MovimientoInventarioInsumoCreateRequestDTO movimientoRequestDTO);
 
-    Page<MovimientoInventarioInsumoResponseDTO> findMovimientosByInventarioInsumoId(Integer idInventarioInsumo, Pageable pageable);
+    Page<MovimientoInventarioInsumoResponseDTO> findMovimientosByInventarioInsumoId(Integer idInventarioInsumo, Pageable pageable, boolean totalEstimado);
+
+    CursorPageDTO<MovimientoInventarioInsumoResponseDTO> findMovimientosByInventarioInsumoIdSeek(Integer idInventarioInsumo, String cursor, Integer size);
 
     BigDecimal getStockActual(Integer idInventarioInsumo);
 
@@ -5,6 +5,7 @@ import com.crmtech360.crmtech360_backend.dto.InventarioProductoResponseDTO;
 // Quitamos InventarioProductoUpdateDTO si solo se actualiza por movimiento
 import com.crmtech360.crmtech360_backend.dto.MovimientoInventarioProductoCreateRequestDTO;
 import com.crmtech360.crmtech360_backend.dto.MovimientoInventarioProductoResponseDTO;
+import com.crmtech360.crmtech360_backend.dto.CursorPageDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
@@ -25,7 +26,9 @@ public interface InventarioProductoService {
 
     MovimientoInventarioProductoResponseDTO registrarMovimiento(MovimientoInventarioProductoCreateRequestDTO movimientoRequestDTO);
 
-    Page<MovimientoInventarioProductoResponseDTO> findMovimientosByInventarioProductoId(Integer idInventarioProducto, Pageable pageable);
+    Page<MovimientoInventarioProductoResponseDTO> findMovimientosByInventarioProductoId(Integer idInventarioProducto, Pageable pageable, boolean totalEstimado);
+
+    CursorPageDTO<MovimientoInventarioProductoResponseDTO> findMovimientosByInventarioProductoIdSeek(Integer idInventarioProducto, String cursor, Integer size);
 
     Integer getStockActual(Integer idInventarioProducto);
 
@@ -5,6 +5,7 @@ import com.crmtech360.crmtech360_backend.dto.DetalleOrdenCompraResponseDTO;
 import com.crmtech360.crmtech360_backend.dto.OrdenCompraCreateRequestDTO;
 import com.crmtech360.crmtech360_backend.dto.OrdenCompraResponseDTO;
 import com.crmtech360.crmtech360_backend.dto.OrdenCompraUpdateRequestDTO;
+import com.crmtech360.crmtech360_backend.dto.CursorPageDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
@@ -15,6 +16,8 @@ public interface OrdenCompraService {
 
     Page<OrdenCompraResponseDTO> findAllOrdenesCompra(Pageable pageable);
 
+    CursorPageDTO<OrdenCompraResponseDTO> findAllOrdenesCompraSeek(String cursor, Integer size);
+
     OrdenCompraResponseDTO findOrdenCompraById(Integer id);
 
     List<OrdenCompraResponseDTO> findOrdenesCompraByProveedorId(Integer idProveedor);
@@ -5,6 +5,7 @@ import com.crmtech360.crmtech360_backend.dto.DetalleOrdenVentaResponseDTO;
 import com.crmtech360.crmtech360_backend.dto.OrdenVentaCreateRequestDTO;
 import com.crmtech360.crmtech360_backend.dto.OrdenVentaResponseDTO;
 import com.crmtech360.crmtech360_backend.dto.OrdenVentaUpdateRequestDTO;
+import com.crmtech360.crmtech360_backend.dto.CursorPageDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
@@ -13,7 +14,9 @@ public interface OrdenVentaService {
 
     OrdenVentaResponseDTO createOrdenVenta(OrdenVentaCreateRequestDTO createRequestDTO);
 
-    Page<OrdenVentaResponseDTO> findAllOrdenesVenta(Pageable pageable);
+    Page<OrdenVentaResponseDTO> findAllOrdenesVenta(Pageable pageable, boolean totalEstimado);
+
+    CursorPageDTO<OrdenVentaResponseDTO> findAllOrdenesVentaSeek(String cursor, Integer size);
 
     OrdenVentaResponseDTO findOrdenVentaById(Integer id);
 
@@ -11,7 +11,7 @@ public interface PagoCobroService {
 
     PagoCobroResponseDTO createPagoCobro(PagoCobroCreateRequestDTO createRequestDTO);
 
-    Page<PagoCobroResponseDTO> findAllPagosCobros(Pageable pageable);
+    Page<PagoCobroResponseDTO> findAllPagosCobros(Pageable pageable, boolean totalEstimado);
 
     PagoCobroResponseDTO findPagoCobroById(Integer idPagoCobro);
 
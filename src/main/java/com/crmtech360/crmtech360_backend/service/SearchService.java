@@ -0,0 +1,21 @@
+package com.crmtech360.crmtech360_backend.service;
+
+import com.crmtech360.crmtech360_backend.dto.SearchEntityType;
+import com.crmtech360.crmtech360_backend.dto.SearchResultDTO;
+import com.crmtech360.crmtech360_backend.dto.SearchResultPageDTO;
+
+import java.util.List;
+import java.util.Set;
+
+public interface SearchService {
+
+    /**
+     * Busca el texto en los tipos indicados (todos si {@code tipos} está vacío) que el usuario actual puede consultar.
+     */
+    SearchResultPageDTO search(String texto, Set<SearchEntityType> tipos, boolean tolerante, int page, int size);
+
+    /**
+     * Sugerencias de autocompletado para productos o clientes desde el índice en memoria (sin consultar la base de datos).
+     */
+    List<SearchResultDTO> suggest(String texto, SearchEntityType tipo, int limite);
+}
@@ -6,9 +6,14 @@ import com.crmtech360.crmtech360_backend.entity.ContactoCliente;
 import com.crmtech360.crmtech360_backend.repository.ClienteRepository;
 import com.crmtech360.crmtech360_backend.repository.ContactoClienteRepository;
 import com.crmtech360.crmtech360_backend.service.ClienteService;
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeyFilters;
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeySpace;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException; // Placeholder
 import com.crmtech360.crmtech360_backend.exception.DuplicateResourceException; // Placeholder
 import com.crmtech360.crmtech360_backend.exception.BadRequestException; // Placeholder
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -20,56 +25,75 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class ClienteServiceImpl implements ClienteService {
 
     private static final Logger log = LoggerFactory.getLogger(ClienteServiceImpl.class);
 
     private final ClienteRepository clienteRepository;
     private final ContactoClienteRepository contactoClienteRepository; // Inyectar también este
+    private final UniqueKeyFilters uniqueKeyFilters; // Evita la consulta de duplicados si el documento seguro que es nuevo
 
-    public ClienteServiceImpl(ClienteRepository clienteRepository, ContactoClienteRepository contactoClienteRepository) {
+    public ClienteServiceImpl(ClienteRepository clienteRepository, ContactoClienteRepository contactoClienteRepository,
+                              UniqueKeyFilters uniqueKeyFilters) {
         this.clienteRepository = clienteRepository;
         this.contactoClienteRepository = contactoClienteRepository;
+        this.uniqueKeyFilters = uniqueKeyFilters;
     }
 
     @Override
+    @AuditedOperation
     public ClienteResponseDTO createCliente(ClienteRequestDTO clienteRequestDTO) {
-        log.info("Intentando crear cliente con documento: {}", clienteRequestDTO.getNumeroDocumento());
-        clienteRepository.findByNumeroDocumento(clienteRequestDTO.getNumeroDocumento())
-                .ifPresent(existing -> {
-                    log.warn("Intento de crear cliente duplicado por documento: {}", clienteRequestDTO.getNumeroDocumento());
-                    throw new DuplicateResourceException("Cliente", "numeroDocumento", clienteRequestDTO.getNumeroDocumento());
-                });
+        log.debug("Intentando crear cliente con documento: {}", clienteRequestDTO.getNumeroDocumento());
+        if (uniqueKeyFilters.mightExist(UniqueKeySpace.CLIENTE_DOCUMENTO, clienteRequestDTO.getNumeroDocumento())) {
+            clienteRepository.findByNumeroDocumento(clienteRequestDTO.getNumeroDocumento())
+                    .ifPresent(existing -> {
+                        log.warn("Intento de crear cliente duplicado por documento: {}", clienteRequestDTO.getNumeroDocumento());
+                        throw new DuplicateResourceException("Cliente", "numeroDocumento", clienteRequestDTO.getNumeroDocumento());
+                    });
+        }
 
         Cliente cliente = mapToEntity(clienteRequestDTO);
         Cliente savedCliente = clienteRepository.save(cliente);
-        log.info("Cliente creado con ID: {}", savedCliente.getIdCliente());
+        log.debug("Cliente creado con ID: {}", savedCliente.getIdCliente());
         return mapToResponseDTO(savedCliente); // Mapear a DTO incluyendo contactos vacíos inicialmente
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Page<ClienteResponseDTO> findAllClientes(Pageable pageable) {
-        log.info("Buscando todos los clientes, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
-        Page<Cliente> clientePage = clienteRepository.findAll(pageable);
-        return clientePage.map(this::mapToResponseDTO); // map preserva la paginación
+        log.debug("Buscando todos los clientes, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
+        Page<ClienteResponseDTO> clientes = clienteRepository.findAllResponse(pageable);
+        if (clientes.hasContent()) {
+            Map<Integer, ClienteResponseDTO> porId = clientes.stream()
+                    .collect(Collectors.toMap(ClienteResponseDTO::getIdCliente, Function.identity()));
+            contactoClienteRepository.findViewsByClienteIds(porId.keySet())
+                    .forEach(contacto -> porId.get(contacto.idCliente()).getContactosCliente().add(contacto.toResponseDTO()));
+        }
+        return clientes;
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public ClienteResponseDTO findClienteById(Integer id) {
-        log.info("Buscando cliente con ID: {}", id);
-        Cliente cliente = findClienteEntityById(id);
+        log.debug("Buscando cliente con ID: {}", id);
+        Cliente cliente = clienteRepository.findDetalleById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente", "id", id));
         return mapToResponseDTO(cliente);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public ClienteResponseDTO findClienteByNumeroDocumento(String numeroDocumento) {
-        log.info("Buscando cliente con documento: {}", numeroDocumento);
+        log.debug("Buscando cliente con documento: {}", numeroDocumento);
         Cliente cliente = clienteRepository.findByNumeroDocumento(numeroDocumento)
                 .orElseThrow(() -> {
                     log.warn("Cliente no encontrado con documento: {}", numeroDocumento);
@@ -79,17 +103,20 @@ public class ClienteServiceImpl implements ClienteService {
     }
 
     @Override
+    @AuditedOperation
     public ClienteResponseDTO updateCliente(Integer id, ClienteRequestDTO clienteRequestDTO) {
-        log.info("Intentando actualizar cliente con ID: {}", id);
+        log.debug("Intentando actualizar cliente con ID: {}", id);
         Cliente clienteToUpdate = findClienteEntityById(id);
 
         // Verificar si el número de documento se está cambiando y si ya existe en otro cliente
         if (!clienteToUpdate.getNumeroDocumento().equals(clienteRequestDTO.getNumeroDocumento())) {
-            clienteRepository.findByNumeroDocumento(clienteRequestDTO.getNumeroDocumento())
-                    .ifPresent(existing -> {
-                        log.warn("Intento de actualizar a número de documento duplicado: {}", clienteRequestDTO.getNumeroDocumento());
-                        throw new DuplicateResourceException("Cliente", "numeroDocumento", clienteRequestDTO.getNumeroDocumento());
-                    });
+            if (uniqueKeyFilters.mightExist(UniqueKeySpace.CLIENTE_DOCUMENTO, clienteRequestDTO.getNumeroDocumento())) {
+                clienteRepository.findByNumeroDocumento(clienteRequestDTO.getNumeroDocumento())
+                        .ifPresent(existing -> {
+                            log.warn("Intento de actualizar a número de documento duplicado: {}", clienteRequestDTO.getNumeroDocumento());
+                            throw new DuplicateResourceException("Cliente", "numeroDocumento", clienteRequestDTO.getNumeroDocumento());
+                        });
+            }
             clienteToUpdate.setNumeroDocumento(clienteRequestDTO.getNumeroDocumento());
         }
 
@@ -102,25 +129,27 @@ public class ClienteServiceImpl implements ClienteService {
         // Fechas de creación/actualización manejadas por @PrePersist/@PreUpdate
 
         Cliente updatedCliente = clienteRepository.save(clienteToUpdate);
-        log.info("Cliente actualizado con ID: {}", updatedCliente.getIdCliente());
+        log.debug("Cliente actualizado con ID: {}", updatedCliente.getIdCliente());
         return mapToResponseDTO(updatedCliente);
     }
 
     @Override
+    @AuditedOperation
     public void deleteCliente(Integer id) {
-        log.info("Intentando eliminar cliente con ID: {}", id);
+        log.debug("Intentando eliminar cliente con ID: {}", id);
         Cliente cliente = findClienteEntityById(id);
         // ON DELETE CASCADE en ContactosCliente y OrdenesVenta debería funcionar en BD.
         // Si no, se necesitaría lógica adicional aquí o manejo de excepciones de integridad.
         clienteRepository.delete(cliente);
-        log.info("Cliente eliminado con ID: {}", id);
+        log.debug("Cliente eliminado con ID: {}", id);
     }
 
     // --- Implementación de Métodos para Contactos ---
 
     @Override
+    @AuditedOperation
     public ContactoClienteResponseDTO addContactoToCliente(Integer idCliente, ContactoClienteRequestDTO contactoDTO) {
-        log.info("Añadiendo contacto al cliente ID: {}", idCliente);
+        log.debug("Añadiendo contacto al cliente ID: {}", idCliente);
         Cliente cliente = findClienteEntityById(idCliente);
 
         // Validar que idCliente en DTO coincida (o que no venga, si se prefiere)
@@ -138,14 +167,15 @@ public class ClienteServiceImpl implements ClienteService {
         nuevoContacto.setCorreoContacto(contactoDTO.getCorreoContacto());
 
         ContactoCliente savedContacto = contactoClienteRepository.save(nuevoContacto);
-        log.info("Contacto añadido con ID: {} para cliente ID: {}", savedContacto.getIdContacto(), idCliente);
+        log.debug("Contacto añadido con ID: {} para cliente ID: {}", savedContacto.getIdContacto(), idCliente);
 
         return mapContactoToResponseDTO(savedContacto);
     }
 
     @Override
+    @AuditedOperation
     public ContactoClienteResponseDTO updateContactoCliente(Integer idCliente, Integer idContacto, ContactoClienteRequestDTO contactoDTO) {
-        log.info("Actualizando contacto ID: {} para cliente ID: {}", idContacto, idCliente);
+        log.debug("Actualizando contacto ID: {} para cliente ID: {}", idContacto, idCliente);
         // Verificar que el cliente existe
         findClienteEntityById(idCliente);
         // Buscar el contacto específico
@@ -171,13 +201,14 @@ public class ClienteServiceImpl implements ClienteService {
         contactoToUpdate.setCorreoContacto(contactoDTO.getCorreoContacto());
 
         ContactoCliente updatedContacto = contactoClienteRepository.save(contactoToUpdate);
-        log.info("Contacto actualizado con ID: {} para cliente ID: {}", updatedContacto.getIdContacto(), idCliente);
+        log.debug("Contacto actualizado con ID: {} para cliente ID: {}", updatedContacto.getIdContacto(), idCliente);
         return mapContactoToResponseDTO(updatedContacto);
     }
 
     @Override
+    @AuditedOperation
     public void deleteContactoCliente(Integer idCliente, Integer idContacto) {
-        log.info("Eliminando contacto ID: {} del cliente ID: {}", idContacto, idCliente);
+        log.debug("Eliminando contacto ID: {} del cliente ID: {}", idContacto, idCliente);
         // Verificar que el cliente existe
         findClienteEntityById(idCliente);
         // Buscar el contacto específico
@@ -191,13 +222,14 @@ public class ClienteServiceImpl implements ClienteService {
         }
 
         contactoClienteRepository.delete(contactoToDelete);
-        log.info("Contacto eliminado con ID: {}", idContacto);
+        log.debug("Contacto eliminado con ID: {}", idContacto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<ContactoClienteResponseDTO> findContactosByClienteId(Integer idCliente) {
-        log.info("Buscando contactos para el cliente ID: {}", idCliente);
+        log.debug("Buscando contactos para el cliente ID: {}", idCliente);
         // Verificar que el cliente existe primero
         findClienteEntityById(idCliente);
         List<ContactoCliente> contactos = contactoClienteRepository.findByClienteIdCliente(idCliente);
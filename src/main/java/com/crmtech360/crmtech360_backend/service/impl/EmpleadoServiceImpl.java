@@ -8,10 +8,14 @@ import com.crmtech360.crmtech360_backend.entity.Empleado;
 import com.crmtech360.crmtech360_backend.entity.Usuario;
 import com.crmtech360.crmtech360_backend.repository.EmpleadoRepository;
 import com.crmtech360.crmtech360_backend.repository.UsuarioRepository; // Para desvincular usuarios
+import com.crmtech360.crmtech360_backend.security.jwt.TokenGenerationRegistry;
 import com.crmtech360.crmtech360_backend.service.EmpleadoService;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException;
 import com.crmtech360.crmtech360_backend.exception.DuplicateResourceException;
 import com.crmtech360.crmtech360_backend.exception.BadRequestException;
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -23,21 +27,27 @@ import java.util.Optional;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class EmpleadoServiceImpl implements EmpleadoService {
 
     private static final Logger log = LoggerFactory.getLogger(EmpleadoServiceImpl.class);
 
     private final EmpleadoRepository empleadoRepository;
     private final UsuarioRepository usuarioRepository; // Para manejar la desvinculación
+    private final TokenGenerationRegistry tokenGenerationRegistry;
 
-    public EmpleadoServiceImpl(EmpleadoRepository empleadoRepository, UsuarioRepository usuarioRepository) {
+    public EmpleadoServiceImpl(EmpleadoRepository empleadoRepository,
+                               UsuarioRepository usuarioRepository,
+                               TokenGenerationRegistry tokenGenerationRegistry) {
         this.empleadoRepository = empleadoRepository;
         this.usuarioRepository = usuarioRepository;
+        this.tokenGenerationRegistry = tokenGenerationRegistry;
     }
 
     @Override
+    @AuditedOperation
     public EmpleadoResponseDTO createEmpleado(EmpleadoCreateRequestDTO createDTO) {
-        log.info("Intentando crear empleado con documento: {}", createDTO.getNumeroDocumento());
+        log.debug("Intentando crear empleado con documento: {}", createDTO.getNumeroDocumento());
         empleadoRepository.findByNumeroDocumento(createDTO.getNumeroDocumento())
                 .ifPresent(existing -> {
                     log.warn("Intento de crear empleado duplicado por documento: {}", createDTO.getNumeroDocumento());
@@ -46,29 +56,32 @@ public class EmpleadoServiceImpl implements EmpleadoService {
 
         Empleado empleado = mapToEntity(createDTO);
         Empleado savedEmpleado = empleadoRepository.save(empleado);
-        log.info("Empleado creado con ID: {}", savedEmpleado.getIdEmpleado());
+        log.debug("Empleado creado con ID: {}", savedEmpleado.getIdEmpleado());
         return mapToResponseDTO(savedEmpleado);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Page<EmpleadoResponseDTO> findAllEmpleados(Pageable pageable) {
-        log.info("Buscando todos los empleados, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
-        return empleadoRepository.findAll(pageable).map(this::mapToResponseDTO);
+        log.debug("Buscando todos los empleados, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return empleadoRepository.findAllResponse(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public EmpleadoResponseDTO findEmpleadoById(Integer id) {
-        log.info("Buscando empleado con ID: {}", id);
+        log.debug("Buscando empleado con ID: {}", id);
         Empleado empleado = findEmpleadoEntityById(id);
         return mapToResponseDTO(empleado);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public EmpleadoResponseDTO findEmpleadoByNumeroDocumento(String numeroDocumento) {
-        log.info("Buscando empleado con documento: {}", numeroDocumento);
+        log.debug("Buscando empleado con documento: {}", numeroDocumento);
         Empleado empleado = empleadoRepository.findByNumeroDocumento(numeroDocumento)
                 .orElseThrow(() -> {
                     log.warn("Empleado no encontrado con documento: {}", numeroDocumento);
@@ -78,8 +91,9 @@ public class EmpleadoServiceImpl implements EmpleadoService {
     }
 
     @Override
+    @AuditedOperation
     public EmpleadoResponseDTO updateEmpleado(Integer id, EmpleadoUpdateRequestDTO updateDTO) {
-        log.info("Intentando actualizar empleado con ID: {}", id);
+        log.debug("Intentando actualizar empleado con ID: {}", id);
         Empleado empleadoToUpdate = findEmpleadoEntityById(id);
 
         // No se actualiza tipo ni número de documento aquí. Se asumen fijos.
@@ -100,13 +114,14 @@ public class EmpleadoServiceImpl implements EmpleadoService {
         }
 
         Empleado updatedEmpleado = empleadoRepository.save(empleadoToUpdate);
-        log.info("Empleado actualizado con ID: {}", updatedEmpleado.getIdEmpleado());
+        log.debug("Empleado actualizado con ID: {}", updatedEmpleado.getIdEmpleado());
         return mapToResponseDTO(updatedEmpleado);
     }
 
     @Override
+    @AuditedOperation
     public void deleteEmpleado(Integer id) {
-        log.info("Intentando eliminar empleado con ID: {}", id);
+        log.debug("Intentando eliminar empleado con ID: {}", id);
         Empleado empleadoToDelete = findEmpleadoEntityById(id);
 
         // La BD tiene ON DELETE SET NULL para Usuarios.id_empleado y TareasProduccion.id_empleado.
@@ -117,14 +132,16 @@ public class EmpleadoServiceImpl implements EmpleadoService {
         Optional<Usuario> usuarioOptional = usuarioRepository.findByEmpleadoIdEmpleado(id);
         if(usuarioOptional.isPresent()){
             Usuario usuario = usuarioOptional.get();
-            log.info("Desvinculando empleado ID {} del usuario ID {}", id, usuario.getIdUsuario());
+            log.debug("Desvinculando empleado ID {} del usuario ID {}", id, usuario.getIdUsuario());
             usuario.setEmpleado(null); // Asegura que JPA haga el SET NULL
             usuarioRepository.save(usuario); // Guarda el cambio en el usuario
+            // El token del usuario lleva el ID del empleado desvinculado.
+            tokenGenerationRegistry.revokeUser(usuario.getNombreUsuario());
         }
         // Lógica similar podría ser necesaria para TareasProduccion si no se confía plenamente en el ON DELETE SET NULL de la BD vía JPA.
 
         empleadoRepository.delete(empleadoToDelete);
-        log.info("Empleado eliminado con ID: {}", id);
+        log.debug("Empleado eliminado con ID: {}", id);
     }
 
     // --- Métodos de Ayuda y Mapeo Privados ---
@@ -9,6 +9,9 @@ import com.crmtech360.crmtech360_backend.service.InsumoService;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException;
 import com.crmtech360.crmtech360_backend.exception.DuplicateResourceException;
 import com.crmtech360.crmtech360_backend.exception.BadRequestException; // <--- ¡AÑADE ESTA LÍNEA!
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -19,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class InsumoServiceImpl implements InsumoService {
 
     private static final Logger log = LoggerFactory.getLogger(InsumoServiceImpl.class);
@@ -30,8 +34,9 @@ public class InsumoServiceImpl implements InsumoService {
     }
 
     @Override
+    @AuditedOperation
     public InsumoResponseDTO createInsumo(InsumoCreateRequestDTO createDTO) {
-        log.info("Intentando crear insumo con nombre: {}", createDTO.getNombreInsumo());
+        log.debug("Intentando crear insumo con nombre: {}", createDTO.getNombreInsumo());
         insumoRepository.findByNombreInsumoIgnoreCase(createDTO.getNombreInsumo())
                 .ifPresent(existing -> {
                     log.warn("Intento de crear insumo duplicado por nombre: {}", createDTO.getNombreInsumo());
@@ -40,29 +45,32 @@ public class InsumoServiceImpl implements InsumoService {
 
         Insumo insumo = mapToEntity(createDTO);
         Insumo savedInsumo = insumoRepository.save(insumo);
-        log.info("Insumo creado con ID: {}", savedInsumo.getIdInsumo());
+        log.debug("Insumo creado con ID: {}", savedInsumo.getIdInsumo());
         return mapToResponseDTO(savedInsumo);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Page<InsumoResponseDTO> findAllInsumos(Pageable pageable) {
-        log.info("Buscando todos los insumos, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
+        log.debug("Buscando todos los insumos, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
         return insumoRepository.findAll(pageable).map(this::mapToResponseDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public InsumoResponseDTO findInsumoById(Integer id) {
-        log.info("Buscando insumo con ID: {}", id);
+        log.debug("Buscando insumo con ID: {}", id);
         Insumo insumo = findInsumoEntityById(id);
         return mapToResponseDTO(insumo);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public InsumoResponseDTO findInsumoByNombre(String nombre) {
-        log.info("Buscando insumo con nombre: {}", nombre);
+        log.debug("Buscando insumo con nombre: {}", nombre);
         Insumo insumo = insumoRepository.findByNombreInsumoIgnoreCase(nombre)
                 .orElseThrow(() -> {
                     log.warn("Insumo no encontrado con nombre: {}", nombre);
@@ -72,8 +80,9 @@ public class InsumoServiceImpl implements InsumoService {
     }
 
     @Override
+    @AuditedOperation
     public InsumoResponseDTO updateInsumo(Integer id, InsumoUpdateRequestDTO updateDTO) {
-        log.info("Intentando actualizar insumo con ID: {}", id);
+        log.debug("Intentando actualizar insumo con ID: {}", id);
         Insumo insumoToUpdate = findInsumoEntityById(id);
 
         // Validar nombre duplicado si se cambia
@@ -100,19 +109,20 @@ public class InsumoServiceImpl implements InsumoService {
         }
 
         Insumo updatedInsumo = insumoRepository.save(insumoToUpdate);
-        log.info("Insumo actualizado con ID: {}", updatedInsumo.getIdInsumo());
+        log.debug("Insumo actualizado con ID: {}", updatedInsumo.getIdInsumo());
         return mapToResponseDTO(updatedInsumo);
     }
 
     @Override
+    @AuditedOperation
     public void deleteInsumo(Integer id) {
-        log.info("Intentando eliminar insumo con ID: {}", id);
+        log.debug("Intentando eliminar insumo con ID: {}", id);
         Insumo insumo = findInsumoEntityById(id);
         // Verificar dependencias antes de borrar (InsumoPorProducto, DetallesOrdenCompra, InventarioInsumos)
         // La BD tiene ON DELETE RESTRICT en DetallesOrdenCompra, podría lanzar DataIntegrityViolationException
         try {
             insumoRepository.delete(insumo);
-            log.info("Insumo eliminado con ID: {}", id);
+            log.debug("Insumo eliminado con ID: {}", id);
         } catch (DataIntegrityViolationException e) {
             log.error("Error de integridad al eliminar insumo ID {}: {}", id, e.getMessage());
             // Podríamos verificar específicamente qué relación falló
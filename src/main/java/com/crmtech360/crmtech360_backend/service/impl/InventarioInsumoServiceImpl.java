@@ -1,6 +1,10 @@
 package com.crmtech360.crmtech360_backend.service.impl;
 
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
+import com.crmtech360.crmtech360_backend.concurrency.RetryOnStockConflict;
 import com.crmtech360.crmtech360_backend.dto.*;
+import com.crmtech360.crmtech360_backend.dto.CursorPageDTO;
 import com.crmtech360.crmtech360_backend.entity.Insumo;
 import com.crmtech360.crmtech360_backend.entity.InventarioInsumo;
 import com.crmtech360.crmtech360_backend.entity.MovimientoInventarioInsumo;
@@ -11,19 +15,25 @@ import com.crmtech360.crmtech360_backend.service.InventarioInsumoService;
 import com.crmtech360.crmtech360_backend.exception.BadRequestException;
 import com.crmtech360.crmtech360_backend.exception.DuplicateResourceException;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException;
+import com.crmtech360.crmtech360_backend.pagination.SeekCursor;
+import com.crmtech360.crmtech360_backend.pagination.TotalCountEstimator;
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class InventarioInsumoServiceImpl implements InventarioInsumoService {
 
     private static final Logger log = LoggerFactory.getLogger(InventarioInsumoServiceImpl.class);
@@ -31,18 +41,22 @@ public class InventarioInsumoServiceImpl implements InventarioInsumoService {
     private final InventarioInsumoRepository inventarioInsumoRepository;
     private final MovimientoInventarioInsumoRepository movimientoInsumoRepository;
     private final InsumoRepository insumoRepository;
+    private final TotalCountEstimator totalCountEstimator;
 
     public InventarioInsumoServiceImpl(InventarioInsumoRepository inventarioInsumoRepository,
                                        MovimientoInventarioInsumoRepository movimientoInsumoRepository,
-                                       InsumoRepository insumoRepository) {
+                                       InsumoRepository insumoRepository,
+                                       TotalCountEstimator totalCountEstimator) {
         this.inventarioInsumoRepository = inventarioInsumoRepository;
         this.movimientoInsumoRepository = movimientoInsumoRepository;
         this.insumoRepository = insumoRepository;
+        this.totalCountEstimator = totalCountEstimator;
     }
 
     @Override
+    @AuditedOperation
     public InventarioInsumoResponseDTO createInventarioInsumo(InventarioInsumoCreateRequestDTO createRequestDTO) {
-        log.info("Creando registro de inventario para insumo ID {} en ubicación {}", createRequestDTO.getIdInsumo(), createRequestDTO.getUbicacionInventario());
+        log.debug("Creando registro de inventario para insumo ID {} en ubicación {}", createRequestDTO.getIdInsumo(), createRequestDTO.getUbicacionInventario());
 
         Insumo insumo = insumoRepository.findById(createRequestDTO.getIdInsumo())
                 .orElseThrow(() -> new ResourceNotFoundException("Insumo", "id", createRequestDTO.getIdInsumo()));
@@ -58,29 +72,32 @@ public class InventarioInsumoServiceImpl implements InventarioInsumoService {
         inventario.setCantidadStock(createRequestDTO.getCantidadStock());
 
         InventarioInsumo savedInventario = inventarioInsumoRepository.save(inventario);
-        log.info("Registro de inventario insumo creado con ID {}", savedInventario.getIdInventarioInsumo());
+        log.debug("Registro de inventario insumo creado con ID {}", savedInventario.getIdInventarioInsumo());
         return mapToResponseDTO(savedInventario);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Page<InventarioInsumoResponseDTO> findAllInventarioInsumos(Pageable pageable) {
-        log.info("Buscando todos los registros de inventario de insumos.");
+        log.debug("Buscando todos los registros de inventario de insumos.");
         return inventarioInsumoRepository.findAll(pageable).map(this::mapToResponseDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public InventarioInsumoResponseDTO findInventarioInsumoById(Integer idInventarioInsumo) {
-        log.info("Buscando registro de inventario de insumo por ID {}", idInventarioInsumo);
+        log.debug("Buscando registro de inventario de insumo por ID {}", idInventarioInsumo);
         InventarioInsumo inventario = findInventarioInsumoEntityById(idInventarioInsumo);
         return mapToResponseDTO(inventario);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public InventarioInsumoResponseDTO findByInsumoAndUbicacion(Integer idInsumo, String ubicacion) {
-        log.info("Buscando inventario para insumo ID {} en ubicación '{}'", idInsumo, ubicacion);
+        log.debug("Buscando inventario para insumo ID {} en ubicación '{}'", idInsumo, ubicacion);
         Insumo insumo = insumoRepository.findById(idInsumo)
                 .orElseThrow(() -> new ResourceNotFoundException("Insumo", "id", idInsumo));
         InventarioInsumo inventario = inventarioInsumoRepository.findByUbicacionInventarioAndInsumo(ubicacion, insumo)
@@ -89,29 +106,37 @@ public class InventarioInsumoServiceImpl implements InventarioInsumoService {
     }
 
     @Override
+    @RetryOnStockConflict
+    @AuditedOperation
     public MovimientoInventarioInsumoResponseDTO registrarMovimiento(MovimientoInventarioInsumoCreateRequestDTO movDTO) {
-        log.info("Registrando movimiento de inventario insumo: {} unidades para inventario ID {}", movDTO.getCantidadMovimiento(), movDTO.getIdInventarioInsumo());
+        log.debug("Registrando movimiento de inventario insumo: {} unidades para inventario ID {}", movDTO.getCantidadMovimiento(), movDTO.getIdInventarioInsumo());
 
-        InventarioInsumo inventario = findInventarioInsumoEntityById(movDTO.getIdInventarioInsumo());
-        BigDecimal cantidadActual = inventario.getCantidadStock();
+        Integer idInventario = movDTO.getIdInventarioInsumo();
         BigDecimal cantidadMovimiento = movDTO.getCantidadMovimiento();
 
+        // El stock se modifica con un UPDATE condicional atómico; el número de filas afectadas decide el resultado.
+        int filas;
         if ("Salida".equalsIgnoreCase(movDTO.getTipoMovimiento())) {
-            if (cantidadActual.compareTo(cantidadMovimiento) < 0) {
+            filas = inventarioInsumoRepository.decrementarStock(idInventario, cantidadMovimiento, LocalDateTime.now());
+            if (filas == 0) {
+                InventarioInsumo inventario = findInventarioInsumoEntityById(idInventario);
                 log.warn("Stock insuficiente para salida. Inventario ID {}, Stock Actual {}, Salida Solicitada {}",
-                        inventario.getIdInventarioInsumo(), cantidadActual, cantidadMovimiento);
+                        idInventario, inventario.getCantidadStock(), cantidadMovimiento);
                 throw new BadRequestException("Stock insuficiente para el insumo " + inventario.getInsumo().getNombreInsumo() +
                         " en ubicación " + inventario.getUbicacionInventario() +
-                        ". Stock actual: " + cantidadActual + ", Salida solicitada: " + cantidadMovimiento);
+                        ". Stock actual: " + inventario.getCantidadStock() + ", Salida solicitada: " + cantidadMovimiento);
             }
-            inventario.setCantidadStock(cantidadActual.subtract(cantidadMovimiento));
         } else if ("Entrada".equalsIgnoreCase(movDTO.getTipoMovimiento())) {
-            inventario.setCantidadStock(cantidadActual.add(cantidadMovimiento));
+            filas = inventarioInsumoRepository.incrementarStock(idInventario, cantidadMovimiento, LocalDateTime.now());
+            if (filas == 0) {
+                throw new ResourceNotFoundException("InventarioInsumo", "id", idInventario);
+            }
         } else {
             throw new BadRequestException("Tipo de movimiento inválido: " + movDTO.getTipoMovimiento());
         }
 
-        inventarioInsumoRepository.save(inventario);
+        // Se lee después del UPDATE, así que refleja el stock ya actualizado.
+        InventarioInsumo inventario = findInventarioInsumoEntityById(idInventario);
 
         MovimientoInventarioInsumo movimiento = new MovimientoInventarioInsumo();
         movimiento.setInventarioInsumo(inventario);
@@ -120,33 +145,61 @@ public class InventarioInsumoServiceImpl implements InventarioInsumoService {
         movimiento.setDescripcionMovimiento(movDTO.getDescripcionMovimiento());
 
         MovimientoInventarioInsumo savedMovimiento = movimientoInsumoRepository.save(movimiento);
-        log.info("Movimiento ID {} registrado. Nuevo stock para inventario ID {}: {}", savedMovimiento.getIdMovimientoInsumo(), inventario.getIdInventarioInsumo(), inventario.getCantidadStock());
+        log.debug("Movimiento ID {} registrado. Nuevo stock para inventario ID {}: {}", savedMovimiento.getIdMovimientoInsumo(), inventario.getIdInventarioInsumo(), inventario.getCantidadStock());
         return mapMovimientoToResponseDTO(savedMovimiento);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<MovimientoInventarioInsumoResponseDTO> findMovimientosByInventarioInsumoId(Integer idInventarioInsumo, Pageable pageable) {
-        log.info("Buscando movimientos para inventario insumo ID {}", idInventarioInsumo);
+    @Workload(WorkloadClass.INFORMES)
+    public Page<MovimientoInventarioInsumoResponseDTO> findMovimientosByInventarioInsumoId(Integer idInventarioInsumo, Pageable pageable, boolean totalEstimado) {
+        log.debug("Buscando movimientos para inventario insumo ID {}", idInventarioInsumo);
+        if (!inventarioInsumoRepository.existsById(idInventarioInsumo)) {
+            throw new ResourceNotFoundException("InventarioInsumo", "id", idInventarioInsumo);
+        }
+        if (!totalEstimado) {
+            return movimientoInsumoRepository.findByInventarioInsumoIdInventarioInsumo(idInventarioInsumo, pageable)
+                    .map(this::mapMovimientoToResponseDTO);
+        }
+        return totalCountEstimator.toPage(
+                movimientoInsumoRepository.findSliceByInventarioInsumoIdInventarioInsumo(idInventarioInsumo, pageable).map(this::mapMovimientoToResponseDTO),
+                pageable, "movimientosinventarioinsumos", "id_inventario_insumo", idInventarioInsumo,
+                () -> movimientoInsumoRepository.countByInventarioInsumoIdInventarioInsumo(idInventarioInsumo));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INFORMES)
+    public CursorPageDTO<MovimientoInventarioInsumoResponseDTO> findMovimientosByInventarioInsumoIdSeek(Integer idInventarioInsumo, String cursor, Integer size) {
+        log.debug("Buscando movimientos por cursor para inventario insumo ID {}", idInventarioInsumo);
         if (!inventarioInsumoRepository.existsById(idInventarioInsumo)) {
             throw new ResourceNotFoundException("InventarioInsumo", "id", idInventarioInsumo);
         }
-        Page<MovimientoInventarioInsumo> movimientos = movimientoInsumoRepository.findByInventarioInsumoIdInventarioInsumo(idInventarioInsumo, pageable);
-        return movimientos.map(this::mapMovimientoToResponseDTO);
+        SeekCursor desde = SeekCursor.decode(cursor);
+        int pageSize = SeekCursor.clampSize(size);
+        // Se pide una fila de más solo para saber si existe una página siguiente.
+        Limit limit = Limit.of(pageSize + 1);
+        List<MovimientoInventarioInsumo> movimientos = desde == null
+                ? movimientoInsumoRepository.findSeekFirst(idInventarioInsumo, limit)
+                : movimientoInsumoRepository.findSeekAfter(idInventarioInsumo, desde.fecha(), desde.id(), limit);
+        return CursorPageDTO.of(movimientos, pageSize,
+                m -> new SeekCursor(m.getFechaMovimiento(), m.getIdMovimientoInsumo()), this::mapMovimientoToResponseDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public BigDecimal getStockActual(Integer idInventarioInsumo) {
-        log.info("Consultando stock actual para inventario insumo ID {}", idInventarioInsumo);
+        log.debug("Consultando stock actual para inventario insumo ID {}", idInventarioInsumo);
         InventarioInsumo inventario = findInventarioInsumoEntityById(idInventarioInsumo);
         return inventario.getCantidadStock();
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<InventarioInsumoResponseDTO> findInventariosByInsumoId(Integer idInsumo) {
-        log.info("Buscando todos los registros de inventario para el insumo ID {}", idInsumo);
+        log.debug("Buscando todos los registros de inventario para el insumo ID {}", idInsumo);
         if (!insumoRepository.existsById(idInsumo)) {
             throw new ResourceNotFoundException("Insumo", "id", idInsumo);
         }
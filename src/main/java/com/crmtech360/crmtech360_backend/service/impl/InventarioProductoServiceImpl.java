@@ -1,6 +1,10 @@
 package com.crmtech360.crmtech360_backend.service.impl;
 
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
+import com.crmtech360.crmtech360_backend.concurrency.RetryOnStockConflict;
 import com.crmtech360.crmtech360_backend.dto.*;
+import com.crmtech360.crmtech360_backend.dto.CursorPageDTO;
 import com.crmtech360.crmtech360_backend.entity.InventarioProducto;
 import com.crmtech360.crmtech360_backend.entity.MovimientoInventarioProducto;
 import com.crmtech360.crmtech360_backend.entity.Producto;
@@ -11,18 +15,24 @@ import com.crmtech360.crmtech360_backend.service.InventarioProductoService;
 import com.crmtech360.crmtech360_backend.exception.BadRequestException;
 import com.crmtech360.crmtech360_backend.exception.DuplicateResourceException;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException;
+import com.crmtech360.crmtech360_backend.pagination.SeekCursor;
+import com.crmtech360.crmtech360_backend.pagination.TotalCountEstimator;
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class InventarioProductoServiceImpl implements InventarioProductoService {
 
     private static final Logger log = LoggerFactory.getLogger(InventarioProductoServiceImpl.class);
@@ -30,18 +40,22 @@ public class InventarioProductoServiceImpl implements InventarioProductoService
     private final InventarioProductoRepository inventarioProductoRepository;
     private final MovimientoInventarioProductoRepository movimientoInventarioProductoRepository;
     private final ProductoRepository productoRepository;
+    private final TotalCountEstimator totalCountEstimator;
 
     public InventarioProductoServiceImpl(InventarioProductoRepository inventarioProductoRepository,
                                          MovimientoInventarioProductoRepository movimientoInventarioProductoRepository,
-                                         ProductoRepository productoRepository) {
+                                         ProductoRepository productoRepository,
+                                         TotalCountEstimator totalCountEstimator) {
         this.inventarioProductoRepository = inventarioProductoRepository;
         this.movimientoInventarioProductoRepository = movimientoInventarioProductoRepository;
         this.productoRepository = productoRepository;
+        this.totalCountEstimator = totalCountEstimator;
     }
 
     @Override
+    @AuditedOperation
     public InventarioProductoResponseDTO createInventarioProducto(InventarioProductoCreateRequestDTO createRequestDTO) {
-        log.info("Creando registro de inventario para producto ID {} en ubicación {}", createRequestDTO.getIdProducto(), createRequestDTO.getUbicacionInventario());
+        log.debug("Creando registro de inventario para producto ID {} en ubicación {}", createRequestDTO.getIdProducto(), createRequestDTO.getUbicacionInventario());
 
         Producto producto = productoRepository.findById(createRequestDTO.getIdProducto())
                 .orElseThrow(() -> new ResourceNotFoundException("Producto", "id", createRequestDTO.getIdProducto()));
@@ -57,29 +71,32 @@ public class InventarioProductoServiceImpl implements InventarioProductoService
         inventario.setCantidadStock(createRequestDTO.getCantidadStock()); // Cantidad inicial
 
         InventarioProducto savedInventario = inventarioProductoRepository.save(inventario);
-        log.info("Registro de inventario producto creado con ID {}", savedInventario.getIdInventarioProducto());
+        log.debug("Registro de inventario producto creado con ID {}", savedInventario.getIdInventarioProducto());
         return mapToResponseDTO(savedInventario);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Page<InventarioProductoResponseDTO> findAllInventarioProductos(Pageable pageable) {
-        log.info("Buscando todos los registros de inventario de productos.");
+        log.debug("Buscando todos los registros de inventario de productos.");
         return inventarioProductoRepository.findAll(pageable).map(this::mapToResponseDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public InventarioProductoResponseDTO findInventarioProductoById(Integer idInventarioProducto) {
-        log.info("Buscando registro de inventario de producto por ID {}", idInventarioProducto);
+        log.debug("Buscando registro de inventario de producto por ID {}", idInventarioProducto);
         InventarioProducto inventario = findInventarioProductoEntityById(idInventarioProducto);
         return mapToResponseDTO(inventario);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public InventarioProductoResponseDTO findByProductoAndUbicacion(Integer idProducto, String ubicacion) {
-        log.info("Buscando inventario para producto ID {} en ubicación '{}'", idProducto, ubicacion);
+        log.debug("Buscando inventario para producto ID {} en ubicación '{}'", idProducto, ubicacion);
         Producto producto = productoRepository.findById(idProducto)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto", "id", idProducto));
         InventarioProducto inventario = inventarioProductoRepository.findByUbicacionInventarioAndProducto(ubicacion, producto)
@@ -89,30 +106,37 @@ public class InventarioProductoServiceImpl implements InventarioProductoService
 
 
     @Override
+    @RetryOnStockConflict
+    @AuditedOperation
     public MovimientoInventarioProductoResponseDTO registrarMovimiento(MovimientoInventarioProductoCreateRequestDTO movDTO) {
-        log.info("Registrando movimiento de inventario producto: {} unidades para inventario ID {}", movDTO.getCantidadMovimiento(), movDTO.getIdInventarioProducto());
+        log.debug("Registrando movimiento de inventario producto: {} unidades para inventario ID {}", movDTO.getCantidadMovimiento(), movDTO.getIdInventarioProducto());
 
-        InventarioProducto inventario = findInventarioProductoEntityById(movDTO.getIdInventarioProducto());
-        int cantidadActual = inventario.getCantidadStock();
-        int cantidadMovimiento = movDTO.getCantidadMovimiento();
+        Integer idInventario = movDTO.getIdInventarioProducto();
+        Integer cantidadMovimiento = movDTO.getCantidadMovimiento();
 
+        // El stock se modifica con un UPDATE condicional atómico; el número de filas afectadas decide el resultado.
+        int filas;
         if ("Salida".equalsIgnoreCase(movDTO.getTipoMovimiento())) {
-            if (cantidadActual < cantidadMovimiento) {
+            filas = inventarioProductoRepository.decrementarStock(idInventario, cantidadMovimiento, LocalDateTime.now());
+            if (filas == 0) {
+                InventarioProducto inventario = findInventarioProductoEntityById(idInventario);
                 log.warn("Stock insuficiente para salida. Inventario ID {}, Stock Actual {}, Salida Solicitada {}",
-                        inventario.getIdInventarioProducto(), cantidadActual, cantidadMovimiento);
+                        idInventario, inventario.getCantidadStock(), cantidadMovimiento);
                 throw new BadRequestException("Stock insuficiente para el producto " + inventario.getProducto().getNombreProducto() +
                         " en ubicación " + inventario.getUbicacionInventario() +
-                        ". Stock actual: " + cantidadActual + ", Salida solicitada: " + cantidadMovimiento);
+                        ". Stock actual: " + inventario.getCantidadStock() + ", Salida solicitada: " + cantidadMovimiento);
             }
-            inventario.setCantidadStock(cantidadActual - cantidadMovimiento);
         } else if ("Entrada".equalsIgnoreCase(movDTO.getTipoMovimiento())) {
-            inventario.setCantidadStock(cantidadActual + cantidadMovimiento);
+            filas = inventarioProductoRepository.incrementarStock(idInventario, cantidadMovimiento, LocalDateTime.now());
+            if (filas == 0) {
+                throw new ResourceNotFoundException("InventarioProducto", "id", idInventario);
+            }
         } else {
             throw new BadRequestException("Tipo de movimiento inválido: " + movDTO.getTipoMovimiento());
         }
 
-        // Guardar el inventario actualizado (actualiza ultima_actualizacion por @PreUpdate)
-        inventarioProductoRepository.save(inventario);
+        // Se lee después del UPDATE, así que refleja el stock ya actualizado.
+        InventarioProducto inventario = findInventarioProductoEntityById(idInventario);
 
         MovimientoInventarioProducto movimiento = new MovimientoInventarioProducto();
         movimiento.setInventarioProducto(inventario);
@@ -122,33 +146,61 @@ public class InventarioProductoServiceImpl implements InventarioProductoService
         // fechaMovimiento es manejado por @PrePersist en la entidad Movimiento...
 
         MovimientoInventarioProducto savedMovimiento = movimientoInventarioProductoRepository.save(movimiento);
-        log.info("Movimiento ID {} registrado. Nuevo stock para inventario ID {}: {}", savedMovimiento.getIdMovimientoProducto(), inventario.getIdInventarioProducto(), inventario.getCantidadStock());
+        log.debug("Movimiento ID {} registrado. Nuevo stock para inventario ID {}: {}", savedMovimiento.getIdMovimientoProducto(), inventario.getIdInventarioProducto(), inventario.getCantidadStock());
         return mapMovimientoToResponseDTO(savedMovimiento);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<MovimientoInventarioProductoResponseDTO> findMovimientosByInventarioProductoId(Integer idInventarioProducto, Pageable pageable) {
-        log.info("Buscando movimientos para inventario producto ID {}", idInventarioProducto);
+    @Workload(WorkloadClass.INFORMES)
+    public Page<MovimientoInventarioProductoResponseDTO> findMovimientosByInventarioProductoId(Integer idInventarioProducto, Pageable pageable, boolean totalEstimado) {
+        log.debug("Buscando movimientos para inventario producto ID {}", idInventarioProducto);
+        if (!inventarioProductoRepository.existsById(idInventarioProducto)) {
+            throw new ResourceNotFoundException("InventarioProducto", "id", idInventarioProducto);
+        }
+        if (!totalEstimado) {
+            return movimientoInventarioProductoRepository.findByInventarioProductoIdInventarioProducto(idInventarioProducto, pageable)
+                    .map(this::mapMovimientoToResponseDTO);
+        }
+        return totalCountEstimator.toPage(
+                movimientoInventarioProductoRepository.findSliceByInventarioProductoIdInventarioProducto(idInventarioProducto, pageable).map(this::mapMovimientoToResponseDTO),
+                pageable, "movimientosinventarioproductos", "id_inventario_producto", idInventarioProducto,
+                () -> movimientoInventarioProductoRepository.countByInventarioProductoIdInventarioProducto(idInventarioProducto));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INFORMES)
+    public CursorPageDTO<MovimientoInventarioProductoResponseDTO> findMovimientosByInventarioProductoIdSeek(Integer idInventarioProducto, String cursor, Integer size) {
+        log.debug("Buscando movimientos por cursor para inventario producto ID {}", idInventarioProducto);
         if (!inventarioProductoRepository.existsById(idInventarioProducto)) {
             throw new ResourceNotFoundException("InventarioProducto", "id", idInventarioProducto);
         }
-        Page<MovimientoInventarioProducto> movimientos = movimientoInventarioProductoRepository.findByInventarioProductoIdInventarioProducto(idInventarioProducto, pageable);
-        return movimientos.map(this::mapMovimientoToResponseDTO);
+        SeekCursor desde = SeekCursor.decode(cursor);
+        int pageSize = SeekCursor.clampSize(size);
+        // Se pide una fila de más solo para saber si existe una página siguiente.
+        Limit limit = Limit.of(pageSize + 1);
+        List<MovimientoInventarioProducto> movimientos = desde == null
+                ? movimientoInventarioProductoRepository.findSeekFirst(idInventarioProducto, limit)
+                : movimientoInventarioProductoRepository.findSeekAfter(idInventarioProducto, desde.fecha(), desde.id(), limit);
+        return CursorPageDTO.of(movimientos, pageSize,
+                m -> new SeekCursor(m.getFechaMovimiento(), m.getIdMovimientoProducto()), this::mapMovimientoToResponseDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Integer getStockActual(Integer idInventarioProducto) {
-        log.info("Consultando stock actual para inventario producto ID {}", idInventarioProducto);
+        log.debug("Consultando stock actual para inventario producto ID {}", idInventarioProducto);
         InventarioProducto inventario = findInventarioProductoEntityById(idInventarioProducto);
         return inventario.getCantidadStock();
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<InventarioProductoResponseDTO> findInventariosByProductoId(Integer idProducto) {
-        log.info("Buscando todos los registros de inventario para el producto ID {}", idProducto);
+        log.debug("Buscando todos los registros de inventario para el producto ID {}", idProducto);
         if (!productoRepository.existsById(idProducto)) {
             throw new ResourceNotFoundException("Producto", "id", idProducto);
         }
@@ -1,15 +1,21 @@
 package com.crmtech360.crmtech360_backend.service.impl;
 
 import com.crmtech360.crmtech360_backend.dto.*;
+import com.crmtech360.crmtech360_backend.dto.CursorPageDTO;
 import com.crmtech360.crmtech360_backend.entity.*;
 import com.crmtech360.crmtech360_backend.repository.*;
 import com.crmtech360.crmtech360_backend.service.OrdenCompraService;
 import com.crmtech360.crmtech360_backend.exception.BadRequestException;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException;
+import com.crmtech360.crmtech360_backend.pagination.SeekCursor;
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,10 +23,13 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class OrdenCompraServiceImpl implements OrdenCompraService {
 
     private static final Logger log = LoggerFactory.getLogger(OrdenCompraServiceImpl.class);
@@ -41,8 +50,9 @@ public class OrdenCompraServiceImpl implements OrdenCompraService {
     }
 
     @Override
+    @AuditedOperation
     public OrdenCompraResponseDTO createOrdenCompra(OrdenCompraCreateRequestDTO createRequestDTO) {
-        log.info("Creando nueva orden de compra para proveedor ID: {}", createRequestDTO.getIdProveedor());
+        log.debug("Creando nueva orden de compra para proveedor ID: {}", createRequestDTO.getIdProveedor());
 
         Proveedor proveedor = proveedorRepository.findById(createRequestDTO.getIdProveedor())
                 .orElseThrow(() -> new ResourceNotFoundException("Proveedor", "id", createRequestDTO.getIdProveedor()));
@@ -56,9 +66,16 @@ public class OrdenCompraServiceImpl implements OrdenCompraService {
 
         BigDecimal totalOrdenCalculado = BigDecimal.ZERO;
 
+        // Los insumos se resuelven desde la caché de segundo nivel; los que falten, en una sola consulta.
+        Map<Integer, Insumo> insumos = insumoRepository.findAllByIdCached(createRequestDTO.getDetalles().stream()
+                        .map(DetalleOrdenCompraRequestDTO::getIdInsumo).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Insumo::getIdInsumo, Function.identity()));
+
         for (DetalleOrdenCompraRequestDTO detalleDTO : createRequestDTO.getDetalles()) {
-            Insumo insumo = insumoRepository.findById(detalleDTO.getIdInsumo())
-                    .orElseThrow(() -> new ResourceNotFoundException("Insumo", "id", detalleDTO.getIdInsumo()));
+            Insumo insumo = insumos.get(detalleDTO.getIdInsumo());
+            if (insumo == null) {
+                throw new ResourceNotFoundException("Insumo", "id", detalleDTO.getIdInsumo());
+            }
 
             DetalleOrdenCompra detalle = new DetalleOrdenCompra();
             detalle.setOrdenCompra(ordenCompra);
@@ -75,21 +92,43 @@ public class OrdenCompraServiceImpl implements OrdenCompraService {
 
         ordenCompra.setTotalCompra(totalOrdenCalculado);
         OrdenCompra savedOrdenCompra = ordenCompraRepository.save(ordenCompra);
-        log.info("Orden de compra creada con ID: {}", savedOrdenCompra.getIdOrdenCompra());
+        log.debug("Orden de compra creada con ID: {}", savedOrdenCompra.getIdOrdenCompra());
         return mapToResponseDTO(savedOrdenCompra);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Page<OrdenCompraResponseDTO> findAllOrdenesCompra(Pageable pageable) {
-        log.info("Buscando todas las órdenes de compra, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
-        return ordenCompraRepository.findAll(pageable).map(this::mapToResponseDTO);
+        log.debug("Buscando todas las órdenes de compra, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
+        Page<Integer> ids = ordenCompraRepository.findPageIds(pageable);
+        Map<Integer, OrdenCompra> ordenes = ordenCompraRepository.findByIdOrdenCompraIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(OrdenCompra::getIdOrdenCompra, Function.identity()));
+        return ids.map(id -> mapToResponseDTO(ordenes.get(id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
+    public CursorPageDTO<OrdenCompraResponseDTO> findAllOrdenesCompraSeek(String cursor, Integer size) {
+        SeekCursor desde = SeekCursor.decode(cursor);
+        int pageSize = SeekCursor.clampSize(size);
+        log.debug("Buscando órdenes de compra por cursor, tamaño: {}", pageSize);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Integer> ids = desde == null
+                ? ordenCompraRepository.findSeekIdsFirst(limit)
+                : ordenCompraRepository.findSeekIdsAfter(desde.fecha(), desde.id(), limit);
+        Map<Integer, OrdenCompra> ordenes = ordenCompraRepository.findByIdOrdenCompraIn(ids).stream()
+                .collect(Collectors.toMap(OrdenCompra::getIdOrdenCompra, Function.identity()));
+        return CursorPageDTO.of(ids.stream().map(ordenes::get).toList(), pageSize,
+                o -> new SeekCursor(o.getFechaPedidoCompra(), o.getIdOrdenCompra()), this::mapToResponseDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<OrdenCompraResponseDTO> findOrdenesCompraByProveedorId(Integer idProveedor) {
-        log.info("Buscando órdenes de compra para proveedor ID: {}", idProveedor);
+        log.debug("Buscando órdenes de compra para proveedor ID: {}", idProveedor);
         if (!proveedorRepository.existsById(idProveedor)) {
             throw new ResourceNotFoundException("Proveedor", "id", idProveedor);
         }
@@ -99,15 +138,18 @@ public class OrdenCompraServiceImpl implements OrdenCompraService {
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public OrdenCompraResponseDTO findOrdenCompraById(Integer id) {
-        log.info("Buscando orden de compra con ID: {}", id);
-        OrdenCompra ordenCompra = findOrdenCompraEntityById(id);
+        log.debug("Buscando orden de compra con ID: {}", id);
+        OrdenCompra ordenCompra = ordenCompraRepository.findDetalleById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("OrdenCompra", "id", id));
         return mapToResponseDTO(ordenCompra);
     }
 
     @Override
+    @AuditedOperation
     public OrdenCompraResponseDTO updateOrdenCompraHeader(Integer id, OrdenCompraUpdateRequestDTO updateRequestDTO) {
-        log.info("Actualizando cabecera de orden de compra ID: {}", id);
+        log.debug("Actualizando cabecera de orden de compra ID: {}", id);
         OrdenCompra ordenCompra = findOrdenCompraEntityById(id);
 
         if ("Anulada".equals(ordenCompra.getEstadoCompra()) || "Recibida Total".equals(ordenCompra.getEstadoCompra())) {
@@ -131,13 +173,14 @@ public class OrdenCompraServiceImpl implements OrdenCompraService {
         }
 
         OrdenCompra updatedOrdenCompra = ordenCompraRepository.save(ordenCompra);
-        log.info("Cabecera de orden de compra ID: {} actualizada.", updatedOrdenCompra.getIdOrdenCompra());
+        log.debug("Cabecera de orden de compra ID: {} actualizada.", updatedOrdenCompra.getIdOrdenCompra());
         return mapToResponseDTO(updatedOrdenCompra);
     }
 
     @Override
+    @AuditedOperation
     public DetalleOrdenCompraResponseDTO addDetalleToOrdenCompra(Integer idOrdenCompra, DetalleOrdenCompraRequestDTO detalleRequestDTO) {
-        log.info("Añadiendo detalle a orden de compra ID: {}", idOrdenCompra);
+        log.debug("Añadiendo detalle a orden de compra ID: {}", idOrdenCompra);
         OrdenCompra ordenCompra = findOrdenCompraEntityById(idOrdenCompra);
 
         if (!("Pendiente".equals(ordenCompra.getEstadoCompra()) || "Enviada".equals(ordenCompra.getEstadoCompra()))) {
@@ -160,13 +203,14 @@ public class OrdenCompraServiceImpl implements OrdenCompraService {
         recalculateTotalOrdenCompra(ordenCompra);
         ordenCompraRepository.save(ordenCompra);
 
-        log.info("Detalle ID: {} añadido a orden de compra ID: {}", savedDetalle.getIdDetalleCompra(), idOrdenCompra);
+        log.debug("Detalle ID: {} añadido a orden de compra ID: {}", savedDetalle.getIdDetalleCompra(), idOrdenCompra);
         return mapDetalleToResponseDTO(savedDetalle);
     }
 
     @Override
+    @AuditedOperation
     public DetalleOrdenCompraResponseDTO updateDetalleInOrdenCompra(Integer idOrdenCompra, Integer idDetalleCompra, DetalleOrdenCompraRequestDTO detalleRequestDTO) {
-        log.info("Actualizando detalle ID: {} en orden de compra ID: {}", idDetalleCompra, idOrdenCompra);
+        log.debug("Actualizando detalle ID: {} en orden de compra ID: {}", idDetalleCompra, idOrdenCompra);
         OrdenCompra ordenCompra = findOrdenCompraEntityById(idOrdenCompra);
 
         if (!("Pendiente".equals(ordenCompra.getEstadoCompra()) || "Enviada".equals(ordenCompra.getEstadoCompra()))) {
@@ -190,13 +234,14 @@ public class OrdenCompraServiceImpl implements OrdenCompraService {
         recalculateTotalOrdenCompra(ordenCompra);
         ordenCompraRepository.save(ordenCompra);
 
-        log.info("Detalle ID: {} actualizado en orden de compra ID: {}", updatedDetalle.getIdDetalleCompra(), idOrdenCompra);
+        log.debug("Detalle ID: {} actualizado en orden de compra ID: {}", updatedDetalle.getIdDetalleCompra(), idOrdenCompra);
         return mapDetalleToResponseDTO(updatedDetalle);
     }
 
     @Override
+    @AuditedOperation
     public void removeDetalleFromOrdenCompra(Integer idOrdenCompra, Integer idDetalleCompra) {
-        log.info("Eliminando detalle ID: {} de orden de compra ID: {}", idDetalleCompra, idOrdenCompra);
+        log.debug("Eliminando detalle ID: {} de orden de compra ID: {}", idDetalleCompra, idOrdenCompra);
         OrdenCompra ordenCompra = findOrdenCompraEntityById(idOrdenCompra);
 
         if (!("Pendiente".equals(ordenCompra.getEstadoCompra()) || "Enviada".equals(ordenCompra.getEstadoCompra()))) {
@@ -212,13 +257,14 @@ public class OrdenCompraServiceImpl implements OrdenCompraService {
 
         recalculateTotalOrdenCompra(ordenCompra);
         ordenCompraRepository.save(ordenCompra);
-        log.info("Detalle ID: {} eliminado de orden de compra ID: {}", idDetalleCompra, idOrdenCompra);
+        log.debug("Detalle ID: {} eliminado de orden de compra ID: {}", idDetalleCompra, idOrdenCompra);
     }
 
 
     @Override
+    @AuditedOperation
     public void anularOrdenCompra(Integer id) {
-        log.info("Anulando orden de compra ID: {}", id);
+        log.debug("Anulando orden de compra ID: {}", id);
         OrdenCompra ordenCompra = findOrdenCompraEntityById(id);
 
         if ("Recibida Total".equals(ordenCompra.getEstadoCompra()) || "Recibida Parcial".equals(ordenCompra.getEstadoCompra())) {
@@ -227,7 +273,7 @@ public class OrdenCompraServiceImpl implements OrdenCompraService {
 
         ordenCompra.setEstadoCompra("Anulada");
         ordenCompraRepository.save(ordenCompra);
-        log.info("Orden de compra ID: {} anulada.", id);
+        log.debug("Orden de compra ID: {} anulada.", id);
     }
 
     private OrdenCompra findOrdenCompraEntityById(Integer id) {
@@ -7,7 +7,11 @@ import com.crmtech360.crmtech360_backend.entity.*;
 import com.crmtech360.crmtech360_backend.repository.*;
 import com.crmtech360.crmtech360_backend.service.OrdenProduccionService;
 import com.crmtech360.crmtech360_backend.exception.BadRequestException;
+import com.crmtech360.crmtech360_backend.exception.InsufficientStockException;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException;
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired; // Asegúrate de tener esta si usas field injection
@@ -18,13 +22,19 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class OrdenProduccionServiceImpl implements OrdenProduccionService {
 
     private static final Logger log = LoggerFactory.getLogger(OrdenProduccionServiceImpl.class);
@@ -67,8 +77,9 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
     }
 
     @Override
+    @AuditedOperation
     public OrdenProduccionResponseDTO createOrdenProduccion(OrdenProduccionCreateRequestDTO createRequestDTO) {
-        log.info("Creando nueva orden de producción para orden de venta ID: {}", createRequestDTO.getIdOrdenVenta());
+        log.debug("Creando nueva orden de producción para orden de venta ID: {}", createRequestDTO.getIdOrdenVenta());
 
         OrdenVenta ordenVenta = ordenVentaRepository.findById(createRequestDTO.getIdOrdenVenta())
                 .orElseThrow(() -> new ResourceNotFoundException("OrdenVenta", "id", createRequestDTO.getIdOrdenVenta())); // [cite: 8]
@@ -93,21 +104,26 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
         }
 
         OrdenProduccion savedOrdenProduccion = ordenProduccionRepository.save(ordenProduccion);
-        log.info("Orden de producción creada con ID: {}", savedOrdenProduccion.getIdOrdenProduccion());
+        log.debug("Orden de producción creada con ID: {}", savedOrdenProduccion.getIdOrdenProduccion());
         return mapToResponseDTO(savedOrdenProduccion); // [cite: 16]
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Page<OrdenProduccionResponseDTO> findAllOrdenesProduccion(Pageable pageable) {
-        log.info("Buscando todas las órdenes de producción, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
-        return ordenProduccionRepository.findAll(pageable).map(this::mapToResponseDTO); // [cite: 17]
+        log.debug("Buscando todas las órdenes de producción, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
+        Page<Integer> ids = ordenProduccionRepository.findPageIds(pageable);
+        Map<Integer, OrdenProduccion> ordenes = ordenProduccionRepository.findByIdOrdenProduccionIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(OrdenProduccion::getIdOrdenProduccion, Function.identity()));
+        return ids.map(id -> mapToResponseDTO(ordenes.get(id)));
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<OrdenProduccionResponseDTO> findOrdenesProduccionByOrdenVentaId(Integer idOrdenVenta) {
-        log.info("Buscando órdenes de producción para la orden de venta ID: {}", idOrdenVenta);
+        log.debug("Buscando órdenes de producción para la orden de venta ID: {}", idOrdenVenta);
         if (!ordenVentaRepository.existsById(idOrdenVenta)) { // [cite: 18]
             throw new ResourceNotFoundException("OrdenVenta", "id", idOrdenVenta);
         }
@@ -117,15 +133,18 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public OrdenProduccionResponseDTO findOrdenProduccionById(Integer id) {
-        log.info("Buscando orden de producción con ID: {}", id);
-        OrdenProduccion ordenProduccion = findOrdenProduccionEntityById(id); // [cite: 21]
+        log.debug("Buscando orden de producción con ID: {}", id);
+        OrdenProduccion ordenProduccion = ordenProduccionRepository.findDetalleById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("OrdenProduccion", "id", id));
         return mapToResponseDTO(ordenProduccion);
     }
 
     @Override
+    @AuditedOperation
     public OrdenProduccionResponseDTO updateOrdenProduccionHeader(Integer id, OrdenProduccionUpdateRequestDTO updateRequestDTO) {
-        log.info("Actualizando cabecera de orden de producción ID: {}", id);
+        log.debug("Actualizando cabecera de orden de producción ID: {}", id);
         OrdenProduccion ordenProduccion = findOrdenProduccionEntityById(id); // [cite: 22]
         String estadoAnterior = ordenProduccion.getEstadoProduccion();
 
@@ -154,13 +173,13 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
 
         // Lógica para consumir insumos si el estado cambia a "En Proceso" y antes no lo estaba
         if ("En Proceso".equals(updatedOrdenProduccion.getEstadoProduccion()) && !"En Proceso".equals(estadoAnterior)) {
-            log.info("Orden de Producción ID {} ha cambiado a 'En Proceso'. Intentando consumir insumos del BOM.", updatedOrdenProduccion.getIdOrdenProduccion());
+            log.debug("Orden de Producción ID {} ha cambiado a 'En Proceso'. Intentando consumir insumos del BOM.", updatedOrdenProduccion.getIdOrdenProduccion());
             consumirInsumosParaOP(updatedOrdenProduccion);
         }
         
         // Lógica para registrar entrada de productos terminados si el estado cambia a "Terminada"
         if ("Terminada".equals(updatedOrdenProduccion.getEstadoProduccion()) && !"Terminada".equals(estadoAnterior)) {
-            log.info("Orden de Producción ID {} ha cambiado a 'Terminada'. Registrando entrada de producto terminado.", updatedOrdenProduccion.getIdOrdenProduccion());
+            log.debug("Orden de Producción ID {} ha cambiado a 'Terminada'. Registrando entrada de producto terminado.", updatedOrdenProduccion.getIdOrdenProduccion());
             if (updatedOrdenProduccion.getFechaFinRealProduccion() == null) { // Si no se seteó explícitamente
                  updatedOrdenProduccion.setFechaFinRealProduccion(LocalDate.now()); // [cite: 26]
                  ordenProduccionRepository.save(updatedOrdenProduccion); // Guardar el cambio de fecha
@@ -168,10 +187,17 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
             registrarEntradaProductoTerminado(updatedOrdenProduccion);
         }
 
-        log.info("Cabecera de orden de producción ID: {} actualizada.", updatedOrdenProduccion.getIdOrdenProduccion());
+        log.debug("Cabecera de orden de producción ID: {} actualizada.", updatedOrdenProduccion.getIdOrdenProduccion());
         return mapToResponseDTO(updatedOrdenProduccion); // [cite: 30, 31]
     }
 
+    /**
+     * Consume los insumos del BOM para todos los productos de la OV asociada, en bloque:
+     * carga el BOM de todos los productos en una consulta, agrega el requerimiento por insumo,
+     * bloquea y valida todos los registros de inventario a la vez y aplica los descuentos y
+     * movimientos en lotes JDBC. Si falta stock de cualquier insumo se informan todos los faltantes
+     * juntos y no se descuenta nada.
+     */
     @Transactional
     protected void consumirInsumosParaOP(OrdenProduccion ordenProduccion) {
         OrdenVenta ordenVenta = ordenProduccion.getOrdenVenta();
@@ -185,71 +211,80 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
             return;
         }
 
+        // 1. Cantidad a producir por producto (una OV puede repetir el mismo producto en varias líneas).
+        Map<Integer, Integer> cantidadPorProducto = new HashMap<>();
         for (DetalleOrdenVenta detalleOV : ordenVenta.getDetallesOrdenVenta()) {
-            Producto productoAProducir = detalleOV.getProducto();
-            Integer cantidadAProducir = detalleOV.getCantidadProducto();
-
-            if (productoAProducir == null) {
+            if (detalleOV.getProducto() == null) {
                 log.warn("Detalle de Orden de Venta ID {} en OP ID {} no tiene producto asociado.", detalleOV.getIdDetalleOrden(), ordenProduccion.getIdOrdenProduccion());
-                continue; 
+                continue;
             }
+            cantidadPorProducto.merge(detalleOV.getProducto().getIdProducto(), detalleOV.getCantidadProducto(), Integer::sum);
+        }
+        if (cantidadPorProducto.isEmpty()) {
+            return;
+        }
 
-            log.info("Consumiendo insumos para el producto '{}' (ID: {}), cantidad a producir: {}",
-                    productoAProducir.getNombreProducto(), productoAProducir.getIdProducto(), cantidadAProducir);
+        // 2. BOM de todos los productos en una consulta y requerimiento total agregado por insumo.
+        Map<Integer, BigDecimal> requeridoPorInsumo = new TreeMap<>();
+        Map<Integer, Insumo> insumos = new HashMap<>();
+        for (InsumoPorProducto bomItem : insumoPorProductoRepository.findBomByProductoIds(cantidadPorProducto.keySet())) {
+            Integer idInsumo = bomItem.getId().getIdInsumo();
+            BigDecimal requerido = bomItem.getCantidadRequerida()
+                    .multiply(BigDecimal.valueOf(cantidadPorProducto.get(bomItem.getId().getIdProducto())));
+            requeridoPorInsumo.merge(idInsumo, requerido, BigDecimal::add);
+            insumos.putIfAbsent(idInsumo, bomItem.getInsumo());
+        }
+        if (requeridoPorInsumo.isEmpty()) {
+            log.debug("Ningún producto de la OP ID {} tiene BOM definido. No se consumen insumos.", ordenProduccion.getIdOrdenProduccion());
+            return;
+        }
 
-            List<InsumoPorProducto> bomItems = insumoPorProductoRepository.findByIdIdProducto(productoAProducir.getIdProducto()); // [cite: 175]
+        String ubicacionConsumo = "Bodega Principal"; // Placeholder
 
-            if (bomItems.isEmpty()) {
-                log.info("El producto ID {} ('{}') no tiene BOM definido. No se consumen insumos para este producto.", productoAProducir.getIdProducto(), productoAProducir.getNombreProducto());
-                continue;
-            }
+        // 3. Bloqueo y validación de todos los inventarios involucrados a la vez.
+        Map<Integer, InventarioInsumo> inventarioPorInsumo = inventarioInsumoRepository
+                .lockByUbicacionAndInsumoIds(ubicacionConsumo, requeridoPorInsumo.keySet()).stream()
+                .collect(Collectors.toMap(ii -> ii.getInsumo().getIdInsumo(), Function.identity()));
 
-            for (InsumoPorProducto bomItem : bomItems) {
-                Insumo insumo = bomItem.getInsumo();
-                BigDecimal cantidadRequeridaPorUnidad = bomItem.getCantidadRequerida();
-                BigDecimal cantidadTotalRequerida = cantidadRequeridaPorUnidad.multiply(BigDecimal.valueOf(cantidadAProducir));
-
-                log.info("Para producto ID {}, se requiere insumo ID {} '{}': {} {} (Total: {})",
-                        productoAProducir.getIdProducto(), insumo.getIdInsumo(), insumo.getNombreInsumo(),
-                        cantidadRequeridaPorUnidad, insumo.getUnidadMedidaInsumo(), cantidadTotalRequerida);
-
-                String ubicacionConsumo = "Bodega Principal"; // Placeholder
-                
-                InventarioInsumo inventarioInsumo = inventarioInsumoRepository
-                        .findByUbicacionInventarioAndInsumo(ubicacionConsumo, insumo)
-                        .orElseThrow(() -> {
-                            log.error("No se encontró registro de inventario para insumo ID {} ('{}') en ubicación '{}'. Consumo fallido para OP ID {}.",
-                                    insumo.getIdInsumo(), insumo.getNombreInsumo(), ubicacionConsumo, ordenProduccion.getIdOrdenProduccion());
-                            return new ResourceNotFoundException("InventarioInsumo", "insumo/ubicacion", insumo.getNombreInsumo() + "/" + ubicacionConsumo + 
-                                                        ". No se puede iniciar producción para OP ID " + ordenProduccion.getIdOrdenProduccion());
-                        });
-
-                if (inventarioInsumo.getCantidadStock().compareTo(cantidadTotalRequerida) < 0) {
-                    log.error("Stock insuficiente para insumo ID {} ('{}') en ubicación '{}'. Requerido: {}, Disponible: {}. Consumo fallido para OP ID {}.",
-                            insumo.getIdInsumo(), insumo.getNombreInsumo(), ubicacionConsumo, cantidadTotalRequerida, inventarioInsumo.getCantidadStock(), ordenProduccion.getIdOrdenProduccion());
-                    throw new BadRequestException("Stock insuficiente para " + insumo.getNombreInsumo() + " en " + ubicacionConsumo +
-                                                ". Requerido: " + cantidadTotalRequerida + ", Disponible: " + inventarioInsumo.getCantidadStock() +
-                                                ". No se puede procesar la OP ID " + ordenProduccion.getIdOrdenProduccion());
-                }
-                inventarioInsumo.setCantidadStock(inventarioInsumo.getCantidadStock().subtract(cantidadTotalRequerida)); // [cite: 100]
-                inventarioInsumoRepository.save(inventarioInsumo);
-
-                MovimientoInventarioInsumo movimiento = new MovimientoInventarioInsumo(
-                    "Salida",
-                    inventarioInsumo,
-                    cantidadTotalRequerida,
-                    "Consumo para OP #" + ordenProduccion.getIdOrdenProduccion() + 
-                    ", Producto: " + productoAProducir.getReferenciaProducto() +
-                    ", Detalle OV: " + detalleOV.getIdDetalleOrden()
-                );
-                movimientoInsumoRepository.save(movimiento); // [cite: 103]
-                log.info("Movimiento de salida registrado para insumo ID {} (Cantidad: {}) desde inventario ID {} para OP ID {}",
-                        insumo.getIdInsumo(), cantidadTotalRequerida, inventarioInsumo.getIdInventarioInsumo(), ordenProduccion.getIdOrdenProduccion());
+        List<String> faltantes = new ArrayList<>();
+        requeridoPorInsumo.forEach((idInsumo, requerido) -> {
+            Insumo insumo = insumos.get(idInsumo);
+            InventarioInsumo inventario = inventarioPorInsumo.get(idInsumo);
+            if (inventario == null) {
+                faltantes.add(insumo.getNombreInsumo() + ": sin registro de inventario en " + ubicacionConsumo + ". Requerido: " + requerido);
+            } else if (inventario.getCantidadStock().compareTo(requerido) < 0) {
+                faltantes.add(insumo.getNombreInsumo() + ": requerido " + requerido + ", disponible " + inventario.getCantidadStock());
             }
-        }
-        log.info("Consumo de insumos completado para OP ID {}.", ordenProduccion.getIdOrdenProduccion());
+        });
+        if (!faltantes.isEmpty()) {
+            log.error("Stock insuficiente para {} insumo(s) en '{}'. Consumo fallido para OP ID {}: {}",
+                    faltantes.size(), ubicacionConsumo, ordenProduccion.getIdOrdenProduccion(), faltantes);
+            throw new InsufficientStockException("Stock insuficiente en " + ubicacionConsumo + " para " + faltantes.size() +
+                    " insumo(s). No se puede procesar la OP ID " + ordenProduccion.getIdOrdenProduccion(), faltantes);
+        }
+
+        // 4. Descuentos (UPDATE versionados por dirty checking) y movimientos, ambos enviados en lotes al hacer flush.
+        List<MovimientoInventarioInsumo> movimientos = new ArrayList<>(requeridoPorInsumo.size());
+        requeridoPorInsumo.forEach((idInsumo, requerido) -> {
+            InventarioInsumo inventario = inventarioPorInsumo.get(idInsumo);
+            inventario.setCantidadStock(inventario.getCantidadStock().subtract(requerido));
+            movimientos.add(new MovimientoInventarioInsumo(
+                    "Salida",
+                    inventario,
+                    requerido,
+                    "Consumo para OP #" + ordenProduccion.getIdOrdenProduccion() + " (OV #" + ordenVenta.getIdOrdenVenta() + ")"
+            ));
+        });
+        movimientoInsumoRepository.saveAll(movimientos);
+        log.debug("Consumo de insumos completado para OP ID {}: {} insumo(s) descontados de '{}'.",
+                ordenProduccion.getIdOrdenProduccion(), movimientos.size(), ubicacionConsumo);
     }
 
+    /**
+     * Ingresa al inventario los productos terminados de la OV asociada, en bloque: agrega la cantidad por producto,
+     * la aplica con un upsert por lote (crea el registro de inventario si no existe) y registra los movimientos
+     * de entrada en lotes JDBC.
+     */
     @Transactional
     protected void registrarEntradaProductoTerminado(OrdenProduccion ordenProduccion) {
         if (!"Terminada".equals(ordenProduccion.getEstadoProduccion())) {
@@ -268,50 +303,39 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
             log.warn("La Orden de Venta ID {} asociada a la OP ID {} no tiene detalles. No se puede registrar entrada de producto.", ordenVenta.getIdOrdenVenta(), ordenProduccion.getIdOrdenProduccion());
             return;
         }
-    
+
+        // Cantidad producida por producto; TreeMap para que el upsert tome los bloqueos de fila en orden de ID.
+        Map<Integer, Integer> cantidadPorProducto = new TreeMap<>();
         for (DetalleOrdenVenta detalleOV : ordenVenta.getDetallesOrdenVenta()) {
-            Producto productoTerminado = detalleOV.getProducto();
-            Integer cantidadProducida = detalleOV.getCantidadProducto();
-    
-            if (productoTerminado == null) continue;
-    
-            log.info("Registrando entrada para producto terminado '{}' (ID: {}), cantidad: {}",
-                    productoTerminado.getNombreProducto(), productoTerminado.getIdProducto(), cantidadProducida);
-    
-            String ubicacionEntrada = "Almacén Principal PT"; // Placeholder
-    
-            InventarioProducto inventarioProducto = inventarioProductoRepository
-                    .findByUbicacionInventarioAndProducto(ubicacionEntrada, productoTerminado)
-                    .orElseGet(() -> {
-                        log.info("No existe registro de inventario para producto ID {} en '{}'. Creando nuevo registro.", productoTerminado.getIdProducto(), ubicacionEntrada);
-                        InventarioProducto nuevoInventario = new InventarioProducto();
-                        nuevoInventario.setProducto(productoTerminado);
-                        nuevoInventario.setUbicacionInventario(ubicacionEntrada);
-                        nuevoInventario.setCantidadStock(0);
-                        return inventarioProductoRepository.save(nuevoInventario); // [cite: 128]
-                    });
-    
-            inventarioProducto.setCantidadStock(inventarioProducto.getCantidadStock() + cantidadProducida); // [cite: 140, 141]
-            inventarioProductoRepository.save(inventarioProducto); // [cite: 142]
-    
-            MovimientoInventarioProducto movimiento = new MovimientoInventarioProducto(
+            if (detalleOV.getProducto() == null) continue;
+            cantidadPorProducto.merge(detalleOV.getProducto().getIdProducto(), detalleOV.getCantidadProducto(), Integer::sum);
+        }
+        if (cantidadPorProducto.isEmpty()) {
+            return;
+        }
+
+        String ubicacionEntrada = "Almacén Principal PT"; // Placeholder
+
+        Map<Integer, Integer> inventarioPorProducto = inventarioProductoRepository.upsertStock(ubicacionEntrada, cantidadPorProducto, LocalDateTime.now());
+
+        String descripcion = "Entrada por finalización de OP #" + ordenProduccion.getIdOrdenProduccion() + " (OV #" + ordenVenta.getIdOrdenVenta() + ")";
+        List<MovimientoInventarioProducto> movimientos = new ArrayList<>(cantidadPorProducto.size());
+        cantidadPorProducto.forEach((idProducto, cantidad) -> movimientos.add(new MovimientoInventarioProducto(
                 "Entrada",
-                inventarioProducto,
-                cantidadProducida,
-                "Entrada por finalización de OP #" + ordenProduccion.getIdOrdenProduccion() + 
-                " (OV #" + ordenVenta.getIdOrdenVenta() + ")"
-            );
-            movimientoInventarioProductoRepository.save(movimiento); // [cite: 143]
-            log.info("Movimiento de entrada registrado para producto ID {} (Cantidad: {}) a inventario ID {} por OP ID {}",
-                    productoTerminado.getIdProducto(), cantidadProducida, inventarioProducto.getIdInventarioProducto(), ordenProduccion.getIdOrdenProduccion());
-        }
-        log.info("Entrada de productos terminados completada para OP ID {}.", ordenProduccion.getIdOrdenProduccion());
+                inventarioProductoRepository.getReferenceById(inventarioPorProducto.get(idProducto)),
+                cantidad,
+                descripcion
+        )));
+        movimientoInventarioProductoRepository.saveAll(movimientos);
+        log.debug("Entrada de productos terminados completada para OP ID {}: {} producto(s) ingresados en '{}'.",
+                ordenProduccion.getIdOrdenProduccion(), movimientos.size(), ubicacionEntrada);
     }
 
 
     @Override
+    @AuditedOperation
     public TareaProduccionResponseDTO addTareaToOrdenProduccion(Integer idOrdenProduccion, TareaProduccionCreateRequestDTO tareaRequestDTO) {
-        log.info("Añadiendo tarea a orden de producción ID: {}", idOrdenProduccion);
+        log.debug("Añadiendo tarea a orden de producción ID: {}", idOrdenProduccion);
         OrdenProduccion ordenProduccion = findOrdenProduccionEntityById(idOrdenProduccion); // [cite: 32]
 
         if ("Anulada".equals(ordenProduccion.getEstadoProduccion()) || "Terminada".equals(ordenProduccion.getEstadoProduccion())) {
@@ -343,13 +367,14 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
         }
 
         TareaProduccion savedTarea = tareaProduccionRepository.save(nuevaTarea); // [cite: 39]
-        log.info("Tarea ID: {} añadida a orden de producción ID: {}", savedTarea.getIdTareaProduccion(), idOrdenProduccion);
+        log.debug("Tarea ID: {} añadida a orden de producción ID: {}", savedTarea.getIdTareaProduccion(), idOrdenProduccion);
         return mapTareaToResponseDTO(savedTarea); // [cite: 40, 41]
     }
 
     @Override
+    @AuditedOperation
     public TareaProduccionResponseDTO updateTareaInOrdenProduccion(Integer idOrdenProduccion, Integer idTarea, TareaProduccionUpdateRequestDTO tareaRequestDTO) {
-        log.info("Actualizando tarea ID: {} en orden de producción ID: {}", idTarea, idOrdenProduccion);
+        log.debug("Actualizando tarea ID: {} en orden de producción ID: {}", idTarea, idOrdenProduccion);
         OrdenProduccion ordenProduccion = findOrdenProduccionEntityById(idOrdenProduccion); // [cite: 42]
         if ("Anulada".equals(ordenProduccion.getEstadoProduccion()) || "Terminada".equals(ordenProduccion.getEstadoProduccion())) {
             throw new BadRequestException("No se pueden actualizar tareas de una orden de producción en estado '" + ordenProduccion.getEstadoProduccion() + "'."); // [cite: 43]
@@ -390,13 +415,14 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
         }
 
         TareaProduccion updatedTarea = tareaProduccionRepository.save(tareaToUpdate); // [cite: 53]
-        log.info("Tarea ID: {} actualizada en orden de producción ID: {}", updatedTarea.getIdTareaProduccion(), idOrdenProduccion);
+        log.debug("Tarea ID: {} actualizada en orden de producción ID: {}", updatedTarea.getIdTareaProduccion(), idOrdenProduccion);
         return mapTareaToResponseDTO(updatedTarea); // [cite: 54, 55]
     }
 
     @Override
+    @AuditedOperation
     public void removeTareaFromOrdenProduccion(Integer idOrdenProduccion, Integer idTarea) {
-        log.info("Eliminando tarea ID: {} de orden de producción ID: {}", idTarea, idOrdenProduccion);
+        log.debug("Eliminando tarea ID: {} de orden de producción ID: {}", idTarea, idOrdenProduccion);
         OrdenProduccion ordenProduccion = findOrdenProduccionEntityById(idOrdenProduccion); // [cite: 56]
         if ("Anulada".equals(ordenProduccion.getEstadoProduccion()) || "Terminada".equals(ordenProduccion.getEstadoProduccion())) {
             throw new BadRequestException("No se pueden eliminar tareas de una orden de producción en estado '" + ordenProduccion.getEstadoProduccion() + "'."); // [cite: 57]
@@ -406,12 +432,13 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
                 .orElseThrow(() -> new ResourceNotFoundException("TareaProduccion", "idTarea/idOrdenProduccion", idTarea + "/" + idOrdenProduccion));
         ordenProduccion.getTareasProduccion().remove(tareaToRemove); // [cite: 58]
         tareaProduccionRepository.delete(tareaToRemove);
-        log.info("Tarea ID: {} eliminada de orden de producción ID: {}", idTarea, idOrdenProduccion);
+        log.debug("Tarea ID: {} eliminada de orden de producción ID: {}", idTarea, idOrdenProduccion);
     }
 
     @Override
+    @AuditedOperation
     public void anularOrdenProduccion(Integer id) {
-        log.info("Anulando orden de producción ID: {}", id);
+        log.debug("Anulando orden de producción ID: {}", id);
         OrdenProduccion ordenProduccion = findOrdenProduccionEntityById(id); // [cite: 60]
 
         if ("Terminada".equals(ordenProduccion.getEstadoProduccion())) {
@@ -427,7 +454,7 @@ public class OrdenProduccionServiceImpl implements OrdenProduccionService {
 
         ordenProduccion.setEstadoProduccion("Anulada");
         ordenProduccionRepository.save(ordenProduccion);
-        log.info("Orden de producción ID: {} anulada.", id);
+        log.debug("Orden de producción ID: {} anulada.", id);
     }
 
     private OrdenProduccion findOrdenProduccionEntityById(Integer id) {
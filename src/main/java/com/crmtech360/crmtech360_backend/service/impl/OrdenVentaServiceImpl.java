@@ -1,6 +1,9 @@
 package com.crmtech360.crmtech360_backend.service.impl;
 
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import com.crmtech360.crmtech360_backend.dto.*;
+import com.crmtech360.crmtech360_backend.dto.CursorPageDTO;
 import com.crmtech360.crmtech360_backend.entity.Cliente;
 import com.crmtech360.crmtech360_backend.entity.DetalleOrdenVenta;
 import com.crmtech360.crmtech360_backend.entity.OrdenVenta;
@@ -12,10 +15,15 @@ import com.crmtech360.crmtech360_backend.repository.ProductoRepository;
 import com.crmtech360.crmtech360_backend.service.OrdenVentaService;
 import com.crmtech360.crmtech360_backend.exception.BadRequestException;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException;
+import com.crmtech360.crmtech360_backend.pagination.SeekCursor;
+import com.crmtech360.crmtech360_backend.pagination.TotalCountEstimator;
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,10 +34,13 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class OrdenVentaServiceImpl implements OrdenVentaService {
 
     private static final Logger log = LoggerFactory.getLogger(OrdenVentaServiceImpl.class);
@@ -38,20 +49,24 @@ public class OrdenVentaServiceImpl implements OrdenVentaService {
     private final DetalleOrdenVentaRepository detalleOrdenVentaRepository;
     private final ClienteRepository clienteRepository;
     private final ProductoRepository productoRepository;
+    private final TotalCountEstimator totalCountEstimator;
 
     public OrdenVentaServiceImpl(OrdenVentaRepository ordenVentaRepository,
                                  DetalleOrdenVentaRepository detalleOrdenVentaRepository,
                                  ClienteRepository clienteRepository,
-                                 ProductoRepository productoRepository) {
+                                 ProductoRepository productoRepository,
+                                 TotalCountEstimator totalCountEstimator) {
         this.ordenVentaRepository = ordenVentaRepository;
         this.detalleOrdenVentaRepository = detalleOrdenVentaRepository;
         this.clienteRepository = clienteRepository;
         this.productoRepository = productoRepository;
+        this.totalCountEstimator = totalCountEstimator;
     }
 
     @Override
+    @AuditedOperation
     public OrdenVentaResponseDTO createOrdenVenta(OrdenVentaCreateRequestDTO createRequestDTO) {
-        log.info("Creando nueva orden de venta para cliente ID: {}", createRequestDTO.getIdCliente());
+        log.debug("Creando nueva orden de venta para cliente ID: {}", createRequestDTO.getIdCliente());
 
         Cliente cliente = clienteRepository.findById(createRequestDTO.getIdCliente())
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente", "id", createRequestDTO.getIdCliente()));
@@ -65,9 +80,16 @@ public class OrdenVentaServiceImpl implements OrdenVentaService {
 
         BigDecimal totalOrdenCalculado = BigDecimal.ZERO;
 
+        // Los productos se resuelven desde la caché de segundo nivel; los que falten, en una sola consulta.
+        Map<Integer, Producto> productos = productoRepository.findAllByIdCached(createRequestDTO.getDetalles().stream()
+                        .map(DetalleOrdenVentaRequestDTO::getIdProducto).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Producto::getIdProducto, Function.identity()));
+
         for (DetalleOrdenVentaRequestDTO detalleDTO : createRequestDTO.getDetalles()) {
-            Producto producto = productoRepository.findById(detalleDTO.getIdProducto())
-                    .orElseThrow(() -> new ResourceNotFoundException("Producto", "id", detalleDTO.getIdProducto()));
+            Producto producto = productos.get(detalleDTO.getIdProducto());
+            if (producto == null) {
+                throw new ResourceNotFoundException("Producto", "id", detalleDTO.getIdProducto());
+            }
 
             DetalleOrdenVenta detalle = new DetalleOrdenVenta();
             detalle.setOrdenVenta(ordenVenta);
@@ -87,29 +109,63 @@ public class OrdenVentaServiceImpl implements OrdenVentaService {
 
         ordenVenta.setTotalOrden(totalOrdenCalculado);
         OrdenVenta savedOrdenVenta = ordenVentaRepository.save(ordenVenta);
-        log.info("Orden de venta creada con ID: {}", savedOrdenVenta.getIdOrdenVenta());
+        log.debug("Orden de venta creada con ID: {}", savedOrdenVenta.getIdOrdenVenta());
         return mapToResponseDTO(savedOrdenVenta);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<OrdenVentaResponseDTO> findAllOrdenesVenta(Pageable pageable) {
-        log.info("Buscando todas las órdenes de venta, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
-        return ordenVentaRepository.findAll(pageable).map(this::mapToResponseDTO);
+    @Workload(WorkloadClass.INTERACTIVO)
+    public Page<OrdenVentaResponseDTO> findAllOrdenesVenta(Pageable pageable, boolean totalEstimado) {
+        log.debug("Buscando todas las órdenes de venta, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
+        if (!totalEstimado) {
+            Page<Integer> ids = ordenVentaRepository.findPageIds(pageable);
+            return ids.map(cargarOrdenes(ids.getContent()));
+        }
+        Slice<Integer> ids = ordenVentaRepository.findSliceIds(pageable);
+        return totalCountEstimator.toPage(ids.map(cargarOrdenes(ids.getContent())), pageable,
+                "ordenesventa", ordenVentaRepository::count);
+    }
+
+    // Fase 2 del listado: carga con su grafo las órdenes de la página y devuelve el mapeo ID -> DTO.
+    private Function<Integer, OrdenVentaResponseDTO> cargarOrdenes(List<Integer> ids) {
+        Map<Integer, OrdenVenta> ordenes = ordenVentaRepository.findByIdOrdenVentaIn(ids).stream()
+                .collect(Collectors.toMap(OrdenVenta::getIdOrdenVenta, Function.identity()));
+        return id -> mapToResponseDTO(ordenes.get(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
+    public CursorPageDTO<OrdenVentaResponseDTO> findAllOrdenesVentaSeek(String cursor, Integer size) {
+        SeekCursor desde = SeekCursor.decode(cursor);
+        int pageSize = SeekCursor.clampSize(size);
+        log.debug("Buscando órdenes de venta por cursor, tamaño: {}", pageSize);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Integer> ids = desde == null
+                ? ordenVentaRepository.findSeekIdsFirst(limit)
+                : ordenVentaRepository.findSeekIdsAfter(desde.fecha(), desde.id(), limit);
+        Map<Integer, OrdenVenta> ordenes = ordenVentaRepository.findByIdOrdenVentaIn(ids).stream()
+                .collect(Collectors.toMap(OrdenVenta::getIdOrdenVenta, Function.identity()));
+        return CursorPageDTO.of(ids.stream().map(ordenes::get).toList(), pageSize,
+                o -> new SeekCursor(o.getFechaPedido(), o.getIdOrdenVenta()), this::mapToResponseDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public OrdenVentaResponseDTO findOrdenVentaById(Integer id) {
-        log.info("Buscando orden de venta con ID: {}", id);
-        OrdenVenta ordenVenta = findOrdenVentaEntityById(id);
+        log.debug("Buscando orden de venta con ID: {}", id);
+        OrdenVenta ordenVenta = ordenVentaRepository.findDetalleById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("OrdenVenta", "id", id));
         return mapToResponseDTO(ordenVenta);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<OrdenVentaResponseDTO> findOrdenesVentaByClienteId(Integer idCliente) {
-        log.info("Buscando órdenes de venta para cliente ID: {}", idCliente);
+        log.debug("Buscando órdenes de venta para cliente ID: {}", idCliente);
         if (!clienteRepository.existsById(idCliente)) {
             throw new ResourceNotFoundException("Cliente", "id", idCliente);
         }
@@ -119,8 +175,9 @@ public class OrdenVentaServiceImpl implements OrdenVentaService {
 
 
     @Override
+    @AuditedOperation
     public OrdenVentaResponseDTO updateOrdenVentaHeader(Integer id, OrdenVentaUpdateRequestDTO updateRequestDTO) {
-        log.info("Actualizando cabecera de orden de venta ID: {}", id);
+        log.debug("Actualizando cabecera de orden de venta ID: {}", id);
         OrdenVenta ordenVenta = findOrdenVentaEntityById(id);
 
         if ("Anulada".equals(ordenVenta.getEstadoOrden()) || "Entregada".equals(ordenVenta.getEstadoOrden())) {
@@ -138,13 +195,14 @@ public class OrdenVentaServiceImpl implements OrdenVentaService {
         }
 
         OrdenVenta updatedOrdenVenta = ordenVentaRepository.save(ordenVenta);
-        log.info("Cabecera de orden de venta ID: {} actualizada.", updatedOrdenVenta.getIdOrdenVenta());
+        log.debug("Cabecera de orden de venta ID: {} actualizada.", updatedOrdenVenta.getIdOrdenVenta());
         return mapToResponseDTO(updatedOrdenVenta);
     }
 
     @Override
+    @AuditedOperation
     public DetalleOrdenVentaResponseDTO addDetalleToOrdenVenta(Integer idOrdenVenta, DetalleOrdenVentaRequestDTO detalleRequestDTO) {
-        log.info("Añadiendo detalle a orden de venta ID: {}", idOrdenVenta);
+        log.debug("Añadiendo detalle a orden de venta ID: {}", idOrdenVenta);
         OrdenVenta ordenVenta = findOrdenVentaEntityById(idOrdenVenta);
 
         if ("Anulada".equals(ordenVenta.getEstadoOrden()) || "Entregada".equals(ordenVenta.getEstadoOrden()) || "En Producción".equals(ordenVenta.getEstadoOrden())) {
@@ -169,13 +227,14 @@ public class OrdenVentaServiceImpl implements OrdenVentaService {
         recalculateTotalOrdenVenta(ordenVenta);
         ordenVentaRepository.save(ordenVenta);
 
-        log.info("Detalle ID: {} añadido a orden de venta ID: {}", savedDetalle.getIdDetalleOrden(), idOrdenVenta);
+        log.debug("Detalle ID: {} añadido a orden de venta ID: {}", savedDetalle.getIdDetalleOrden(), idOrdenVenta);
         return mapDetalleToResponseDTO(savedDetalle);
     }
 
     @Override
+    @AuditedOperation
     public DetalleOrdenVentaResponseDTO updateDetalleInOrdenVenta(Integer idOrdenVenta, Integer idDetalleVenta, DetalleOrdenVentaRequestDTO detalleRequestDTO) {
-        log.info("Actualizando detalle ID: {} en orden de venta ID: {}", idDetalleVenta, idOrdenVenta);
+        log.debug("Actualizando detalle ID: {} en orden de venta ID: {}", idDetalleVenta, idOrdenVenta);
         OrdenVenta ordenVenta = findOrdenVentaEntityById(idOrdenVenta);
 
         if ("Anulada".equals(ordenVenta.getEstadoOrden()) || "Entregada".equals(ordenVenta.getEstadoOrden()) || "En Producción".equals(ordenVenta.getEstadoOrden())) {
@@ -201,13 +260,14 @@ public class OrdenVentaServiceImpl implements OrdenVentaService {
         recalculateTotalOrdenVenta(ordenVenta);
         ordenVentaRepository.save(ordenVenta);
 
-        log.info("Detalle ID: {} actualizado en orden de venta ID: {}", updatedDetalle.getIdDetalleOrden(), idOrdenVenta);
+        log.debug("Detalle ID: {} actualizado en orden de venta ID: {}", updatedDetalle.getIdDetalleOrden(), idOrdenVenta);
         return mapDetalleToResponseDTO(updatedDetalle);
     }
 
     @Override
+    @AuditedOperation
     public void removeDetalleFromOrdenVenta(Integer idOrdenVenta, Integer idDetalleVenta) {
-        log.info("Eliminando detalle ID: {} de orden de venta ID: {}", idDetalleVenta, idOrdenVenta);
+        log.debug("Eliminando detalle ID: {} de orden de venta ID: {}", idDetalleVenta, idOrdenVenta);
         OrdenVenta ordenVenta = findOrdenVentaEntityById(idOrdenVenta);
 
         if ("Anulada".equals(ordenVenta.getEstadoOrden()) || "Entregada".equals(ordenVenta.getEstadoOrden()) || "En Producción".equals(ordenVenta.getEstadoOrden())) {
@@ -223,12 +283,13 @@ public class OrdenVentaServiceImpl implements OrdenVentaService {
 
         recalculateTotalOrdenVenta(ordenVenta);
         ordenVentaRepository.save(ordenVenta);
-        log.info("Detalle ID: {} eliminado de orden de venta ID: {}", idDetalleVenta, idOrdenVenta);
+        log.debug("Detalle ID: {} eliminado de orden de venta ID: {}", idDetalleVenta, idOrdenVenta);
     }
 
     @Override
+    @AuditedOperation
     public void anularOrdenVenta(Integer id) {
-        log.info("Anulando orden de venta ID: {}", id);
+        log.debug("Anulando orden de venta ID: {}", id);
         OrdenVenta ordenVenta = findOrdenVentaEntityById(id);
 
         if ("Entregada".equals(ordenVenta.getEstadoOrden())) {
@@ -237,7 +298,7 @@ public class OrdenVentaServiceImpl implements OrdenVentaService {
 
         ordenVenta.setEstadoOrden("Anulada");
         ordenVentaRepository.save(ordenVenta);
-        log.info("Orden de venta ID: {} anulada.", id);
+        log.debug("Orden de venta ID: {} anulada.", id);
     }
 
     private OrdenVenta findOrdenVentaEntityById(Integer id) {
@@ -1,5 +1,7 @@
 package com.crmtech360.crmtech360_backend.service.impl;
 
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import com.crmtech360.crmtech360_backend.dto.*;
 import com.crmtech360.crmtech360_backend.entity.OrdenCompra;
 import com.crmtech360.crmtech360_backend.entity.OrdenVenta;
@@ -10,6 +12,8 @@ import com.crmtech360.crmtech360_backend.repository.PagoCobroRepository;
 import com.crmtech360.crmtech360_backend.service.PagoCobroService;
 import com.crmtech360.crmtech360_backend.exception.BadRequestException;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException;
+import com.crmtech360.crmtech360_backend.pagination.TotalCountEstimator;
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -25,6 +29,7 @@ import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class PagoCobroServiceImpl implements PagoCobroService {
 
     private static final Logger log = LoggerFactory.getLogger(PagoCobroServiceImpl.class);
@@ -32,18 +37,22 @@ public class PagoCobroServiceImpl implements PagoCobroService {
     private final PagoCobroRepository pagoCobroRepository;
     private final OrdenVentaRepository ordenVentaRepository;
     private final OrdenCompraRepository ordenCompraRepository;
+    private final TotalCountEstimator totalCountEstimator;
 
     public PagoCobroServiceImpl(PagoCobroRepository pagoCobroRepository,
                                 OrdenVentaRepository ordenVentaRepository,
-                                OrdenCompraRepository ordenCompraRepository) {
+                                OrdenCompraRepository ordenCompraRepository,
+                                TotalCountEstimator totalCountEstimator) {
         this.pagoCobroRepository = pagoCobroRepository;
         this.ordenVentaRepository = ordenVentaRepository;
         this.ordenCompraRepository = ordenCompraRepository;
+        this.totalCountEstimator = totalCountEstimator;
     }
 
     @Override
+    @AuditedOperation
     public PagoCobroResponseDTO createPagoCobro(PagoCobroCreateRequestDTO createRequestDTO) {
-        log.info("Registrando nueva transacción: tipo '{}', monto {}", createRequestDTO.getTipoTransaccion(), createRequestDTO.getMontoTransaccion());
+        log.debug("Registrando nueva transacción: tipo '{}', monto {}", createRequestDTO.getTipoTransaccion(), createRequestDTO.getMontoTransaccion());
 
         PagoCobro pagoCobro = new PagoCobro();
         pagoCobro.setTipoTransaccion(createRequestDTO.getTipoTransaccion());
@@ -79,29 +88,37 @@ public class PagoCobroServiceImpl implements PagoCobroService {
         }
 
         PagoCobro savedPagoCobro = pagoCobroRepository.save(pagoCobro);
-        log.info("Transacción ID {} registrada exitosamente.", savedPagoCobro.getIdPagoCobro());
+        log.debug("Transacción ID {} registrada exitosamente.", savedPagoCobro.getIdPagoCobro());
         return mapToResponseDTO(savedPagoCobro);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PagoCobroResponseDTO> findAllPagosCobros(Pageable pageable) {
-        log.info("Buscando todas las transacciones de pagos/cobros.");
-        return pagoCobroRepository.findAll(pageable).map(this::mapToResponseDTO);
+    @Workload(WorkloadClass.INFORMES)
+    public Page<PagoCobroResponseDTO> findAllPagosCobros(Pageable pageable, boolean totalEstimado) {
+        log.debug("Buscando todas las transacciones de pagos/cobros (total estimado: {}).", totalEstimado);
+        if (!totalEstimado) {
+            return pagoCobroRepository.findAll(pageable).map(this::mapToResponseDTO);
+        }
+        return totalCountEstimator.toPage(pagoCobroRepository.findSliceBy(pageable).map(this::mapToResponseDTO), pageable,
+                "pagoscobros", pagoCobroRepository::count);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public PagoCobroResponseDTO findPagoCobroById(Integer idPagoCobro) {
-        log.info("Buscando transacción por ID: {}", idPagoCobro);
-        PagoCobro pagoCobro = findPagoCobroEntityById(idPagoCobro);
+        log.debug("Buscando transacción por ID: {}", idPagoCobro);
+        PagoCobro pagoCobro = pagoCobroRepository.findDetalleById(idPagoCobro)
+                .orElseThrow(() -> new ResourceNotFoundException("PagoCobro", "id", idPagoCobro));
         return mapToResponseDTO(pagoCobro);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INFORMES)
     public List<PagoCobroResponseDTO> findPagosCobrosByTipoTransaccion(String tipoTransaccion, Pageable pageable) {
-        log.info("Buscando transacciones por tipo: {}", tipoTransaccion);
+        log.debug("Buscando transacciones por tipo: {}", tipoTransaccion);
         // LLAMADA CORREGIDA para el error "Expected 1 argument but found 2"
         Page<PagoCobro> page = pagoCobroRepository.findByTipoTransaccionIgnoreCase(tipoTransaccion, pageable);
         return page.getContent().stream().map(this::mapToResponseDTO).collect(Collectors.toList());
@@ -109,8 +126,9 @@ public class PagoCobroServiceImpl implements PagoCobroService {
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<PagoCobroResponseDTO> findPagosByOrdenCompraId(Integer idOrdenCompra, Pageable pageable) {
-        log.info("Buscando pagos para la orden de compra ID: {}", idOrdenCompra);
+        log.debug("Buscando pagos para la orden de compra ID: {}", idOrdenCompra);
         if (!ordenCompraRepository.existsById(idOrdenCompra)) {
             throw new ResourceNotFoundException("OrdenCompra", "id", idOrdenCompra);
         }
@@ -121,8 +139,9 @@ public class PagoCobroServiceImpl implements PagoCobroService {
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<PagoCobroResponseDTO> findCobrosByOrdenVentaId(Integer idOrdenVenta, Pageable pageable) {
-        log.info("Buscando cobros para la orden de venta ID: {}", idOrdenVenta);
+        log.debug("Buscando cobros para la orden de venta ID: {}", idOrdenVenta);
         if (!ordenVentaRepository.existsById(idOrdenVenta)) {
             throw new ResourceNotFoundException("OrdenVenta", "id", idOrdenVenta);
         }
@@ -133,8 +152,9 @@ public class PagoCobroServiceImpl implements PagoCobroService {
 
 
     @Override
+    @AuditedOperation
     public PagoCobroResponseDTO updatePagoCobro(Integer idPagoCobro, PagoCobroUpdateRequestDTO updateRequestDTO) {
-        log.info("Actualizando transacción ID: {}", idPagoCobro);
+        log.debug("Actualizando transacción ID: {}", idPagoCobro);
         PagoCobro pagoCobro = findPagoCobroEntityById(idPagoCobro);
 
         if ("Anulado".equals(pagoCobro.getEstadoTransaccion())) {
@@ -158,13 +178,14 @@ public class PagoCobroServiceImpl implements PagoCobroService {
         }
 
         PagoCobro updatedPagoCobro = pagoCobroRepository.save(pagoCobro);
-        log.info("Transacción ID {} actualizada.", updatedPagoCobro.getIdPagoCobro());
+        log.debug("Transacción ID {} actualizada.", updatedPagoCobro.getIdPagoCobro());
         return mapToResponseDTO(updatedPagoCobro);
     }
 
     @Override
+    @AuditedOperation
     public void anularPagoCobro(Integer idPagoCobro) {
-        log.info("Anulando transacción ID: {}", idPagoCobro);
+        log.debug("Anulando transacción ID: {}", idPagoCobro);
         PagoCobro pagoCobro = findPagoCobroEntityById(idPagoCobro);
 
         if ("Anulado".equals(pagoCobro.getEstadoTransaccion())) {
@@ -172,7 +193,7 @@ public class PagoCobroServiceImpl implements PagoCobroService {
         }
         pagoCobro.setEstadoTransaccion("Anulado");
         pagoCobroRepository.save(pagoCobro);
-        log.info("Transacción ID {} anulada.", idPagoCobro);
+        log.debug("Transacción ID {} anulada.", idPagoCobro);
     }
 
     private PagoCobro findPagoCobroEntityById(Integer id) {
@@ -4,9 +4,15 @@ import com.crmtech360.crmtech360_backend.dto.PermisoRequestDTO;
 import com.crmtech360.crmtech360_backend.dto.PermisoResponseDTO;
 import com.crmtech360.crmtech360_backend.entity.Permiso;
 import com.crmtech360.crmtech360_backend.repository.PermisoRepository;
+import com.crmtech360.crmtech360_backend.security.authority.PermisoCatalog;
+import com.crmtech360.crmtech360_backend.security.authority.RolAuthoritySnapshot;
+import com.crmtech360.crmtech360_backend.security.jwt.TokenGenerationRegistry;
 import com.crmtech360.crmtech360_backend.service.PermisoService;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException; // Placeholder
 import com.crmtech360.crmtech360_backend.exception.DuplicateResourceException; // Placeholder
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -17,20 +23,31 @@ import java.util.stream.Collectors;
 
 @Service
 @Transactional // Aplica transaccionalidad por defecto a todos los métodos públicos
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class PermisoServiceImpl implements PermisoService {
 
     private static final Logger log = LoggerFactory.getLogger(PermisoServiceImpl.class);
 
     private final PermisoRepository permisoRepository;
+    private final TokenGenerationRegistry tokenGenerationRegistry;
+    private final RolAuthoritySnapshot rolAuthoritySnapshot;
+    private final PermisoCatalog permisoCatalog;
 
     // Inyección por constructor
-    public PermisoServiceImpl(PermisoRepository permisoRepository) {
+    public PermisoServiceImpl(PermisoRepository permisoRepository,
+                              TokenGenerationRegistry tokenGenerationRegistry,
+                              RolAuthoritySnapshot rolAuthoritySnapshot,
+                              PermisoCatalog permisoCatalog) {
         this.permisoRepository = permisoRepository;
+        this.tokenGenerationRegistry = tokenGenerationRegistry;
+        this.rolAuthoritySnapshot = rolAuthoritySnapshot;
+        this.permisoCatalog = permisoCatalog;
     }
 
     @Override
+    @AuditedOperation
     public PermisoResponseDTO createPermiso(PermisoRequestDTO permisoRequestDTO) {
-        log.info("Intentando crear permiso con nombre: {}", permisoRequestDTO.getNombrePermiso());
+        log.debug("Intentando crear permiso con nombre: {}", permisoRequestDTO.getNombrePermiso());
         // Validar si ya existe un permiso con ese nombre (ignorando mayúsculas/minúsculas)
         permisoRepository.findByNombrePermiso(permisoRequestDTO.getNombrePermiso())
                 .ifPresent(existing -> {
@@ -40,14 +57,16 @@ public class PermisoServiceImpl implements PermisoService {
 
         Permiso permiso = mapToEntity(permisoRequestDTO);
         Permiso savedPermiso = permisoRepository.save(permiso);
-        log.info("Permiso creado con ID: {}", savedPermiso.getIdPermiso());
+        permisoCatalog.invalidate();
+        log.debug("Permiso creado con ID: {}", savedPermiso.getIdPermiso());
         return mapToResponseDTO(savedPermiso);
     }
 
     @Override
     @Transactional(readOnly = true) // Optimización para consultas
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<PermisoResponseDTO> findAllPermisos() {
-        log.info("Buscando todos los permisos");
+        log.debug("Buscando todos los permisos");
         return permisoRepository.findAll().stream()
                 .map(this::mapToResponseDTO)
                 .collect(Collectors.toList());
@@ -55,8 +74,9 @@ public class PermisoServiceImpl implements PermisoService {
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public PermisoResponseDTO findPermisoById(Integer id) {
-        log.info("Buscando permiso con ID: {}", id);
+        log.debug("Buscando permiso con ID: {}", id);
         Permiso permiso = permisoRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Permiso no encontrado con ID: {}", id);
@@ -67,8 +87,9 @@ public class PermisoServiceImpl implements PermisoService {
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public PermisoResponseDTO findByNombrePermiso(String nombre) {
-        log.info("Buscando permiso con nombre: {}", nombre);
+        log.debug("Buscando permiso con nombre: {}", nombre);
         Permiso permiso = permisoRepository.findByNombrePermiso(nombre)
                 .orElseThrow(() -> {
                     log.warn("Permiso no encontrado con nombre: {}", nombre);
@@ -79,8 +100,9 @@ public class PermisoServiceImpl implements PermisoService {
 
 
     @Override
+    @AuditedOperation
     public PermisoResponseDTO updatePermiso(Integer id, PermisoRequestDTO permisoRequestDTO) {
-        log.info("Intentando actualizar permiso con ID: {}", id);
+        log.debug("Intentando actualizar permiso con ID: {}", id);
         Permiso permisoToUpdate = permisoRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Permiso no encontrado para actualizar con ID: {}", id);
@@ -100,24 +122,33 @@ public class PermisoServiceImpl implements PermisoService {
         // Nota: Las fechas de actualización son manejadas por @PreUpdate en la entidad
 
         Permiso updatedPermiso = permisoRepository.save(permisoToUpdate);
-        log.info("Permiso actualizado con ID: {}", updatedPermiso.getIdPermiso());
+        // El nombre del permiso viaja como autoridad en los tokens emitidos.
+        tokenGenerationRegistry.revokeAll();
+        rolAuthoritySnapshot.invalidate();
+        permisoCatalog.invalidate();
+        log.debug("Permiso actualizado con ID: {}", updatedPermiso.getIdPermiso());
         return mapToResponseDTO(updatedPermiso);
     }
 
     @Override
+    @AuditedOperation
     public void deletePermiso(Integer id) {
-        log.info("Intentando eliminar permiso con ID: {}", id);
+        log.debug("Intentando eliminar permiso con ID: {}", id);
         if (!permisoRepository.existsById(id)) {
             log.warn("Permiso no encontrado para eliminar con ID: {}", id);
             throw new ResourceNotFoundException("Permiso", "id", id);
         }
         // Considerar el impacto en RolesPermisos (ON DELETE CASCADE definido en BD debería manejarlo)
         permisoRepository.deleteById(id);
-        log.info("Permiso eliminado con ID: {}", id);
+        tokenGenerationRegistry.revokeAll();
+        rolAuthoritySnapshot.invalidate();
+        permisoCatalog.invalidate();
+        log.debug("Permiso eliminado con ID: {}", id);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public boolean existsPermiso(String nombrePermiso) {
         return permisoRepository.findByNombrePermiso(nombrePermiso).isPresent();
     }
@@ -9,9 +9,14 @@ import com.crmtech360.crmtech360_backend.repository.InsumoPorProductoRepository;
 import com.crmtech360.crmtech360_backend.repository.InsumoRepository;
 import com.crmtech360.crmtech360_backend.repository.ProductoRepository;
 import com.crmtech360.crmtech360_backend.service.ProductoService;
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeyFilters;
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeySpace;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException; // Placeholder
 import com.crmtech360.crmtech360_backend.exception.DuplicateResourceException; // Placeholder
 import com.crmtech360.crmtech360_backend.exception.BadRequestException; // Placeholder
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -25,6 +30,7 @@ import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class ProductoServiceImpl implements ProductoService {
 
     private static final Logger log = LoggerFactory.getLogger(ProductoServiceImpl.class);
@@ -32,49 +38,58 @@ public class ProductoServiceImpl implements ProductoService {
     private final ProductoRepository productoRepository;
     private final InsumoRepository insumoRepository; // Necesario para validar insumos
     private final InsumoPorProductoRepository insumoPorProductoRepository; // Para gestionar BOM
+    private final UniqueKeyFilters uniqueKeyFilters; // Evita la consulta de duplicados si la referencia seguro que es nueva
 
     public ProductoServiceImpl(ProductoRepository productoRepository,
                                InsumoRepository insumoRepository,
-                               InsumoPorProductoRepository insumoPorProductoRepository) {
+                               InsumoPorProductoRepository insumoPorProductoRepository,
+                               UniqueKeyFilters uniqueKeyFilters) {
         this.productoRepository = productoRepository;
         this.insumoRepository = insumoRepository;
         this.insumoPorProductoRepository = insumoPorProductoRepository;
+        this.uniqueKeyFilters = uniqueKeyFilters;
     }
 
     @Override
+    @AuditedOperation
     public ProductoResponseDTO createProducto(ProductoCreateRequestDTO productoCreateRequestDTO) {
-        log.info("Intentando crear producto con referencia: {}", productoCreateRequestDTO.getReferenciaProducto());
-        productoRepository.findByReferenciaProducto(productoCreateRequestDTO.getReferenciaProducto())
-                .ifPresent(existing -> {
-                    log.warn("Intento de crear producto duplicado por referencia: {}", productoCreateRequestDTO.getReferenciaProducto());
-                    throw new DuplicateResourceException("Producto", "referenciaProducto", productoCreateRequestDTO.getReferenciaProducto());
-                });
+        log.debug("Intentando crear producto con referencia: {}", productoCreateRequestDTO.getReferenciaProducto());
+        if (uniqueKeyFilters.mightExist(UniqueKeySpace.PRODUCTO_REFERENCIA, productoCreateRequestDTO.getReferenciaProducto())) {
+            productoRepository.findByReferenciaProducto(productoCreateRequestDTO.getReferenciaProducto())
+                    .ifPresent(existing -> {
+                        log.warn("Intento de crear producto duplicado por referencia: {}", productoCreateRequestDTO.getReferenciaProducto());
+                        throw new DuplicateResourceException("Producto", "referenciaProducto", productoCreateRequestDTO.getReferenciaProducto());
+                    });
+        }
 
         Producto producto = mapToEntity(productoCreateRequestDTO);
         Producto savedProducto = productoRepository.save(producto);
-        log.info("Producto creado con ID: {}", savedProducto.getIdProducto());
+        log.debug("Producto creado con ID: {}", savedProducto.getIdProducto());
         return mapToResponseDTO(savedProducto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Page<ProductoResponseDTO> findAllProductos(Pageable pageable) {
-        log.info("Buscando todos los productos, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
-        return productoRepository.findAll(pageable).map(this::mapToResponseDTO);
+        log.debug("Buscando todos los productos, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return productoRepository.findAllResponse(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public ProductoResponseDTO findProductoById(Integer id) {
-        log.info("Buscando producto con ID: {}", id);
+        log.debug("Buscando producto con ID: {}", id);
         Producto producto = findProductoEntityById(id);
         return mapToResponseDTO(producto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public ProductoResponseDTO findProductoByReferencia(String referencia) {
-        log.info("Buscando producto con referencia: {}", referencia);
+        log.debug("Buscando producto con referencia: {}", referencia);
         Producto producto = productoRepository.findByReferenciaProducto(referencia)
                 .orElseThrow(() -> {
                     log.warn("Producto no encontrado con referencia: {}", referencia);
@@ -84,8 +99,9 @@ public class ProductoServiceImpl implements ProductoService {
     }
 
     @Override
+    @AuditedOperation
     public ProductoResponseDTO updateProducto(Integer id, ProductoUpdateRequestDTO updateDTO) {
-        log.info("Intentando actualizar producto con ID: {}", id);
+        log.debug("Intentando actualizar producto con ID: {}", id);
         Producto productoToUpdate = findProductoEntityById(id);
 
         // Actualizar campos permitidos
@@ -120,28 +136,30 @@ public class ProductoServiceImpl implements ProductoService {
         // Fechas manejadas por @PreUpdate
 
         Producto updatedProducto = productoRepository.save(productoToUpdate);
-        log.info("Producto actualizado con ID: {}", updatedProducto.getIdProducto());
+        log.debug("Producto actualizado con ID: {}", updatedProducto.getIdProducto());
         return mapToResponseDTO(updatedProducto);
     }
 
     @Override
+    @AuditedOperation
     public void deleteProducto(Integer id) {
-        log.info("Intentando eliminar producto con ID: {}", id);
+        log.debug("Intentando eliminar producto con ID: {}", id);
         Producto producto = findProductoEntityById(id);
         // Considerar relaciones: DetallesOrdenVenta, InsumosPorProducto, InventarioProductos
         // ON DELETE CASCADE o RESTRICT en BD deben manejarse. Si no, verificar aquí.
         // Por ejemplo, no permitir borrar si hay stock o está en órdenes activas.
         // (Simplificación: asumimos que la BD o futuras validaciones lo manejan)
         productoRepository.delete(producto);
-        log.info("Producto eliminado con ID: {}", id);
+        log.debug("Producto eliminado con ID: {}", id);
     }
 
 
     // --- Implementación Métodos BOM ---
 
     @Override
+    @AuditedOperation
     public InsumoPorProductoResponseDTO addInsumoToProducto(Integer idProducto, InsumoPorProductoRequestDTO bomItemDto) {
-        log.info("Añadiendo insumo ID {} al producto ID {}", bomItemDto.getIdInsumo(), idProducto);
+        log.debug("Añadiendo insumo ID {} al producto ID {}", bomItemDto.getIdInsumo(), idProducto);
         Producto producto = findProductoEntityById(idProducto);
         Insumo insumo = findInsumoEntityById(bomItemDto.getIdInsumo());
 
@@ -163,13 +181,14 @@ public class ProductoServiceImpl implements ProductoService {
         bomEntity.setCantidadRequerida(bomItemDto.getCantidadRequerida());
 
         InsumoPorProducto savedBomItem = insumoPorProductoRepository.save(bomEntity);
-        log.info("Insumo ID {} añadido al BOM del producto ID {}", insumo.getIdInsumo(), idProducto);
+        log.debug("Insumo ID {} añadido al BOM del producto ID {}", insumo.getIdInsumo(), idProducto);
         return mapBomItemToResponseDTO(savedBomItem);
     }
 
     @Override
+    @AuditedOperation
     public InsumoPorProductoResponseDTO updateInsumoInProducto(Integer idProducto, Integer idInsumo, InsumoPorProductoRequestDTO bomItemDto) {
-        log.info("Actualizando cantidad del insumo ID {} en producto ID {}", idInsumo, idProducto);
+        log.debug("Actualizando cantidad del insumo ID {} en producto ID {}", idInsumo, idProducto);
         // Verificar que el DTO sea consistente
         if ((bomItemDto.getIdProducto() != null && !bomItemDto.getIdProducto().equals(idProducto)) ||
                 (bomItemDto.getIdInsumo() != null && !bomItemDto.getIdInsumo().equals(idInsumo))) {
@@ -182,25 +201,27 @@ public class ProductoServiceImpl implements ProductoService {
 
         bomEntity.setCantidadRequerida(bomItemDto.getCantidadRequerida());
         InsumoPorProducto updatedBomItem = insumoPorProductoRepository.save(bomEntity);
-        log.info("Cantidad actualizada para insumo ID {} en producto ID {}", idInsumo, idProducto);
+        log.debug("Cantidad actualizada para insumo ID {} en producto ID {}", idInsumo, idProducto);
         return mapBomItemToResponseDTO(updatedBomItem);
     }
 
     @Override
+    @AuditedOperation
     public void removeInsumoFromProducto(Integer idProducto, Integer idInsumo) {
-        log.info("Eliminando insumo ID {} del BOM del producto ID {}", idInsumo, idProducto);
+        log.debug("Eliminando insumo ID {} del BOM del producto ID {}", idInsumo, idProducto);
         InsumoPorProductoId bomId = new InsumoPorProductoId(idProducto, idInsumo);
         if (!insumoPorProductoRepository.existsById(bomId)) {
             throw new ResourceNotFoundException("InsumoPorProducto", "producto/insumo", idProducto + "/" + idInsumo);
         }
         insumoPorProductoRepository.deleteById(bomId);
-        log.info("Insumo ID {} eliminado del BOM del producto ID {}", idInsumo, idProducto);
+        log.debug("Insumo ID {} eliminado del BOM del producto ID {}", idInsumo, idProducto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<InsumoPorProductoResponseDTO> getInsumosForProducto(Integer idProducto) {
-        log.info("Buscando BOM para producto ID {}", idProducto);
+        log.debug("Buscando BOM para producto ID {}", idProducto);
         // Verificar que el producto existe
         findProductoEntityById(idProducto);
         List<InsumoPorProducto> bomList = insumoPorProductoRepository.findByIdIdProducto(idProducto);
@@ -6,9 +6,14 @@ import com.crmtech360.crmtech360_backend.dto.ProveedorUpdateRequestDTO;
 import com.crmtech360.crmtech360_backend.entity.Proveedor;
 import com.crmtech360.crmtech360_backend.repository.ProveedorRepository;
 import com.crmtech360.crmtech360_backend.service.ProveedorService;
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeyFilters;
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeySpace;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException; // Placeholder
 import com.crmtech360.crmtech360_backend.exception.DuplicateResourceException; // Placeholder
 import com.crmtech360.crmtech360_backend.exception.BadRequestException; // Placeholder
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -18,50 +23,59 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class ProveedorServiceImpl implements ProveedorService {
 
     private static final Logger log = LoggerFactory.getLogger(ProveedorServiceImpl.class);
 
     private final ProveedorRepository proveedorRepository;
+    private final UniqueKeyFilters uniqueKeyFilters; // Evita la consulta de duplicados si el NIT seguro que es nuevo
 
-    public ProveedorServiceImpl(ProveedorRepository proveedorRepository) {
+    public ProveedorServiceImpl(ProveedorRepository proveedorRepository, UniqueKeyFilters uniqueKeyFilters) {
         this.proveedorRepository = proveedorRepository;
+        this.uniqueKeyFilters = uniqueKeyFilters;
     }
 
     @Override
+    @AuditedOperation
     public ProveedorResponseDTO createProveedor(ProveedorCreateRequestDTO createDTO) {
-        log.info("Intentando crear proveedor con NIT: {}", createDTO.getNitProveedor());
-        proveedorRepository.findByNitProveedor(createDTO.getNitProveedor())
-                .ifPresent(existing -> {
-                    log.warn("Intento de crear proveedor duplicado por NIT: {}", createDTO.getNitProveedor());
-                    throw new DuplicateResourceException("Proveedor", "nitProveedor", createDTO.getNitProveedor());
-                });
+        log.debug("Intentando crear proveedor con NIT: {}", createDTO.getNitProveedor());
+        if (uniqueKeyFilters.mightExist(UniqueKeySpace.PROVEEDOR_NIT, createDTO.getNitProveedor())) {
+            proveedorRepository.findByNitProveedor(createDTO.getNitProveedor())
+                    .ifPresent(existing -> {
+                        log.warn("Intento de crear proveedor duplicado por NIT: {}", createDTO.getNitProveedor());
+                        throw new DuplicateResourceException("Proveedor", "nitProveedor", createDTO.getNitProveedor());
+                    });
+        }
 
         Proveedor proveedor = mapToEntity(createDTO);
         Proveedor savedProveedor = proveedorRepository.save(proveedor);
-        log.info("Proveedor creado con ID: {}", savedProveedor.getIdProveedor());
+        log.debug("Proveedor creado con ID: {}", savedProveedor.getIdProveedor());
         return mapToResponseDTO(savedProveedor);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Page<ProveedorResponseDTO> findAllProveedores(Pageable pageable) {
-        log.info("Buscando todos los proveedores, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
-        return proveedorRepository.findAll(pageable).map(this::mapToResponseDTO);
+        log.debug("Buscando todos los proveedores, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return proveedorRepository.findAllResponse(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public ProveedorResponseDTO findProveedorById(Integer id) {
-        log.info("Buscando proveedor con ID: {}", id);
+        log.debug("Buscando proveedor con ID: {}", id);
         Proveedor proveedor = findProveedorEntityById(id);
         return mapToResponseDTO(proveedor);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public ProveedorResponseDTO findProveedorByNit(String nit) {
-        log.info("Buscando proveedor con NIT: {}", nit);
+        log.debug("Buscando proveedor con NIT: {}", nit);
         Proveedor proveedor = proveedorRepository.findByNitProveedor(nit)
                 .orElseThrow(() -> {
                     log.warn("Proveedor no encontrado con NIT: {}", nit);
@@ -71,8 +85,9 @@ public class ProveedorServiceImpl implements ProveedorService {
     }
 
     @Override
+    @AuditedOperation
     public ProveedorResponseDTO updateProveedor(Integer id, ProveedorUpdateRequestDTO updateDTO) {
-        log.info("Intentando actualizar proveedor con ID: {}", id);
+        log.debug("Intentando actualizar proveedor con ID: {}", id);
         Proveedor proveedorToUpdate = findProveedorEntityById(id);
 
         // NIT no se actualiza. Actualizar otros campos si vienen en el DTO.
@@ -96,13 +111,14 @@ public class ProveedorServiceImpl implements ProveedorService {
         }
 
         Proveedor updatedProveedor = proveedorRepository.save(proveedorToUpdate);
-        log.info("Proveedor actualizado con ID: {}", updatedProveedor.getIdProveedor());
+        log.debug("Proveedor actualizado con ID: {}", updatedProveedor.getIdProveedor());
         return mapToResponseDTO(updatedProveedor);
     }
 
     @Override
+    @AuditedOperation
     public void deleteProveedor(Integer id) {
-        log.info("Intentando eliminar proveedor con ID: {}", id);
+        log.debug("Intentando eliminar proveedor con ID: {}", id);
         Proveedor proveedor = findProveedorEntityById(id);
         // Considerar impacto en OrdenesCompra (ON DELETE SET NULL en BD)
         // Spring Data/Hibernate debería manejar el SET NULL si la relación es opcional y no hay cascade.
@@ -111,7 +127,7 @@ public class ProveedorServiceImpl implements ProveedorService {
         //    throw new BadRequestException("No se puede eliminar el proveedor ID " + id + " porque tiene órdenes de compra activas.");
         // }
         proveedorRepository.delete(proveedor);
-        log.info("Proveedor eliminado con ID: {}", id);
+        log.debug("Proveedor eliminado con ID: {}", id);
     }
 
 
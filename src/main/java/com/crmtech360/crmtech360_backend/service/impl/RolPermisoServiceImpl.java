@@ -7,9 +7,14 @@ import com.crmtech360.crmtech360_backend.entity.Permiso;
 import com.crmtech360.crmtech360_backend.entity.RolPermiso;
 import com.crmtech360.crmtech360_backend.repository.PermisoRepository;
 import com.crmtech360.crmtech360_backend.repository.RolPermisoRepository;
+import com.crmtech360.crmtech360_backend.security.authority.RolAuthoritySnapshot;
+import com.crmtech360.crmtech360_backend.security.jwt.TokenGenerationRegistry;
 import com.crmtech360.crmtech360_backend.service.RolPermisoService;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException;
 import com.crmtech360.crmtech360_backend.exception.DuplicateResourceException;
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -20,21 +25,30 @@ import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class RolPermisoServiceImpl implements RolPermisoService {
 
     private static final Logger log = LoggerFactory.getLogger(RolPermisoServiceImpl.class);
 
     private final RolPermisoRepository rolPermisoRepository;
     private final PermisoRepository permisoRepository; // Para validar existencia del permiso
+    private final TokenGenerationRegistry tokenGenerationRegistry;
+    private final RolAuthoritySnapshot rolAuthoritySnapshot;
 
-    public RolPermisoServiceImpl(RolPermisoRepository rolPermisoRepository, PermisoRepository permisoRepository) {
+    public RolPermisoServiceImpl(RolPermisoRepository rolPermisoRepository,
+                                 PermisoRepository permisoRepository,
+                                 TokenGenerationRegistry tokenGenerationRegistry,
+                                 RolAuthoritySnapshot rolAuthoritySnapshot) {
         this.rolPermisoRepository = rolPermisoRepository;
         this.permisoRepository = permisoRepository;
+        this.tokenGenerationRegistry = tokenGenerationRegistry;
+        this.rolAuthoritySnapshot = rolAuthoritySnapshot;
     }
 
     @Override
+    @AuditedOperation
     public RolPermisoResponseDTO assignPermisoToRol(RolPermisoRequestDTO requestDTO) {
-        log.info("Asignando permiso ID {} al rol '{}'", requestDTO.getIdPermiso(), requestDTO.getRolNombre());
+        log.debug("Asignando permiso ID {} al rol '{}'", requestDTO.getIdPermiso(), requestDTO.getRolNombre());
 
         Permiso permiso = permisoRepository.findById(requestDTO.getIdPermiso())
                 .orElseThrow(() -> new ResourceNotFoundException("Permiso", "id", requestDTO.getIdPermiso()));
@@ -48,13 +62,17 @@ public class RolPermisoServiceImpl implements RolPermisoService {
         rolPermiso.setPermiso(permiso);
 
         RolPermiso savedEntity = rolPermisoRepository.save(rolPermiso);
-        log.info("Permiso ID {} asignado al rol '{}' con ID de asignación {}", permiso.getIdPermiso(), requestDTO.getRolNombre(), savedEntity.getIdRolPermiso());
+        // Los tokens emitidos llevan las autoridades del rol: deben renovarse.
+        tokenGenerationRegistry.revokeAll();
+        rolAuthoritySnapshot.invalidate();
+        log.debug("Permiso ID {} asignado al rol '{}' con ID de asignación {}", permiso.getIdPermiso(), requestDTO.getRolNombre(), savedEntity.getIdRolPermiso());
         return mapToResponseDTO(savedEntity);
     }
 
     @Override
+    @AuditedOperation
     public void removePermisoFromRol(String rolNombre, Integer idPermiso) {
-        log.info("Removiendo permiso ID {} del rol '{}'", idPermiso, rolNombre);
+        log.debug("Removiendo permiso ID {} del rol '{}'", idPermiso, rolNombre);
         Permiso permiso = permisoRepository.findById(idPermiso)
                 .orElseThrow(() -> new ResourceNotFoundException("Permiso", "id", idPermiso));
 
@@ -62,14 +80,17 @@ public class RolPermisoServiceImpl implements RolPermisoService {
                 .orElseThrow(() -> new ResourceNotFoundException("RolPermiso", "rolNombre/permisoId", rolNombre + "/" + idPermiso));
 
         rolPermisoRepository.delete(rolPermiso);
-        log.info("Permiso ID {} removido del rol '{}'", idPermiso, rolNombre);
+        tokenGenerationRegistry.revokeAll();
+        rolAuthoritySnapshot.invalidate();
+        log.debug("Permiso ID {} removido del rol '{}'", idPermiso, rolNombre);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public List<PermisoResponseDTO> getPermisosForRol(String rolNombre) {
-        log.info("Obteniendo permisos para el rol '{}'", rolNombre);
-        List<RolPermiso> rolesPermisos = rolPermisoRepository.findByRolNombre(rolNombre);
+        log.debug("Obteniendo permisos para el rol '{}'", rolNombre);
+        List<RolPermiso> rolesPermisos = rolPermisoRepository.findByRolNombreWithPermisos(rolNombre);
         return rolesPermisos.stream()
                 .map(rp -> mapPermisoToResponseDTO(rp.getPermiso()))
                 .collect(Collectors.toList());
@@ -77,6 +98,7 @@ public class RolPermisoServiceImpl implements RolPermisoService {
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public boolean checkIfRolHasPermiso(String rolNombre, Integer idPermiso) {
         Permiso permiso = permisoRepository.findById(idPermiso).orElse(null);
         if (permiso == null) return false;
@@ -0,0 +1,117 @@
+package com.crmtech360.crmtech360_backend.service.impl;
+
+import com.crmtech360.crmtech360_backend.autocomplete.TypeaheadIndex;
+import com.crmtech360.crmtech360_backend.dto.SearchEntityType;
+import com.crmtech360.crmtech360_backend.dto.SearchResultDTO;
+import com.crmtech360.crmtech360_backend.dto.SearchResultPageDTO;
+import com.crmtech360.crmtech360_backend.exception.BadRequestException;
+import com.crmtech360.crmtech360_backend.exception.UnauthorizedOperationException;
+import com.crmtech360.crmtech360_backend.repository.SearchRepository;
+import com.crmtech360.crmtech360_backend.service.SearchService;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+@Workload(WorkloadClass.INTERACTIVO)
+public class SearchServiceImpl implements SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchServiceImpl.class);
+
+    private static final int LONGITUD_MAXIMA = 100;
+
+    // Mismas reglas que los GET de listado de cada controlador. Los productos los puede ver cualquier usuario autenticado.
+    private static final Map<SearchEntityType, Set<String>> AUTORIDADES = Map.of(
+            SearchEntityType.CLIENTE, Set.of("ROLE_ADMINISTRADOR", "ROLE_GERENTE", "ROLE_VENTAS", "PERMISO_VER_CLIENTES"),
+            SearchEntityType.PROVEEDOR, Set.of("ROLE_ADMINISTRADOR", "ROLE_GERENTE", "PERMISO_VER_PROVEEDORES"),
+            SearchEntityType.INSUMO, Set.of("ROLE_ADMINISTRADOR", "ROLE_GERENTE", "ROLE_OPERARIO", "PERMISO_VER_INSUMOS"));
+
+    private final SearchRepository searchRepository;
+    private final TypeaheadIndex typeaheadIndex;
+    private final int longitudMinima;
+    private final int tamanoMaximo;
+    private final double umbralSimilitud;
+    private final long timeoutMs;
+
+    public SearchServiceImpl(SearchRepository searchRepository, TypeaheadIndex typeaheadIndex,
+                             @Value("${busqueda.longitud-minima:3}") int longitudMinima,
+                             @Value("${busqueda.tamano-maximo:50}") int tamanoMaximo,
+                             @Value("${busqueda.umbral-similitud:0.5}") double umbralSimilitud,
+                             @Value("${busqueda.timeout-ms:2000}") long timeoutMs) {
+        this.searchRepository = searchRepository;
+        this.typeaheadIndex = typeaheadIndex;
+        this.longitudMinima = longitudMinima;
+        this.tamanoMaximo = tamanoMaximo;
+        this.umbralSimilitud = umbralSimilitud;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public SearchResultPageDTO search(String texto, Set<SearchEntityType> tipos, boolean tolerante, int page, int size) {
+        if (page < 0 || size < 1 || size > tamanoMaximo) {
+            throw new BadRequestException("Paginación inválida: 'page' debe ser >= 0 y 'size' entre 1 y " + tamanoMaximo + ".");
+        }
+        String normalizado = texto == null ? "" : texto.trim().replaceAll("\\s+", " ");
+        if (normalizado.length() > LONGITUD_MAXIMA) {
+            throw new BadRequestException("El texto de búsqueda no puede superar los " + LONGITUD_MAXIMA + " caracteres.");
+        }
+        Set<SearchEntityType> permitidos = tiposPermitidos(tipos == null || tipos.isEmpty() ? EnumSet.allOf(SearchEntityType.class) : tipos);
+        // Las primeras pulsaciones no llegan a la base de datos: con menos de tres caracteres no hay trigramas que
+        // aprovechar en el índice y la consulta acabaría recorriendo la tabla entera.
+        if (normalizado.length() < longitudMinima) {
+            return new SearchResultPageDTO(List.of(), page, size, false);
+        }
+        log.debug("Búsqueda '{}' en {} (tolerante: {}), página: {}, tamaño: {}", normalizado, permitidos, tolerante, page, size);
+        return SearchResultPageDTO.of(searchRepository.search(normalizado, permitidos, tolerante, umbralSimilitud, timeoutMs,
+                (long) page * size, size + 1), page, size);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS) // solo memoria: sin transacción ni conexión del pool
+    public List<SearchResultDTO> suggest(String texto, SearchEntityType tipo, int limite) {
+        if (tipo != SearchEntityType.PRODUCTO && tipo != SearchEntityType.CLIENTE) {
+            throw new BadRequestException("El autocompletado solo está disponible para PRODUCTO y CLIENTE.");
+        }
+        if (limite < 1 || limite > tamanoMaximo) {
+            throw new BadRequestException("El parámetro 'limite' debe estar entre 1 y " + tamanoMaximo + ".");
+        }
+        if (texto != null && texto.length() > LONGITUD_MAXIMA) {
+            throw new BadRequestException("El texto de búsqueda no puede superar los " + LONGITUD_MAXIMA + " caracteres.");
+        }
+        tiposPermitidos(EnumSet.of(tipo));
+        return typeaheadIndex.suggest(tipo, texto, limite);
+    }
+
+    private static Set<SearchEntityType> tiposPermitidos(Set<SearchEntityType> solicitados) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Set<String> autoridades = authentication == null ? Set.of() : authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        Set<SearchEntityType> permitidos = EnumSet.noneOf(SearchEntityType.class);
+        for (SearchEntityType tipo : solicitados) {
+            Set<String> requeridas = AUTORIDADES.get(tipo);
+            if (requeridas == null || requeridas.stream().anyMatch(autoridades::contains)) {
+                permitidos.add(tipo);
+            }
+        }
+        if (permitidos.isEmpty()) {
+            throw new UnauthorizedOperationException("No tiene permisos para consultar ninguno de los tipos solicitados: " + solicitados);
+        }
+        return permitidos;
+    }
+}
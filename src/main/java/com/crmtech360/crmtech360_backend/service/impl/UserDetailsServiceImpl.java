@@ -1,39 +1,40 @@
 package com.crmtech360.crmtech360_backend.service.impl;
 
-import com.crmtech360.crmtech360_backend.entity.Permiso;
-import com.crmtech360.crmtech360_backend.entity.RolPermiso;
 import com.crmtech360.crmtech360_backend.entity.Usuario;
-import com.crmtech360.crmtech360_backend.repository.RolPermisoRepository;
 import com.crmtech360.crmtech360_backend.repository.UsuarioRepository;
+import com.crmtech360.crmtech360_backend.security.authority.RolAuthoritySnapshot;
+import com.crmtech360.crmtech360_backend.security.principal.UsuarioPrincipal;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User; // Correct import
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service("userDetailsService") // Nombre explícito del bean
-public class UserDetailsServiceImpl implements UserDetailsService {
+@Workload(WorkloadClass.OLTP) // autentica todas las peticiones, también las escrituras
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger log = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
     private final UsuarioRepository usuarioRepository;
-    private final RolPermisoRepository rolPermisoRepository;
+    private final RolAuthoritySnapshot rolAuthoritySnapshot;
 
     @Autowired
-    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository, RolPermisoRepository rolPermisoRepository) {
+    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository, RolAuthoritySnapshot rolAuthoritySnapshot) {
         this.usuarioRepository = usuarioRepository;
-        this.rolPermisoRepository = rolPermisoRepository;
+        this.rolAuthoritySnapshot = rolAuthoritySnapshot;
     }
 
     @Override
@@ -47,7 +48,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     return new UsernameNotFoundException("Usuario no encontrado con nombre de usuario: " + username);
                 });
 
-        log.info("Usuario encontrado: {}, Rol: {}", usuario.getNombreUsuario(), usuario.getRolUsuario());
+        log.debug("Usuario encontrado: {}, Rol: {}", usuario.getNombreUsuario(), usuario.getRolUsuario());
 
         Set<GrantedAuthority> authorities = new HashSet<>();
 
@@ -61,30 +62,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
 
         // 2. Añadir PERMISOS específicos asociados al rol del usuario.
+        // Se resuelven desde la instantánea en memoria de RolAuthoritySnapshot, sin consultar RolPermiso/Permiso.
         if (usuario.getRolUsuario() != null && !usuario.getRolUsuario().trim().isEmpty()) {
-            // Usar un método que haga JOIN FETCH para evitar N+1 si es posible,
-            // o asegurar que la carga LAZY funcione dentro de la transacción.
-            // El método findByRolNombre en RolPermisoRepository debería cargar los Permisos.
-            // Si RolPermiso.permiso es LAZY, la transacción @Transactional(readOnly = true) lo manejará.
-            // Alternativamente, RolPermisoRepository puede tener un método específico con JOIN FETCH.
-            // Voy a asumir que tu `RolPermisoRepository.findByRolNombre` funciona bien en este contexto transaccional
-            // o que tienes un método como `findByRolNombreWithPermisos` (que has añadido en una versión posterior del repo).
-            // Aquí usaré findByRolNombreWithPermisos para ser explícito.
-            List<RolPermiso> rolesPermisos = rolPermisoRepository.findByRolNombreWithPermisos(usuario.getRolUsuario());
-            if (rolesPermisos.isEmpty()) {
-                log.info("El rol '{}' para el usuario '{}' no tiene permisos específicos asignados en la tabla RolesPermisos.", usuario.getRolUsuario(), username);
+            Set<GrantedAuthority> permisosDelRol = rolAuthoritySnapshot.getAuthorities(usuario.getRolUsuario());
+            if (permisosDelRol.isEmpty()) {
+                log.debug("El rol '{}' para el usuario '{}' no tiene permisos específicos asignados en la tabla RolesPermisos.", usuario.getRolUsuario(), username);
             } else {
-                rolesPermisos.forEach(rp -> {
-                    Permiso permiso = rp.getPermiso();
-                    if (permiso != null && permiso.getNombrePermiso() != null && !permiso.getNombrePermiso().trim().isEmpty()) {
-                        authorities.add(new SimpleGrantedAuthority(permiso.getNombrePermiso().toUpperCase().replace(" ", "_")));
-                        log.debug("Permiso específico añadido como autoridad para el rol '{}': {}", usuario.getRolUsuario(), permiso.getNombrePermiso().toUpperCase().replace(" ", "_"));
-                    } else {
-                        log.warn("Se encontró una asignación de RolPermiso (ID: {}) para el rol '{}' pero el permiso o su nombre es nulo/vacío.",
-                                rp.getIdRolPermiso() != null ? rp.getIdRolPermiso() : "N/A",
-                                usuario.getRolUsuario());
-                    }
-                });
+                authorities.addAll(permisosDelRol);
+                log.debug("{} permisos específicos añadidos como autoridades para el rol '{}'", permisosDelRol.size(), usuario.getRolUsuario());
             }
         } else {
             log.warn("No se pueden cargar permisos específicos para el usuario '{}' porque no tiene un rol principal definido.", username);
@@ -94,17 +79,36 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             log.warn("El usuario '{}' no tiene roles ni permisos asignados. La autenticación podría funcionar pero la autorización fallará para recursos protegidos.", username);
         }
 
-        // Los flags booleanos indican el estado de la cuenta.
-        // Por ahora, los asumimos como true. Podrías tener campos en tu entidad Usuario
-        // para manejar esto (ej. isEnabled, isAccountNonExpired, etc.)
-        return new User(
+        // El principal lleva los IDs de usuario y empleado para que UserSecurity no tenga que consultarlos.
+        // Obtener el ID del proxy LAZY de Empleado no dispara su carga.
+        // Los flags de estado de cuenta se asumen como true (ver UsuarioPrincipal).
+        return new UsuarioPrincipal(
+                usuario.getIdUsuario(),
+                usuario.getEmpleado() != null ? usuario.getEmpleado().getIdEmpleado() : null,
+                usuario.getRolUsuario(),
                 usuario.getNombreUsuario(),
                 usuario.getContrasena(), // La contraseña ya debe estar codificada en la BD
-                true, // enabled
-                true, // accountNonExpired
-                true, // credentialsNonExpired
-                true, // accountNonLocked
                 authorities
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Rehash transparente: Spring Security lo invoca tras un login exitoso cuando el hash almacenado
+     * usa un coste BCrypt menor al configurado (PasswordEncoder.upgradeEncoding).
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = usuarioRepository.findByNombreUsuario(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con nombre de usuario: " + user.getUsername()));
+        usuario.setContrasena(newPassword);
+        usuarioRepository.save(usuario);
+        log.debug("Hash de contraseña actualizado al coste configurado para el usuario '{}'.", user.getUsername());
+
+        if (user instanceof UsuarioPrincipal principal) {
+            return new UsuarioPrincipal(principal.getIdUsuario(), principal.getIdEmpleado(), principal.getRolUsuario(),
+                    principal.getUsername(), newPassword, principal.getAuthorities());
+        }
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+}
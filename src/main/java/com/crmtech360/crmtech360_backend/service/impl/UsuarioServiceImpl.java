@@ -5,10 +5,16 @@ import com.crmtech360.crmtech360_backend.entity.Empleado;
 import com.crmtech360.crmtech360_backend.entity.Usuario;
 import com.crmtech360.crmtech360_backend.repository.EmpleadoRepository;
 import com.crmtech360.crmtech360_backend.repository.UsuarioRepository;
+import com.crmtech360.crmtech360_backend.security.jwt.TokenGenerationRegistry;
 import com.crmtech360.crmtech360_backend.service.UsuarioService;
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeyFilters;
+import com.crmtech360.crmtech360_backend.uniqueness.UniqueKeySpace;
 import com.crmtech360.crmtech360_backend.exception.ResourceNotFoundException;
 import com.crmtech360.crmtech360_backend.exception.DuplicateResourceException;
 import com.crmtech360.crmtech360_backend.exception.BadRequestException;
+import com.crmtech360.crmtech360_backend.logging.AuditedOperation;
+import com.crmtech360.crmtech360_backend.bulkhead.Workload;
+import com.crmtech360.crmtech360_backend.bulkhead.WorkloadClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -19,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
+@Workload(WorkloadClass.OLTP) // escrituras; las lecturas indican su propia clase
 public class UsuarioServiceImpl implements UsuarioService {
 
     private static final Logger log = LoggerFactory.getLogger(UsuarioServiceImpl.class);
@@ -26,23 +33,32 @@ public class UsuarioServiceImpl implements UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final EmpleadoRepository empleadoRepository; // Para vincular empleados
     private final PasswordEncoder passwordEncoder; // Para hashear contraseñas
+    private final TokenGenerationRegistry tokenGenerationRegistry; // Para revocar tokens emitidos
+    private final UniqueKeyFilters uniqueKeyFilters; // Evita la consulta de duplicados si el nombre seguro que es nuevo
 
     public UsuarioServiceImpl(UsuarioRepository usuarioRepository,
                               EmpleadoRepository empleadoRepository,
-                              PasswordEncoder passwordEncoder) {
+                              PasswordEncoder passwordEncoder,
+                              TokenGenerationRegistry tokenGenerationRegistry,
+                              UniqueKeyFilters uniqueKeyFilters) {
         this.usuarioRepository = usuarioRepository;
         this.empleadoRepository = empleadoRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenGenerationRegistry = tokenGenerationRegistry;
+        this.uniqueKeyFilters = uniqueKeyFilters;
     }
 
     @Override
+    @AuditedOperation
     public UsuarioResponseDTO createUsuario(UsuarioCreateRequestDTO createDTO) {
-        log.info("Intentando crear usuario: {}", createDTO.getNombreUsuario());
-        usuarioRepository.findByNombreUsuario(createDTO.getNombreUsuario())
-                .ifPresent(e -> {
-                    log.warn("Nombre de usuario ya existe: {}", createDTO.getNombreUsuario());
-                    throw new DuplicateResourceException("Usuario", "nombreUsuario", createDTO.getNombreUsuario());
-                });
+        log.debug("Intentando crear usuario: {}", createDTO.getNombreUsuario());
+        if (uniqueKeyFilters.mightExist(UniqueKeySpace.USUARIO_NOMBRE, createDTO.getNombreUsuario())) {
+            usuarioRepository.findByNombreUsuario(createDTO.getNombreUsuario())
+                    .ifPresent(e -> {
+                        log.warn("Nombre de usuario ya existe: {}", createDTO.getNombreUsuario());
+                        throw new DuplicateResourceException("Usuario", "nombreUsuario", createDTO.getNombreUsuario());
+                    });
+        }
 
         Usuario usuario = new Usuario();
         usuario.setNombreUsuario(createDTO.getNombreUsuario());
@@ -64,29 +80,32 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
 
         Usuario savedUsuario = usuarioRepository.save(usuario);
-        log.info("Usuario creado con ID: {}", savedUsuario.getIdUsuario());
+        log.debug("Usuario creado con ID: {}", savedUsuario.getIdUsuario());
         return mapToResponseDTO(savedUsuario);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public Page<UsuarioResponseDTO> findAllUsuarios(Pageable pageable) {
-        log.info("Buscando todos los usuarios, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
+        log.debug("Buscando todos los usuarios, página: {}, tamaño: {}", pageable.getPageNumber(), pageable.getPageSize());
         return usuarioRepository.findAll(pageable).map(this::mapToResponseDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public UsuarioResponseDTO findUsuarioById(Integer id) {
-        log.info("Buscando usuario con ID: {}", id);
+        log.debug("Buscando usuario con ID: {}", id);
         Usuario usuario = findUsuarioEntityById(id);
         return mapToResponseDTO(usuario);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Workload(WorkloadClass.INTERACTIVO)
     public UsuarioResponseDTO findUsuarioByNombreUsuario(String nombreUsuario) {
-        log.info("Buscando usuario por nombre: {}", nombreUsuario);
+        log.debug("Buscando usuario por nombre: {}", nombreUsuario);
         Usuario usuario = usuarioRepository.findByNombreUsuario(nombreUsuario)
                 .orElseThrow(() -> {
                     log.warn("Usuario no encontrado con nombre: {}", nombreUsuario);
@@ -96,8 +115,9 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
+    @AuditedOperation
     public UsuarioResponseDTO updateUsuario(Integer id, UsuarioUpdateRequestDTO updateDTO) {
-        log.info("Intentando actualizar usuario con ID: {}", id);
+        log.debug("Intentando actualizar usuario con ID: {}", id);
         Usuario usuarioToUpdate = findUsuarioEntityById(id);
 
         if (updateDTO.getRolUsuario() != null) {
@@ -122,13 +142,16 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
 
         Usuario updatedUsuario = usuarioRepository.save(usuarioToUpdate);
-        log.info("Usuario actualizado con ID: {}", updatedUsuario.getIdUsuario());
+        // El rol o el empleado vinculado pudieron cambiar: los tokens emitidos ya no reflejan al usuario.
+        tokenGenerationRegistry.revokeUser(updatedUsuario.getNombreUsuario());
+        log.debug("Usuario actualizado con ID: {}", updatedUsuario.getIdUsuario());
         return mapToResponseDTO(updatedUsuario);
     }
 
     @Override
+    @AuditedOperation
     public void changePassword(Integer idUsuario, ChangePasswordRequestDTO passwordRequestDTO) {
-        log.info("Intentando cambiar contraseña para usuario ID: {}", idUsuario);
+        log.debug("Intentando cambiar contraseña para usuario ID: {}", idUsuario);
         Usuario usuario = findUsuarioEntityById(idUsuario);
 
         if (!passwordEncoder.matches(passwordRequestDTO.getCurrentPassword(), usuario.getContrasena())) {
@@ -141,20 +164,21 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         usuario.setContrasena(passwordEncoder.encode(passwordRequestDTO.getNewPassword()));
         usuarioRepository.save(usuario);
-        log.info("Contraseña cambiada exitosamente para usuario ID: {}", idUsuario);
+        tokenGenerationRegistry.revokeUser(usuario.getNombreUsuario());
+        log.debug("Contraseña cambiada exitosamente para usuario ID: {}", idUsuario);
     }
 
 
     @Override
+    @AuditedOperation
     public void deleteUsuario(Integer id) {
-        log.info("Intentando eliminar usuario con ID: {}", id);
-        if (!usuarioRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Usuario", "id", id);
-        }
+        log.debug("Intentando eliminar usuario con ID: {}", id);
+        Usuario usuario = findUsuarioEntityById(id);
         // La BD no define CASCADE para usuarios, así que una eliminación simple es suficiente
         // a menos que haya lógica de negocio adicional (ej. reasignar tareas).
-        usuarioRepository.deleteById(id);
-        log.info("Usuario eliminado con ID: {}", id);
+        usuarioRepository.delete(usuario);
+        tokenGenerationRegistry.revokeUser(usuario.getNombreUsuario());
+        log.debug("Usuario eliminado con ID: {}", id);
     }
 
     // --- Métodos de Ayuda y Mapeo Privados ---
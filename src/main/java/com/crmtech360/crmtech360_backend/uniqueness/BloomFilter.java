@@ -0,0 +1,94 @@
+package com.crmtech360.crmtech360_backend.uniqueness;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de claves de texto, seguro para hilos sin locks: los bits viven en un {@link AtomicLongArray}
+ * y las altas los activan con CAS. Las {@code k} posiciones de cada clave salen de dos hashes de 64 bits
+ * (h1 + i·h2, Kirsch-Mitzenmacher). No admite bajas: una clave añadida da positivo hasta reconstruir el filtro.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+
+    private BloomFilter(long numBits, int numHashes) {
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+        this.bits = new AtomicLongArray((int) ((numBits + 63) / 64));
+    }
+
+    /**
+     * Dimensiona el filtro para {@code capacidad} claves con una tasa de falsos positivos {@code fpp}:
+     * m = -n·ln(p) / ln(2)² bits y k = m/n·ln(2) funciones hash.
+     */
+    static BloomFilter crear(long capacidad, double fpp) {
+        long n = Math.max(1, capacidad);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(m, k);
+    }
+
+    /**
+     * Añade la clave. Devuelve {@code true} si ha activado algún bit, es decir, si la clave no estaba ya (o no
+     * coincidía con un falso positivo).
+     */
+    boolean put(String clave) {
+        boolean cambiado = false;
+        long h1 = hash(clave, 0x9E3779B97F4A7C15L);
+        long h2 = hash(clave, 0xC2B2AE3D27D4EB4FL) | 1; // impar: recorre todas las posiciones
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            int palabra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long actual = bits.get(palabra);
+            while ((actual & mascara) == 0) {
+                if (bits.compareAndSet(palabra, actual, actual | mascara)) {
+                    cambiado = true;
+                    break;
+                }
+                actual = bits.get(palabra);
+            }
+        }
+        return cambiado;
+    }
+
+    /**
+     * {@code false} si la clave seguro que no se ha añadido; {@code true} si puede que sí.
+     */
+    boolean mightContain(String clave) {
+        long h1 = hash(clave, 0x9E3779B97F4A7C15L);
+        long h2 = hash(clave, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long numBits() {
+        return numBits;
+    }
+
+    int numHashes() {
+        return numHashes;
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres con semilla, terminado con el mezclador de SplitMix64.
+    private static long hash(String clave, long semilla) {
+        long h = 0xCBF29CE484222325L ^ semilla;
+        for (int i = 0; i < clave.length(); i++) {
+            h ^= clave.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 30;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 27;
+        h *= 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return h;
+    }
+}
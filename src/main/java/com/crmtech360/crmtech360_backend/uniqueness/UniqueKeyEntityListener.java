@@ -0,0 +1,58 @@
+package com.crmtech360.crmtech360_backend.uniqueness;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA de Cliente, Producto, Usuario y Proveedor ({@code @EntityListeners}) que añade a
+ * {@link UniqueKeyFilters} las claves únicas guardadas y le notifica las bajas, después del commit. Como en
+ * TypeaheadEntityListener, los filtros se resuelven en cada evento porque dependen de repositorios que se crean
+ * después del EntityManagerFactory.
+ */
+@Component
+public class UniqueKeyEntityListener {
+
+    private final ObjectProvider<UniqueKeyFilters> uniqueKeyFilters;
+
+    public UniqueKeyEntityListener(ObjectProvider<UniqueKeyFilters> uniqueKeyFilters) {
+        this.uniqueKeyFilters = uniqueKeyFilters;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        UniqueKeyFilters filters = uniqueKeyFilters.getIfAvailable();
+        if (filters != null) {
+            despuesDelCommit(filters.onSaved(entity));
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        UniqueKeyFilters filters = uniqueKeyFilters.getIfAvailable();
+        if (filters != null) {
+            despuesDelCommit(filters.onRemoved(entity));
+        }
+    }
+
+    private static void despuesDelCommit(Runnable accion) {
+        if (accion == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
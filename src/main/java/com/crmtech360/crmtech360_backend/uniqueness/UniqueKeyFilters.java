@@ -0,0 +1,272 @@
+package com.crmtech360.crmtech360_backend.uniqueness;
+
+import com.crmtech360.crmtech360_backend.entity.Cliente;
+import com.crmtech360.crmtech360_backend.entity.Producto;
+import com.crmtech360.crmtech360_backend.entity.Proveedor;
+import com.crmtech360.crmtech360_backend.entity.Usuario;
+import com.crmtech360.crmtech360_backend.repository.ClienteRepository;
+import com.crmtech360.crmtech360_backend.repository.ProductoRepository;
+import com.crmtech360.crmtech360_backend.repository.ProveedorRepository;
+import com.crmtech360.crmtech360_backend.repository.UsuarioRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Filtros de Bloom, uno por columna única ({@link UniqueKeySpace}), delante de las comprobaciones de duplicados de
+ * las altas: si el filtro dice que la clave no existe, el servicio se ahorra la consulta; si dice que puede existir,
+ * se consulta la base de datos como siempre. La restricción UNIQUE sigue siendo la garantía final: una clave que el
+ * filtro no conozca (alta de otro nodo o con SQL directo) acaba en DataIntegrityViolationException y en un 409.
+ * <p>
+ * Los filtros se construyen al arrancar y {@link UniqueKeyEntityListener} les añade cada clave guardada con JPA en
+ * este nodo, después del commit. Un filtro de Bloom no admite bajas: las claves borradas solo se cuentan y siguen
+ * dando positivo (una consulta de más, nunca un duplicado aceptado). Cada filtro se reconstruye en segundo plano
+ * cuando las altas superan su capacidad o las bajas la fracción {@code unicidad.bloom.fraccion-bajas} de ella,
+ * y además cada {@code unicidad.bloom.reconstruccion-minutos} para recoger los cambios de otros nodos.
+ */
+@Component
+public class UniqueKeyFilters {
+
+    private static final Logger log = LoggerFactory.getLogger(UniqueKeyFilters.class);
+
+    private final boolean habilitado;
+    private final double fpp;
+    private final long capacidadMinima;
+    private final double fraccionBajas;
+    private final long reconstruccionMinutos;
+    private final Map<UniqueKeySpace, Filtro> filtros = new EnumMap<>(UniqueKeySpace.class);
+
+    private ScheduledExecutorService programador;
+
+    public UniqueKeyFilters(ClienteRepository clienteRepository, ProductoRepository productoRepository,
+                            UsuarioRepository usuarioRepository, ProveedorRepository proveedorRepository,
+                            @Value("${unicidad.bloom.habilitado:true}") boolean habilitado,
+                            @Value("${unicidad.bloom.fpp:0.01}") double fpp,
+                            @Value("${unicidad.bloom.capacidad-minima:10000}") long capacidadMinima,
+                            @Value("${unicidad.bloom.fraccion-bajas:0.2}") double fraccionBajas,
+                            @Value("${unicidad.bloom.reconstruccion-minutos:0}") long reconstruccionMinutos) {
+        this.habilitado = habilitado;
+        this.fpp = fpp;
+        this.capacidadMinima = capacidadMinima;
+        this.fraccionBajas = fraccionBajas;
+        this.reconstruccionMinutos = reconstruccionMinutos;
+        filtros.put(UniqueKeySpace.CLIENTE_DOCUMENTO, new Filtro(UniqueKeySpace.CLIENTE_DOCUMENTO, clienteRepository::findAllNumerosDocumento));
+        filtros.put(UniqueKeySpace.PRODUCTO_REFERENCIA, new Filtro(UniqueKeySpace.PRODUCTO_REFERENCIA, productoRepository::findAllReferencias));
+        filtros.put(UniqueKeySpace.USUARIO_NOMBRE, new Filtro(UniqueKeySpace.USUARIO_NOMBRE, usuarioRepository::findAllNombresUsuario));
+        filtros.put(UniqueKeySpace.PROVEEDOR_NIT, new Filtro(UniqueKeySpace.PROVEEDOR_NIT, proveedorRepository::findAllNits));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!habilitado) {
+            log.info("Filtros de Bloom de unicidad deshabilitados: todas las comprobaciones de duplicados consultan la base de datos.");
+            return;
+        }
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "unique-key-bloom-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        filtros.values().forEach(Filtro::rebuild);
+        if (reconstruccionMinutos > 0) {
+            programador.scheduleWithFixedDelay(() -> filtros.values().forEach(this::rebuildSeguro),
+                    reconstruccionMinutos, reconstruccionMinutos, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+    }
+
+    /**
+     * {@code false} solo si la clave seguro que no existe y se puede omitir la consulta de duplicados; {@code true}
+     * si puede existir, y también mientras el filtro no esté construido o con los filtros deshabilitados.
+     */
+    public boolean mightExist(UniqueKeySpace espacio, String clave) {
+        if (clave == null) {
+            return true;
+        }
+        BloomFilter bloom = filtros.get(espacio).bloom;
+        if (bloom == null || bloom.mightContain(clave)) {
+            return true;
+        }
+        log.trace("Clave '{}' descartada por el filtro de Bloom de {}: se omite la consulta de duplicados.", clave, espacio.getColumna());
+        return false;
+    }
+
+    /**
+     * Reconstruye el filtro de {@code espacio} con las claves actuales de la base de datos.
+     */
+    public void rebuild(UniqueKeySpace espacio) {
+        filtros.get(espacio).rebuild();
+    }
+
+    /*
+     * Cambios de UniqueKeyEntityListener: la clave se copia al recibir el evento y el Runnable devuelto la aplica
+     * tras el commit. null si la entidad no tiene una columna con filtro.
+     */
+
+    Runnable onSaved(Object entity) {
+        UniqueKeySpace espacio = espacio(entity);
+        if (espacio == null || !habilitado) {
+            return null;
+        }
+        String clave = clave(entity);
+        Filtro filtro = filtros.get(espacio);
+        return clave == null ? null : () -> filtro.add(clave);
+    }
+
+    Runnable onRemoved(Object entity) {
+        UniqueKeySpace espacio = espacio(entity);
+        if (espacio == null || !habilitado) {
+            return null;
+        }
+        Filtro filtro = filtros.get(espacio);
+        return filtro::removed;
+    }
+
+    private static UniqueKeySpace espacio(Object entity) {
+        if (entity instanceof Cliente) {
+            return UniqueKeySpace.CLIENTE_DOCUMENTO;
+        } else if (entity instanceof Producto) {
+            return UniqueKeySpace.PRODUCTO_REFERENCIA;
+        } else if (entity instanceof Usuario) {
+            return UniqueKeySpace.USUARIO_NOMBRE;
+        } else if (entity instanceof Proveedor) {
+            return UniqueKeySpace.PROVEEDOR_NIT;
+        }
+        return null;
+    }
+
+    private static String clave(Object entity) {
+        if (entity instanceof Cliente c) {
+            return c.getNumeroDocumento();
+        } else if (entity instanceof Producto p) {
+            return p.getReferenciaProducto();
+        } else if (entity instanceof Usuario u) {
+            return u.getNombreUsuario();
+        }
+        return ((Proveedor) entity).getNitProveedor();
+    }
+
+    private void programarRebuild(Filtro filtro) {
+        if (programador != null && !programador.isShutdown()) {
+            programador.execute(() -> rebuildSeguro(filtro));
+        }
+    }
+
+    private void rebuildSeguro(Filtro filtro) {
+        try {
+            filtro.rebuild();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo reconstruir el filtro de Bloom de {}; se mantiene el anterior.", filtro.espacio.getColumna(), e);
+        }
+    }
+
+    /**
+     * Filtro de una columna. Las lecturas no bloquean; altas, bajas y reconstrucciones se sincronizan sobre el
+     * propio Filtro.
+     */
+    private final class Filtro {
+        private final UniqueKeySpace espacio;
+        private final Supplier<List<String>> cargador;
+
+        private volatile BloomFilter bloom;
+        private long capacidad;
+        private final AtomicLong claves = new AtomicLong();
+        private final AtomicLong bajas = new AtomicLong();
+        private boolean rebuildProgramado;
+
+        // Claves añadidas mientras se reconstruye: se añaden también al filtro nuevo antes de publicarlo.
+        private List<String> pendientes;
+
+        Filtro(UniqueKeySpace espacio, Supplier<List<String>> cargador) {
+            this.espacio = espacio;
+            this.cargador = cargador;
+        }
+
+        void rebuild() {
+            synchronized (this) {
+                if (pendientes != null) {
+                    return; // ya hay una reconstrucción en curso
+                }
+                pendientes = new ArrayList<>();
+            }
+            BloomFilter nuevo;
+            long total;
+            long nuevaCapacidad;
+            try {
+                long inicio = System.nanoTime();
+                List<String> actuales = cargador.get();
+                // Margen para crecer el doble antes de la siguiente reconstrucción sin superar la tasa de falsos positivos.
+                nuevaCapacidad = Math.max(capacidadMinima, 2L * actuales.size());
+                nuevo = BloomFilter.crear(nuevaCapacidad, fpp);
+                actuales.forEach(nuevo::put);
+                total = actuales.size();
+                log.info("Filtro de Bloom de {} construido: {} claves, capacidad {}, {} KB, {} hashes, en {} ms.",
+                        espacio.getColumna(), total, nuevaCapacidad, nuevo.numBits() / 8 / 1024, nuevo.numHashes(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendientes = null;
+                    rebuildProgramado = false;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                for (String clave : pendientes) {
+                    if (nuevo.put(clave)) {
+                        total++;
+                    }
+                }
+                pendientes = null;
+                rebuildProgramado = false;
+                capacidad = nuevaCapacidad;
+                claves.set(total);
+                bajas.set(0);
+                bloom = nuevo;
+            }
+        }
+
+        synchronized void add(String clave) {
+            if (pendientes != null) {
+                pendientes.add(clave);
+            }
+            // Solo cuenta como clave nueva si ha activado algún bit: las modificaciones que no cambian la clave no suman.
+            if (bloom != null && bloom.put(clave) && claves.incrementAndGet() > capacidad) {
+                solicitarRebuild("se ha superado la capacidad");
+            }
+        }
+
+        synchronized void removed() {
+            if (bloom != null && bajas.incrementAndGet() > fraccionBajas * capacidad) {
+                solicitarRebuild("hay demasiadas claves borradas");
+            }
+        }
+
+        private void solicitarRebuild(String motivo) {
+            if (!rebuildProgramado && pendientes == null) {
+                rebuildProgramado = true;
+                log.debug("Reconstrucción del filtro de Bloom de {} programada: {}.", espacio.getColumna(), motivo);
+                programarRebuild(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.crmtech360.crmtech360_backend.uniqueness;
+
+/**
+ * Columnas con restricción UNIQUE que se comprueban antes de cada alta y que tienen su propio filtro de Bloom
+ * en {@link UniqueKeyFilters}.
+ */
+public enum UniqueKeySpace {
+    CLIENTE_DOCUMENTO("clientes.numero_documento"),
+    PRODUCTO_REFERENCIA("productos.referencia_producto"),
+    USUARIO_NOMBRE("usuarios.nombre_usuario"),
+    PROVEEDOR_NIT("proveedores.nit_proveedor");
+
+    private final String columna;
+
+    UniqueKeySpace(String columna) {
+        this.columna = columna;
+    }
+
+    public String getColumna() {
+        return columna;
+    }
+}
@@ -0,0 +1,223 @@
+-- Esquema inicial de TelasTech360, tal como existía antes de gestionar las migraciones con Flyway.
+-- En las bases de datos ya existentes esta versión no se ejecuta: Flyway las marca como baseline en la
+-- versión 1 (spring.flyway.baseline-version) y aplica solo de la V2 en adelante. En una base de datos vacía
+-- (entornos nuevos, pruebas de integración) crea las tablas y el resto de migraciones las llevan al estado actual.
+
+CREATE TABLE IF NOT EXISTS clientes (
+    id_cliente          SERIAL PRIMARY KEY,
+    tipo_documento      VARCHAR(20)  NOT NULL,
+    numero_documento    VARCHAR(20)  NOT NULL UNIQUE,
+    nombre_cliente      VARCHAR(255) NOT NULL,
+    direccion_cliente   VARCHAR(255),
+    telefono_cliente    VARCHAR(20),
+    correo_cliente      VARCHAR(100),
+    fecha_creacion      TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_actualizacion TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS contactoscliente (
+    id_contacto       SERIAL PRIMARY KEY,
+    id_cliente        INTEGER REFERENCES clientes (id_cliente) ON DELETE CASCADE,
+    nombre_contacto   VARCHAR(255) NOT NULL,
+    cargo_contacto    VARCHAR(100),
+    telefono_contacto VARCHAR(20),
+    correo_contacto   VARCHAR(100)
+);
+
+CREATE TABLE IF NOT EXISTS empleados (
+    id_empleado                 SERIAL PRIMARY KEY,
+    tipo_documento              VARCHAR(20)  NOT NULL,
+    numero_documento            VARCHAR(20)  NOT NULL UNIQUE,
+    nombre_empleado             VARCHAR(255) NOT NULL,
+    cargo_empleado              VARCHAR(100),
+    area_empleado               VARCHAR(50),
+    salario_empleado            NUMERIC(10, 2),
+    fecha_contratacion_empleado DATE,
+    fecha_creacion              TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_actualizacion         TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id_usuario          SERIAL PRIMARY KEY,
+    id_empleado         INTEGER UNIQUE REFERENCES empleados (id_empleado) ON DELETE SET NULL,
+    nombre_usuario      VARCHAR(50)  NOT NULL UNIQUE,
+    contrasena          VARCHAR(255) NOT NULL,
+    rol_usuario         VARCHAR(20)  NOT NULL,
+    fecha_creacion      TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_actualizacion TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS permisos (
+    id_permiso     SERIAL PRIMARY KEY,
+    nombre_permiso VARCHAR(100) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS rolespermisos (
+    id_rol_permiso SERIAL PRIMARY KEY,
+    rol_nombre     VARCHAR(20) NOT NULL,
+    id_permiso     INTEGER     NOT NULL REFERENCES permisos (id_permiso) ON DELETE CASCADE,
+    UNIQUE (rol_nombre, id_permiso)
+);
+
+CREATE TABLE IF NOT EXISTS proveedores (
+    id_proveedor                 SERIAL PRIMARY KEY,
+    nombre_comercial_proveedor   VARCHAR(255) NOT NULL,
+    razon_social_proveedor       VARCHAR(255),
+    nit_proveedor                VARCHAR(20)  NOT NULL UNIQUE,
+    direccion_proveedor          VARCHAR(255),
+    telefono_proveedor           VARCHAR(20),
+    correo_proveedor             VARCHAR(100),
+    contacto_principal_proveedor VARCHAR(255),
+    fecha_creacion               TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_actualizacion          TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS productos (
+    id_producto            SERIAL PRIMARY KEY,
+    referencia_producto    VARCHAR(50)  NOT NULL UNIQUE,
+    nombre_producto        VARCHAR(255) NOT NULL,
+    descripcion_producto   TEXT,
+    talla_producto         VARCHAR(10),
+    color_producto         VARCHAR(50),
+    tipo_producto          VARCHAR(50),
+    genero_producto        VARCHAR(20),
+    costo_produccion       NUMERIC(10, 2) NOT NULL,
+    precio_venta           NUMERIC(10, 2) NOT NULL,
+    unidad_medida_producto VARCHAR(20) DEFAULT 'Unidad',
+    fecha_creacion         TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_actualizacion    TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS insumos (
+    id_insumo            SERIAL PRIMARY KEY,
+    nombre_insumo        VARCHAR(255) NOT NULL,
+    descripcion_insumo   TEXT,
+    unidad_medida_insumo VARCHAR(50)  NOT NULL,
+    stock_minimo_insumo  INTEGER DEFAULT 0,
+    fecha_creacion       TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_actualizacion  TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS insumosporproducto (
+    id_producto        INTEGER        NOT NULL REFERENCES productos (id_producto) ON DELETE CASCADE,
+    id_insumo          INTEGER        NOT NULL REFERENCES insumos (id_insumo) ON DELETE RESTRICT,
+    cantidad_requerida NUMERIC(10, 3) NOT NULL,
+    PRIMARY KEY (id_producto, id_insumo)
+);
+
+CREATE TABLE IF NOT EXISTS inventarioproductos (
+    id_inventario_producto SERIAL PRIMARY KEY,
+    id_producto            INTEGER REFERENCES productos (id_producto) ON DELETE CASCADE,
+    ubicacion_inventario   VARCHAR(100) NOT NULL,
+    cantidad_stock         INTEGER      NOT NULL DEFAULT 0,
+    ultima_actualizacion   TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (ubicacion_inventario, id_producto)
+);
+
+CREATE TABLE IF NOT EXISTS inventarioinsumos (
+    id_inventario_insumo SERIAL PRIMARY KEY,
+    id_insumo            INTEGER REFERENCES insumos (id_insumo) ON DELETE CASCADE,
+    ubicacion_inventario VARCHAR(100)   NOT NULL,
+    cantidad_stock       DECIMAL(10, 3) NOT NULL DEFAULT 0,
+    ultima_actualizacion TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (ubicacion_inventario, id_insumo)
+);
+
+CREATE TABLE IF NOT EXISTS movimientosinventarioproductos (
+    id_movimiento_producto SERIAL PRIMARY KEY,
+    id_inventario_producto INTEGER     NOT NULL REFERENCES inventarioproductos (id_inventario_producto) ON DELETE CASCADE,
+    tipo_movimiento        VARCHAR(10) NOT NULL,
+    cantidad_movimiento    INTEGER     NOT NULL,
+    fecha_movimiento       TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    descripcion_movimiento TEXT
+);
+
+CREATE TABLE IF NOT EXISTS movimientosinventarioinsumos (
+    id_movimiento_insumo   SERIAL PRIMARY KEY,
+    id_inventario_insumo   INTEGER        NOT NULL REFERENCES inventarioinsumos (id_inventario_insumo) ON DELETE CASCADE,
+    tipo_movimiento        VARCHAR(10)    NOT NULL,
+    cantidad_movimiento    NUMERIC(10, 3) NOT NULL,
+    fecha_movimiento       TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    descripcion_movimiento TEXT
+);
+
+CREATE TABLE IF NOT EXISTS ordenesventa (
+    id_orden_venta         SERIAL PRIMARY KEY,
+    id_cliente             INTEGER REFERENCES clientes (id_cliente) ON DELETE CASCADE,
+    fecha_pedido           TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    fecha_entrega_estimada DATE,
+    estado_orden           VARCHAR(20)    NOT NULL,
+    total_orden            NUMERIC(10, 2) NOT NULL,
+    observaciones_orden    TEXT,
+    fecha_actualizacion    TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS detallesordenventa (
+    id_detalle_orden      SERIAL PRIMARY KEY,
+    id_orden_venta        INTEGER        NOT NULL REFERENCES ordenesventa (id_orden_venta) ON DELETE CASCADE,
+    id_producto           INTEGER        NOT NULL REFERENCES productos (id_producto) ON DELETE CASCADE,
+    cantidad_producto     INTEGER        NOT NULL,
+    precio_unitario_venta NUMERIC(10, 2) NOT NULL,
+    subtotal_detalle      NUMERIC(10, 2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS ordenescompra (
+    id_orden_compra               SERIAL PRIMARY KEY,
+    id_proveedor                  INTEGER REFERENCES proveedores (id_proveedor) ON DELETE SET NULL,
+    fecha_pedido_compra           TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    fecha_entrega_estimada_compra DATE,
+    fecha_entrega_real_compra     DATE,
+    estado_compra                 VARCHAR(20)    NOT NULL,
+    total_compra                  NUMERIC(10, 2) NOT NULL,
+    observaciones_compra          TEXT,
+    fecha_actualizacion           TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS detallesordencompra (
+    id_detalle_compra      SERIAL PRIMARY KEY,
+    id_orden_compra        INTEGER        NOT NULL REFERENCES ordenescompra (id_orden_compra) ON DELETE CASCADE,
+    id_insumo              INTEGER        NOT NULL REFERENCES insumos (id_insumo) ON DELETE RESTRICT,
+    cantidad_compra        INTEGER        NOT NULL,
+    precio_unitario_compra NUMERIC(10, 2) NOT NULL,
+    subtotal_compra        NUMERIC(10, 2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS ordenesproduccion (
+    id_orden_produccion           SERIAL PRIMARY KEY,
+    id_orden_venta                INTEGER REFERENCES ordenesventa (id_orden_venta) ON DELETE SET NULL,
+    fecha_creacion                TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    fecha_inicio_produccion       DATE,
+    fecha_fin_estimada_produccion DATE,
+    fecha_fin_real_produccion     DATE,
+    estado_produccion             VARCHAR(20) NOT NULL,
+    observaciones_produccion      TEXT,
+    fecha_actualizacion           TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS tareasproduccion (
+    id_tarea_produccion     SERIAL PRIMARY KEY,
+    id_orden_produccion     INTEGER REFERENCES ordenesproduccion (id_orden_produccion) ON DELETE CASCADE,
+    id_empleado             INTEGER REFERENCES empleados (id_empleado) ON DELETE SET NULL,
+    nombre_tarea            VARCHAR(100) NOT NULL,
+    fecha_inicio_tarea      TIMESTAMP WITHOUT TIME ZONE,
+    fecha_fin_tarea         TIMESTAMP WITHOUT TIME ZONE,
+    duracion_estimada_tarea TIME,
+    duracion_real_tarea     TIME,
+    estado_tarea            VARCHAR(20),
+    observaciones_tarea     TEXT
+);
+
+CREATE TABLE IF NOT EXISTS pagoscobros (
+    id_pago_cobro              SERIAL PRIMARY KEY,
+    id_orden_venta             INTEGER REFERENCES ordenesventa (id_orden_venta) ON DELETE SET NULL,
+    id_orden_compra            INTEGER REFERENCES ordenescompra (id_orden_compra) ON DELETE SET NULL,
+    tipo_transaccion           VARCHAR(10)    NOT NULL,
+    fecha_registro_transaccion TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    fecha_pago_cobro           DATE,
+    monto_transaccion          NUMERIC(10, 2) NOT NULL,
+    metodo_pago                VARCHAR(50),
+    referencia_transaccion     VARCHAR(100),
+    estado_transaccion         VARCHAR(20)    NOT NULL,
+    observaciones_transaccion  TEXT,
+    fecha_actualizacion        TIMESTAMP WITHOUT TIME ZONE
+);
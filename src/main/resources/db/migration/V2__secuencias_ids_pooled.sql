@@ -0,0 +1,44 @@
+-- Sustituye las columnas IDENTITY/SERIAL por secuencias con INCREMENT BY 50 para la asignación
+-- de IDs "pooled-lo" de Hibernate (allocationSize = 50 en las entidades). Con IDENTITY Hibernate
+-- tiene que ejecutar cada INSERT de inmediato para conocer el ID, lo que desactiva el batching JDBC.
+--
+-- Con pooled-lo cada nextval() reserva el rango [valor, valor + 49] para la aplicación, así que las
+-- inserciones hechas desde fuera de la aplicación (que usan el DEFAULT nextval) nunca colisionan.
+-- Cada secuencia arranca después del ID máximo existente de su tabla.
+
+DO $$
+DECLARE
+    t RECORD;
+BEGIN
+    FOR t IN
+        SELECT * FROM (VALUES
+            ('clientes', 'id_cliente'),
+            ('contactoscliente', 'id_contacto'),
+            ('detallesordencompra', 'id_detalle_compra'),
+            ('detallesordenventa', 'id_detalle_orden'),
+            ('empleados', 'id_empleado'),
+            ('insumos', 'id_insumo'),
+            ('inventarioinsumos', 'id_inventario_insumo'),
+            ('inventarioproductos', 'id_inventario_producto'),
+            ('movimientosinventarioinsumos', 'id_movimiento_insumo'),
+            ('movimientosinventarioproductos', 'id_movimiento_producto'),
+            ('ordenescompra', 'id_orden_compra'),
+            ('ordenesproduccion', 'id_orden_produccion'),
+            ('ordenesventa', 'id_orden_venta'),
+            ('pagoscobros', 'id_pago_cobro'),
+            ('permisos', 'id_permiso'),
+            ('productos', 'id_producto'),
+            ('proveedores', 'id_proveedor'),
+            ('rolespermisos', 'id_rol_permiso'),
+            ('tareasproduccion', 'id_tarea_produccion'),
+            ('usuarios', 'id_usuario')
+        ) AS v(tabla, columna)
+    LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', t.tabla || '_seq');
+        EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(%I) FROM %I), 0) + 1, false)',
+                       t.tabla || '_seq', t.columna, t.tabla);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I DROP IDENTITY IF EXISTS', t.tabla, t.columna);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I SET DEFAULT nextval(%L)', t.tabla, t.columna, t.tabla || '_seq');
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.%I', t.tabla || '_seq', t.tabla, t.columna);
+    END LOOP;
+END $$;
@@ -0,0 +1,4 @@
+-- Columna de versión para el bloqueo optimista de las filas de inventario (@Version en
+-- InventarioInsumo e InventarioProducto). Los UPDATE atómicos de stock también la incrementan.
+ALTER TABLE inventarioinsumos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE inventarioproductos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Índices para la paginación por keyset (SeekCursor): cada página se resuelve con un recorrido del
+-- índice desde el cursor, en el mismo orden que el ORDER BY (fecha DESC, id DESC), sin OFFSET ni COUNT(*).
+CREATE INDEX IF NOT EXISTS idx_movinsumos_inventario_fecha_id
+    ON movimientosinventarioinsumos (id_inventario_insumo, fecha_movimiento DESC, id_movimiento_insumo DESC);
+CREATE INDEX IF NOT EXISTS idx_movproductos_inventario_fecha_id
+    ON movimientosinventarioproductos (id_inventario_producto, fecha_movimiento DESC, id_movimiento_producto DESC);
+CREATE INDEX IF NOT EXISTS idx_ordenesventa_fecha_id
+    ON ordenesventa (fecha_pedido DESC, id_orden_venta DESC);
+CREATE INDEX IF NOT EXISTS idx_ordenescompra_fecha_id
+    ON ordenescompra (fecha_pedido_compra DESC, id_orden_compra DESC);
@@ -0,0 +1,90 @@
+-- Índices para las consultas de los repositorios que filtraban sobre columnas sin índice (estados, tipos de
+-- transacción, claves foráneas de las tablas hijas, fechas de movimientos y pagos). La regresión a Seq Scan
+-- de cada una la vigila QueryPlanRegressionTest contra PostgreSQL con volúmenes realistas.
+--
+-- CONCURRENTLY: las tablas de movimientos, órdenes y pagos son las que más crecen y no deben quedar bloqueadas
+-- para escritura mientras se construye el índice. Flyway ejecuta este script fuera de transacción (todas sus
+-- sentencias lo requieren); si una falla a medias, PostgreSQL deja el índice como INVALID y hay que borrarlo
+-- (DROP INDEX CONCURRENTLY) antes de reintentar, porque IF NOT EXISTS no lo volvería a crear.
+--
+-- Los métodos derivados ...IgnoreCase generan "upper(columna) = upper(?)", de ahí los índices por expresión.
+-- Las búsquedas ...ContainingIgnoreCase ('%texto%') no se pueden resolver con un B-tree y quedan fuera.
+
+-- Órdenes de venta: findByEstadoOrdenIgnoreCase / countByEstadoOrdenIgnoreCase y findByClienteIdCliente
+-- (también lo usa el ON DELETE CASCADE desde clientes). fecha_pedido ya tiene índice desde la V4.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ordenesventa_estado
+    ON ordenesventa (upper(estado_orden));
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ordenesventa_cliente_fecha
+    ON ordenesventa (id_cliente, fecha_pedido DESC);
+
+-- Órdenes de compra: estado y proveedor (findByProveedorIdProveedor, ON DELETE SET NULL desde proveedores).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ordenescompra_estado
+    ON ordenescompra (upper(estado_compra));
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ordenescompra_proveedor_fecha
+    ON ordenescompra (id_proveedor, fecha_pedido_compra DESC);
+
+-- Órdenes de producción: listado por fecha_creacion DESC, órdenes de una venta, estado, y las órdenes abiertas
+-- (findByFechaFinRealProduccionIsNullAndEstadoProduccionNotIn), que son una fracción pequeña de la tabla.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ordenesproduccion_fecha_creacion
+    ON ordenesproduccion (fecha_creacion DESC, id_orden_produccion DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ordenesproduccion_orden_venta
+    ON ordenesproduccion (id_orden_venta);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ordenesproduccion_estado
+    ON ordenesproduccion (upper(estado_produccion));
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ordenesproduccion_abiertas
+    ON ordenesproduccion (estado_produccion) WHERE fecha_fin_real_produccion IS NULL;
+
+-- Líneas de las órdenes: se leen siempre por su orden (grafos de detalle) y se validan por producto/insumo
+-- antes de borrarlos.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_detallesordenventa_orden
+    ON detallesordenventa (id_orden_venta);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_detallesordenventa_producto
+    ON detallesordenventa (id_producto);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_detallesordencompra_orden
+    ON detallesordencompra (id_orden_compra);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_detallesordencompra_insumo
+    ON detallesordencompra (id_insumo);
+
+-- Tareas de producción: por orden, por empleado y las pendientes de cerrar (findByFechaFinTareaIsNullAndEstadoTareaIgnoreCase).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tareasproduccion_orden
+    ON tareasproduccion (id_orden_produccion);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tareasproduccion_empleado
+    ON tareasproduccion (id_empleado);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tareasproduccion_abiertas
+    ON tareasproduccion (upper(estado_tarea)) WHERE fecha_fin_tarea IS NULL;
+
+-- Inventario: la restricción única (ubicacion_inventario, id_*) no sirve para buscar solo por producto/insumo.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inventarioproductos_producto
+    ON inventarioproductos (id_producto);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inventarioinsumos_insumo
+    ON inventarioinsumos (id_insumo);
+
+-- Movimientos: id_inventario_* ya encabeza los índices de la V4. Para los rangos globales de fecha
+-- (findByFechaMovimientoBetween) basta un BRIN: las filas se insertan en orden de fecha_movimiento (DEFAULT
+-- CURRENT_TIMESTAMP, no actualizable), así que cada rango de bloques cubre un intervalo de fechas estrecho y el
+-- índice ocupa unos pocos KB frente a los cientos de MB de un B-tree.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS brin_movproductos_fecha
+    ON movimientosinventarioproductos USING brin (fecha_movimiento);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS brin_movinsumos_fecha
+    ON movimientosinventarioinsumos USING brin (fecha_movimiento);
+
+-- Pagos y cobros: listados ordenados por fecha_registro_transaccion DESC, filtrados por tipo_transaccion y,
+-- opcionalmente, por orden. Cada pago pertenece a una venta o a una compra, nunca a ambas: los índices por
+-- orden son parciales y no guardan las filas con la clave a NULL.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pagoscobros_fecha_registro
+    ON pagoscobros (fecha_registro_transaccion DESC, id_pago_cobro DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pagoscobros_tipo_fecha
+    ON pagoscobros (upper(tipo_transaccion), fecha_registro_transaccion DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pagoscobros_venta_tipo
+    ON pagoscobros (id_orden_venta, upper(tipo_transaccion), fecha_registro_transaccion DESC)
+    WHERE id_orden_venta IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pagoscobros_compra_tipo
+    ON pagoscobros (id_orden_compra, upper(tipo_transaccion), fecha_registro_transaccion DESC)
+    WHERE id_orden_compra IS NOT NULL;
+
+-- Contactos por cliente (findViewsByClienteIds, ON DELETE CASCADE) y BOM por insumo (findByIdIdInsumo; la PK
+-- empieza por id_producto).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contactoscliente_cliente
+    ON contactoscliente (id_cliente);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_insumosporproducto_insumo
+    ON insumosporproducto (id_insumo);
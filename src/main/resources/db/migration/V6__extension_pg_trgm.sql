@@ -0,0 +1,4 @@
+-- pg_trgm: similitud por trigramas y soporte de índices GIN para LIKE/ILIKE '%texto%' (búsqueda de /api/v1/search).
+-- Es una extensión "trusted" desde PostgreSQL 13: basta con ser propietario de la base de datos para crearla.
+-- Va en su propia migración porque CREATE EXTENSION es transaccional y los índices de la V7 no lo son.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
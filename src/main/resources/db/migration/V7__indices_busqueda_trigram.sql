@@ -0,0 +1,26 @@
+-- Índices GIN de trigramas para la búsqueda unificada (SearchRepository). Sirven tanto para los filtros
+-- ILIKE '%texto%' del modo normal como para el operador de similitud por palabra (texto <% columna) del modo
+-- tolerante a errores; sin ellos cada pulsación en el buscador recorre la tabla completa.
+-- CONCURRENTLY por el mismo motivo que la V5: estas tablas reciben escrituras continuamente.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trgm_clientes_nombre
+    ON clientes USING gin (nombre_cliente gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trgm_clientes_documento
+    ON clientes USING gin (numero_documento gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trgm_clientes_telefono
+    ON clientes USING gin (telefono_cliente gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trgm_productos_nombre
+    ON productos USING gin (nombre_producto gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trgm_productos_referencia
+    ON productos USING gin (referencia_producto gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trgm_proveedores_nombre
+    ON proveedores USING gin (nombre_comercial_proveedor gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trgm_proveedores_razon_social
+    ON proveedores USING gin (razon_social_proveedor gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trgm_proveedores_nit
+    ON proveedores USING gin (nit_proveedor gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trgm_insumos_nombre
+    ON insumos USING gin (nombre_insumo gin_trgm_ops);
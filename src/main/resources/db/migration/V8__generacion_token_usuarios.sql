@@ -0,0 +1,4 @@
+-- Generación de token de cada usuario (TokenGenerationRegistry): se incrementa para revocar sus JWT en el modo de
+-- autenticación sin estado. Persistida para que un nodo que arranca, o cualquier otro nodo, conozca las
+-- revocaciones ya hechas.
+ALTER TABLE usuarios ADD COLUMN IF NOT EXISTS generacion_token INTEGER NOT NULL DEFAULT 0;
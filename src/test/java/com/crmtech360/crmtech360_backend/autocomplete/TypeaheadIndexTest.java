@@ -0,0 +1,85 @@
+package com.crmtech360.crmtech360_backend.autocomplete;
+
+import com.crmtech360.crmtech360_backend.dto.SearchEntityType;
+import com.crmtech360.crmtech360_backend.dto.SearchResultDTO;
+import com.crmtech360.crmtech360_backend.entity.Producto;
+import com.crmtech360.crmtech360_backend.repository.ProductoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que el índice de autocompletado sigue las altas, modificaciones y bajas hechas con JPA (solo tras el
+ * commit) y el orden de las sugerencias.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class TypeaheadIndexTest {
+
+    @Autowired
+    private TypeaheadIndex typeaheadIndex;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void sigueAltasModificacionesYBajas() {
+        Producto producto = productoRepository.save(nuevoProducto("TA-100", "Camisa Oxford", "M", "Azul"));
+        assertEquals(List.of(producto.getIdProducto()), ids("oxf azu"));
+
+        producto.setColorProducto("Rojo");
+        productoRepository.save(producto);
+        assertTrue(ids("oxf azu").isEmpty());
+        assertEquals(List.of(producto.getIdProducto()), ids("oxford roj"));
+
+        productoRepository.delete(producto);
+        assertTrue(ids("oxford").isEmpty());
+    }
+
+    @Test
+    void unaTransaccionRevertidaNoCambiaElIndice() {
+        transactionTemplate.executeWithoutResult(status -> {
+            productoRepository.save(nuevoProducto("TA-200", "Pantalon Cargo", "L", "Verde"));
+            status.setRollbackOnly();
+        });
+        assertTrue(ids("cargo").isEmpty());
+    }
+
+    @Test
+    void ordenaPorTipoDeCoincidenciaYLongitud() {
+        Integer subcadena = productoRepository.save(nuevoProducto("TA-301", "Sobrecamiseta", "S", "Negro")).getIdProducto();
+        Integer larga = productoRepository.save(nuevoProducto("TA-302", "Camiseta Polo", "S", "Negro")).getIdProducto();
+        Integer corta = productoRepository.save(nuevoProducto("TA-303", "Camiseta", "S", "Negro")).getIdProducto();
+
+        // Prefijo de las dos camisetas (a igual puntuación, título más corto primero) y subcadena de la sobrecamiseta.
+        assertEquals(List.of(corta, larga, subcadena), ids("camiset"));
+        // Palabra completa: la subcadena sigue apareciendo, pero detrás.
+        assertEquals(List.of(corta, larga, subcadena), ids("camiseta"));
+        assertEquals(List.of(larga), ids("cami pol"));
+
+        SearchResultDTO porReferencia = typeaheadIndex.suggest(SearchEntityType.PRODUCTO, "ta-303", 1).get(0);
+        assertEquals(corta, porReferencia.getId());
+        assertEquals("TA-303 · S · Negro", porReferencia.getDetalle());
+        assertEquals(1.0, porReferencia.getPuntuacion());
+    }
+
+    private List<Integer> ids(String texto) {
+        return typeaheadIndex.suggest(SearchEntityType.PRODUCTO, texto, 10).stream().map(SearchResultDTO::getId).toList();
+    }
+
+    private static Producto nuevoProducto(String referencia, String nombre, String talla, String color) {
+        return new Producto(referencia, nombre, null, talla, color, null, null,
+                new BigDecimal("5.00"), new BigDecimal("10.00"), null);
+    }
+}
@@ -0,0 +1,60 @@
+package com.crmtech360.crmtech360_backend.bulkhead;
+
+import com.crmtech360.crmtech360_backend.dto.BulkheadStatsDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifica que un compartimento lleno rechaza tras su espera máxima sin afectar a los de las demás clases,
+ * que los contadores de saturación lo reflejan y que los compartimentos no pueden sumar más huecos que el pool.
+ */
+class WorkloadBulkheadsTest {
+
+    @Test
+    void unCompartimentoLlenoRechazaSinAfectarALosDemas() {
+        WorkloadBulkheads bulkheads = new WorkloadBulkheads(new MockEnvironment()
+                .withProperty("bulkhead.informes.max-concurrentes", "1")
+                .withProperty("bulkhead.informes.espera-ms", "50")
+                .withProperty("bulkhead.oltp.max-concurrentes", "1"));
+
+        bulkheads.adquirir(WorkloadClass.INFORMES, "informe lento");
+        WorkloadSaturatedException rechazo = assertThrows(WorkloadSaturatedException.class,
+                () -> bulkheads.adquirir(WorkloadClass.INFORMES, "segundo informe"));
+        assertEquals(WorkloadClass.INFORMES, rechazo.getClase());
+
+        // Las escrituras tienen su propio compartimento.
+        assertDoesNotThrow(() -> bulkheads.adquirir(WorkloadClass.OLTP, "createOrdenVenta"));
+        bulkheads.liberar(WorkloadClass.OLTP);
+
+        BulkheadStatsDTO informes = estadisticas(bulkheads, WorkloadClass.INFORMES);
+        assertEquals(1, informes.getEnCurso());
+        assertEquals(1, informes.getAdmitidas());
+        assertEquals(1, informes.getRechazadas());
+
+        bulkheads.liberar(WorkloadClass.INFORMES);
+        assertDoesNotThrow(() -> bulkheads.adquirir(WorkloadClass.INFORMES, "tercer informe"));
+        assertEquals(1, estadisticas(bulkheads, WorkloadClass.INFORMES).getPicoEnCurso());
+    }
+
+    @Test
+    void losCompartimentosNoPuedenSuperarElPool() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "10")
+                .withProperty("bulkhead.oltp.max-concurrentes", "8")
+                .withProperty("bulkhead.interactivo.max-concurrentes", "5")
+                .withProperty("bulkhead.informes.max-concurrentes", "2");
+        assertThrows(IllegalStateException.class, () -> new WorkloadBulkheads(environment));
+
+        environment.setProperty("spring.datasource.hikari.maximum-pool-size", "15");
+        assertDoesNotThrow(() -> new WorkloadBulkheads(environment));
+        assertDoesNotThrow(() -> new WorkloadBulkheads(new MockEnvironment()), "los valores por defecto caben en el pool por defecto");
+    }
+
+    private static BulkheadStatsDTO estadisticas(WorkloadBulkheads bulkheads, WorkloadClass clase) {
+        return bulkheads.estadisticas().stream().filter(e -> e.getClase().equals(clase.name())).findFirst().orElseThrow();
+    }
+}
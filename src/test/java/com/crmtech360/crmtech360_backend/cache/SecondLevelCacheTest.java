@@ -0,0 +1,94 @@
+package com.crmtech360.crmtech360_backend.cache;
+
+import com.crmtech360.crmtech360_backend.dto.CacheRegionStatsDTO;
+import com.crmtech360.crmtech360_backend.entity.Producto;
+import com.crmtech360.crmtech360_backend.repository.ProductoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que las lecturas repetidas de datos de referencia se sirven desde la caché de segundo nivel
+ * y que las modificaciones no dejan datos desactualizados en el mismo nodo.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private SecondLevelCacheStatistics cacheStatistics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cacheStatistics.vaciar();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void lecturasRepetidasPorIdYReferenciaNoVuelvenALaBaseDeDatos() {
+        Producto producto = productoRepository.save(nuevoProducto("REF-L2-1"));
+        Integer id = producto.getIdProducto();
+
+        productoRepository.findById(id);
+        productoRepository.findAllByIdCached(List.of(id));
+        productoRepository.findByReferenciaProducto("REF-L2-1");
+        productoRepository.findByReferenciaProducto("REF-L2-1");
+        statistics.clear();
+
+        assertTrue(productoRepository.findById(id).isPresent());
+        assertEquals(1, productoRepository.findAllByIdCached(List.of(id)).size());
+        assertTrue(productoRepository.findByReferenciaProducto("REF-L2-1").isPresent());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void unaModificacionInvalidaLaConsultaCacheada() {
+        Producto producto = productoRepository.save(nuevoProducto("REF-L2-2"));
+        productoRepository.findByReferenciaProducto("REF-L2-2");
+
+        producto.setReferenciaProducto("REF-L2-2B");
+        productoRepository.save(producto);
+
+        assertTrue(productoRepository.findByReferenciaProducto("REF-L2-2").isEmpty());
+        assertEquals("REF-L2-2B", productoRepository.findById(producto.getIdProducto()).orElseThrow().getReferenciaProducto());
+    }
+
+    @Test
+    void lasEstadisticasSeExponenPorRegion() {
+        Producto producto = productoRepository.save(nuevoProducto("REF-L2-3"));
+        productoRepository.findById(producto.getIdProducto());
+
+        CacheRegionStatsDTO region = cacheStatistics.porRegion().stream()
+                .filter(r -> r.getRegion().equals("producto"))
+                .findFirst().orElseThrow();
+        assertTrue(region.getHits() + region.getPuts() > 0);
+    }
+
+    private static Producto nuevoProducto(String referencia) {
+        return new Producto(referencia, "Producto " + referencia, null, null, null, null, null,
+                new BigDecimal("5.00"), new BigDecimal("10.00"), null);
+    }
+}
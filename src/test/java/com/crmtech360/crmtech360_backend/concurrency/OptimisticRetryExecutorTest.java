@@ -0,0 +1,59 @@
+package com.crmtech360.crmtech360_backend.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Un conflicto optimista se reintenta hasta agotar los intentos, y los contadores publicados en Micrometer reflejan
+ * conflictos, reintentos y operaciones agotadas.
+ */
+class OptimisticRetryExecutorTest {
+
+    private final OptimisticRetryExecutor executor = new OptimisticRetryExecutor(3, 0, 0);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void elConflictoSeReintentaYSeCuenta() throws Throwable {
+        executor.bindTo(registry);
+        AtomicInteger intentos = new AtomicInteger();
+
+        String resultado = executor.execute("movimiento", () -> {
+            if (intentos.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("InventarioInsumo", 1);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", resultado);
+        assertEquals(3, intentos.get());
+        assertEquals(2, contador("inventario.retry.conflicts"));
+        assertEquals(2, contador("inventario.retry.retries"));
+        assertEquals(0, contador("inventario.retry.exhausted"));
+    }
+
+    @Test
+    void agotadosLosIntentosSePropagaElConflicto() {
+        executor.bindTo(registry);
+        AtomicInteger intentos = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> executor.execute("movimiento", () -> {
+            intentos.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("InventarioInsumo", 1);
+        }));
+
+        assertEquals(3, intentos.get());
+        assertEquals(3, contador("inventario.retry.conflicts"));
+        assertEquals(2, contador("inventario.retry.retries"));
+        assertEquals(1, contador("inventario.retry.exhausted"));
+    }
+
+    private double contador(String nombre) {
+        return registry.get(nombre).functionCounter().count();
+    }
+}
@@ -0,0 +1,42 @@
+package com.crmtech360.crmtech360_backend.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Provoca una fijación real (un hilo virtual que duerme dentro de un synchronized) y verifica que el detector la
+ * recibe de JFR y no la cuenta como JDBC.
+ */
+class VirtualThreadPinningDetectorTest {
+
+    private final Object monitor = new Object();
+
+    @Test
+    void detectaUnHiloVirtualFijadoPorUnSynchronized() throws Exception {
+        VirtualThreadPinningDetector detector = new VirtualThreadPinningDetector(true, 10);
+        detector.start();
+        try {
+            Thread.ofVirtual().start(() -> {
+                synchronized (monitor) {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            // JFR entrega los eventos al stream en lotes, aproximadamente cada segundo.
+            long limite = System.currentTimeMillis() + 10_000;
+            while (detector.getFijaciones() == 0 && System.currentTimeMillis() < limite) {
+                Thread.sleep(100);
+            }
+            assertTrue(detector.getFijaciones() > 0);
+            assertEquals(0, detector.getFijacionesJdbc());
+        } finally {
+            detector.stop();
+        }
+    }
+}
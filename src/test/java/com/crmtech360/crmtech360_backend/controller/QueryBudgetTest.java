@@ -0,0 +1,265 @@
+package com.crmtech360.crmtech360_backend.controller;
+
+import com.crmtech360.crmtech360_backend.entity.Cliente;
+import com.crmtech360.crmtech360_backend.entity.ContactoCliente;
+import com.crmtech360.crmtech360_backend.entity.DetalleOrdenCompra;
+import com.crmtech360.crmtech360_backend.entity.DetalleOrdenVenta;
+import com.crmtech360.crmtech360_backend.entity.Empleado;
+import com.crmtech360.crmtech360_backend.entity.Insumo;
+import com.crmtech360.crmtech360_backend.entity.OrdenCompra;
+import com.crmtech360.crmtech360_backend.entity.OrdenProduccion;
+import com.crmtech360.crmtech360_backend.entity.OrdenVenta;
+import com.crmtech360.crmtech360_backend.entity.PagoCobro;
+import com.crmtech360.crmtech360_backend.entity.Producto;
+import com.crmtech360.crmtech360_backend.entity.Proveedor;
+import com.crmtech360.crmtech360_backend.entity.TareaProduccion;
+import com.crmtech360.crmtech360_backend.repository.ClienteRepository;
+import com.crmtech360.crmtech360_backend.repository.ContactoClienteRepository;
+import com.crmtech360.crmtech360_backend.repository.DetalleOrdenCompraRepository;
+import com.crmtech360.crmtech360_backend.repository.DetalleOrdenVentaRepository;
+import com.crmtech360.crmtech360_backend.repository.EmpleadoRepository;
+import com.crmtech360.crmtech360_backend.repository.InsumoRepository;
+import com.crmtech360.crmtech360_backend.repository.OrdenCompraRepository;
+import com.crmtech360.crmtech360_backend.repository.OrdenProduccionRepository;
+import com.crmtech360.crmtech360_backend.repository.OrdenVentaRepository;
+import com.crmtech360.crmtech360_backend.repository.PagoCobroRepository;
+import com.crmtech360.crmtech360_backend.repository.ProductoRepository;
+import com.crmtech360.crmtech360_backend.repository.ProveedorRepository;
+import com.crmtech360.crmtech360_backend.repository.TareaProduccionRepository;
+import com.crmtech360.crmtech360_backend.pagination.EstimatedPage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de consultas por endpoint de lectura: con open-in-view desactivado y los entity graphs
+ * de los repositorios, listar una página o consultar un detalle no debe crecer con el número de filas.
+ * Si alguien vuelve a introducir un acceso lazy en un mapper, el endpoint se pasa del presupuesto y el test falla.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser(roles = "ADMINISTRADOR")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+    private static final int ORDENES = 20;
+    private static final int LINEAS_POR_ORDEN = 5;
+
+    // Listado: página + count + una consulta para las asociaciones (grafo de las entidades o contactos proyectados).
+    private static final int PRESUPUESTO_LISTADO = 3;
+    // Detalle: una consulta con el grafo completo.
+    private static final int PRESUPUESTO_DETALLE = 1;
+    // Página por cursor: IDs desde el cursor + entidades con su grafo, sin COUNT(*).
+    private static final int PRESUPUESTO_CURSOR = 2;
+
+    private static final LocalDateTime FECHA_EMPATADA = LocalDateTime.of(2024, 5, 1, 11, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+
+    @Autowired
+    private ContactoClienteRepository contactoClienteRepository;
+
+    @Autowired
+    private OrdenVentaRepository ordenVentaRepository;
+
+    @Autowired
+    private DetalleOrdenVentaRepository detalleOrdenVentaRepository;
+
+    @Autowired
+    private OrdenCompraRepository ordenCompraRepository;
+
+    @Autowired
+    private DetalleOrdenCompraRepository detalleOrdenCompraRepository;
+
+    @Autowired
+    private OrdenProduccionRepository ordenProduccionRepository;
+
+    @Autowired
+    private TareaProduccionRepository tareaProduccionRepository;
+
+    @Autowired
+    private PagoCobroRepository pagoCobroRepository;
+
+    private Integer idCliente;
+    private Integer idOrdenVenta;
+    private Integer idOrdenCompra;
+    private Integer idOrdenProduccion;
+    private Integer idPagoCobro;
+
+    @BeforeAll
+    void sembrarDatos() {
+        List<Producto> productos = new ArrayList<>();
+        List<Insumo> insumos = new ArrayList<>();
+        for (int i = 0; i < LINEAS_POR_ORDEN; i++) {
+            productos.add(new Producto("REF-QB-" + i, "Producto QB " + i, null, null, null, null, null,
+                    new BigDecimal("5.00"), new BigDecimal("10.00"), null));
+            insumos.add(new Insumo("Insumo QB " + i, null, "m", 0));
+        }
+        productos = productoRepository.saveAll(productos);
+        insumos = insumoRepository.saveAll(insumos);
+        Empleado empleado = empleadoRepository.save(new Empleado("CC", "QB-EMP-1", "Operario QB", "Operario", "Corte",
+                new BigDecimal("1000.00"), LocalDate.now()));
+
+        for (int i = 0; i < ORDENES; i++) {
+            Cliente cliente = clienteRepository.save(new Cliente("CC", "QB-CLI-" + i, "Cliente QB " + i, null, null, null));
+            contactoClienteRepository.save(new ContactoCliente(cliente, "Contacto " + i, null, null, null));
+            contactoClienteRepository.save(new ContactoCliente(cliente, "Contacto bis " + i, null, null, null));
+
+            OrdenVenta ordenVenta = new OrdenVenta(cliente, null, "Pendiente", new BigDecimal("50.00"), null);
+            // La mitad de las órdenes comparten fecha para ejercitar el desempate por ID del cursor.
+            ordenVenta.setFechaPedido(i % 2 == 0 ? FECHA_EMPATADA : null);
+            ordenVenta = ordenVentaRepository.save(ordenVenta);
+            for (Producto producto : productos) {
+                detalleOrdenVentaRepository.save(new DetalleOrdenVenta(ordenVenta, producto, 1,
+                        new BigDecimal("10.00"), new BigDecimal("10.00")));
+            }
+
+            Proveedor proveedor = proveedorRepository.save(new Proveedor("Proveedor QB " + i, "Proveedor QB " + i + " S.A.S",
+                    "QB-NIT-" + i, null, null, null, null));
+            OrdenCompra ordenCompra = new OrdenCompra(proveedor, null, "Pendiente", new BigDecimal("25.00"), null);
+            ordenCompra.setFechaPedidoCompra(i % 2 == 0 ? FECHA_EMPATADA : null);
+            ordenCompra = ordenCompraRepository.save(ordenCompra);
+            for (Insumo insumo : insumos) {
+                detalleOrdenCompraRepository.save(new DetalleOrdenCompra(ordenCompra, insumo, 1,
+                        new BigDecimal("5.00"), new BigDecimal("5.00")));
+            }
+
+            OrdenProduccion ordenProduccion = ordenProduccionRepository.save(new OrdenProduccion(ordenVenta, null, null, "Pendiente", null));
+            for (int t = 0; t < 3; t++) {
+                tareaProduccionRepository.save(new TareaProduccion(ordenProduccion, empleado, "Tarea " + t,
+                        LocalDateTime.now(), null, "Pendiente", null));
+            }
+
+            PagoCobro cobro = pagoCobroRepository.save(new PagoCobro("Cobro", ordenVenta, null, LocalDate.now(),
+                    "Transferencia", new BigDecimal("50.00"), null, "Completado", null));
+            pagoCobroRepository.save(new PagoCobro("Pago", null, ordenCompra, LocalDate.now(),
+                    "Transferencia", new BigDecimal("25.00"), null, "Completado", null));
+
+            idCliente = cliente.getIdCliente();
+            idOrdenVenta = ordenVenta.getIdOrdenVenta();
+            idOrdenCompra = ordenCompra.getIdOrdenCompra();
+            idOrdenProduccion = ordenProduccion.getIdOrdenProduccion();
+            idPagoCobro = cobro.getIdPagoCobro();
+        }
+    }
+
+    @Test
+    void listadosRespetanElPresupuesto() throws Exception {
+        assertDentroDelPresupuesto("/api/v1/clientes?size=" + ORDENES, PRESUPUESTO_LISTADO);
+        assertDentroDelPresupuesto("/api/v1/ordenes-venta?size=" + ORDENES, PRESUPUESTO_LISTADO);
+        assertDentroDelPresupuesto("/api/v1/ordenes-compra?size=" + ORDENES, PRESUPUESTO_LISTADO);
+        assertDentroDelPresupuesto("/api/v1/ordenes-produccion?size=" + ORDENES, PRESUPUESTO_LISTADO);
+        assertDentroDelPresupuesto("/api/v1/pagos-cobros?size=" + ORDENES, PRESUPUESTO_LISTADO);
+    }
+
+    @Test
+    void listadosProyectadosNoInstancianEntidades() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String url : List.of("/api/v1/clientes", "/api/v1/productos", "/api/v1/empleados", "/api/v1/proveedores")) {
+            assertDentroDelPresupuesto(url + "?size=" + ORDENES, PRESUPUESTO_LISTADO);
+            assertEquals(0, statistics.getEntityLoadCount(), "GET " + url + " instanció entidades");
+        }
+    }
+
+    @Test
+    void listadosPorCursorRecorrenTodasLasOrdenesSinRepetir() throws Exception {
+        for (String url : List.of("/api/v1/ordenes-venta/cursor", "/api/v1/ordenes-compra/cursor")) {
+            String campoId = url.contains("venta") ? "idOrdenVenta" : "idOrdenCompra";
+            Set<Integer> vistos = new HashSet<>();
+            String cursor = null;
+            int paginas = 0;
+            do {
+                String pagina = url + "?size=7" + (cursor != null ? "&cursor=" + cursor : "");
+                assertDentroDelPresupuesto(pagina, PRESUPUESTO_CURSOR);
+                JsonNode body = objectMapper.readTree(mockMvc.perform(get(pagina)).andReturn().getResponse().getContentAsString());
+                for (JsonNode orden : body.get("content")) {
+                    assertTrue(vistos.add(orden.get(campoId).asInt()), "Orden repetida entre páginas en " + url);
+                }
+                cursor = body.get("nextCursor").isNull() ? null : body.get("nextCursor").asText();
+                paginas++;
+            } while (cursor != null);
+            assertEquals(ORDENES, vistos.size());
+            assertEquals(3, paginas);
+        }
+        mockMvc.perform(get("/api/v1/ordenes-venta/cursor?cursor=no-es-un-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void totalEstimadoNoCuentaEnLaUltimaPaginaNiMarcaTotalesExactos() throws Exception {
+        // Toda la tabla cabe en la página: el total se deduce sin COUNT(*) (IDs + entidades).
+        assertDentroDelPresupuesto("/api/v1/ordenes-venta?totalEstimado=true&size=" + ORDENES, 2);
+        assertDentroDelPresupuesto("/api/v1/pagos-cobros?totalEstimado=true&size=" + (2 * ORDENES), 1);
+        // Fuera de PostgreSQL no hay estadísticas del planificador: conteo exacto y sin cabecera de estimación.
+        mockMvc.perform(get("/api/v1/ordenes-venta?totalEstimado=true&size=5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(EstimatedPage.HEADER))
+                .andExpect(jsonPath("$.totalElements").value(ORDENES));
+    }
+
+    @Test
+    void detallesRespetanElPresupuesto() throws Exception {
+        assertDentroDelPresupuesto("/api/v1/clientes/" + idCliente, PRESUPUESTO_DETALLE);
+        assertDentroDelPresupuesto("/api/v1/ordenes-venta/" + idOrdenVenta, PRESUPUESTO_DETALLE);
+        assertDentroDelPresupuesto("/api/v1/ordenes-compra/" + idOrdenCompra, PRESUPUESTO_DETALLE);
+        assertDentroDelPresupuesto("/api/v1/ordenes-produccion/" + idOrdenProduccion, PRESUPUESTO_DETALLE);
+        assertDentroDelPresupuesto("/api/v1/pagos-cobros/" + idPagoCobro, PRESUPUESTO_DETALLE);
+    }
+
+    private void assertDentroDelPresupuesto(String url, int presupuesto) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        long consultas = statistics.getPrepareStatementCount();
+        assertTrue(consultas <= presupuesto,
+                "GET " + url + " ejecutó " + consultas + " consultas (presupuesto: " + presupuesto + ")");
+    }
+}
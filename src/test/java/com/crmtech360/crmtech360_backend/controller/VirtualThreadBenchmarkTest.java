@@ -0,0 +1,188 @@
+package com.crmtech360.crmtech360_backend.controller;
+
+import com.crmtech360.crmtech360_backend.Crmtech360BackendApplication;
+import com.crmtech360.crmtech360_backend.entity.Usuario;
+import com.crmtech360.crmtech360_backend.repository.UsuarioRepository;
+import com.crmtech360.crmtech360_backend.security.jwt.JwtUtil;
+import com.crmtech360.crmtech360_backend.service.impl.UserDetailsServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara hilos de plataforma y virtuales sobre los listados de órdenes de venta e inventario: arranca la aplicación
+ * dos veces contra el PostgreSQL de IT_POSTGRES_URL (con el tope de Tomcat en {@code benchmark.tomcat-hilos} y con
+ * {@code spring.threads.virtual.enabled=true}), lanza {@code benchmark.clientes} clientes concurrentes durante
+ * {@code benchmark.segundos} y muestra peticiones por segundo, p50, p99 y respuestas no 2xx de cada endpoint.
+ * Solo lee; los limitadores de peticiones y los compartimentos se desactivan para medir únicamente el modelo de hilos
+ * (el limitador de conexiones sí actúa en modo virtual, como en producción).
+ * <pre>IT_POSTGRES_URL=jdbc:postgresql://localhost:5432/crmtech360_it mvn test -Dtest=VirtualThreadBenchmarkTest -Dbenchmark=true</pre>
+ */
+@EnabledIfEnvironmentVariable(named = "IT_POSTGRES_URL", matches = ".+")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadBenchmarkTest {
+
+    private static final List<String> ENDPOINTS = List.of(
+            "/api/v1/ordenes-venta?page=0&size=20",
+            "/api/v1/inventario-productos?page=0&size=20",
+            "/api/v1/inventario-insumos?page=0&size=20");
+
+    private final int clientes = Integer.getInteger("benchmark.clientes", 400);
+    private final int segundos = Integer.getInteger("benchmark.segundos", 15);
+    private final int calentamientoSegundos = Integer.getInteger("benchmark.calentamiento-segundos", 3);
+    private final String tomcatHilos = System.getProperty("benchmark.tomcat-hilos", "200");
+
+    @Test
+    void plataformaFrenteAVirtuales() throws Exception {
+        Map<String, Resultado> plataforma = medir("plataforma", false);
+        Map<String, Resultado> virtuales = medir("virtuales", true);
+
+        System.out.printf("%nBenchmark de hilos: %d clientes, %d s por modo, tope de Tomcat en plataforma = %s%n",
+                clientes, segundos, tomcatHilos);
+        System.out.printf("%-45s %-10s %10s %9s %9s %8s%n", "endpoint", "modo", "pet/s", "p50 ms", "p99 ms", "no 2xx");
+        for (String endpoint : ENDPOINTS) {
+            plataforma.get(endpoint).imprimir(endpoint, "plataforma", segundos);
+            virtuales.get(endpoint).imprimir(endpoint, "virtuales", segundos);
+        }
+        assertTrue(plataforma.values().stream().allMatch(r -> r.correctas() > 0), "sin respuestas 2xx con hilos de plataforma");
+        assertTrue(virtuales.values().stream().allMatch(r -> r.correctas() > 0), "sin respuestas 2xx con hilos virtuales");
+    }
+
+    private Map<String, Resultado> medir(String modo, boolean virtuales) throws Exception {
+        try (ConfigurableApplicationContext context = arrancar(virtuales)) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String token = token(context);
+            ejecutar(base, token, calentamientoSegundos);
+            System.out.printf("Midiendo modo %s...%n", modo);
+            return ejecutar(base, token, segundos);
+        }
+    }
+
+    private static ConfigurableApplicationContext arrancar(boolean virtuales) {
+        String url = System.getenv("IT_POSTGRES_URL");
+        // Como argumentos de línea de órdenes: tienen prioridad sobre application.properties.
+        return new SpringApplicationBuilder(Crmtech360BackendApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + envOrDefault("IT_POSTGRES_USER", "postgres"),
+                "--spring.datasource.password=" + envOrDefault("IT_POSTGRES_PASSWORD", ""),
+                "--spring.threads.virtual.enabled=" + virtuales,
+                "--server.tomcat.threads.max=" + System.getProperty("benchmark.tomcat-hilos", "200"),
+                "--ratelimit.enabled=false",
+                "--bulkhead.enabled=false",
+                "--cache.invalidacion.enabled=false",
+                "--logging.level.root=WARN");
+    }
+
+    /**
+     * Token del usuario de {@code benchmark.usuario} (por defecto "benchmark", que se crea como Administrador sin
+     * empleado si no existe; su contraseña no sirve para iniciar sesión).
+     */
+    private static String token(ConfigurableApplicationContext context) {
+        String usuario = System.getProperty("benchmark.usuario", "benchmark");
+        UsuarioRepository usuarioRepository = context.getBean(UsuarioRepository.class);
+        if (usuarioRepository.findByNombreUsuario(usuario).isEmpty()) {
+            usuarioRepository.save(new Usuario(null, usuario, "{noop}" + UUID.randomUUID(), "Administrador"));
+        }
+        return context.getBean(JwtUtil.class).generateTokenFromUserDetails(
+                context.getBean(UserDetailsServiceImpl.class).loadUserByUsername(usuario));
+    }
+
+    /**
+     * Cada cliente es un hilo virtual que repite peticiones en bucle hasta el final del periodo, rotando por los
+     * endpoints, y anota la latencia de cada una.
+     */
+    private Map<String, Resultado> ejecutar(String base, String token, int duracionSegundos) throws Exception {
+        Map<String, Resultado> resultados = new LinkedHashMap<>();
+        ENDPOINTS.forEach(endpoint -> resultados.put(endpoint, new Resultado()));
+        long fin = System.nanoTime() + Duration.ofSeconds(duracionSegundos).toNanos();
+        try (ExecutorService clientesVirtuales = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .executor(clientesVirtuales)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < clientes; i++) {
+                int desplazamiento = i;
+                tareas.add(clientesVirtuales.submit(() -> {
+                    for (int n = desplazamiento; System.nanoTime() < fin; n++) {
+                        String endpoint = ENDPOINTS.get(n % ENDPOINTS.size());
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base + endpoint))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long inicio = System.nanoTime();
+                        int status;
+                        try {
+                            status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        resultados.get(endpoint).anotar(System.nanoTime() - inicio, status);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+        return resultados;
+    }
+
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static final class Resultado {
+        private final List<Long> latenciasNanos = new ArrayList<>();
+        private final AtomicLong noCorrectas = new AtomicLong();
+
+        synchronized void anotar(long nanos, int status) {
+            latenciasNanos.add(nanos);
+            if (status < 200 || status >= 300) {
+                noCorrectas.incrementAndGet();
+            }
+        }
+
+        synchronized long correctas() {
+            return latenciasNanos.size() - noCorrectas.get();
+        }
+
+        synchronized void imprimir(String endpoint, String modo, int duracionSegundos) {
+            List<Long> ordenadas = latenciasNanos.stream().sorted().toList();
+            System.out.printf("%-45s %-10s %10.1f %9.1f %9.1f %8d%n", endpoint, modo,
+                    (double) ordenadas.size() / duracionSegundos,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.99), noCorrectas.get());
+        }
+
+        private static double percentil(List<Long> ordenadas, double p) {
+            if (ordenadas.isEmpty()) {
+                return 0.0;
+            }
+            int indice = (int) Math.ceil(p * ordenadas.size()) - 1;
+            return ordenadas.get(Math.max(0, indice)) / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.crmtech360.crmtech360_backend.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifica que el limitador rechaza al momento cuando la cola de espera está llena, que el permiso vuelve al cerrar
+ * la conexión y que un doble cierre no devuelve dos permisos.
+ */
+class DbPermitLimiterTest {
+
+    @Test
+    void sinPermisoLibreSeRechazaYElCierreLoDevuelveUnaSolaVez() throws Exception {
+        DbPermitLimiter limitador = new DbPermitLimiter(
+                new DriverManagerDataSource("jdbc:h2:mem:permisos;DB_CLOSE_DELAY=-1"), 1, 0, 50);
+
+        Connection conexion = limitador.getConnection();
+        assertEquals(0, limitador.getDisponibles());
+        assertThrows(SQLTransientConnectionException.class, limitador::getConnection);
+
+        conexion.close();
+        conexion.close();
+        assertEquals(1, limitador.getDisponibles());
+
+        try (Connection otra = limitador.getConnection()) {
+            assertEquals(1, otra.createStatement().executeQuery("SELECT 1").next() ? 1 : 0);
+        }
+        assertEquals(1, limitador.getDisponibles());
+    }
+}
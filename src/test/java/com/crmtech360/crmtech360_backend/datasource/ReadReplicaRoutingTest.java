@@ -0,0 +1,136 @@
+package com.crmtech360.crmtech360_backend.datasource;
+
+import com.crmtech360.crmtech360_backend.entity.Producto;
+import com.crmtech360.crmtech360_backend.repository.ProductoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el reparto entre primario y réplicas sobre PostgreSQL real. La "réplica" es la misma base de datos de
+ * IT_POSTGRES_URL con otro application_name, que es lo que se consulta para saber de qué pool salió la conexión;
+ * la segunda réplica apunta a un puerto sin servidor y debe quedar retirada. Para simular el retraso de replicación
+ * la réplica lee primero del esquema {@code replica_desfasada}, donde las pruebas dejan copias antiguas de las filas.
+ * <pre>IT_POSTGRES_URL=jdbc:postgresql://localhost:5432/crmtech360_it mvn test -Dtest=ReadReplicaRoutingTest</pre>
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "IT_POSTGRES_URL", matches = ".+")
+class ReadReplicaRoutingTest {
+
+    private static final String CONSULTA = "SELECT current_setting('application_name')";
+    private static final String ESQUEMA_REPLICA = "replica_desfasada";
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        String url = System.getenv("IT_POSTGRES_URL");
+        String separador = url.contains("?") ? "&" : "?";
+        registry.add("spring.datasource.url", () -> url + separador + "ApplicationName=primario");
+        registry.add("spring.datasource.username", () -> envOrDefault("IT_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> envOrDefault("IT_POSTGRES_PASSWORD", ""));
+        registry.add("datasource.replicas.urls", () -> url + separador + "ApplicationName=replica&currentSchema="
+                + ESQUEMA_REPLICA + "%2Cpublic,"
+                + "jdbc:postgresql://localhost:1/inexistente");
+        registry.add("cache.invalidacion.enabled", () -> "false");
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired @Qualifier("replicaDataSource") private ReplicaSelectingDataSource replicaDataSource;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void limpiarMarca() {
+        ReadYourWritesPin.limpiar();
+    }
+
+    @Test
+    void lasTransaccionesDeSoloLecturaVanALaReplica() {
+        assertEquals("replica", aplicacion(true));
+        assertEquals("primario", aplicacion(false));
+    }
+
+    @Test
+    void trasUnaEscrituraSeLeeDelPrimario() {
+        ReadYourWritesPin.limpiar();
+        assertEquals("replica", aplicacion(true));
+        aplicacion(false); // transacción de escritura confirmada
+        assertEquals("primario", aplicacion(true));
+        ReadYourWritesPin.limpiar(); // fin de la petición
+        assertEquals("replica", aplicacion(true));
+    }
+
+    @Test
+    void unaReplicaCaidaSeRetira() {
+        assertTrue(replicaDataSource.estado().contains("replica-1 sana"), replicaDataSource.estado());
+        assertTrue(replicaDataSource.estado().contains("replica-2 fuera"), replicaDataSource.estado());
+    }
+
+    @Test
+    void loLeidoDeUnaReplicaNoEntraEnLaCacheDeSegundoNivel() {
+        String referencia = "REF-RPL-" + UUID.randomUUID().toString().substring(0, 8);
+        Producto producto = productoRepository.save(new Producto(referencia, "Nombre antiguo", null, null, null, null,
+                null, new BigDecimal("5.00"), new BigDecimal("10.00"), null));
+        Integer id = producto.getIdProducto();
+        try {
+            // La réplica se queda con la fila tal como está ahora.
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ESQUEMA_REPLICA);
+            jdbcTemplate.execute("CREATE TABLE " + ESQUEMA_REPLICA + ".productos AS SELECT * FROM public.productos WHERE id_producto = " + id);
+
+            producto.setNombreProducto("Nombre nuevo");
+            productoRepository.save(producto);
+            // Expulsión como la de una invalidación llegada de otro nodo; la petición siguiente ya no tiene la marca.
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            cache.evictEntityData(Producto.class, id);
+            cache.evictQueryRegions();
+            ReadYourWritesPin.limpiar();
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+            lectura.setReadOnly(true);
+            assertEquals("Nombre antiguo", lectura.execute(status -> productoRepository.findById(id).orElseThrow().getNombreProducto()));
+            assertEquals("Nombre antiguo", lectura.execute(status ->
+                    productoRepository.findByReferenciaProducto(referencia).orElseThrow().getNombreProducto()));
+
+            assertFalse(cache.containsEntity(Producto.class, id));
+            assertEquals(0, statistics.getSecondLevelCachePutCount());
+            assertEquals(0, statistics.getQueryCachePutCount());
+            TransactionTemplate primario = new TransactionTemplate(transactionManager);
+            assertEquals("Nombre nuevo", primario.execute(status -> productoRepository.findById(id).orElseThrow().getNombreProducto()));
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + ESQUEMA_REPLICA + " CASCADE");
+            productoRepository.deleteById(id);
+        }
+    }
+
+    private String aplicacion(boolean soloLectura) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(soloLectura);
+        return template.execute(status -> jdbcTemplate.queryForObject(CONSULTA, String.class));
+    }
+
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,145 @@
+package com.crmtech360.crmtech360_backend.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.crmtech360.crmtech360_backend.dto.ChangePasswordRequestDTO;
+import com.crmtech360.crmtech360_backend.entity.Usuario;
+import com.crmtech360.crmtech360_backend.repository.UsuarioRepository;
+import com.crmtech360.crmtech360_backend.service.UsuarioService;
+import com.crmtech360.crmtech360_backend.service.impl.UserDetailsServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ningún material de credenciales debe llegar al log de auditoría: ni el hash que escribe el rehash del login
+ * ({@code UserDetailsServiceImpl.updatePassword}, que no es una operación auditada) ni la contraseña nueva o su hash
+ * en un cambio de contraseña, que sí se audita. Y el resultado auditado es el de la transacción: un fallo al
+ * confirmar o una transacción externa deshecha no se registran como "OK".
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@Import(AuditEventAspectTest.Configuracion.class)
+class AuditEventAspectTest {
+
+    @Autowired private UserDetailsServiceImpl userDetailsService;
+    @Autowired private UsuarioService usuarioService;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private AltaDeUsuarios altaDeUsuarios;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final ListAppender<ILoggingEvent> eventos = new ListAppender<>();
+    private Logger audit;
+
+    @BeforeEach
+    void capturarAuditoria() {
+        audit = (Logger) LoggerFactory.getLogger("audit");
+        eventos.start();
+        audit.addAppender(eventos);
+    }
+
+    @AfterEach
+    void soltarAuditoria() {
+        audit.detachAppender(eventos);
+    }
+
+    @Test
+    void elHashDeContrasenaNoLlegaALaAuditoria() {
+        Usuario usuario = usuarioRepository.save(new Usuario(null, "auditoria", passwordEncoder.encode("actual-1234"), "Ventas"));
+
+        String hashRehash = passwordEncoder.encode("actual-1234");
+        userDetailsService.updatePassword(userDetailsService.loadUserByUsername("auditoria"), hashRehash);
+        assertTrue(eventos.list.isEmpty(), "el rehash del login no es una operación de negocio auditada");
+
+        usuarioService.changePassword(usuario.getIdUsuario(), new ChangePasswordRequestDTO("actual-1234", "nueva-5678"));
+        String hashNuevo = usuarioRepository.findById(usuario.getIdUsuario()).orElseThrow().getContrasena();
+
+        List<String> auditado = eventos.list.stream()
+                .map(e -> e.getFormattedMessage() + " " + e.getKeyValuePairs())
+                .toList();
+        assertEquals(1, auditado.size(), auditado.toString());
+        assertTrue(auditado.get(0).contains("Usuario.changePassword"), auditado.toString());
+        for (String evento : auditado) {
+            assertFalse(evento.contains(hashRehash), evento);
+            assertFalse(evento.contains(hashNuevo), evento);
+            assertFalse(evento.contains("nueva-5678"), evento);
+        }
+    }
+
+    @Test
+    void unFalloAlConfirmarSeAuditaComoFallo() {
+        // Con IDs de secuencia los INSERT esperan al flush del commit: el UNIQUE de nombre_usuario salta ahí.
+        RuntimeException fallo = assertThrows(RuntimeException.class, () -> altaDeUsuarios.crearDuplicado("duplicado-commit"));
+
+        assertEquals(1, eventos.list.size());
+        assertEquals(fallo.getClass().getSimpleName(), resultado(eventos.list.get(0)));
+    }
+
+    @Test
+    void dentroDeUnaTransaccionDeshechaNoSeAuditaComoOk() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            altaDeUsuarios.crear("deshecho-externo");
+            assertTrue(eventos.list.isEmpty(), "el evento espera al final de la transacción externa");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, eventos.list.size());
+        assertEquals(AuditEventAspect.DESHECHA, resultado(eventos.list.get(0)));
+    }
+
+    private static Object resultado(ILoggingEvent evento) {
+        return evento.getKeyValuePairs().stream()
+                .filter(par -> par.key.equals("outcome"))
+                .map(par -> par.value)
+                .findFirst().orElseThrow();
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+        @Bean
+        AltaDeUsuarios altaDeUsuarios(UsuarioRepository usuarioRepository) {
+            return new AltaDeUsuarios(usuarioRepository);
+        }
+    }
+
+    static class AltaDeUsuarios {
+        private final UsuarioRepository usuarioRepository;
+
+        AltaDeUsuarios(UsuarioRepository usuarioRepository) {
+            this.usuarioRepository = usuarioRepository;
+        }
+
+        @Transactional
+        @AuditedOperation
+        public void crear(String nombreUsuario) {
+            usuarioRepository.save(new Usuario(null, nombreUsuario, "{noop}auditoria", "Ventas"));
+        }
+
+        @Transactional
+        @AuditedOperation
+        public void crearDuplicado(String nombreUsuario) {
+            usuarioRepository.save(new Usuario(null, nombreUsuario, "{noop}auditoria", "Ventas"));
+            usuarioRepository.save(new Usuario(null, nombreUsuario, "{noop}auditoria", "Ventas"));
+        }
+    }
+}
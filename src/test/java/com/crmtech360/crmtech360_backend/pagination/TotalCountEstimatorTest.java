@@ -0,0 +1,80 @@
+package com.crmtech360.crmtech360_backend.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * El total se deduce del offset solo en una última página con contenido; una página vacía más allá del final recurre
+ * a la estimación o al conteo exacto y nunca informa un total mayor que el offset.
+ */
+class TotalCountEstimatorTest {
+
+    private static final Supplier<OptionalLong> SIN_ESTIMACION_USADA = () -> fail("no debía estimarse");
+    private static final LongSupplier SIN_CONTEO_USADO = () -> fail("no debía contarse");
+
+    private final TotalCountEstimator estimator = new TotalCountEstimator(1000);
+
+    @Test
+    void laUltimaPaginaConContenidoNoConsultaNada() {
+        Pageable pageable = PageRequest.of(2, 10);
+        Page<String> page = estimator.toPage(new SliceImpl<>(List.of("a", "b", "c"), pageable, false), pageable,
+                SIN_ESTIMACION_USADA, SIN_CONTEO_USADO);
+
+        assertEquals(23, page.getTotalElements());
+        assertFalse(page instanceof EstimatedPage);
+    }
+
+    @Test
+    void unaPaginaVaciaMasAllaDelFinalUsaElConteoExacto() {
+        Pageable pageable = PageRequest.of(5, 10);
+        Page<String> page = estimator.toPage(new SliceImpl<>(List.of(), pageable, false), pageable,
+                () -> OptionalLong.of(40), () -> 23);
+
+        assertEquals(23, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertFalse(page instanceof EstimatedPage);
+    }
+
+    @Test
+    void unaPaginaVaciaMasAllaDelFinalNoEstimaPorEncimaDelOffset() {
+        Pageable pageable = PageRequest.of(500, 10);
+        Page<String> page = estimator.toPage(new SliceImpl<>(List.of(), pageable, false), pageable,
+                () -> OptionalLong.of(7200), SIN_CONTEO_USADO);
+
+        assertInstanceOf(EstimatedPage.class, page);
+        assertEquals(5000, page.getTotalElements());
+    }
+
+    @Test
+    void laPrimeraPaginaVaciaTieneTotalCero() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<String> page = estimator.toPage(new SliceImpl<>(List.of(), pageable, false), pageable,
+                SIN_ESTIMACION_USADA, SIN_CONTEO_USADO);
+
+        assertEquals(0, page.getTotalElements());
+    }
+
+    @Test
+    void conMasPaginasSeEstimaSinBajarDeLoYaVisto() {
+        Pageable pageable = PageRequest.of(200, 10);
+        List<String> llena = List.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j");
+        Page<String> page = estimator.toPage(new SliceImpl<>(llena, pageable, true), pageable,
+                () -> OptionalLong.of(1500), SIN_CONTEO_USADO);
+
+        assertInstanceOf(EstimatedPage.class, page);
+        assertEquals(2011, page.getTotalElements());
+    }
+}
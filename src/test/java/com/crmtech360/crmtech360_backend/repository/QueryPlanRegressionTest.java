@@ -0,0 +1,343 @@
+package com.crmtech360.crmtech360_backend.repository;
+
+import com.crmtech360.crmtech360_backend.dto.SearchEntityType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Prueba de regresión de planes de ejecución: ejecuta las consultas de los repositorios sobre PostgreSQL con
+ * volúmenes realistas (db/plan-regression-seed.sql), repite cada sentencia SQL generada con {@code EXPLAIN} y con
+ * los mismos parámetros, y falla si alguna recorre secuencialmente una de las tablas grandes.
+ * <p>
+ * Requiere una base de datos PostgreSQL dedicada: el esquema lo crean las migraciones de Flyway y los datos se
+ * cargan la primera vez. Se activa con la variable de entorno {@code IT_POSTGRES_URL}, p. ej.:
+ * <pre>IT_POSTGRES_URL=jdbc:postgresql://localhost:5432/crmtech360_it IT_POSTGRES_USER=postgres mvn test -Dtest=QueryPlanRegressionTest</pre>
+ * Los COUNT(*) de los listados paginados no se comprueban: cuentan buena parte de la tabla y ahí el recorrido
+ * secuencial es el plan correcto (para eso está el total estimado de TotalCountEstimator).
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "IT_POSTGRES_URL", matches = ".+")
+@Import(QueryPlanRegressionTest.CapturaSqlConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+
+    private static final Set<String> TABLAS_GRANDES = Set.of(
+            "ordenesventa", "detallesordenventa", "ordenescompra", "detallesordencompra", "ordenesproduccion",
+            "tareasproduccion", "movimientosinventarioproductos", "movimientosinventarioinsumos", "pagoscobros",
+            "contactoscliente", "clientes");
+
+    private static final LocalDateTime DESDE = LocalDateTime.of(2022, 3, 1, 8, 0);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("IT_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> envOrDefault("IT_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> envOrDefault("IT_POSTGRES_PASSWORD", ""));
+        // Cada consulta debe llegar a la base de datos para poder capturar su SQL.
+        registry.add("spring.jpa.properties.hibernate.cache.use_query_cache", () -> "false");
+        registry.add("cache.invalidacion.enabled", () -> "false");
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private SqlRecorder sqlRecorder;
+    @Autowired private OrdenVentaRepository ordenVentaRepository;
+    @Autowired private OrdenCompraRepository ordenCompraRepository;
+    @Autowired private OrdenProduccionRepository ordenProduccionRepository;
+    @Autowired private DetalleOrdenVentaRepository detalleOrdenVentaRepository;
+    @Autowired private DetalleOrdenCompraRepository detalleOrdenCompraRepository;
+    @Autowired private TareaProduccionRepository tareaProduccionRepository;
+    @Autowired private MovimientoInventarioProductoRepository movimientoProductoRepository;
+    @Autowired private MovimientoInventarioInsumoRepository movimientoInsumoRepository;
+    @Autowired private InventarioProductoRepository inventarioProductoRepository;
+    @Autowired private InventarioInsumoRepository inventarioInsumoRepository;
+    @Autowired private PagoCobroRepository pagoCobroRepository;
+    @Autowired private ContactoClienteRepository contactoClienteRepository;
+    @Autowired private SearchRepository searchRepository;
+
+    @BeforeAll
+    void cargarDatos() throws Exception {
+        Integer ordenes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ordenesventa", Integer.class);
+        if (ordenes == null || ordenes == 0) {
+            // pgjdbc ejecuta el script completo (incluido el bloque DO $$ ... $$) en una sola llamada.
+            jdbcTemplate.execute(new ClassPathResource("db/plan-regression-seed.sql").getContentAsString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void ordenesDeVenta() {
+        verificar("OrdenVenta.findByEstadoOrdenIgnoreCase", false, () -> ordenVentaRepository.findByEstadoOrdenIgnoreCase("pendiente"));
+        verificar("OrdenVenta.countByEstadoOrdenIgnoreCase", false, () -> ordenVentaRepository.countByEstadoOrdenIgnoreCase("pendiente"));
+        verificar("OrdenVenta.findByClienteIdCliente", false, () -> ordenVentaRepository.findByClienteIdCliente(1234));
+        verificar("OrdenVenta.findByFechaPedidoBetween", false,
+                () -> ordenVentaRepository.findByFechaPedidoBetween(DESDE, DESDE.plusDays(1)));
+        verificar("OrdenVenta.findPageIds", true, () -> ordenVentaRepository.findPageIds(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "fechaPedido"))));
+        verificar("OrdenVenta.findSeekIdsAfter", false,
+                () -> ordenVentaRepository.findSeekIdsAfter(DESDE, 100000, Limit.of(21)));
+        verificar("OrdenVenta.findByIdOrdenVentaIn", false,
+                () -> ordenVentaRepository.findByIdOrdenVentaIn(List.of(10, 20, 30, 40, 50, 60, 70, 80, 90, 100)));
+        verificar("DetalleOrdenVenta.findByOrdenVentaIdOrdenVenta", false,
+                () -> detalleOrdenVentaRepository.findByOrdenVentaIdOrdenVenta(150000));
+        verificar("DetalleOrdenVenta.findByProductoIdProducto", false,
+                () -> detalleOrdenVentaRepository.findByProductoIdProducto(77));
+    }
+
+    @Test
+    void ordenesDeCompraYProduccion() {
+        verificar("OrdenCompra.findByEstadoCompraIgnoreCase", false, () -> ordenCompraRepository.findByEstadoCompraIgnoreCase("pendiente"));
+        verificar("OrdenCompra.findByProveedorIdProveedor", false, () -> ordenCompraRepository.findByProveedorIdProveedor(42));
+        verificar("OrdenCompra.findByFechaPedidoCompraBetween", false,
+                () -> ordenCompraRepository.findByFechaPedidoCompraBetween(DESDE, DESDE.plusDays(2)));
+        verificar("DetalleOrdenCompra.findByOrdenCompraIdOrdenCompra", false,
+                () -> detalleOrdenCompraRepository.findByOrdenCompraIdOrdenCompra(25000));
+        verificar("DetalleOrdenCompra.findByInsumoIdInsumo", false, () -> detalleOrdenCompraRepository.findByInsumoIdInsumo(7));
+        verificar("OrdenProduccion.findByEstadoProduccionIgnoreCase", false,
+                () -> ordenProduccionRepository.findByEstadoProduccionIgnoreCase("en proceso"));
+        verificar("OrdenProduccion.findByOrdenVentaIdOrdenVenta", false,
+                () -> ordenProduccionRepository.findByOrdenVentaIdOrdenVenta(5000));
+        verificar("OrdenProduccion.findByFechaFinRealProduccionIsNullAndEstadoProduccionNotIn", false,
+                () -> ordenProduccionRepository.findByFechaFinRealProduccionIsNullAndEstadoProduccionNotIn(List.of("Anulada")));
+        verificar("OrdenProduccion.findPageIds", true, () -> ordenProduccionRepository.findPageIds(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "fechaCreacion"))));
+        verificar("TareaProduccion.findByOrdenProduccionIdOrdenProduccion", false,
+                () -> tareaProduccionRepository.findByOrdenProduccionIdOrdenProduccion(40000));
+        verificar("TareaProduccion.findByEmpleadoIdEmpleado", false, () -> tareaProduccionRepository.findByEmpleadoIdEmpleado(17));
+        verificar("TareaProduccion.findByFechaFinTareaIsNullAndEstadoTareaIgnoreCase", false,
+                () -> tareaProduccionRepository.findByFechaFinTareaIsNullAndEstadoTareaIgnoreCase("en proceso"));
+    }
+
+    @Test
+    void inventarioYMovimientos() {
+        verificar("MovimientoInventarioProducto.findByInventarioProductoIdInventarioProducto", true,
+                () -> movimientoProductoRepository.findByInventarioProductoIdInventarioProducto(321,
+                        PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "fechaMovimiento"))));
+        verificar("MovimientoInventarioProducto.countByInventarioProductoIdInventarioProducto", false,
+                () -> movimientoProductoRepository.countByInventarioProductoIdInventarioProducto(321));
+        verificar("MovimientoInventarioProducto.findSeekFirst", false,
+                () -> movimientoProductoRepository.findSeekFirst(321, Limit.of(21)));
+        verificar("MovimientoInventarioProducto.findByFechaMovimientoBetween", false,
+                () -> movimientoProductoRepository.findByFechaMovimientoBetween(DESDE, DESDE.plusHours(6)));
+        verificar("MovimientoInventarioInsumo.findByInventarioInsumoIdInventarioInsumo", true,
+                () -> movimientoInsumoRepository.findByInventarioInsumoIdInventarioInsumo(55,
+                        PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "fechaMovimiento"))));
+        verificar("MovimientoInventarioInsumo.findSeekAfter", false,
+                () -> movimientoInsumoRepository.findSeekAfter(55, DESDE, 300000, Limit.of(21)));
+        verificar("MovimientoInventarioInsumo.findByFechaMovimientoBetween", false,
+                () -> movimientoInsumoRepository.findByFechaMovimientoBetween(DESDE, DESDE.plusHours(6)));
+        verificar("InventarioProducto.findByProductoIdProducto", false, () -> inventarioProductoRepository.findByProductoIdProducto(99));
+        verificar("InventarioInsumo.findByInsumoIdInsumo", false, () -> inventarioInsumoRepository.findByInsumoIdInsumo(99));
+        verificar("InventarioInsumo.lockByUbicacionAndInsumoIds", false, () -> transactionTemplate.execute(
+                status -> inventarioInsumoRepository.lockByUbicacionAndInsumoIds("Planta", List.of(1, 2, 3))));
+    }
+
+    @Test
+    void pagosYContactos() {
+        PageRequest recientes = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "fechaRegistroTransaccion"));
+        verificar("PagoCobro.findAll", true, () -> pagoCobroRepository.findAll(recientes));
+        verificar("PagoCobro.findByTipoTransaccionIgnoreCase", true,
+                () -> pagoCobroRepository.findByTipoTransaccionIgnoreCase("pago", recientes));
+        verificar("PagoCobro.findByOrdenVenta_IdOrdenVentaAndTipoTransaccionIgnoreCase", true,
+                () -> pagoCobroRepository.findByOrdenVenta_IdOrdenVentaAndTipoTransaccionIgnoreCase(123456, "cobro", recientes));
+        verificar("PagoCobro.findByOrdenCompra_IdOrdenCompraAndTipoTransaccionIgnoreCase", true,
+                () -> pagoCobroRepository.findByOrdenCompra_IdOrdenCompraAndTipoTransaccionIgnoreCase(31337, "pago", recientes));
+        verificar("ContactoCliente.findViewsByClienteIds", false,
+                () -> contactoClienteRepository.findViewsByClienteIds(List.of(5, 500, 5000, 15000)));
+    }
+
+    @Test
+    void busquedaPorTrigramas() {
+        Set<SearchEntityType> clientes = EnumSet.of(SearchEntityType.CLIENTE);
+        verificar("Search.normal", false,
+                () -> transactionTemplate.execute(status -> searchRepository.search("12345", clientes, false, 0.5, 0, 0, 11)));
+        verificar("Search.tolerante", false,
+                () -> transactionTemplate.execute(status -> searchRepository.search("12354", clientes, true, 0.5, 0, 0, 11)));
+    }
+
+    /**
+     * Ejecuta la consulta, y después un EXPLAIN de cada sentencia SQL que generó con los mismos parámetros.
+     * @param ignorarConteos Si es un listado paginado, omite su COUNT(*).
+     */
+    private void verificar(String consulta, boolean ignorarConteos, Runnable ejecucion) {
+        sqlRecorder.clear();
+        ejecucion.run();
+        List<SqlRecorder.Sentencia> sentencias = sqlRecorder.snapshot();
+        assertFalse(sentencias.isEmpty(), consulta + " no ejecutó ninguna sentencia");
+        for (SqlRecorder.Sentencia sentencia : sentencias) {
+            if (ignorarConteos && sentencia.sql().trim().toLowerCase().startsWith("select count(")) {
+                continue;
+            }
+            JsonNode plan = explain(sentencia);
+            List<String> recorridos = new ArrayList<>();
+            buscarSeqScans(plan.get(0).get("Plan"), recorridos);
+            if (!recorridos.isEmpty()) {
+                fail(consulta + " recorre secuencialmente " + recorridos + "\nSQL: " + sentencia.sql()
+                        + "\nPlan: " + plan.toPrettyString());
+            }
+        }
+    }
+
+    private JsonNode explain(SqlRecorder.Sentencia sentencia) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sentencia.sql())) {
+                for (SqlRecorder.Parametro parametro : sentencia.parametros().values()) {
+                    parametro.aplicar(ps);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return JSON.readTree(rs.getString(1));
+                } catch (Exception e) {
+                    throw new IllegalStateException("No se pudo leer el plan de: " + sentencia.sql(), e);
+                }
+            }
+        });
+    }
+
+    private static void buscarSeqScans(JsonNode nodo, List<String> recorridos) {
+        if ("Seq Scan".equals(nodo.path("Node Type").asText()) && TABLAS_GRANDES.contains(nodo.path("Relation Name").asText())) {
+            recorridos.add(nodo.path("Relation Name").asText());
+        }
+        for (JsonNode hijo : nodo.path("Plans")) {
+            buscarSeqScans(hijo, recorridos);
+        }
+    }
+
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+
+    @TestConfiguration
+    static class CapturaSqlConfig {
+
+        @Bean
+        SqlRecorder sqlRecorder() {
+            return new SqlRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor dataSourceCapturaSql(org.springframework.beans.factory.ObjectProvider<SqlRecorder> recorder) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? recorder.getObject().wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Envoltorio JDBC mínimo que anota el SQL de cada PreparedStatement y los parámetros enlazados con set*.
+     */
+    static class SqlRecorder {
+
+        record Parametro(Method setter, Object[] args) {
+            void aplicar(PreparedStatement ps) {
+                try {
+                    setter.invoke(ps, args);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        record Sentencia(String sql, Map<Integer, Parametro> parametros) {
+        }
+
+        private final List<Sentencia> sentencias = new ArrayList<>();
+
+        synchronized void clear() {
+            sentencias.clear();
+        }
+
+        synchronized List<Sentencia> snapshot() {
+            return List.copyOf(sentencias);
+        }
+
+        private synchronized void add(Sentencia sentencia) {
+            sentencias.add(sentencia);
+        }
+
+        DataSource wrap(DataSource target) {
+            return proxy(DataSource.class, target, (method, args, result) ->
+                    result instanceof Connection connection ? wrapConnection(connection) : result);
+        }
+
+        private Connection wrapConnection(Connection target) {
+            return proxy(Connection.class, target, (method, args, result) -> {
+                if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement ps) {
+                    Sentencia sentencia = new Sentencia((String) args[0], new TreeMap<>());
+                    add(sentencia);
+                    return wrapStatement(ps, sentencia);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrapStatement(PreparedStatement target, Sentencia sentencia) {
+            return proxy(PreparedStatement.class, target, (method, args, result) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    sentencia.parametros().put(index, new Parametro(method, args.clone()));
+                }
+                return result;
+            });
+        }
+
+        private interface AfterCall {
+            Object apply(Method method, Object[] args, Object result) throws Exception;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, AfterCall afterCall) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                    return method.invoke(target, args);
+                }
+                try {
+                    return afterCall.apply(method, args, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.crmtech360.crmtech360_backend.security.authority;
+
+import com.crmtech360.crmtech360_backend.entity.Permiso;
+import com.crmtech360.crmtech360_backend.repository.PermisoRepository;
+import com.crmtech360.crmtech360_backend.security.jwt.JwtUtil;
+import com.crmtech360.crmtech360_backend.security.principal.UsuarioPrincipal;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ida y vuelta de la codificación compacta de autoridades: el catálogo completo sobrevive a encode/decode, lo que no
+ * está en el catálogo viaja como texto, y un token real emitido con {@code jwt.authorities.compact=true} devuelve en
+ * {@link JwtUtil#resolveAuthorities} las mismas autoridades del principal, incluida la ROLE_.
+ */
+@SpringBootTest(properties = "jwt.authorities.compact=true")
+@ActiveProfiles("h2")
+class PermisoCatalogTest {
+
+    private static final String FUERA_DEL_CATALOGO = "AUTORIDAD_FUERA_DEL_CATALOGO";
+
+    @Autowired private PermisoCatalog permisoCatalog;
+    @Autowired private PermisoRepository permisoRepository;
+    @Autowired private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void cargarPermisos() {
+        for (String nombre : List.of("Ver clientes", "Editar clientes", "Ver inventario", "Registrar movimientos",
+                "Aprobar ordenes de produccion")) {
+            if (permisoRepository.findAll().stream().noneMatch(p -> nombre.equals(p.getNombrePermiso()))) {
+                permisoRepository.save(new Permiso(nombre));
+            }
+        }
+        permisoCatalog.invalidate();
+    }
+
+    @Test
+    void elCatalogoCompletoSobreviveAEncodeYDecode() {
+        Set<String> catalogo = autoridadesDelCatalogo();
+        List<String> residual = new ArrayList<>();
+
+        String codificado = permisoCatalog.encode(catalogo, residual);
+        List<GrantedAuthority> decodificado = permisoCatalog.decode(codificado, permisoCatalog.version());
+
+        assertTrue(residual.isEmpty(), residual.toString());
+        assertNotNull(decodificado);
+        assertEquals(catalogo, nombres(decodificado));
+        // Las instancias salen de la tabla compartida: dos decodificaciones devuelven los mismos objetos.
+        assertSame(decodificado.get(0), permisoCatalog.decode(codificado, permisoCatalog.version()).get(0));
+    }
+
+    @Test
+    void lasAutoridadesFueraDelCatalogoVanAlResidual() {
+        List<String> residual = new ArrayList<>();
+
+        String codificado = permisoCatalog.encode(List.of("VER_CLIENTES", FUERA_DEL_CATALOGO), residual);
+
+        assertEquals(List.of(FUERA_DEL_CATALOGO), residual);
+        assertEquals(Set.of("VER_CLIENTES"), nombres(permisoCatalog.decode(codificado, permisoCatalog.version())));
+    }
+
+    @Test
+    void otraVersionDelCatalogoNoSeDecodifica() {
+        String codificado = permisoCatalog.encode(autoridadesDelCatalogo(), new ArrayList<>());
+
+        assertNull(permisoCatalog.decode(codificado, permisoCatalog.version() + 1));
+    }
+
+    @Test
+    void unTokenCompactoDevuelveLasAutoridadesDelPrincipal() {
+        Set<String> esperadas = new HashSet<>(autoridadesDelCatalogo());
+        esperadas.add("ROLE_JEFE_DE_PLANTA");
+        esperadas.add(FUERA_DEL_CATALOGO);
+        UsuarioPrincipal principal = new UsuarioPrincipal(41, 7, "Jefe de Planta", "catalogo-ida-vuelta", "{noop}clave",
+                esperadas.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList()));
+
+        Claims claims = jwtUtil.resolveClaims(jwtUtil.generateTokenFromUserDetails(principal));
+        List<GrantedAuthority> resueltas = jwtUtil.resolveAuthorities(claims);
+
+        assertNotNull(claims.get(JwtUtil.CLAIM_PERMISSION_BITS, String.class));
+        assertEquals(List.of(FUERA_DEL_CATALOGO), claims.get(JwtUtil.CLAIM_AUTHORITIES, List.class));
+        assertNotNull(resueltas);
+        assertEquals(esperadas.size(), resueltas.size(), resueltas.toString());
+        assertEquals(esperadas, nombres(resueltas));
+    }
+
+    private Set<String> autoridadesDelCatalogo() {
+        return permisoRepository.findAll().stream()
+                .map(p -> RolAuthoritySnapshot.toAuthorityName(p.getNombrePermiso()))
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> nombres(List<GrantedAuthority> autoridades) {
+        return autoridades.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+}
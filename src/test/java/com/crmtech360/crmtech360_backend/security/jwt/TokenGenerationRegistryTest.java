@@ -0,0 +1,93 @@
+package com.crmtech360.crmtech360_backend.security.jwt;
+
+import com.crmtech360.crmtech360_backend.entity.Usuario;
+import com.crmtech360.crmtech360_backend.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * La generación de token se guarda en la tabla de usuarios: un nodo que arranca después conoce las revocaciones ya
+ * hechas, una revocación deshecha no cuenta y guardar la entidad no pisa la columna.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class TokenGenerationRegistryTest {
+
+    @Autowired private TokenGenerationRegistry registry;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private DataSourceProperties dataSourceProperties;
+
+    @Test
+    void otroNodoConoceAlArrancarLasRevocacionesYaHechas() {
+        Usuario usuario = usuarioRepository.save(new Usuario(null, "generacion-nodo", "{noop}clave", "Ventas"));
+
+        registry.revokeUser("generacion-nodo");
+        registry.revokeUser("generacion-nodo");
+
+        assertEquals(2, registry.currentUserGeneration("generacion-nodo"));
+        assertEquals(2, usuarioRepository.findById(usuario.getIdUsuario()).orElseThrow().getGeneracionToken());
+
+        TokenGenerationRegistry otroNodo = nuevoNodo();
+        otroNodo.start();
+        assertEquals(2, otroNodo.currentUserGeneration("generacion-nodo"));
+        otroNodo.stop();
+    }
+
+    @Test
+    void unaRevocacionDeshechaNoCambiaLaGeneracion() {
+        usuarioRepository.save(new Usuario(null, "generacion-deshecha", "{noop}clave", "Ventas"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            registry.revokeUser("generacion-deshecha");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, registry.currentUserGeneration("generacion-deshecha"));
+        assertEquals(0, usuarioRepository.findGeneracionTokenByNombreUsuario("generacion-deshecha").orElseThrow());
+    }
+
+    @Test
+    void guardarElUsuarioNoPisaLaGeneracion() {
+        Usuario usuario = usuarioRepository.save(new Usuario(null, "generacion-guardada", "{noop}clave", "Ventas"));
+        registry.revokeUser("generacion-guardada");
+
+        usuario.setRolUsuario("Gerente");
+        usuarioRepository.save(usuario);
+
+        assertEquals(1, usuarioRepository.findGeneracionTokenByNombreUsuario("generacion-guardada").orElseThrow());
+    }
+
+    @Test
+    void laRevocacionGlobalAlcanzaATodosLosUsuarios() {
+        usuarioRepository.save(new Usuario(null, "generacion-global", "{noop}clave", "Ventas"));
+        int antes = registry.currentUserGeneration("generacion-global");
+
+        registry.revokeAll();
+
+        assertEquals(antes + 1, registry.currentUserGeneration("generacion-global"));
+        assertEquals(antes + 1, usuarioRepository.findGeneracionTokenByNombreUsuario("generacion-global").orElseThrow());
+        assertEquals(antes + 1, nuevoNodoArrancado().currentUserGeneration("generacion-global"));
+    }
+
+    private TokenGenerationRegistry nuevoNodoArrancado() {
+        TokenGenerationRegistry nodo = nuevoNodo();
+        nodo.start();
+        nodo.stop();
+        return nodo;
+    }
+
+    private TokenGenerationRegistry nuevoNodo() {
+        return new TokenGenerationRegistry(usuarioRepository, entityManagerFactory, transactionManager, dataSourceProperties,
+                false, "jwt_token_revocation");
+    }
+}
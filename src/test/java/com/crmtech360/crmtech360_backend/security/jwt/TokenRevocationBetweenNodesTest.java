@@ -0,0 +1,102 @@
+package com.crmtech360.crmtech360_backend.security.jwt;
+
+import com.crmtech360.crmtech360_backend.entity.Usuario;
+import com.crmtech360.crmtech360_backend.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Con varios nodos en modo sin estado, una revocación hecha en uno llega a los demás por LISTEN/NOTIFY, también la
+ * de un usuario eliminado, que ya no está en la tabla. El "otro nodo" es un segundo registro sobre la misma base de
+ * datos de IT_POSTGRES_URL.
+ * <pre>IT_POSTGRES_URL=jdbc:postgresql://localhost:5432/crmtech360_it mvn test -Dtest=TokenRevocationBetweenNodesTest</pre>
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "IT_POSTGRES_URL", matches = ".+")
+class TokenRevocationBetweenNodesTest {
+
+    private static final long ESPERA_MAX_MS = 10_000;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("IT_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> envOrDefault("IT_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> envOrDefault("IT_POSTGRES_PASSWORD", ""));
+        registry.add("jwt.auth.stateless", () -> "true");
+        registry.add("cache.invalidacion.enabled", () -> "false");
+    }
+
+    @Autowired private TokenGenerationRegistry registry;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private DataSourceProperties dataSourceProperties;
+
+    private TokenGenerationRegistry otroNodo;
+
+    @BeforeEach
+    void arrancarOtroNodo() {
+        otroNodo = new TokenGenerationRegistry(usuarioRepository, entityManagerFactory, transactionManager,
+                dataSourceProperties, true, "jwt_token_revocation");
+        otroNodo.start();
+    }
+
+    @AfterEach
+    void pararOtroNodo() {
+        otroNodo.stop();
+    }
+
+    @Test
+    void laRevocacionLlegaAlOtroNodo() {
+        String nombre = "revocado-" + UUID.randomUUID().toString().substring(0, 8);
+        usuarioRepository.save(new Usuario(null, nombre, "{noop}clave", "Ventas"));
+
+        registry.revokeUser(nombre);
+
+        assertEquals(1, registry.currentUserGeneration(nombre));
+        esperar(1, () -> otroNodo.currentUserGeneration(nombre));
+    }
+
+    @Test
+    void laRevocacionDeUnUsuarioEliminadoLlegaAlOtroNodo() {
+        String nombre = "eliminado-" + UUID.randomUUID().toString().substring(0, 8);
+        Usuario usuario = usuarioRepository.save(new Usuario(null, nombre, "{noop}clave", "Ventas"));
+
+        usuarioRepository.delete(usuario);
+        registry.revokeUser(nombre);
+
+        esperar(1, () -> otroNodo.currentUserGeneration(nombre));
+    }
+
+    private static void esperar(int esperado, IntSupplier actual) {
+        long limite = System.currentTimeMillis() + ESPERA_MAX_MS;
+        while (actual.getAsInt() != esperado && System.currentTimeMillis() < limite) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        assertEquals(esperado, actual.getAsInt());
+    }
+
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,38 @@
+package com.crmtech360.crmtech360_backend.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifica que X-Forwarded-For y Forwarded solo se aceptan cuando la petición llega de un proxy de confianza, y que
+ * de la cadena se toma la primera dirección (por la derecha) que no es un proxy propio.
+ */
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8", " 127.0.0.1 "));
+
+    @Test
+    void desdeElProxySeTomaElClienteDeLaCadena() {
+        assertEquals("203.0.113.7", resolver.resolve(peticion("10.1.2.3", "X-Forwarded-For", "198.51.100.1, 203.0.113.7, 10.0.0.5")));
+        assertEquals("2001:db8::1", resolver.resolve(peticion("127.0.0.1", "Forwarded", "for=\"[2001:db8::1]:4711\";proto=https")));
+        assertEquals("192.0.2.60", resolver.resolve(peticion("127.0.0.1", "Forwarded", "for=192.0.2.60:8080, for=10.0.0.9")));
+    }
+
+    @Test
+    void sinProxyDeConfianzaLaCabeceraSeIgnora() {
+        assertEquals("198.51.100.9", resolver.resolve(peticion("198.51.100.9", "X-Forwarded-For", "1.2.3.4")));
+        assertEquals("10.1.2.3", resolver.resolve(peticion("10.1.2.3", "X-Request-Id", "sin cabecera de reenvío")));
+        assertEquals("10.1.2.3", new ClientIpResolver(List.of()).resolve(peticion("10.1.2.3", "X-Forwarded-For", "1.2.3.4")));
+    }
+
+    private static MockHttpServletRequest peticion(String remoteAddr, String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader(header, value);
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.crmtech360.crmtech360_backend.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Detrás del proxy, el presupuesto de login se cuenta por la IP del cliente reenviada y no por la del proxy: un
+ * cliente que lo agota recibe 429 con Retry-After y otro cliente que llega por el mismo proxy sigue entrando.
+ */
+class RateLimitFilterTest {
+
+    private static final String PROXY = "10.0.0.5";
+
+    // Login: 1 intento y un token cada 5 s. Sin token, la ruta de login no consulta JwtUtil.
+    private final RateLimitFilter filter = new RateLimitFilter(null, true, 1, 0.2, 30, 10, 100, 50, 600,
+            List.of("10.0.0.0/8"));
+
+    @Test
+    void elLimiteDeLoginSeCuentaPorLaIpDelClienteReenviada() throws Exception {
+        assertEquals(200, login("203.0.113.7").getStatus());
+
+        MockHttpServletResponse rechazada = login("203.0.113.7");
+        assertEquals(429, rechazada.getStatus());
+        assertEquals("5", rechazada.getHeader(HttpHeaders.RETRY_AFTER));
+
+        assertEquals(200, login("198.51.100.1").getStatus());
+    }
+
+    @Test
+    void sinProxyDeConfianzaLaCabeceraNoSeparaLosPresupuestos() throws Exception {
+        assertEquals(200, login("198.51.100.20", "203.0.113.7").getStatus());
+        assertEquals(429, login("198.51.100.20", "203.0.113.8").getStatus());
+    }
+
+    private MockHttpServletResponse login(String cliente) throws Exception {
+        return login(PROXY, cliente);
+    }
+
+    private MockHttpServletResponse login(String remoteAddr, String reenviada) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", reenviada);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
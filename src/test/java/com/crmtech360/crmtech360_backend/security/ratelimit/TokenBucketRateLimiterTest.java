@@ -0,0 +1,88 @@
+package com.crmtech360.crmtech360_backend.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reposición, capacidad máxima y valor de Retry-After del token bucket, con un reloj controlado por la prueba.
+ */
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong reloj = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void laRafagaNoSuperaLaCapacidad() {
+        TokenBucketRateLimiter limiter = limiter(3, 1);
+
+        assertEquals(0, limiter.tryAcquire("cliente"));
+        assertEquals(0, limiter.tryAcquire("cliente"));
+        assertEquals(0, limiter.tryAcquire("cliente"));
+        assertEquals(1, limiter.tryAcquire("cliente"));
+    }
+
+    @Test
+    void losTokensSeReponenConElTiempoSinPasarDeLaCapacidad() {
+        TokenBucketRateLimiter limiter = limiter(2, 1);
+        agotar(limiter, "cliente", 2);
+
+        avanzar(1_000);
+        assertEquals(0, limiter.tryAcquire("cliente"));
+        assertEquals(1, limiter.tryAcquire("cliente"));
+
+        // Tras una hora inactivo solo se acumula la capacidad, no una hora de tokens.
+        avanzar(3_600_000);
+        agotar(limiter, "cliente", 2);
+        assertEquals(1, limiter.tryAcquire("cliente"));
+    }
+
+    @Test
+    void retryAfterEsElTiempoQueFaltaParaUnTokenRedondeadoHaciaArriba() {
+        TokenBucketRateLimiter limiter = limiter(1, 0.5); // un token cada 2 s
+        agotar(limiter, "cliente", 1);
+
+        assertEquals(2, limiter.tryAcquire("cliente"));
+        avanzar(1_500); // tres cuartos de token: falta medio segundo
+        assertEquals(1, limiter.tryAcquire("cliente"));
+        avanzar(500);
+        assertEquals(0, limiter.tryAcquire("cliente"));
+    }
+
+    @Test
+    void cadaClaveTieneSuPropioBucket() {
+        TokenBucketRateLimiter limiter = limiter(1, 1);
+        agotar(limiter, "203.0.113.7", 1);
+
+        assertEquals(1, limiter.tryAcquire("203.0.113.7"));
+        assertEquals(0, limiter.tryAcquire("198.51.100.1"));
+    }
+
+    @Test
+    void losBucketsInactivosSeDescartan() {
+        TokenBucketRateLimiter limiter = limiter(1, 1);
+        limiter.tryAcquire("inactivo");
+        assertEquals(1, limiter.trackedKeys());
+
+        avanzar(61_000);
+        limiter.tryAcquire("activo");
+
+        assertEquals(1, limiter.trackedKeys());
+    }
+
+    private TokenBucketRateLimiter limiter(long capacidad, double reposicionPorSegundo) {
+        return new TokenBucketRateLimiter("prueba", capacidad, reposicionPorSegundo, 60, TimeUnit.SECONDS, reloj::get);
+    }
+
+    private static void agotar(TokenBucketRateLimiter limiter, String clave, int tokens) {
+        for (int i = 0; i < tokens; i++) {
+            assertEquals(0, limiter.tryAcquire(clave), "token " + i);
+        }
+    }
+
+    private void avanzar(long ms) {
+        reloj.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+}
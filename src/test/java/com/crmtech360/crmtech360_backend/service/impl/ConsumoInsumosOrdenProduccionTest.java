@@ -0,0 +1,165 @@
+package com.crmtech360.crmtech360_backend.service.impl;
+
+import com.crmtech360.crmtech360_backend.dto.OrdenProduccionUpdateRequestDTO;
+import com.crmtech360.crmtech360_backend.entity.Cliente;
+import com.crmtech360.crmtech360_backend.entity.DetalleOrdenVenta;
+import com.crmtech360.crmtech360_backend.entity.Insumo;
+import com.crmtech360.crmtech360_backend.entity.InsumoPorProducto;
+import com.crmtech360.crmtech360_backend.entity.InventarioInsumo;
+import com.crmtech360.crmtech360_backend.entity.OrdenProduccion;
+import com.crmtech360.crmtech360_backend.entity.OrdenVenta;
+import com.crmtech360.crmtech360_backend.entity.Producto;
+import com.crmtech360.crmtech360_backend.exception.InsufficientStockException;
+import com.crmtech360.crmtech360_backend.repository.ClienteRepository;
+import com.crmtech360.crmtech360_backend.repository.DetalleOrdenVentaRepository;
+import com.crmtech360.crmtech360_backend.repository.InsumoPorProductoRepository;
+import com.crmtech360.crmtech360_backend.repository.InsumoRepository;
+import com.crmtech360.crmtech360_backend.repository.InventarioInsumoRepository;
+import com.crmtech360.crmtech360_backend.repository.MovimientoInventarioInsumoRepository;
+import com.crmtech360.crmtech360_backend.repository.OrdenProduccionRepository;
+import com.crmtech360.crmtech360_backend.repository.OrdenVentaRepository;
+import com.crmtech360.crmtech360_backend.repository.ProductoRepository;
+import com.crmtech360.crmtech360_backend.service.OrdenProduccionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Consumo de insumos al pasar una orden de producción a "En Proceso": con stock insuficiente se informan todos los
+ * faltantes a la vez y no se descuenta nada, y el número de sentencias no depende del tamaño de la OV ni del BOM.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class ConsumoInsumosOrdenProduccionTest {
+
+    private static final String UBICACION = "Bodega Principal";
+
+    @Autowired private OrdenProduccionService ordenProduccionService;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private InsumoRepository insumoRepository;
+    @Autowired private InsumoPorProductoRepository insumoPorProductoRepository;
+    @Autowired private InventarioInsumoRepository inventarioInsumoRepository;
+    @Autowired private MovimientoInventarioInsumoRepository movimientoInsumoRepository;
+    @Autowired private OrdenVentaRepository ordenVentaRepository;
+    @Autowired private DetalleOrdenVentaRepository detalleOrdenVentaRepository;
+    @Autowired private OrdenProduccionRepository ordenProduccionRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void conStockInsuficienteSeInformanTodosLosFaltantesYNoSeDescuentaNada() {
+        // 4 productos x 2 unidades, BOM de 6 insumos con 1 unidad cada uno: se requieren 8 de cada insumo.
+        Escenario escenario = escenario("FALTA", 4, 6, new BigDecimal("100"));
+        ponerStock(escenario.inventarios.get(1), new BigDecimal("7"));
+        ponerStock(escenario.inventarios.get(3), BigDecimal.ZERO);
+        ponerStock(escenario.inventarios.get(5), new BigDecimal("7.99"));
+        long movimientosAntes = movimientoInsumoRepository.count();
+
+        InsufficientStockException error = assertThrows(InsufficientStockException.class,
+                () -> ordenProduccionService.updateOrdenProduccionHeader(escenario.idOrdenProduccion, enProceso()));
+
+        assertEquals(3, error.getFaltantes().size(), error.getFaltantes().toString());
+        assertTrue(error.getFaltantes().get(0).startsWith("FALTA-insumo-1:"), error.getFaltantes().toString());
+        assertTrue(error.getFaltantes().get(1).startsWith("FALTA-insumo-3:"), error.getFaltantes().toString());
+        assertTrue(error.getFaltantes().get(2).startsWith("FALTA-insumo-5:"), error.getFaltantes().toString());
+
+        List<String> esperado = List.of("100.00", "7.00", "100.00", "0.00", "100.00", "7.99");
+        for (int i = 0; i < esperado.size(); i++) {
+            InventarioInsumo inventario = inventarioInsumoRepository.findById(escenario.inventarios.get(i).getIdInventarioInsumo()).orElseThrow();
+            assertEquals(new BigDecimal(esperado.get(i)).compareTo(inventario.getCantidadStock()), 0,
+                    "insumo " + i + ": " + inventario.getCantidadStock());
+        }
+        assertEquals(movimientosAntes, movimientoInsumoRepository.count());
+        assertEquals("Pendiente", ordenProduccionRepository.findById(escenario.idOrdenProduccion).orElseThrow().getEstadoProduccion());
+    }
+
+    @Test
+    void elNumeroDeSentenciasNoDependeDelTamanoDeLaOrden() {
+        Escenario pequeno = escenario("PEQ", 2, 3, new BigDecimal("100"));
+        Escenario grande = escenario("GRA", 20, 15, new BigDecimal("100"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        ordenProduccionService.updateOrdenProduccionHeader(pequeno.idOrdenProduccion, enProceso());
+        long sentenciasPequeno = statistics.getPrepareStatementCount();
+        long consultasPequeno = statistics.getQueryExecutionCount();
+
+        statistics.clear();
+        ordenProduccionService.updateOrdenProduccionHeader(grande.idOrdenProduccion, enProceso());
+        long sentenciasGrande = statistics.getPrepareStatementCount();
+        long consultasGrande = statistics.getQueryExecutionCount();
+
+        assertEquals(15, statistics.getEntityUpdateCount() - 1, "un UPDATE por insumo, más la cabecera");
+        assertEquals(15, statistics.getEntityInsertCount(), "un movimiento por insumo");
+        assertEquals(consultasPequeno, consultasGrande);
+        // Los UPDATE y los INSERT van en lotes JDBC; la única diferencia admitida es pedir un nuevo bloque de IDs
+        // a la secuencia de movimientos, que depende de cuántos quedaban libres en el bloque en memoria.
+        assertTrue(Math.abs(sentenciasGrande - sentenciasPequeno) <= 1,
+                "OV pequeña: " + sentenciasPequeno + " sentencias; OV grande: " + sentenciasGrande);
+
+        // 20 productos x 2 unidades x 1 por insumo.
+        InventarioInsumo inventario = inventarioInsumoRepository.findById(grande.inventarios.get(0).getIdInventarioInsumo()).orElseThrow();
+        assertEquals(0, new BigDecimal("60").compareTo(inventario.getCantidadStock()), inventario.getCantidadStock().toString());
+    }
+
+    private Escenario escenario(String prefijo, int productos, int insumos, BigDecimal stock) {
+        Cliente cliente = clienteRepository.save(new Cliente("CC", prefijo + "-OP-0001", "Cliente " + prefijo, null, null, null));
+        List<Producto> listaProductos = new ArrayList<>();
+        for (int i = 0; i < productos; i++) {
+            listaProductos.add(new Producto(prefijo + "-producto-" + i, "Producto " + i, null, null, null, null, null,
+                    new BigDecimal("5.00"), new BigDecimal("10.00"), null));
+        }
+        listaProductos = productoRepository.saveAll(listaProductos);
+
+        Escenario escenario = new Escenario();
+        List<InsumoPorProducto> bom = new ArrayList<>();
+        for (int i = 0; i < insumos; i++) {
+            Insumo insumo = insumoRepository.save(new Insumo(prefijo + "-insumo-" + i, null, "Unidad", 0));
+            escenario.inventarios.add(inventarioInsumoRepository.save(new InventarioInsumo(UBICACION, insumo, stock)));
+            for (Producto producto : listaProductos) {
+                bom.add(new InsumoPorProducto(producto, insumo, BigDecimal.ONE));
+            }
+        }
+        insumoPorProductoRepository.saveAll(bom);
+
+        OrdenVenta ordenVenta = ordenVentaRepository.save(new OrdenVenta(cliente, null, "Confirmada", BigDecimal.ZERO, null));
+        List<DetalleOrdenVenta> detalles = new ArrayList<>();
+        for (Producto producto : listaProductos) {
+            detalles.add(new DetalleOrdenVenta(ordenVenta, producto, 2, new BigDecimal("10.00"), new BigDecimal("20.00")));
+        }
+        detalleOrdenVentaRepository.saveAll(detalles);
+
+        escenario.idOrdenProduccion = ordenProduccionRepository
+                .save(new OrdenProduccion(ordenVenta, null, null, "Pendiente", null)).getIdOrdenProduccion();
+        return escenario;
+    }
+
+    private void ponerStock(InventarioInsumo inventario, BigDecimal cantidad) {
+        InventarioInsumo actual = inventarioInsumoRepository.findById(inventario.getIdInventarioInsumo()).orElseThrow();
+        actual.setCantidadStock(cantidad);
+        inventarioInsumoRepository.save(actual);
+    }
+
+    private static OrdenProduccionUpdateRequestDTO enProceso() {
+        OrdenProduccionUpdateRequestDTO dto = new OrdenProduccionUpdateRequestDTO();
+        dto.setEstadoProduccion("En Proceso");
+        return dto;
+    }
+
+    private static final class Escenario {
+        private final List<InventarioInsumo> inventarios = new ArrayList<>();
+        private Integer idOrdenProduccion;
+    }
+}
@@ -0,0 +1,86 @@
+package com.crmtech360.crmtech360_backend.service.impl;
+
+import com.crmtech360.crmtech360_backend.dto.DetalleOrdenVentaRequestDTO;
+import com.crmtech360.crmtech360_backend.dto.OrdenVentaCreateRequestDTO;
+import com.crmtech360.crmtech360_backend.dto.OrdenVentaResponseDTO;
+import com.crmtech360.crmtech360_backend.entity.Cliente;
+import com.crmtech360.crmtech360_backend.entity.Producto;
+import com.crmtech360.crmtech360_backend.repository.ClienteRepository;
+import com.crmtech360.crmtech360_backend.repository.DetalleOrdenVentaRepository;
+import com.crmtech360.crmtech360_backend.repository.ProductoRepository;
+import com.crmtech360.crmtech360_backend.service.OrdenVentaService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que crear una orden de venta grande no haga un round trip por línea:
+ * con IDs pooled-lo y batching JDBC las 200 líneas se insertan en lotes de 50.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class OrdenVentaBatchInsertTest {
+
+    private static final int LINEAS = 200;
+
+    @Autowired
+    private OrdenVentaService ordenVentaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private DetalleOrdenVentaRepository detalleOrdenVentaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createOrdenVentaConDoscientasLineasUsaInsercionesPorLotes() {
+        Cliente cliente = clienteRepository.save(new Cliente("CC", "BATCH-0001", "Cliente Lote", null, null, null));
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 0; i < LINEAS; i++) {
+            productos.add(new Producto("REF-BATCH-" + i, "Producto " + i, null, null, null, null, null,
+                    new BigDecimal("5.00"), new BigDecimal("10.00"), null));
+        }
+        productos = productoRepository.saveAll(productos);
+
+        OrdenVentaCreateRequestDTO request = new OrdenVentaCreateRequestDTO();
+        request.setIdCliente(cliente.getIdCliente());
+        List<DetalleOrdenVentaRequestDTO> detalles = new ArrayList<>();
+        for (Producto producto : productos) {
+            DetalleOrdenVentaRequestDTO detalle = new DetalleOrdenVentaRequestDTO();
+            detalle.setIdProducto(producto.getIdProducto());
+            detalle.setCantidadProducto(2);
+            detalles.add(detalle);
+        }
+        request.setDetalles(detalles);
+
+        long lineasAntes = detalleOrdenVentaRepository.count();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        OrdenVentaResponseDTO response = ordenVentaService.createOrdenVenta(request);
+
+        assertEquals(LINEAS, response.getDetalles().size());
+        assertEquals(LINEAS + 1, statistics.getEntityInsertCount());
+        // cliente + productos (1 consulta) + secuencias (1 + 200/50) + cabecera + 200/50 lotes de líneas.
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 15, "Se esperaban como mucho 15 sentencias JDBC y se ejecutaron " + statements);
+        assertEquals(lineasAntes + LINEAS, detalleOrdenVentaRepository.count());
+    }
+}
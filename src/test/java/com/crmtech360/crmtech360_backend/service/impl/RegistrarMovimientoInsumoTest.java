@@ -0,0 +1,68 @@
+package com.crmtech360.crmtech360_backend.service.impl;
+
+import com.crmtech360.crmtech360_backend.dto.MovimientoInventarioInsumoCreateRequestDTO;
+import com.crmtech360.crmtech360_backend.entity.Insumo;
+import com.crmtech360.crmtech360_backend.entity.InventarioInsumo;
+import com.crmtech360.crmtech360_backend.repository.InsumoRepository;
+import com.crmtech360.crmtech360_backend.repository.InventarioInsumoRepository;
+import com.crmtech360.crmtech360_backend.service.InventarioInsumoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * El UPDATE atómico de stock no deja en el contexto de persistencia una copia desactualizada: lo que se lea después
+ * en la misma transacción ya refleja el movimiento, aunque la entidad se hubiera cargado antes. Sobre PostgreSQL
+ * real: H2 no acepta el UPDATE con la definición de columna de {@code cantidadStock}.
+ * <pre>IT_POSTGRES_URL=jdbc:postgresql://localhost:5432/crmtech360_it mvn test -Dtest=RegistrarMovimientoInsumoTest</pre>
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "IT_POSTGRES_URL", matches = ".+")
+class RegistrarMovimientoInsumoTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("IT_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> envOrDefault("IT_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> envOrDefault("IT_POSTGRES_PASSWORD", ""));
+        registry.add("cache.invalidacion.enabled", () -> "false");
+    }
+
+    @Autowired private InventarioInsumoService inventarioInsumoService;
+    @Autowired private InsumoRepository insumoRepository;
+    @Autowired private InventarioInsumoRepository inventarioInsumoRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void trasElMovimientoSeLeeElStockNuevoEnLaMismaTransaccion() {
+        Insumo insumo = insumoRepository.save(new Insumo("Insumo movimiento " + UUID.randomUUID(), null, "Unidad", 0));
+        Integer id = inventarioInsumoRepository.save(new InventarioInsumo("Bodega Movimientos", insumo, new BigDecimal("10"))).getIdInventarioInsumo();
+
+        BigDecimal[] stock = new BigDecimal[2];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventarioInsumoRepository.findById(id).orElseThrow(); // ya en el contexto antes del UPDATE
+            inventarioInsumoService.registrarMovimiento(new MovimientoInventarioInsumoCreateRequestDTO("Salida", id, new BigDecimal("3"), null));
+            stock[0] = inventarioInsumoService.getStockActual(id);
+            inventarioInsumoService.registrarMovimiento(new MovimientoInventarioInsumoCreateRequestDTO("Entrada", id, new BigDecimal("1.5"), null));
+            stock[1] = inventarioInsumoRepository.findById(id).orElseThrow().getCantidadStock();
+        });
+
+        assertEquals(0, new BigDecimal("7").compareTo(stock[0]), stock[0].toString());
+        assertEquals(0, new BigDecimal("8.5").compareTo(stock[1]), stock[1].toString());
+    }
+
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+}
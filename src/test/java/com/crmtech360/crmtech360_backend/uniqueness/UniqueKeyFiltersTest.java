@@ -0,0 +1,78 @@
+package com.crmtech360.crmtech360_backend.uniqueness;
+
+import com.crmtech360.crmtech360_backend.entity.Proveedor;
+import com.crmtech360.crmtech360_backend.repository.ProveedorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que los filtros de Bloom de unicidad conocen las claves guardadas con JPA (solo tras el commit) y que
+ * la tasa de falsos positivos se mantiene cerca de la configurada.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class UniqueKeyFiltersTest {
+
+    @Autowired
+    private UniqueKeyFilters uniqueKeyFilters;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void sigueLasAltasConfirmadas() {
+        assertFalse(uniqueKeyFilters.mightExist(UniqueKeySpace.PROVEEDOR_NIT, "900100200-1"));
+
+        Proveedor proveedor = proveedorRepository.save(nuevoProveedor("900100200-1"));
+        assertTrue(uniqueKeyFilters.mightExist(UniqueKeySpace.PROVEEDOR_NIT, "900100200-1"));
+
+        // Tras la baja la clave sigue dando positivo hasta reconstruir el filtro.
+        proveedorRepository.delete(proveedor);
+        assertTrue(uniqueKeyFilters.mightExist(UniqueKeySpace.PROVEEDOR_NIT, "900100200-1"));
+        uniqueKeyFilters.rebuild(UniqueKeySpace.PROVEEDOR_NIT);
+        assertFalse(uniqueKeyFilters.mightExist(UniqueKeySpace.PROVEEDOR_NIT, "900100200-1"));
+    }
+
+    @Test
+    void unaTransaccionRevertidaNoAnadeLaClave() {
+        transactionTemplate.executeWithoutResult(status -> {
+            proveedorRepository.save(nuevoProveedor("900300400-2"));
+            status.setRollbackOnly();
+        });
+        assertFalse(uniqueKeyFilters.mightExist(UniqueKeySpace.PROVEEDOR_NIT, "900300400-2"));
+    }
+
+    @Test
+    void tasaDeFalsosPositivosCercaDeLaConfigurada() {
+        BloomFilter bloom = BloomFilter.crear(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.put("CC-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloom.mightContain("CC-" + i));
+        }
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (bloom.mightContain("CC-" + i)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 2_000, "Falsos positivos: " + falsosPositivos + " de 100000");
+    }
+
+    private static Proveedor nuevoProveedor(String nit) {
+        Proveedor proveedor = new Proveedor();
+        proveedor.setNombreComercialProveedor("Proveedor " + nit);
+        proveedor.setNitProveedor(nit);
+        return proveedor;
+    }
+}
@@ -0,0 +1,122 @@
+-- Volumen de datos para QueryPlanRegressionTest: órdenes de varios años, movimientos de inventario y pagos
+-- en el orden en que los insertaría la aplicación, con la distribución de estados de producción
+-- (la mayoría de órdenes cerradas, pocas abiertas). Con tablas de este tamaño un Seq Scan es varios
+-- órdenes de magnitud más caro que el índice y el planificador no lo elige salvo que falte el índice.
+
+INSERT INTO clientes (id_cliente, tipo_documento, numero_documento, nombre_cliente, correo_cliente, fecha_creacion)
+SELECT g, 'CC', 'DOC-' || g, 'Cliente ' || g, 'cliente' || g || '@ejemplo.com', TIMESTAMP '2020-01-01' + g * INTERVAL '1 hour'
+FROM generate_series(1, 20000) g;
+
+INSERT INTO contactoscliente (id_contacto, id_cliente, nombre_contacto, cargo_contacto)
+SELECT g, (g - 1) % 20000 + 1, 'Contacto ' || g, 'Compras'
+FROM generate_series(1, 40000) g;
+
+INSERT INTO empleados (id_empleado, tipo_documento, numero_documento, nombre_empleado, cargo_empleado, fecha_creacion)
+SELECT g, 'CC', 'EMP-' || g, 'Empleado ' || g, 'Operario', TIMESTAMP '2020-01-01'
+FROM generate_series(1, 200) g;
+
+INSERT INTO proveedores (id_proveedor, nombre_comercial_proveedor, nit_proveedor, fecha_creacion)
+SELECT g, 'Proveedor ' || g, 'NIT-' || g, TIMESTAMP '2020-01-01'
+FROM generate_series(1, 500) g;
+
+INSERT INTO productos (id_producto, referencia_producto, nombre_producto, costo_produccion, precio_venta, fecha_creacion)
+SELECT g, 'REF-' || g, 'Producto ' || g, 10, 20, TIMESTAMP '2020-01-01'
+FROM generate_series(1, 2000) g;
+
+INSERT INTO insumos (id_insumo, nombre_insumo, unidad_medida_insumo, fecha_creacion)
+SELECT g, 'Insumo ' || g, 'Metro', TIMESTAMP '2020-01-01'
+FROM generate_series(1, 500) g;
+
+INSERT INTO insumosporproducto (id_producto, id_insumo, cantidad_requerida)
+SELECT p, (p * 7 + k * 13) % 500 + 1, 1.5
+FROM generate_series(1, 2000) p, generate_series(1, 5) k;
+
+INSERT INTO inventarioproductos (id_inventario_producto, id_producto, ubicacion_inventario, cantidad_stock)
+SELECT g, (g - 1) % 2000 + 1, CASE WHEN g <= 2000 THEN 'Bodega Principal' ELSE 'Tienda' END, 100
+FROM generate_series(1, 4000) g;
+
+INSERT INTO inventarioinsumos (id_inventario_insumo, id_insumo, ubicacion_inventario, cantidad_stock)
+SELECT g, (g - 1) % 500 + 1, CASE WHEN g <= 500 THEN 'Bodega Principal' ELSE 'Planta' END, 100
+FROM generate_series(1, 1000) g;
+
+INSERT INTO movimientosinventarioproductos (id_movimiento_producto, id_inventario_producto, tipo_movimiento,
+                                            cantidad_movimiento, fecha_movimiento)
+SELECT g, (g::BIGINT * 7919) % 4000 + 1, CASE WHEN g % 2 = 0 THEN 'Entrada' ELSE 'Salida' END, 1,
+       TIMESTAMP '2020-01-01' + g * INTERVAL '3 minutes'
+FROM generate_series(1, 500000) g;
+
+INSERT INTO movimientosinventarioinsumos (id_movimiento_insumo, id_inventario_insumo, tipo_movimiento,
+                                          cantidad_movimiento, fecha_movimiento)
+SELECT g, (g::BIGINT * 7919) % 1000 + 1, CASE WHEN g % 2 = 0 THEN 'Entrada' ELSE 'Salida' END, 1,
+       TIMESTAMP '2020-01-01' + g * INTERVAL '3 minutes'
+FROM generate_series(1, 500000) g;
+
+-- Las más recientes siguen abiertas; el histórico está entregado o anulado.
+INSERT INTO ordenesventa (id_orden_venta, id_cliente, fecha_pedido, estado_orden, total_orden)
+SELECT g, (g::BIGINT * 7919) % 20000 + 1, TIMESTAMP '2020-01-01' + g * INTERVAL '10 minutes',
+       CASE WHEN g > 196000 THEN 'Pendiente' WHEN g % 50 = 0 THEN 'Anulada' ELSE 'Entregada' END, 60
+FROM generate_series(1, 200000) g;
+
+INSERT INTO detallesordenventa (id_detalle_orden, id_orden_venta, id_producto, cantidad_producto,
+                                precio_unitario_venta, subtotal_detalle)
+SELECT (o - 1) * 3 + k, o, (o * 3 + k * 101) % 2000 + 1, 1, 20, 20
+FROM generate_series(1, 200000) o, generate_series(1, 3) k;
+
+INSERT INTO ordenescompra (id_orden_compra, id_proveedor, fecha_pedido_compra, estado_compra, total_compra)
+SELECT g, (g * 31) % 500 + 1, TIMESTAMP '2020-01-01' + g * INTERVAL '40 minutes',
+       CASE WHEN g > 49000 THEN 'Pendiente' ELSE 'Recibida' END, 300
+FROM generate_series(1, 50000) g;
+
+INSERT INTO detallesordencompra (id_detalle_compra, id_orden_compra, id_insumo, cantidad_compra,
+                                 precio_unitario_compra, subtotal_compra)
+SELECT (o - 1) * 3 + k, o, (o * 3 + k * 37) % 500 + 1, 10, 10, 100
+FROM generate_series(1, 50000) o, generate_series(1, 3) k;
+
+INSERT INTO ordenesproduccion (id_orden_produccion, id_orden_venta, fecha_creacion, fecha_fin_real_produccion,
+                               estado_produccion)
+SELECT g, g * 2, TIMESTAMP '2020-01-01' + g * INTERVAL '20 minutes',
+       CASE WHEN g > 98000 THEN NULL ELSE DATE '2020-01-02' + (g / 72) END,
+       CASE WHEN g > 99000 THEN 'Pendiente' WHEN g > 98000 THEN 'En Proceso' ELSE 'Terminada' END
+FROM generate_series(1, 100000) g;
+
+INSERT INTO tareasproduccion (id_tarea_produccion, id_orden_produccion, id_empleado, nombre_tarea,
+                              fecha_inicio_tarea, fecha_fin_tarea, estado_tarea)
+SELECT (o - 1) * 3 + k, o, (o * 3 + k) % 200 + 1, 'Tarea ' || k,
+       TIMESTAMP '2020-01-01' + o * INTERVAL '20 minutes',
+       CASE WHEN o > 98000 THEN NULL ELSE TIMESTAMP '2020-01-01' + o * INTERVAL '20 minutes' + INTERVAL '1 hour' END,
+       CASE WHEN o > 98000 THEN 'En Proceso' ELSE 'Completada' END
+FROM generate_series(1, 100000) o, generate_series(1, 3) k;
+
+-- Un cobro por venta y un pago por compra, registrados en el orden de las órdenes.
+INSERT INTO pagoscobros (id_pago_cobro, id_orden_venta, id_orden_compra, tipo_transaccion, fecha_registro_transaccion,
+                         monto_transaccion, estado_transaccion)
+SELECT g,
+       CASE WHEN g <= 200000 THEN g END,
+       CASE WHEN g > 200000 THEN g - 200000 END,
+       CASE WHEN g <= 200000 THEN 'Cobro' ELSE 'Pago' END,
+       TIMESTAMP '2020-01-01' + g * INTERVAL '8 minutes',
+       60, 'Completado'
+FROM generate_series(1, 250000) g;
+
+-- Las secuencias de la V2 deben quedar por encima de los IDs cargados.
+DO $$
+DECLARE
+    t RECORD;
+BEGIN
+    FOR t IN
+        SELECT * FROM (VALUES
+            ('clientes', 'id_cliente'), ('contactoscliente', 'id_contacto'), ('empleados', 'id_empleado'),
+            ('proveedores', 'id_proveedor'), ('productos', 'id_producto'), ('insumos', 'id_insumo'),
+            ('inventarioproductos', 'id_inventario_producto'), ('inventarioinsumos', 'id_inventario_insumo'),
+            ('movimientosinventarioproductos', 'id_movimiento_producto'),
+            ('movimientosinventarioinsumos', 'id_movimiento_insumo'), ('ordenesventa', 'id_orden_venta'),
+            ('detallesordenventa', 'id_detalle_orden'), ('ordenescompra', 'id_orden_compra'),
+            ('detallesordencompra', 'id_detalle_compra'), ('ordenesproduccion', 'id_orden_produccion'),
+            ('tareasproduccion', 'id_tarea_produccion'), ('pagoscobros', 'id_pago_cobro')
+        ) AS v(tabla, columna)
+    LOOP
+        EXECUTE format('SELECT setval(%L, (SELECT MAX(%I) FROM %I) + 1, false)', t.tabla || '_seq', t.columna, t.tabla);
+    END LOOP;
+END $$;
+
+ANALYZE;